@@ -0,0 +1,148 @@
+package teammates.client.scripts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.util.Const;
+import teammates.storage.api.AccountsDb;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.InstructorsDb;
+import teammates.test.driver.GaeSimulation;
+import teammates.ui.controller.ControllerServlet;
+
+import com.meterware.httpunit.GetMethodWebRequest;
+import com.meterware.httpunit.WebRequest;
+import com.meterware.servletunit.InvocationContext;
+import com.meterware.servletunit.ServletRunner;
+import com.meterware.servletunit.ServletUnitClient;
+
+/**
+ * Measures the time from the initialization of {@link ControllerServlet} on a new app instance to
+ * the end of the first request it serves, with and without warming up the actions on initialization.
+ * <br> The first request is for the course stats of an instructor's course, which the instructor
+ * home page requests for every course. Each measurement is made in a new JVM, so that no class is
+ * loaded beforehand. Runs against the local GAE simulation, so no server needs to be up.
+ * <br> The data of the request is created through the storage layer before the servlet is initialized,
+ * so the classes of the storage layer are already loaded in both cases.
+ */
+public class ControllerServletStartupBenchmark {
+
+    private static final int NUMBER_OF_RUNS = 5;
+    private static final String WARM_UP = "warmUp";
+    private static final String NO_WARM_UP = "noWarmUp";
+    private static final String GOOGLE_ID = "CSSB.instructor";
+    private static final String COURSE_ID = "CSSB.course";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            compareStartupTimes();
+        } else {
+            measureStartupTime(WARM_UP.equals(args[0]));
+        }
+    }
+
+    private static void compareStartupTimes() throws IOException, InterruptedException {
+        System.out.println("Servlet initialization and first request (average of " + NUMBER_OF_RUNS + " new JVMs):");
+        for (String mode : new String[] { NO_WARM_UP, WARM_UP }) {
+            long[] totals = new long[2];
+            for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+                String[] times = runInNewJvm(mode).split(" ");
+                totals[0] += Long.parseLong(times[0]);
+                totals[1] += Long.parseLong(times[1]);
+            }
+            System.out.println("    " + (WARM_UP.equals(mode) ? "With warm-up:    " : "Without warm-up: ")
+                               + "initialization " + totals[0] / NUMBER_OF_RUNS + " ms, "
+                               + "first request " + totals[1] / NUMBER_OF_RUNS + " ms, "
+                               + "total " + (totals[0] + totals[1]) / NUMBER_OF_RUNS + " ms");
+        }
+    }
+
+    /**
+     * @return the time taken to initialize the servlet and to serve the first request,
+     *         as printed by the new JVM
+     */
+    private static String runInNewJvm(String mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ControllerServletStartupBenchmark.class.getName());
+        command.add(mode);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), "UTF-8"));
+        String lastLine = null;
+        String line = reader.readLine();
+        while (line != null) {
+            lastLine = line;
+            line = reader.readLine();
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("The measurement failed: " + lastLine);
+        }
+        return lastLine;
+    }
+
+    private static void measureStartupTime(boolean isWarmingUp) throws Exception {
+        GaeSimulation.inst().setup();
+        createCourseOfInstructor();
+        GaeSimulation.inst().loginUser(GOOGLE_ID);
+
+        ServletRunner runner = new ServletRunner();
+        runner.registerServlet("page/*", isWarmingUp ? ControllerServlet.class.getName()
+                                                     : ControllerServletWithoutWarmUp.class.getName());
+        ServletUnitClient client = runner.newClient();
+        WebRequest request =
+                new GetMethodWebRequest("http://localhost:8888" + Const.ActionURIs.INSTRUCTOR_COURSE_STATS_PAGE);
+        request.setParameter(Const.ParamsNames.COURSE_ID, COURSE_ID);
+        request.setParameter(Const.ParamsNames.USER_ID, GOOGLE_ID);
+        InvocationContext invocation = client.newInvocation(request);
+
+        long startTime = System.nanoTime();
+        // the servlet is created and initialized when it is first asked for
+        invocation.getServlet();
+        long initializedTime = System.nanoTime();
+        invocation.service();
+        String response = invocation.getServletResponse().getText();
+        long servedTime = System.nanoTime();
+
+        if (!response.contains(COURSE_ID)) {
+            throw new IllegalStateException("Unexpected response: " + response);
+        }
+        System.out.println((initializedTime - startTime) / 1000000 + " " + (servedTime - initializedTime) / 1000000);
+    }
+
+    private static void createCourseOfInstructor() throws Exception {
+        new AccountsDb().createAccount(new AccountAttributes(GOOGLE_ID, "Instructor", true, "instructor@CSSB.tmt",
+                                                             "CSSB Institute"));
+        new CoursesDb().createEntity(new CourseAttributes(COURSE_ID, "Startup Benchmark", "UTC"));
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        new InstructorsDb().createEntity(new InstructorAttributes(GOOGLE_ID, COURSE_ID, "Instructor",
+                                                                  "instructor@CSSB.tmt", role,
+                                                                  InstructorAttributes.DEFAULT_DISPLAY_NAME,
+                                                                  new InstructorPrivileges(role)));
+    }
+
+    /**
+     * Initializes without warming up, as the servlet did before it warmed up the actions.
+     */
+    @SuppressWarnings("serial")
+    public static class ControllerServletWithoutWarmUp extends ControllerServlet {
+
+        @Override
+        public void init() {
+            // no warm-up
+        }
+
+    }
+
+}
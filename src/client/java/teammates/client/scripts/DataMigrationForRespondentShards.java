@@ -0,0 +1,54 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.exception.EntityDoesNotExistException;
+import teammates.common.exception.InvalidParametersException;
+import teammates.storage.api.FeedbackSessionsDb;
+import teammates.storage.datastore.Datastore;
+
+/**
+ * Moves the respondents kept in feedback session entities by older versions into the
+ * respondent shards of the sessions, and removes them from the session entities.
+ */
+public class DataMigrationForRespondentShards extends RemoteApiClient {
+
+    private boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        DataMigrationForRespondentShards migrator = new DataMigrationForRespondentShards();
+        migrator.doOperationRemotely();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+        FeedbackSessionsDb fsDb = new FeedbackSessionsDb();
+
+        int numberOfSessionsMigrated = 0;
+        for (FeedbackSessionAttributes session : fsDb.getAllFeedbackSessions()) {
+            if (session.getRespondingStudentList().isEmpty() && session.getRespondingInstructorList().isEmpty()) {
+                continue;
+            }
+            numberOfSessionsMigrated++;
+            System.out.println(session.getCourseId() + "/" + session.getFeedbackSessionName() + ": "
+                               + session.getRespondingStudentList().size() + " students, "
+                               + session.getRespondingInstructorList().size() + " instructors");
+            if (isPreview) {
+                continue;
+            }
+            try {
+                fsDb.moveLegacyRespondentsToShards(session);
+            } catch (InvalidParametersException | EntityDoesNotExistException e) {
+                System.out.println("Failed to migrate " + session.getIdentificationString() + ": " + e.getMessage());
+            }
+        }
+
+        System.out.println((isPreview ? "Sessions to be migrated: " : "Sessions migrated: ")
+                           + numberOfSessionsMigrated);
+    }
+
+}
@@ -1,7 +1,10 @@
 package teammates.client.scripts;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
@@ -28,21 +31,33 @@ public class DataMigrationForSearchableComments extends RemoteApiClient {
     protected void doOperation() {
         Datastore.initialize();
 
-        List<InstructorAttributes> allInstructors = getAllInstructors();
-        for (InstructorAttributes instructor : allInstructors) {
-            updateCommentsForInstructor(instructor);
+        // the comments of a course are indexed together, with the roster of the course retrieved once
+        Map<String, List<InstructorAttributes>> instructorsByCourse =
+                new LinkedHashMap<String, List<InstructorAttributes>>();
+        for (InstructorAttributes instructor : getAllInstructors()) {
+            if (!instructorsByCourse.containsKey(instructor.courseId)) {
+                instructorsByCourse.put(instructor.courseId, new ArrayList<InstructorAttributes>());
+            }
+            instructorsByCourse.get(instructor.courseId).add(instructor);
+        }
+        for (List<InstructorAttributes> instructorsInCourse : instructorsByCourse.values()) {
+            updateCommentsForInstructors(instructorsInCourse);
         }
     }
 
-    private void updateCommentsForInstructor(InstructorAttributes instructor) {
-        List<Comment> comments = getCommentEntitiesForInstructor(instructor);
-        for (Comment c : comments) {
-            putCommentToSearchableDocument(new CommentAttributes(c));
-        }
-        List<FeedbackResponseComment> frComments = getFrCommentEntitiesForInstructor(instructor);
-        for (FeedbackResponseComment c : frComments) {
-            putFrCommentToSearchableDocument(new FeedbackResponseCommentAttributes(c));
+    private void updateCommentsForInstructors(List<InstructorAttributes> instructors) {
+        List<CommentAttributes> comments = new ArrayList<CommentAttributes>();
+        List<FeedbackResponseCommentAttributes> frComments = new ArrayList<FeedbackResponseCommentAttributes>();
+        for (InstructorAttributes instructor : instructors) {
+            for (Comment c : getCommentEntitiesForInstructor(instructor)) {
+                comments.add(new CommentAttributes(c));
+            }
+            for (FeedbackResponseComment c : getFrCommentEntitiesForInstructor(instructor)) {
+                frComments.add(new FeedbackResponseCommentAttributes(c));
+            }
         }
+        putCommentsToSearchableDocuments(comments);
+        putFrCommentsToSearchableDocuments(frComments);
         getPm().close();
     }
     
@@ -70,12 +85,12 @@ public class DataMigrationForSearchableComments extends RemoteApiClient {
         return commentList;
     }
     
-    protected void putCommentToSearchableDocument(CommentAttributes comment) {
-        logic.putDocument(comment);
+    protected void putCommentsToSearchableDocuments(List<CommentAttributes> comments) {
+        logic.putCommentDocuments(comments);
     }
     
-    protected void putFrCommentToSearchableDocument(FeedbackResponseCommentAttributes comment) {
-        logic.putDocument(comment);
+    protected void putFrCommentsToSearchableDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        logic.putFeedbackResponseCommentDocuments(comments);
     }
 
     protected PersistenceManager getPm() {
@@ -10,6 +10,9 @@ import teammates.storage.datastore.Datastore;
 
 public class DataMigrationForSearchableInstructors extends RemoteApiClient {
     
+    // the documents of each batch are built with the courses of its instructors retrieved once each
+    private static final int INSTRUCTORS_PER_BATCH = 1000;
+    
     private Logic logic = new Logic();
     
     public static void main(String[] args) throws IOException {
@@ -22,8 +25,9 @@ public class DataMigrationForSearchableInstructors extends RemoteApiClient {
         Datastore.initialize();
 
         List<InstructorAttributes> allInstructors = getAllInstructors();
-        for (InstructorAttributes instructor : allInstructors) {
-            updateDocumentForInstructor(instructor);
+        for (int i = 0; i < allInstructors.size(); i += INSTRUCTORS_PER_BATCH) {
+            updateDocumentsForInstructors(
+                    allInstructors.subList(i, Math.min(i + INSTRUCTORS_PER_BATCH, allInstructors.size())));
         }
     }
 
@@ -33,8 +37,8 @@ public class DataMigrationForSearchableInstructors extends RemoteApiClient {
         return logic.getAllInstructors();
     }
     
-    private void updateDocumentForInstructor(InstructorAttributes instructor) {
-        logic.putDocument(instructor);
+    private void updateDocumentsForInstructors(List<InstructorAttributes> instructors) {
+        logic.putInstructorDocuments(instructors);
     }
 
 }
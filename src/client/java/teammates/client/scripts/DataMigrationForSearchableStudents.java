@@ -10,6 +10,9 @@ import teammates.storage.datastore.Datastore;
 
 public class DataMigrationForSearchableStudents extends RemoteApiClient {
     
+    // the documents of each batch are built with the courses of its students retrieved once each
+    private static final int STUDENTS_PER_BATCH = 1000;
+    
     private Logic logic = new Logic();
     
     public static void main(String[] args) throws IOException {
@@ -22,8 +25,8 @@ public class DataMigrationForSearchableStudents extends RemoteApiClient {
         Datastore.initialize();
 
         List<StudentAttributes> allStudents = getAllStudents();
-        for (StudentAttributes student : allStudents) {
-            updateDocumentForStudent(student);
+        for (int i = 0; i < allStudents.size(); i += STUDENTS_PER_BATCH) {
+            updateDocumentsForStudents(allStudents.subList(i, Math.min(i + STUDENTS_PER_BATCH, allStudents.size())));
         }
     }
     
@@ -32,8 +35,8 @@ public class DataMigrationForSearchableStudents extends RemoteApiClient {
         return logic.getAllStudents();
     }
     
-    private void updateDocumentForStudent(StudentAttributes student) {
-        logic.putDocument(student);
+    private void updateDocumentsForStudents(List<StudentAttributes> students) {
+        logic.putStudentDocuments(students);
     }
 
 }
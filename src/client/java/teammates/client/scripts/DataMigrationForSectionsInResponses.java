@@ -0,0 +1,87 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.Course;
+import teammates.storage.entity.FeedbackResponse;
+
+/**
+ * Fills in the sections field of responses stored before the field was added,
+ * so that section-scoped queries on responses find them.
+ * Responses are processed one course at a time.
+ */
+public class DataMigrationForSectionsInResponses extends RemoteApiClient {
+
+    private boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        DataMigrationForSectionsInResponses migrator = new DataMigrationForSectionsInResponses();
+        migrator.doOperationRemotely();
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        List<String> courseIds = new ArrayList<String>();
+        for (Course course : getAllCourseEntities()) {
+            courseIds.add(course.getUniqueId());
+        }
+
+        int numberOfResponsesMigrated = 0;
+        for (String courseId : courseIds) {
+            numberOfResponsesMigrated += migrateResponsesForCourse(courseId);
+        }
+
+        System.out.println((isPreview ? "Responses to be migrated: " : "Responses migrated: ")
+                           + numberOfResponsesMigrated);
+    }
+
+    private int migrateResponsesForCourse(String courseId) {
+        int numberOfResponsesMigrated = 0;
+        for (FeedbackResponse response : getFeedbackResponseEntitiesForCourse(courseId)) {
+            if (JDOHelper.isDeleted(response) || response.getSections() != null) {
+                continue;
+            }
+            numberOfResponsesMigrated++;
+            if (!isPreview) {
+                response.keepUpdateTimestamp = true;
+                response.updateSections();
+            }
+        }
+
+        if (numberOfResponsesMigrated > 0) {
+            System.out.println("Course " + courseId + ": " + numberOfResponsesMigrated + " responses");
+        }
+        // persists the changes of this course before moving on to the next
+        getPm().close();
+        return numberOfResponsesMigrated;
+    }
+
+    private PersistenceManager getPm() {
+        return Datastore.getPersistenceManager();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Course> getAllCourseEntities() {
+        String query = "select from " + Course.class.getName();
+        return (List<Course>) getPm().newQuery(query).execute();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForCourse(String courseId) {
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+        return (List<FeedbackResponse>) q.execute(courseId);
+    }
+
+}
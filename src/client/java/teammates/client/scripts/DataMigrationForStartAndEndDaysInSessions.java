@@ -0,0 +1,58 @@
+package teammates.client.scripts;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.client.remoteapi.RemoteApiClient;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.FeedbackSession;
+
+/**
+ * Fills in the days sessions start and end on, which sessions saved by older versions do not have,
+ * so that the sessions can be found by {@code FeedbackSessionsDb#getAllOpenFeedbackSessions}.
+ */
+public class DataMigrationForStartAndEndDaysInSessions extends RemoteApiClient {
+
+    private boolean isPreview = true;
+
+    public static void main(String[] args) throws IOException {
+        new DataMigrationForStartAndEndDaysInSessions().doOperationRemotely();
+    }
+
+    @Override
+    protected void doOperation() {
+        Datastore.initialize();
+
+        int numberOfSessionsMigrated = 0;
+        for (FeedbackSession session : getAllFeedbackSessionEntities()) {
+            if (session.getStartAndEndDays() != null) {
+                continue;
+            }
+            numberOfSessionsMigrated++;
+            System.out.println("Start and end days of " + session.getFeedbackSessionName()
+                               + " in course " + session.getCourseId() + " to be set");
+            if (!isPreview) {
+                // setting the start time again also sets the days
+                session.setStartTime(session.getStartTime());
+            }
+        }
+        getPm().close();
+
+        System.out.println((isPreview ? "Sessions to be migrated: " : "Sessions migrated: ")
+                           + numberOfSessionsMigrated);
+    }
+
+    private PersistenceManager getPm() {
+        return Datastore.getPersistenceManager();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSession> getAllFeedbackSessionEntities() {
+        Query q = getPm().newQuery(FeedbackSession.class);
+        return (List<FeedbackSession>) q.execute();
+    }
+
+}
@@ -0,0 +1,156 @@
+package teammates.client.scripts;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.storage.search.EmbeddedSearchBackend;
+import teammates.storage.search.SearchDocumentContext;
+import teammates.storage.search.StudentSearchDocument;
+import teammates.storage.search.StudentSearchQuery;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * Measures how long the {@link EmbeddedSearchBackend} takes to index student documents, to search them
+ * the way the instructor and admin search pages do, and to save and load a snapshot of them.<br>
+ * This is not a test case; run it with the number of students to index as the only argument
+ * (1,000,000 by default) and a heap large enough to hold them, e.g. -Xmx3g.
+ */
+public final class EmbeddedSearchBenchmark {
+
+    private static final int DEFAULT_NUMBER_OF_STUDENTS = 1000000;
+    private static final int STUDENTS_PER_COURSE = 100;
+    private static final int STUDENTS_PER_TEAM = 5;
+    private static final int DOCUMENTS_PER_PUT = 1000;
+    private static final int SEARCH_REPETITIONS = 100;
+
+    private static final String[] GIVEN_NAMES = {
+            "Alice", "Bob", "Charlie", "Dana", "Emma", "Farid", "Grace", "Hiro", "Ivan", "Jia",
+            "Kumar", "Lena", "Mei", "Nadia", "Omar", "Priya", "Quinn", "Ravi", "Siti", "Tom" };
+    private static final String[] FAMILY_NAMES = {
+            "Tan", "Lee", "Wong", "Lim", "Ng", "Smith", "Garcia", "Kim", "Singh", "Chen",
+            "Nguyen", "Ali", "Brown", "Ito", "Kowalski", "Silva", "Haddad", "Okafor", "Rossi", "Meyer" };
+
+    private EmbeddedSearchBenchmark() {
+        // not meant to be instantiated
+    }
+
+    public static void main(String[] args) throws IOException {
+        int numberOfStudents = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_NUMBER_OF_STUDENTS;
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+
+        long startTime = System.nanoTime();
+        List<Document> batch = new ArrayList<Document>(DOCUMENTS_PER_PUT);
+        for (int i = 0; i < numberOfStudents; i++) {
+            batch.add(createStudentDocument(i));
+            if (batch.size() == DOCUMENTS_PER_PUT) {
+                backend.putDocuments(Const.SearchIndex.STUDENT, batch);
+                batch.clear();
+            }
+        }
+        backend.putDocuments(Const.SearchIndex.STUDENT, batch);
+        long indexingMillis = (System.nanoTime() - startTime) / 1000000;
+        print(String.format("Indexed %,d students in %,d ms (%,d documents/s); %,d MB of heap used",
+                            backend.getIndexSize(Const.SearchIndex.STUDENT), indexingMillis,
+                            numberOfStudents * 1000L / Math.max(1, indexingMillis), getUsedHeapMegabytes()));
+
+        List<InstructorAttributes> instructorOfThreeCourses = Arrays.asList(
+                createInstructor(0), createInstructor(1), createInstructor(2));
+        benchmarkSearch(backend, "instructor, common name",
+                        new StudentSearchQuery(instructorOfThreeCourses, "alice", "").toQuery());
+        benchmarkSearch(backend, "instructor, team",
+                        new StudentSearchQuery(instructorOfThreeCourses, "\"team 3\"", "").toQuery());
+        benchmarkSearch(backend, "admin, email",
+                        new StudentSearchQuery(getEmail(numberOfStudents / 2), "").toQuery());
+        benchmarkSearch(backend, "admin, common name",
+                        new StudentSearchQuery("alice", "").toQuery());
+        benchmarkSearch(backend, "admin, two common names",
+                        new StudentSearchQuery("alice tan", "").toQuery());
+
+        File snapshotFile = File.createTempFile("searchIndexSnapshot", ".bin");
+        try {
+            startTime = System.nanoTime();
+            backend.saveSnapshot(snapshotFile.getPath());
+            print(String.format("Saved a snapshot of %,d KB in %,d ms", snapshotFile.length() / 1024,
+                                (System.nanoTime() - startTime) / 1000000));
+
+            backend = null;
+            startTime = System.nanoTime();
+            EmbeddedSearchBackend restoredBackend = new EmbeddedSearchBackend();
+            restoredBackend.loadSnapshot(snapshotFile.getPath());
+            print(String.format("Loaded %,d students from the snapshot in %,d ms",
+                                restoredBackend.getIndexSize(Const.SearchIndex.STUDENT),
+                                (System.nanoTime() - startTime) / 1000000));
+        } finally {
+            snapshotFile.delete();
+        }
+    }
+
+    private static void benchmarkSearch(EmbeddedSearchBackend backend, String description, Query query) {
+        Results<ScoredDocument> results = null;
+        // the first searches warm up the JIT compiler and are not measured
+        for (int i = 0; i < SEARCH_REPETITIONS; i++) {
+            results = backend.searchDocuments(Const.SearchIndex.STUDENT, query);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < SEARCH_REPETITIONS; i++) {
+            results = backend.searchDocuments(Const.SearchIndex.STUDENT, query);
+        }
+        long microsPerSearch = (System.nanoTime() - startTime) / 1000 / SEARCH_REPETITIONS;
+        print(String.format("Search (%s): %,d found, %d returned, %,d us per search",
+                            description, results.getNumberFound(), results.getNumberReturned(), microsPerSearch));
+    }
+
+    private static Document createStudentDocument(int index) {
+        int courseIndex = index / STUDENTS_PER_COURSE;
+        int indexInCourse = index % STUDENTS_PER_COURSE;
+        String name = GIVEN_NAMES[index % GIVEN_NAMES.length] + " "
+                      + FAMILY_NAMES[index / GIVEN_NAMES.length % FAMILY_NAMES.length];
+        StudentAttributes student = new StudentAttributes("Section " + (indexInCourse / 50 + 1),
+                                                          "Team " + (indexInCourse / STUDENTS_PER_TEAM + 1),
+                                                          name, getEmail(index), "", getCourseId(courseIndex));
+        student.key = "studentKey" + index;
+        CourseAttributes course = new CourseAttributes(getCourseId(courseIndex), "Course " + courseIndex, "UTC");
+        SearchDocumentContext context = new SearchDocumentContext();
+        context.addCourse(course);
+        return new StudentSearchDocument(student, context).build();
+    }
+
+    private static InstructorAttributes createInstructor(int courseIndex) {
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        return new InstructorAttributes("benchmark.instructor", getCourseId(courseIndex), "Instructor",
+                                        "benchmark.instructor@gmail.tmt", role, InstructorAttributes.DEFAULT_DISPLAY_NAME,
+                                        new InstructorPrivileges(role));
+    }
+
+    private static String getCourseId(int courseIndex) {
+        return "BENCH.CS" + courseIndex;
+    }
+
+    private static String getEmail(int index) {
+        return "student" + index + "@gmail.tmt";
+    }
+
+    private static long getUsedHeapMegabytes() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024;
+    }
+
+    private static void print(String message) {
+        System.out.println(message);
+    }
+}
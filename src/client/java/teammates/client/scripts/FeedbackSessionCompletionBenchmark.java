@@ -0,0 +1,207 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackQuestionType;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.test.driver.GaeSimulation;
+import teammates.test.driver.TestProperties;
+import teammates.test.util.FileHelper;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Compares the time taken to find the students who have not fully completed a session
+ * by checking the students one at a time, against using the bulk completion status
+ * of the session, on a session of 1000 students and 10 questions.
+ * <br> Runs against the local GAE simulation, so no server needs to be up.
+ */
+public class FeedbackSessionCompletionBenchmark {
+
+    private static final int NUMBER_OF_STUDENTS = 1000;
+    private static final int TEAM_SIZE = 5;
+    private static final String COURSE_ID = "FSCB.course";
+    private static final String SESSION_NAME = "Benchmark session";
+    private static final String INSTRUCTOR_EMAIL = "instructor@FSCB.tmt";
+
+    private static final FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+
+    private DataBundle dataBundle;
+
+    public static void main(String[] args) throws Exception {
+        GaeSimulation.inst().setup();
+        new FeedbackSessionCompletionBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        DataBundle typicalBundle = JsonUtils.fromJson(
+                FileHelper.readFile(TestProperties.TEST_DATA_FOLDER + "/typicalDataBundle.json"), DataBundle.class);
+        dataBundle = new DataBundle();
+        addCourseAndSession(typicalBundle.feedbackSessions.get("session1InCourse1"));
+        addQuestions(typicalBundle.feedbackQuestions.get("qn1InSession1InCourse1"));
+        addResponses();
+
+        long startTime = System.currentTimeMillis();
+        new BackDoorLogic().persistDataBundle(dataBundle);
+        System.out.println("Persisted " + dataBundle.students.size() + " students, "
+                           + dataBundle.feedbackQuestions.size() + " questions and "
+                           + dataBundle.feedbackResponses.size() + " responses in "
+                           + (System.currentTimeMillis() - startTime) + " ms");
+
+        FeedbackSessionAttributes session = fsLogic.getFeedbackSession(SESSION_NAME, COURSE_ID);
+
+        // warm up both paths once, so that the timed runs are comparable
+        getStudentsYetToCompleteOneByOne(session);
+        fsLogic.getFeedbackSessionCompletionStatus(session).getStudentsYetToFullyComplete();
+
+        startTime = System.currentTimeMillis();
+        List<StudentAttributes> studentsFoundOneByOne = getStudentsYetToCompleteOneByOne(session);
+        long timeTakenOneByOne = System.currentTimeMillis() - startTime;
+
+        startTime = System.currentTimeMillis();
+        List<StudentAttributes> studentsFoundInBulk =
+                fsLogic.getFeedbackSessionCompletionStatus(session).getStudentsYetToFullyComplete();
+        long timeTakenInBulk = System.currentTimeMillis() - startTime;
+
+        System.out.println("Students yet to complete: " + studentsFoundOneByOne.size() + " (one by one), "
+                           + studentsFoundInBulk.size() + " (bulk)");
+        System.out.println("Checking students one by one: " + timeTakenOneByOne + " ms");
+        System.out.println("Bulk completion status: " + timeTakenInBulk + " ms");
+
+        if (!getEmails(studentsFoundOneByOne).equals(getEmails(studentsFoundInBulk))) {
+            System.out.println("ERROR: the two ways do not agree on the students yet to complete");
+        }
+    }
+
+    private List<StudentAttributes> getStudentsYetToCompleteOneByOne(FeedbackSessionAttributes session)
+            throws Exception {
+        List<StudentAttributes> studentsYetToComplete = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            if (!fsLogic.isFeedbackSessionFullyCompletedByStudent(SESSION_NAME, COURSE_ID, student.email)) {
+                studentsYetToComplete.add(student);
+            }
+        }
+        return studentsYetToComplete;
+    }
+
+    private void addCourseAndSession(FeedbackSessionAttributes sessionTemplate) {
+        dataBundle.courses.put("course", new CourseAttributes(COURSE_ID, "Completion Benchmark", "UTC"));
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        dataBundle.instructors.put("instructor",
+                new InstructorAttributes(null, COURSE_ID, "Instructor", INSTRUCTOR_EMAIL, role,
+                                         InstructorAttributes.DEFAULT_DISPLAY_NAME, new InstructorPrivileges(role)));
+        for (int i = 0; i < NUMBER_OF_STUDENTS; i++) {
+            dataBundle.students.put("student" + i,
+                    new StudentAttributes("Section " + i / 100, getTeam(i), "Student " + i, getEmail(i),
+                                          "", COURSE_ID));
+        }
+
+        FeedbackSessionAttributes session =
+                JsonUtils.fromJson(JsonUtils.toJson(sessionTemplate), FeedbackSessionAttributes.class);
+        session.setFeedbackSessionName(SESSION_NAME);
+        session.setCourseId(COURSE_ID);
+        session.setCreatorEmail(INSTRUCTOR_EMAIL);
+        dataBundle.feedbackSessions.put("session", session);
+    }
+
+    private void addQuestions(FeedbackQuestionAttributes questionTemplate) {
+        addQuestion(questionTemplate, 1, FeedbackParticipantType.STUDENTS, FeedbackParticipantType.SELF, 1);
+        addQuestion(questionTemplate, 2, FeedbackParticipantType.STUDENTS,
+                    FeedbackParticipantType.OWN_TEAM_MEMBERS, Const.MAX_POSSIBLE_RECIPIENTS);
+        addQuestion(questionTemplate, 3, FeedbackParticipantType.STUDENTS,
+                    FeedbackParticipantType.OWN_TEAM_MEMBERS_INCLUDING_SELF, Const.MAX_POSSIBLE_RECIPIENTS);
+        addQuestion(questionTemplate, 4, FeedbackParticipantType.STUDENTS, FeedbackParticipantType.NONE, 1);
+        addQuestion(questionTemplate, 5, FeedbackParticipantType.STUDENTS, FeedbackParticipantType.STUDENTS, 1);
+        addQuestion(questionTemplate, 6, FeedbackParticipantType.STUDENTS,
+                    FeedbackParticipantType.INSTRUCTORS, Const.MAX_POSSIBLE_RECIPIENTS);
+        addQuestion(questionTemplate, 7, FeedbackParticipantType.TEAMS, FeedbackParticipantType.TEAMS, 2);
+        addQuestion(questionTemplate, 8, FeedbackParticipantType.TEAMS, FeedbackParticipantType.SELF, 1);
+        addQuestion(questionTemplate, 9, FeedbackParticipantType.STUDENTS, FeedbackParticipantType.SELF, 1);
+        addQuestion(questionTemplate, 10, FeedbackParticipantType.INSTRUCTORS,
+                    FeedbackParticipantType.STUDENTS, 1);
+    }
+
+    private void addQuestion(FeedbackQuestionAttributes questionTemplate, int questionNumber,
+                             FeedbackParticipantType giverType, FeedbackParticipantType recipientType,
+                             int numberOfEntitiesToGiveFeedbackTo) {
+        FeedbackQuestionAttributes question =
+                JsonUtils.fromJson(JsonUtils.toJson(questionTemplate), FeedbackQuestionAttributes.class);
+        question.feedbackSessionName = SESSION_NAME;
+        question.courseId = COURSE_ID;
+        question.creatorEmail = INSTRUCTOR_EMAIL;
+        question.questionNumber = questionNumber;
+        question.giverType = giverType;
+        question.recipientType = recipientType;
+        question.numberOfEntitiesToGiveFeedbackTo = numberOfEntitiesToGiveFeedbackTo;
+        dataBundle.feedbackQuestions.put("question" + questionNumber, question);
+    }
+
+    /**
+     * Every third student gives no responses, the rest answer every student question fully.
+     */
+    private void addResponses() {
+        for (int i = 0; i < NUMBER_OF_STUDENTS; i++) {
+            if (i % 3 == 0) {
+                continue;
+            }
+            String email = getEmail(i);
+            String team = getTeam(i);
+            int firstInTeam = i - i % TEAM_SIZE;
+
+            addResponse(1, i, email);
+            for (int j = firstInTeam; j < firstInTeam + TEAM_SIZE; j++) {
+                if (j != i) {
+                    addResponse(2, i, getEmail(j));
+                }
+                addResponse(3, i, getEmail(j));
+            }
+            addResponse(4, i, Const.GENERAL_QUESTION);
+            addResponse(5, i, getEmail((i + 1) % NUMBER_OF_STUDENTS));
+            addResponse(6, i, INSTRUCTOR_EMAIL);
+            addResponse(7, i, getTeam(i + TEAM_SIZE));
+            addResponse(7, i, getTeam(i + 2 * TEAM_SIZE));
+            addResponse(8, i, team);
+            addResponse(9, i, email);
+        }
+    }
+
+    private void addResponse(int questionNumber, int giverIndex, String recipient) {
+        FeedbackResponseAttributes response = new FeedbackResponseAttributes(
+                SESSION_NAME, COURSE_ID, String.valueOf(questionNumber), FeedbackQuestionType.TEXT,
+                getEmail(giverIndex), "Section " + giverIndex / 100, recipient, Const.DEFAULT_SECTION,
+                new Text("Response " + questionNumber + " by student " + giverIndex));
+        dataBundle.feedbackResponses.put("response" + dataBundle.feedbackResponses.size(), response);
+    }
+
+    private static String getEmail(int studentIndex) {
+        return "student" + studentIndex + "@FSCB.tmt";
+    }
+
+    private static String getTeam(int studentIndex) {
+        return "Team " + studentIndex % NUMBER_OF_STUDENTS / TEAM_SIZE;
+    }
+
+    private static Set<String> getEmails(List<StudentAttributes> students) {
+        Set<String> emails = new HashSet<String>();
+        for (StudentAttributes student : students) {
+            emails.add(student.email);
+        }
+        return emails;
+    }
+
+}
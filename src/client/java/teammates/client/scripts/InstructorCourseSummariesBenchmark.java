@@ -0,0 +1,118 @@
+package teammates.client.scripts;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.logic.backdoor.BackDoorLogic;
+import teammates.logic.core.CourseRosterCache;
+import teammates.logic.core.CoursesLogic;
+import teammates.logic.core.InProcessCourseRosterCache;
+import teammates.logic.core.NoCourseRosterCache;
+import teammates.test.driver.GaeSimulation;
+
+/**
+ * Compares the time taken to get the summaries of the courses of an instructor of 25 courses
+ * of 100 students each, by reading the students of one course at a time, against reading the
+ * rosters of the courses concurrently. The time taken to get the rosters from a warm cache is also shown.
+ * <br> Runs against the local GAE simulation, so no server needs to be up. The simulated datastore
+ * runs in this process and does not wait on the network, so the gain here is smaller than on App Engine.
+ */
+public class InstructorCourseSummariesBenchmark {
+
+    private static final int NUMBER_OF_COURSES = 25;
+    private static final int NUMBER_OF_STUDENTS_PER_COURSE = 100;
+    private static final int NUMBER_OF_RUNS = 5;
+    private static final String GOOGLE_ID = "ICSB.instructor";
+
+    private static final CoursesLogic coursesLogic = CoursesLogic.inst();
+
+    public static void main(String[] args) throws Exception {
+        GaeSimulation.inst().setup();
+        new InstructorCourseSummariesBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        DataBundle dataBundle = createDataBundle();
+        new BackDoorLogic().persistDataBundle(dataBundle);
+        List<CourseAttributes> courses = new ArrayList<CourseAttributes>(dataBundle.courses.values());
+        List<String> courseIds = new ArrayList<String>();
+        for (CourseAttributes course : courses) {
+            courseIds.add(course.getId());
+        }
+
+        // warm up both ways once, so that the timed runs are comparable
+        Map<String, CourseDetailsBundle> expected = getCourseSummariesOneAtATime(courses);
+        Map<String, CourseDetailsBundle> actual = coursesLogic.getCourseSummariesForInstructor(GOOGLE_ID, false);
+        for (String courseId : courseIds) {
+            if (expected.get(courseId).stats.studentsTotal != actual.get(courseId).stats.studentsTotal
+                    || expected.get(courseId).stats.teamsTotal != actual.get(courseId).stats.teamsTotal) {
+                System.out.println("ERROR: the two ways do not agree on the summary of " + courseId);
+            }
+        }
+
+        System.out.println("Summaries of " + NUMBER_OF_COURSES + " courses of " + NUMBER_OF_STUDENTS_PER_COURSE
+                           + " students (" + NUMBER_OF_RUNS + " runs):");
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            getCourseSummariesOneAtATime(courses);
+        }
+        System.out.println("    One course at a time: " + (System.currentTimeMillis() - startTime) + " ms");
+
+        // nothing is cached with the default roster cache of "app.rostercache ="
+        startTime = System.currentTimeMillis();
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            coursesLogic.getCourseSummariesForInstructor(GOOGLE_ID, false);
+        }
+        System.out.println("    Rosters read concurrently: " + (System.currentTimeMillis() - startTime) + " ms");
+
+        System.out.println("Rosters of the courses (" + NUMBER_OF_RUNS + " runs):");
+        timeGetCourseRosters("Nothing cached", new NoCourseRosterCache(), courseIds);
+        CourseRosterCache cache = new InProcessCourseRosterCache();
+        cache.getCourseRosters(courseIds);
+        timeGetCourseRosters("All cached", cache, courseIds);
+    }
+
+    private Map<String, CourseDetailsBundle> getCourseSummariesOneAtATime(List<CourseAttributes> courses) {
+        Map<String, CourseDetailsBundle> courseSummaries = new HashMap<String, CourseDetailsBundle>();
+        for (CourseAttributes course : courses) {
+            courseSummaries.put(course.getId(), coursesLogic.getCourseSummary(course));
+        }
+        return courseSummaries;
+    }
+
+    private void timeGetCourseRosters(String name, CourseRosterCache cache, List<String> courseIds) {
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            cache.getCourseRosters(courseIds);
+        }
+        System.out.println("    " + name + ": " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    private DataBundle createDataBundle() {
+        DataBundle dataBundle = new DataBundle();
+        for (int i = 0; i < NUMBER_OF_COURSES; i++) {
+            String courseId = "ICSB.course" + i;
+            dataBundle.courses.put(courseId, new CourseAttributes(courseId, "Summaries Benchmark " + i, "UTC"));
+            String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+            dataBundle.instructors.put("instructor" + i,
+                    new InstructorAttributes(GOOGLE_ID, courseId, "Instructor", "instructor@ICSB.tmt", role,
+                                             InstructorAttributes.DEFAULT_DISPLAY_NAME, new InstructorPrivileges(role)));
+            for (int j = 0; j < NUMBER_OF_STUDENTS_PER_COURSE; j++) {
+                dataBundle.students.put("student" + j + "In" + courseId,
+                        new StudentAttributes("Section " + j / 50, "Team " + j / 5, "Student " + j,
+                                              "student" + j + "@ICSB.tmt", "", courseId));
+            }
+        }
+        return dataBundle;
+    }
+
+}
@@ -0,0 +1,146 @@
+package teammates.client.scripts;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import teammates.common.datatransfer.FeedbackContributionResponseDetails;
+import teammates.common.datatransfer.FeedbackMcqResponseDetails;
+import teammates.common.datatransfer.FeedbackNumericalScaleResponseDetails;
+import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Compares the time and memory taken by JSON conversions when a new Gson is built for every call,
+ * as {@link JsonUtils} used to do, against using the Gson instances it now shares across calls.
+ * The workload is what a results page with 10,000 responses does: parsing the details of each
+ * response and the privileges of its giver, and serializing the details again for the page.
+ * <br> Only {@link JsonUtils} is used, so neither a server nor the GAE simulation is needed.
+ * The memory is measured with the thread allocation counters of HotSpot JVMs.
+ */
+public class JsonUtilsBenchmark {
+
+    private static final int NUMBER_OF_RESPONSES = 10000;
+    private static final int NUMBER_OF_RUNS = 10;
+
+    private abstract static class Converter {
+        private final String name;
+
+        Converter(String name) {
+            this.name = name;
+        }
+
+        abstract <T> T fromJson(String json, Type typeOfT);
+
+        abstract String toJson(Object src);
+    }
+
+    private static final Converter NEW_GSON_PER_CALL = new Converter("New Gson per call") {
+        @Override
+        <T> T fromJson(String json, Type typeOfT) {
+            return createTeammatesGsonBuilder().create().fromJson(json, typeOfT);
+        }
+
+        @Override
+        String toJson(Object src) {
+            return createTeammatesGsonBuilder().create().toJson(src);
+        }
+    };
+
+    private static final Converter SHARED_GSON = new Converter("Shared Gson") {
+        @Override
+        <T> T fromJson(String json, Type typeOfT) {
+            return JsonUtils.fromJson(json, typeOfT);
+        }
+
+        @Override
+        String toJson(Object src) {
+            return JsonUtils.toCompactJson(src);
+        }
+    };
+
+    private final List<String> responseDetailsJson = new ArrayList<String>();
+    private final List<Class<? extends FeedbackResponseDetails>> responseDetailsClasses =
+            new ArrayList<Class<? extends FeedbackResponseDetails>>();
+    private final String instructorPrivilegesJson = JsonUtils.toCompactJson(
+            new InstructorPrivileges(Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER));
+
+    public static void main(String[] args) {
+        new JsonUtilsBenchmark().run();
+    }
+
+    /**
+     * The Gson builder that JsonUtils used to set up for every call.
+     */
+    private static GsonBuilder createTeammatesGsonBuilder() {
+        return new GsonBuilder().setDateFormat(DateFormat.FULL)
+                                .setDateFormat(Const.SystemParams.DEFAULT_DATE_TIME_FORMAT)
+                                .disableHtmlEscaping();
+    }
+
+    private void run() {
+        for (int i = 0; i < NUMBER_OF_RESPONSES; i++) {
+            FeedbackResponseDetails details;
+            switch (i % 3) {
+            case 0:
+                details = new FeedbackMcqResponseDetails();
+                break;
+            case 1:
+                details = new FeedbackContributionResponseDetails(i % 200);
+                break;
+            default:
+                details = new FeedbackNumericalScaleResponseDetails();
+                break;
+            }
+            responseDetailsJson.add(JsonUtils.toCompactJson(details));
+            responseDetailsClasses.add(details.getClass());
+        }
+
+        // warm up both ways once, so that the timed runs are comparable
+        List<String> expected = convertResults(NEW_GSON_PER_CALL);
+        if (!expected.equals(convertResults(SHARED_GSON))) {
+            System.out.println("ERROR: the two ways do not agree on the converted JSON");
+        }
+
+        int callsPerRun = NUMBER_OF_RESPONSES * 3;
+        System.out.println("Results page with " + NUMBER_OF_RESPONSES + " responses, " + callsPerRun
+                           + " conversions per run (" + NUMBER_OF_RUNS + " runs):");
+        for (Converter converter : new Converter[] { NEW_GSON_PER_CALL, SHARED_GSON }) {
+            long startBytes = getAllocatedBytes();
+            long startTime = System.nanoTime();
+            for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+                convertResults(converter);
+            }
+            long timeTakenNanos = System.nanoTime() - startTime;
+            long allocatedBytes = getAllocatedBytes() - startBytes;
+            long calls = (long) callsPerRun * NUMBER_OF_RUNS;
+            System.out.println("    " + converter.name + ": " + timeTakenNanos / 1000000 / NUMBER_OF_RUNS
+                               + " ms per run, " + timeTakenNanos / calls + " ns and "
+                               + allocatedBytes / calls + " bytes allocated per call");
+        }
+    }
+
+    private List<String> convertResults(Converter converter) {
+        List<String> convertedResponses = new ArrayList<String>();
+        for (int i = 0; i < NUMBER_OF_RESPONSES; i++) {
+            FeedbackResponseDetails details =
+                    converter.fromJson(responseDetailsJson.get(i), responseDetailsClasses.get(i));
+            InstructorPrivileges privileges = converter.fromJson(instructorPrivilegesJson, InstructorPrivileges.class);
+            convertedResponses.add(converter.toJson(details) + privileges.getCourseLevelPrivileges().size());
+        }
+        return convertedResponses;
+    }
+
+    private static long getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
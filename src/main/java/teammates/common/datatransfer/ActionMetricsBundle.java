@@ -0,0 +1,54 @@
+package teammates.common.datatransfer;
+
+import java.util.Map;
+
+/**
+ * Represents the metrics of the requests handled by one type of action.
+ * <br> Contains:
+ * <br> * The number of requests and their latency percentiles, in milliseconds. Failed requests are included.
+ * <br> * The number of failed requests, by what they failed with.
+ * <br> * The total number of datastore queries, entities read, JSON parses and emails enqueued
+ *        by the requests.
+ */
+public class ActionMetricsBundle {
+    public String actionName;
+    public long requestCount;
+    public long latencyP50;
+    public long latencyP95;
+    public long latencyP99;
+    public long latencyMax;
+    public long queriesTotal;
+    public long entitiesReadTotal;
+    public long jsonParsesTotal;
+    public long emailsEnqueuedTotal;
+    public Map<String, Long> failureCounts;
+
+    public String getActionName() {
+        return actionName;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return the number of requests that failed, or 0 for snapshots saved before failures were recorded
+     */
+    public long getFailedRequestCount() {
+        long failedRequestCount = 0;
+        if (failureCounts != null) {
+            for (long failureCount : failureCounts.values()) {
+                failedRequestCount += failureCount;
+            }
+        }
+        return failedRequestCount;
+    }
+
+    public double getQueriesPerRequest() {
+        return requestCount == 0 ? 0 : (double) queriesTotal / requestCount;
+    }
+
+    public double getEntitiesReadPerRequest() {
+        return requestCount == 0 ? 0 : (double) entitiesReadTotal / requestCount;
+    }
+}
@@ -2,22 +2,30 @@ package teammates.common.datatransfer;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import teammates.common.util.Const;
 
 /**
  * Contains a list of students and instructors in a course. Useful for caching
  * a copy of student and instructor details of a course instead of reading
  * them from the database multiple times.
+ * <br> The students are also indexed by team, and the teams by section, when the roster is created.
  */
 public class CourseRoster {
     
     Map<String, StudentAttributes> studentListByEmail = new HashMap<String, StudentAttributes>();
     Map<String, InstructorAttributes> instructorListByEmail = new HashMap<String, InstructorAttributes>();
+    Map<String, List<StudentAttributes>> studentListByTeam = new HashMap<String, List<StudentAttributes>>();
+    Map<String, Set<String>> teamNamesBySection = new HashMap<String, Set<String>>();
     
     public CourseRoster(List<StudentAttributes> students, List<InstructorAttributes> instructors) {
         populateStuentListByEmail(students);
         populateInstructorListByEmail(instructors);
+        populateTeamIndexes();
     }
     
     public List<StudentAttributes> getStudents() {
@@ -61,6 +69,44 @@ public class CourseRoster {
         return instructorListByEmail.get(email);
     }
     
+    /**
+     * @return the names of all teams that have students in the course
+     */
+    public Set<String> getTeamNames() {
+        return new HashSet<String>(studentListByTeam.keySet());
+    }
+    
+    /**
+     * @return the students in the team, or an empty list if there is no such team
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName) {
+        List<StudentAttributes> students = studentListByTeam.get(teamName);
+        return students == null ? new ArrayList<StudentAttributes>() : new ArrayList<StudentAttributes>(students);
+    }
+    
+    /**
+     * @return the section of the students in the team, or the default section if there is no such team
+     */
+    public String getSectionForTeam(String teamName) {
+        List<StudentAttributes> students = studentListByTeam.get(teamName);
+        return students == null ? Const.DEFAULT_SECTION : students.get(0).section;
+    }
+    
+    /**
+     * @return the names of the sections that have students in the course
+     */
+    public Set<String> getSectionNames() {
+        return new HashSet<String>(teamNamesBySection.keySet());
+    }
+    
+    /**
+     * @return the names of the teams in the section, or an empty set if there is no such section
+     */
+    public Set<String> getTeamNamesForSection(String sectionName) {
+        Set<String> teamNames = teamNamesBySection.get(sectionName);
+        return teamNames == null ? new HashSet<String>() : new HashSet<String>(teamNames);
+    }
+    
     private void populateStuentListByEmail(List<StudentAttributes> students) {
         
         if (students == null) {
@@ -82,5 +128,23 @@ public class CourseRoster {
             instructorListByEmail.put(i.email, i);
         }
     }
+    
+    private void populateTeamIndexes() {
+        for (StudentAttributes s : studentListByEmail.values()) {
+            List<StudentAttributes> teamMembers = studentListByTeam.get(s.team);
+            if (teamMembers == null) {
+                teamMembers = new ArrayList<StudentAttributes>();
+                studentListByTeam.put(s.team, teamMembers);
+            }
+            teamMembers.add(s);
+            
+            Set<String> teamNames = teamNamesBySection.get(s.section);
+            if (teamNames == null) {
+                teamNames = new HashSet<String>();
+                teamNamesBySection.put(s.section, teamNames);
+            }
+            teamNames.add(s.team);
+        }
+    }
 
 }
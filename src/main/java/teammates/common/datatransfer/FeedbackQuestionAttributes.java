@@ -38,6 +38,14 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
     protected transient Date updatedAt;
     private String feedbackQuestionId;
 
+    /**
+     * Parsed form of {@code questionMetaData}, reused until {@code questionMetaData}
+     * or {@code questionType} is replaced.
+     */
+    private transient FeedbackQuestionDetails questionDetailsCache;
+    private transient Text questionMetaDataOfCache;
+    private transient FeedbackQuestionType questionTypeOfCache;
+
     public FeedbackQuestionAttributes() {
         // attributes to be set after construction
     }
@@ -561,15 +569,30 @@ public class FeedbackQuestionAttributes extends EntityAttributes implements Comp
      * @param questionDetails
      */
     public void setQuestionDetails(FeedbackQuestionDetails questionDetails) {
-        questionMetaData = new Text(JsonUtils.toJson(questionDetails, getFeedbackQuestionDetailsClass()));
+        questionMetaData = new Text(JsonUtils.toCompactJson(questionDetails, getFeedbackQuestionDetailsClass()));
+        questionDetailsCache = null;
     }
 
     /** 
-     * This method retrieves the Feedback*QuestionDetails object for this question
+     * This method retrieves the Feedback*QuestionDetails object for this question.
+     * The JSON in {@code questionMetaData} is parsed only on the first call; later calls
+     * return the same object until {@code questionMetaData} or {@code questionType} changes.
+     * Callers that modify the returned object must save it back with {@link #setQuestionDetails}.
      * 
      * @return The Feedback*QuestionDetails object representing the question's details
      */
     public FeedbackQuestionDetails getQuestionDetails() {
+        if (questionDetailsCache == null
+                || questionMetaDataOfCache != questionMetaData
+                || questionTypeOfCache != questionType) {
+            questionDetailsCache = parseQuestionDetails();
+            questionMetaDataOfCache = questionMetaData;
+            questionTypeOfCache = questionType;
+        }
+        return questionDetailsCache;
+    }
+
+    private FeedbackQuestionDetails parseQuestionDetails() {
         final String questionMetaDataValue = questionMetaData.getValue();
         // For old Text questions, the questionText simply contains the question, not a JSON
         if (questionType == FeedbackQuestionType.TEXT && !isValidJsonString(questionMetaDataValue)) {
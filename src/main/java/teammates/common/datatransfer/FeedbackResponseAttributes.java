@@ -42,6 +42,14 @@ public class FeedbackResponseAttributes extends EntityAttributes {
     protected transient Date updatedAt;
     private String feedbackResponseId;
     
+    /**
+     * Parsed form of {@code responseMetaData}, reused until {@code responseMetaData}
+     * or {@code feedbackQuestionType} is replaced.
+     */
+    private transient FeedbackResponseDetails responseDetailsCache;
+    private transient Text responseMetaDataOfCache;
+    private transient FeedbackQuestionType feedbackQuestionTypeOfCache;
+    
     public FeedbackResponseAttributes() {
         // attributes to be set after construction
     }
@@ -186,11 +194,15 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             // This is due to legacy data in the data store before there were multiple question types
             responseMetaData = new Text(responseDetails.getAnswerString());
         } else {
-            responseMetaData = new Text(JsonUtils.toJson(responseDetails, getFeedbackResponseDetailsClass()));
+            responseMetaData = new Text(JsonUtils.toCompactJson(responseDetails, getFeedbackResponseDetailsClass()));
         }
+        responseDetailsCache = null;
     }
     
-    /** This method retrieves the Feedback*ResponseDetails object for this response
+    /** This method retrieves the Feedback*ResponseDetails object for this response.
+     * The JSON in {@code responseMetaData} is parsed only on the first call; later calls
+     * return the same object until {@code responseMetaData} or {@code feedbackQuestionType} changes.
+     * Callers that modify the returned object must save it back with {@link #setResponseDetails}.
      * @return The Feedback*ResponseDetails object representing the response's details
      */
     public FeedbackResponseDetails getResponseDetails() {
@@ -199,6 +211,17 @@ public class FeedbackResponseAttributes extends EntityAttributes {
             return null;
         }
         
+        if (responseDetailsCache == null
+                || responseMetaDataOfCache != responseMetaData
+                || feedbackQuestionTypeOfCache != feedbackQuestionType) {
+            responseDetailsCache = parseResponseDetails();
+            responseMetaDataOfCache = responseMetaData;
+            feedbackQuestionTypeOfCache = feedbackQuestionType;
+        }
+        return responseDetailsCache;
+    }
+    
+    private FeedbackResponseDetails parseResponseDetails() {
         Class<? extends FeedbackResponseDetails> responseDetailsClass = getFeedbackResponseDetailsClass();
         
         if (responseDetailsClass == FeedbackTextResponseDetails.class) {
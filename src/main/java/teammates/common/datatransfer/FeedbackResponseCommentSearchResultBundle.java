@@ -70,15 +70,45 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
         
         cursor = results.getCursor();
         List<ScoredDocument> filteredResults = filterOutCourseId(results, instructors);
+        
+        List<SearchHit> hits = new ArrayList<SearchHit>();
         for (ScoredDocument doc : filteredResults) {
-            //get FeedbackResponseComment from results
-            FeedbackResponseCommentAttributes comment = JsonUtils.fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_ATTRIBUTE).getText(),
-                    FeedbackResponseCommentAttributes.class);
-            if (frcLogic.getFeedbackResponseComment(comment.getId()) == null) {
-                frcLogic.deleteDocument(comment);
+            hits.add(new SearchHit(doc));
+        }
+        
+        // documents whose comment, response, question or session no longer exists are stale;
+        // they are found with one batched get per kind of entity for all the hits together
+        List<Long> staleCommentIds = new ArrayList<Long>();
+        Set<Long> commentIds = new HashSet<Long>();
+        Set<String> responseIds = new HashSet<String>();
+        Set<String> questionIds = new HashSet<String>();
+        Map<String, FeedbackSessionAttributes> sessionsToCheck = new HashMap<String, FeedbackSessionAttributes>();
+        for (SearchHit hit : hits) {
+            commentIds.add(hit.comment.getId());
+            responseIds.add(hit.response.getId());
+            questionIds.add(hit.question.getId());
+            sessionsToCheck.put(hit.session.getIdentificationString(), hit.session);
+        }
+        Set<Long> existingCommentIds = frcLogic.getExistingFeedbackResponseCommentIds(commentIds);
+        Set<String> existingResponseIds = frLogic.getExistingFeedbackResponseIds(responseIds);
+        Set<String> existingQuestionIds = fqLogic.getExistingFeedbackQuestionIds(questionIds);
+        Set<String> existingSessions = fsLogic.getExistingFeedbackSessionIdentifications(sessionsToCheck.values());
+        
+        for (SearchHit hit : hits) {
+            FeedbackResponseCommentAttributes comment = hit.comment;
+            FeedbackResponseAttributes response = hit.response;
+            FeedbackQuestionAttributes question = hit.question;
+            FeedbackSessionAttributes session = hit.session;
+            
+            if (!existingCommentIds.contains(comment.getId())
+                    || !existingResponseIds.contains(response.getId())
+                    || !existingQuestionIds.contains(question.getId())
+                    || !existingSessions.contains(session.getIdentificationString())) {
+                staleCommentIds.add(comment.getId());
                 continue;
             }
+            
+            //get FeedbackResponseComment from results
             comment.sendingState = CommentSendingState.SENT;
             List<FeedbackResponseCommentAttributes> commentList = comments.get(comment.feedbackResponseId);
             if (commentList == null) {
@@ -88,13 +118,6 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             commentList.add(comment);
             
             //get related response from results
-            FeedbackResponseAttributes response = JsonUtils.fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE).getText(),
-                    FeedbackResponseAttributes.class);
-            if (frLogic.getFeedbackResponse(response.getId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             List<FeedbackResponseAttributes> responseList = responses.get(response.feedbackQuestionId);
             if (responseList == null) {
                 responseList = new ArrayList<FeedbackResponseAttributes>();
@@ -106,13 +129,6 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             }
             
             //get related question from results
-            FeedbackQuestionAttributes question = JsonUtils.fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE).getText(),
-                    FeedbackQuestionAttributes.class);
-            if (fqLogic.getFeedbackQuestion(question.getId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             List<FeedbackQuestionAttributes> questionList = questions.get(question.feedbackSessionName);
             if (questionList == null) {
                 questionList = new ArrayList<FeedbackQuestionAttributes>();
@@ -124,19 +140,13 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             }
             
             //get related session from results
-            FeedbackSessionAttributes session = JsonUtils.fromJson(
-                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE).getText(),
-                    FeedbackSessionAttributes.class);
-            if (fsLogic.getFeedbackSession(session.getSessionName(), session.getCourseId()) == null) {
-                frcLogic.deleteDocument(comment);
-                continue;
-            }
             if (!isAdded.contains(session.getFeedbackSessionName())) {
                 isAdded.add(session.getFeedbackSessionName());
                 sessions.put(session.getSessionName(), session);
             }
             
             //get giver and recipient names
+            ScoredDocument doc = hit.doc;
             String responseGiverName = extractContentFromQuotedString(
                     doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_GIVER_NAME).getText());
             responseGiverTable.put(response.getId(), getFilteredGiverName(response, responseGiverName));
@@ -152,6 +162,10 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
             numberOfCommentFound++;
         }
         
+        if (!staleCommentIds.isEmpty()) {
+            frcLogic.scheduleDocumentsDeletion(staleCommentIds);
+        }
+        
         for (List<FeedbackQuestionAttributes> questions : this.questions.values()) {
             Collections.sort(questions);
         }
@@ -252,4 +266,33 @@ public class FeedbackResponseCommentSearchResultBundle extends SearchResultBundl
     public int getResultSize() {
         return numberOfCommentFound;
     }
+    
+    /**
+     * The attributes stored in the search document of a comment.
+     */
+    private static class SearchHit {
+        
+        final ScoredDocument doc;
+        final FeedbackResponseCommentAttributes comment;
+        final FeedbackResponseAttributes response;
+        final FeedbackQuestionAttributes question;
+        final FeedbackSessionAttributes session;
+        
+        SearchHit(ScoredDocument doc) {
+            this.doc = doc;
+            this.comment = JsonUtils.fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_ATTRIBUTE).getText(),
+                    FeedbackResponseCommentAttributes.class);
+            this.response = JsonUtils.fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE).getText(),
+                    FeedbackResponseAttributes.class);
+            this.question = JsonUtils.fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE).getText(),
+                    FeedbackQuestionAttributes.class);
+            this.session = JsonUtils.fromJson(
+                    doc.getOnlyField(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE).getText(),
+                    FeedbackSessionAttributes.class);
+        }
+        
+    }
 }
@@ -0,0 +1,25 @@
+package teammates.common.datatransfer;
+
+import java.util.List;
+
+/**
+ * A page of feedback responses, together with the datastore query cursor
+ * from which the page after it can be read.
+ */
+public class FeedbackResponsesPage {
+    public List<FeedbackResponseAttributes> responses;
+
+    /**
+     * Web-safe cursor to pass back to read the next page. Null if this is the last page.
+     */
+    public String nextCursor;
+
+    public FeedbackResponsesPage(List<FeedbackResponseAttributes> responses, String nextCursor) {
+        this.responses = responses;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isLastPage() {
+        return nextCursor == null;
+    }
+}
@@ -41,6 +41,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     public Map<String, List<FeedbackResponseCommentAttributes>> responseComments;
     public boolean isComplete;
 
+    /**
+     * Cursor from which the next page of responses can be read, if only one page
+     * of the responses was read and there are more. Null otherwise.
+     */
+    public String nextCursor;
+
     /**
      * Responses with identities of giver/recipients NOT hidden.
      * To be used for anonymous result calculation only, and identities hidden before showing to users.
@@ -66,6 +72,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     */
     public Map<String, Set<String>> sectionTeamNameTable;
 
+    // Sorted participants of the course, built on first use and shared by
+    // getPossibleGivers and getPossibleRecipients, which are called for every participant.
+    private List<String> sortedStudentEmails;
+    private List<String> sortedInstructorEmails;
+    private List<String> sortedTeamNames;
+
     // Sorts by giverName > recipientName > qnNumber
     // General questions and team questions at the bottom.
     public Comparator<FeedbackResponseAttributes> compareByGiverRecipientQuestion =
@@ -1447,10 +1459,12 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * Instructors are not present as a team.
      */
     private List<String> getSortedListOfTeams() {
-        List<String> teams = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
-        teams.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
-        Collections.sort(teams);
-        return teams;
+        if (sortedTeamNames == null) {
+            sortedTeamNames = new ArrayList<String>(rosterTeamNameMembersTable.keySet());
+            sortedTeamNames.remove(Const.USER_TEAM_FOR_INSTRUCTOR);
+            Collections.sort(sortedTeamNames);
+        }
+        return new ArrayList<String>(sortedTeamNames);
     }
 
     /**
@@ -1489,13 +1503,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of student emails, sorted by section name
      */
     private List<String> getSortedListOfStudentEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<StudentAttributes> students = roster.getStudents();
-        StudentAttributes.sortBySectionName(students);
-        for (StudentAttributes student : students) {
-            emailList.add(student.email);
+        if (sortedStudentEmails == null) {
+            sortedStudentEmails = new ArrayList<String>();
+            List<StudentAttributes> students = roster.getStudents();
+            StudentAttributes.sortBySectionName(students);
+            for (StudentAttributes student : students) {
+                sortedStudentEmails.add(student.email);
+            }
         }
-        return emailList;
+        return new ArrayList<String>(sortedStudentEmails);
     }
 
     /**
@@ -1503,13 +1519,15 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
      * @return a list of instructor emails, sorted alphabetically
      */
     private List<String> getSortedListOfInstructorEmails() {
-        List<String> emailList = new ArrayList<String>();
-        List<InstructorAttributes> instructors = roster.getInstructors();
-        for (InstructorAttributes instructor : instructors) {
-            emailList.add(instructor.email);
+        if (sortedInstructorEmails == null) {
+            sortedInstructorEmails = new ArrayList<String>();
+            List<InstructorAttributes> instructors = roster.getInstructors();
+            for (InstructorAttributes instructor : instructors) {
+                sortedInstructorEmails.add(instructor.email);
+            }
+            Collections.sort(sortedInstructorEmails);
         }
-        Collections.sort(emailList);
-        return emailList;
+        return new ArrayList<String>(sortedInstructorEmails);
     }
 
     /**
@@ -2085,21 +2103,14 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
 
     private Map<String, Set<String>> getTeamNameToEmailsTableFromRoster(CourseRoster courseroster) {
-        List<StudentAttributes> students = courseroster.getStudents();
         Map<String, Set<String>> teamNameToEmails = new HashMap<String, Set<String>>();
 
-        for (StudentAttributes student : students) {
-            String studentTeam = student.team;
-            Set<String> studentEmails;
-
-            if (teamNameToEmails.containsKey(studentTeam)) {
-                studentEmails = teamNameToEmails.get(studentTeam);
-            } else {
-                studentEmails = new TreeSet<String>();
+        for (String teamName : courseroster.getTeamNames()) {
+            Set<String> studentEmails = new TreeSet<String>();
+            for (StudentAttributes student : courseroster.getStudentsForTeam(teamName)) {
+                studentEmails.add(student.email);
             }
-
-            studentEmails.add(student.email);
-            teamNameToEmails.put(studentTeam, studentEmails);
+            teamNameToEmails.put(teamName, studentEmails);
         }
 
         List<InstructorAttributes> instructors = courseroster.getInstructors();
@@ -2115,22 +2126,10 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
     }
 
     private Map<String, Set<String>> getSectionToTeamNamesFromRoster(CourseRoster courseroster) {
-        List<StudentAttributes> students = courseroster.getStudents();
         Map<String, Set<String>> sectionToTeam = new HashMap<String, Set<String>>();
 
-        for (StudentAttributes student : students) {
-            String studentSection = student.section;
-            String studentTeam = student.team;
-            Set<String> teamNames;
-
-            if (sectionToTeam.containsKey(studentSection)) {
-                teamNames = sectionToTeam.get(studentSection);
-            } else {
-                teamNames = new HashSet<String>();
-            }
-
-            teamNames.add(studentTeam);
-            sectionToTeam.put(studentSection, teamNames);
+        for (String sectionName : courseroster.getSectionNames()) {
+            sectionToTeam.put(sectionName, courseroster.getTeamNamesForSection(sectionName));
         }
 
         return sectionToTeam;
@@ -2249,4 +2248,8 @@ public class FeedbackSessionResultsBundle implements SessionResultsBundle {
         return isComplete;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
 }
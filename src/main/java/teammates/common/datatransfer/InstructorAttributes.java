@@ -164,7 +164,7 @@ public class InstructorAttributes extends EntityAttributes {
     }
 
     public String getTextFromInstructorPrivileges() {
-        return JsonUtils.toJson(privileges, InstructorPrivileges.class);
+        return JsonUtils.toCompactJson(privileges, InstructorPrivileges.class);
     }
     
     private static InstructorPrivileges getInstructorPrivilegesFromText(String instructorPrivilegesAsText) {
@@ -0,0 +1,22 @@
+package teammates.common.datatransfer;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Represents the metrics of the requests handled by one app instance in a period of time.
+ */
+public class MetricsSnapshotBundle {
+    public String instanceId;
+    public Date startTime;
+    public Date endTime;
+    public List<ActionMetricsBundle> actionMetrics;
+
+    public MetricsSnapshotBundle(String instanceId, Date startTime, Date endTime,
+                                 List<ActionMetricsBundle> actionMetrics) {
+        this.instanceId = instanceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.actionMetrics = actionMetrics;
+    }
+}
@@ -0,0 +1,17 @@
+package teammates.common.datatransfer;
+
+/**
+ * Represents the checks that one app instance ran to confirm its datastore writes persisted,
+ * since the instance started.
+ */
+public class PersistenceCheckMetricsBundle {
+    public String checkName;
+    public long numberOfChecks;
+    public long totalCheckDurationInMillis;
+
+    public PersistenceCheckMetricsBundle(String checkName, long numberOfChecks, long totalCheckDurationInMillis) {
+        this.checkName = checkName;
+        this.numberOfChecks = numberOfChecks;
+        this.totalCheckDurationInMillis = totalCheckDurationInMillis;
+    }
+}
@@ -352,6 +352,15 @@ public class StudentAttributes extends EntityAttributes {
         return updatedAt == null ? Const.TIME_REPRESENTS_DEFAULT_TIMESTAMP : updatedAt;
     }
     
+    /**
+     * Sets the time stamps of a student read from somewhere other than the datastore, e.g. a cache.
+     * They are not saved; the datastore sets them when the student is stored.
+     */
+    public void setTimestamps(Date createdAt, Date updatedAt) {
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     /**
      * Checks whether the edit form of student has changed the section value.
      * 
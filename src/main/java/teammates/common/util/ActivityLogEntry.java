@@ -35,7 +35,8 @@ public class ActivityLogEntry {
     
     // The following constants describe the positions of the attributes
     // in the log message. i.e
-    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||TIME_TAKEN
+    // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||MESSAGE(IN HTML)|||URL|||ID
+    // |||TIME_TAKEN|||REQUEST_CACHE_HITS|||REQUEST_CACHE_MISSES
     public static final int POSITION_OF_SERVLETNAME = 1;
     public static final int POSITION_OF_ACTION = 2;
     public static final int POSITION_OF_TOSHOW = 3;
@@ -47,6 +48,8 @@ public class ActivityLogEntry {
     public static final int POSITION_OF_URL = 9;
     public static final int POSITION_OF_ID = 10;
     public static final int POSITION_OF_TIMETAKEN = 11;
+    public static final int POSITION_OF_REQUEST_CACHE_HITS = 12;
+    public static final int POSITION_OF_REQUEST_CACHE_MISSES = 13;
     
     private static final int TIME_TAKEN_WARNING_LOWER_RANGE = 10000;
     private static final int TIME_TAKEN_WARNING_UPPER_RANGE = 20000;
@@ -65,6 +68,8 @@ public class ActivityLogEntry {
     private String message;
     private String url;
     private Long timeTaken;
+    private Integer requestCacheHits;
+    private Integer requestCacheMisses;
     
     // id can be in the form of <googleId>%<time> e.g. bamboo3250%20151103170618465
     // or <studentemail>%<courseId>%<time> (for unregistered students)
@@ -223,7 +228,7 @@ public class ActivityLogEntry {
     
     private void initUsingAppLogMessage(String[] tokens) {
         // TEAMMATESLOG|||SERVLET_NAME|||ACTION|||TO_SHOW|||ROLE|||NAME|||GOOGLE_ID|||EMAIL|||
-        // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN
+        // MESSAGE(IN HTML)|||URL|||ID|||TIME_TAKEN|||REQUEST_CACHE_HITS|||REQUEST_CACHE_MISSES
         servletName = tokens[POSITION_OF_SERVLETNAME];
         action = tokens[POSITION_OF_ACTION];
         toShow = Boolean.parseBoolean(tokens[POSITION_OF_TOSHOW]);
@@ -238,12 +243,26 @@ public class ActivityLogEntry {
         if (isLogWithTimeTakenAndId) {
             id = tokens[POSITION_OF_ID];
             try {
-                timeTaken = tokens.length == 12 ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
-                                                : null;
+                timeTaken = tokens.length > POSITION_OF_TIMETAKEN
+                          ? Long.parseLong(tokens[POSITION_OF_TIMETAKEN].trim())
+                          : null;
             } catch (NumberFormatException e) {
                 timeTaken = null;
                 log.severe("Log message format not as expected: " + Arrays.toString(tokens));
             }
+            try {
+                boolean isLogWithRequestCacheCounts = tokens.length > POSITION_OF_REQUEST_CACHE_MISSES;
+                requestCacheHits = isLogWithRequestCacheCounts
+                                 ? Integer.valueOf(tokens[POSITION_OF_REQUEST_CACHE_HITS].trim())
+                                 : null;
+                requestCacheMisses = isLogWithRequestCacheCounts
+                                   ? Integer.valueOf(tokens[POSITION_OF_REQUEST_CACHE_MISSES].trim())
+                                   : null;
+            } catch (NumberFormatException e) {
+                requestCacheHits = null;
+                requestCacheMisses = null;
+                log.severe("Log message format not as expected: " + Arrays.toString(tokens));
+            }
         }
     }
 
@@ -483,6 +502,20 @@ public class ActivityLogEntry {
         return timeTaken;
     }
     
+    /**
+     * @return the number of entity lookups served by the request cache, or null if not logged
+     */
+    public Integer getRequestCacheHits() {
+        return requestCacheHits;
+    }
+    
+    /**
+     * @return the number of entity lookups that missed the request cache, or null if not logged
+     */
+    public Integer getRequestCacheMisses() {
+        return requestCacheMisses;
+    }
+    
     /**
      * Generates the ID for the log. If the googleId is unknown or unregistered,
      * the email and course of the {@code student} will be used to construct the id.
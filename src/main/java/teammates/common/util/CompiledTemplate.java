@@ -0,0 +1,133 @@
+package teammates.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template that has been split into its text and its <code>${...}</code> placeholders, so that it
+ * can be populated in one pass over the template instead of one pass for each placeholder.
+ *
+ * <p>Populating gives the same result as replacing each placeholder in the template in turn:
+ * a value that contains placeholders of the pairs after it has those placeholders populated too,
+ * which allows fragments with placeholders of their own to be put into a template.
+ *
+ * @see Templates#populateTemplate(String, String...)
+ */
+public final class CompiledTemplate {
+
+    private static final String PLACEHOLDER_START = "${";
+    private static final char PLACEHOLDER_END = '}';
+
+    private final String template;
+
+    /**
+     * The text and the placeholders of the template, in order.
+     * The segments at even indexes are text, and those at odd indexes are placeholders.
+     */
+    private final String[] segments;
+
+    private CompiledTemplate(String template, List<String> segments) {
+        this.template = template;
+        this.segments = segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * Splits the {@code template} into its text and its placeholders.
+     */
+    public static CompiledTemplate compile(String template) {
+        List<String> segments = new ArrayList<String>();
+        int textStart = 0;
+        int placeholderStart = template.indexOf(PLACEHOLDER_START);
+        while (placeholderStart != -1) {
+            int placeholderEnd = template.indexOf(PLACEHOLDER_END, placeholderStart + PLACEHOLDER_START.length());
+            if (placeholderEnd == -1) {
+                break;
+            }
+            int nextPlaceholderStart =
+                    template.indexOf(PLACEHOLDER_START, placeholderStart + PLACEHOLDER_START.length());
+            if (nextPlaceholderStart != -1 && nextPlaceholderStart < placeholderEnd) {
+                // the placeholder is not closed before the next one starts, so it is only text
+                placeholderStart = nextPlaceholderStart;
+                continue;
+            }
+            segments.add(template.substring(textStart, placeholderStart));
+            segments.add(template.substring(placeholderStart, placeholderEnd + 1));
+            textStart = placeholderEnd + 1;
+            placeholderStart = template.indexOf(PLACEHOLDER_START, textStart);
+        }
+        segments.add(template.substring(textStart));
+        return new CompiledTemplate(template, segments);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return true if {@code key} is a single placeholder that {@link #compile(String)} can find
+     */
+    public static boolean isPlaceholder(String key) {
+        return key.startsWith(PLACEHOLDER_START)
+               && key.indexOf(PLACEHOLDER_END) == key.length() - 1
+               && key.indexOf(PLACEHOLDER_START, PLACEHOLDER_START.length()) == -1;
+    }
+
+    /**
+     * Populates the template with the given key-value pairs, whose keys must all be placeholders.
+     * @param values Array of a variable, even number of key-value pairs:
+     *                   { "key1", "val1", "key2", "val2", ... }
+     */
+    public String populate(String... values) {
+        int populatedLength = template.length();
+        for (int i = 1; i < values.length; i += 2) {
+            populatedLength += values[i].length();
+        }
+        StringBuilder populatedTemplate = new StringBuilder(populatedLength);
+        populateInto(populatedTemplate, values, 0);
+        return populatedTemplate.toString();
+    }
+
+    /**
+     * Populates the template with the key-value pairs in {@code values}, in their iteration order.
+     */
+    public String populate(Map<String, String> values) {
+        return populate(toKeyValuePairs(values));
+    }
+
+    static String[] toKeyValuePairs(Map<String, String> values) {
+        String[] keyValuePairs = new String[values.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            keyValuePairs[i++] = value.getKey();
+            keyValuePairs[i++] = value.getValue();
+        }
+        return keyValuePairs;
+    }
+
+    private void populateInto(StringBuilder populatedTemplate, String[] values, int firstPair) {
+        populatedTemplate.append(segments[0]);
+        for (int i = 1; i < segments.length; i += 2) {
+            appendValue(populatedTemplate, segments[i], values, firstPair);
+            populatedTemplate.append(segments[i + 1]);
+        }
+    }
+
+    private static void appendValue(StringBuilder populatedTemplate, String placeholder, String[] values,
+                                    int firstPair) {
+        for (int i = firstPair; i < values.length; i += 2) {
+            if (!values[i].equals(placeholder)) {
+                continue;
+            }
+            String value = values[i + 1];
+            if (i + 2 < values.length && value.contains(PLACEHOLDER_START)) {
+                compile(value).populateInto(populatedTemplate, values, i + 2);
+            } else {
+                populatedTemplate.append(value);
+            }
+            return;
+        }
+        populatedTemplate.append(placeholder);
+    }
+
+}
@@ -26,6 +26,21 @@ public final class Config {
     /** The value of the "app.persistence.checkduration" in build.properties file */
     public static final int PERSISTENCE_CHECK_DURATION;
     
+    /**
+     * The value of the "app.persistence.consistency" in build.properties file,
+     * unless overridden by the system property of the same name.
+     */
+    public static final String PERSISTENCE_CONSISTENCY;
+    
+    /** The value of the "app.rostercache" in build.properties file */
+    public static final String ROSTER_CACHE;
+    
+    /** The value of the "app.search.backend" in build.properties file */
+    public static final String SEARCH_BACKEND;
+    
+    /** The value of the "app.search.snapshot" in build.properties file */
+    public static final String SEARCH_SNAPSHOT;
+    
     /** The value of the "app.crashreport.email" in build.properties file */
     public static final String SUPPORT_EMAIL;
     
@@ -71,6 +86,11 @@ public final class Config {
         GCS_BUCKETNAME = properties.getProperty("app.gcs.bucketname");
         ENCRYPTION_KEY = properties.getProperty("app.encryption.key");
         PERSISTENCE_CHECK_DURATION = Integer.valueOf(properties.getProperty("app.persistence.checkduration"));
+        PERSISTENCE_CONSISTENCY = System.getProperty("app.persistence.consistency",
+                                                     properties.getProperty("app.persistence.consistency"));
+        ROSTER_CACHE = properties.getProperty("app.rostercache");
+        SEARCH_BACKEND = properties.getProperty("app.search.backend");
+        SEARCH_SNAPSHOT = properties.getProperty("app.search.snapshot");
         SUPPORT_EMAIL = properties.getProperty("app.crashreport.email");
         STUDENT_MOTD_URL = properties.getProperty("app.student.motd.url");
         EMAIL_SENDEREMAIL = properties.getProperty("app.email.senderemail");
@@ -122,6 +142,26 @@ public final class Config {
         return new AppUrl(APP_URL + relativeUrl);
     }
 
+    public static boolean isUsingNoPersistenceCheck() {
+        return "none".equalsIgnoreCase(PERSISTENCE_CONSISTENCY);
+    }
+    
+    public static boolean isUsingReadBackPersistenceCheck() {
+        return "readback".equalsIgnoreCase(PERSISTENCE_CONSISTENCY);
+    }
+    
+    public static boolean isUsingMemcacheRosterCache() {
+        return "memcache".equalsIgnoreCase(ROSTER_CACHE);
+    }
+    
+    public static boolean isUsingInProcessRosterCache() {
+        return "inprocess".equalsIgnoreCase(ROSTER_CACHE);
+    }
+    
+    public static boolean isUsingEmbeddedSearch() {
+        return "embedded".equalsIgnoreCase(SEARCH_BACKEND);
+    }
+    
     public static boolean isUsingSendgrid() {
         return "sendgrid".equalsIgnoreCase(EMAIL_SERVICE) && SENDGRID_APIKEY != null && !SENDGRID_APIKEY.isEmpty();
     }
@@ -156,6 +156,8 @@ public final class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_TASK_QUEUE =
                 "feedback-remind-email-particular-users-queue";
         public static final String SEND_EMAIL_TASK_QUEUE = "send-email-queue";
+        public static final String SEARCH_DOCUMENT_TASK_QUEUE = "search-document";
+        public static final String METRICS_SNAPSHOT_TASK_QUEUE = "metrics-snapshot-queue";
         
         public static final String QUEUE_XML_PATH = "src/main/webapp/WEB-INF/queue.xml";
         public static final String DEFAULT_PROFILE_PICTURE_PATH = "/images/profile_picture_default.png";
@@ -656,6 +658,8 @@ public final class Const {
         public static final String ADMIN_EMAIL_EMPTY_TRASH_BIN = "emptytrashbin";
         public static final String ADMIN_EMAIL_TRASH_ACTION_REDIRECT = "redirect";
         
+        public static final String ADMIN_GROUP_RECEIVER_LIST_OFFSET = "receiverlistoffset";
+        // only in the tasks paused before the list offset replaced them
         public static final String ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX = "emaillistindex";
         public static final String ADMIN_GROUP_RECEIVER_EMAIL_INDEX = "emailindex";
     
@@ -742,6 +746,12 @@ public final class Const {
         public static final String FEEDBACK_RESPONSE_TEXT = "responsetext";
         
         public static final String FEEDBACK_RESPONSE_COMMENT_ID = "responsecommentid";
+        public static final String FEEDBACK_RESPONSE_COMMENT_IDS = "responsecommentids";
+        
+        public static final String METRICS_SNAPSHOT_INSTANCE_ID = "metricsinstanceid";
+        public static final String METRICS_SNAPSHOT_START_TIME = "metricsstarttime";
+        public static final String METRICS_SNAPSHOT_END_TIME = "metricsendtime";
+        public static final String METRICS_SNAPSHOT_ACTION_METRICS = "metricsactionmetrics";
         public static final String FEEDBACK_RESPONSE_COMMENT_TEXT = "responsecommenttext";
         
         public static final String FEEDBACK_RESULTS_UPLOADDOWNLOADBUTTON = "fruploaddownloadbtn";
@@ -752,6 +762,7 @@ public final class Const {
         public static final String FEEDBACK_RESULTS_INDICATE_MISSING_RESPONSES = "frindicatemissingresponses";
         public static final String FEEDBACK_RESULTS_NEED_AJAX = "frneedajax";
         public static final String FEEDBACK_RESULTS_MAIN_INDEX = "frmainindex";
+        public static final String FEEDBACK_RESULTS_CURSOR = "frcursor";
 
         public static final String PREVIEWAS = "previewas";
         
@@ -801,6 +812,7 @@ public final class Const {
         
         //Email parameters
         public static final String EMAIL_RECEIVER = "user";
+        public static final String EMAIL_RECEIVERS = "users";
         public static final String EMAIL_COURSE = "course";
         public static final String EMAIL_FEEDBACK = "feedback";
         public static final String EMAIL_TYPE = "type";
@@ -979,6 +991,7 @@ public final class Const {
         public static final String STUDENT_PROFILE_CREATEUPLOADFORMURL = "/page/studentProfileCreateFormUrl";
         
         public static final String ADMIN_EMAIL_LOG_PAGE = "/admin/adminEmailLogPage";
+        public static final String ADMIN_METRICS_PAGE = "/admin/adminMetricsPage";
         public static final String ADMIN_HOME_PAGE = "/admin/adminHomePage";
         public static final String ADMIN_INSTRUCTORACCOUNT_ADD = "/admin/adminInstructorAccountAdd";
         public static final String ADMIN_ACCOUNT_MANAGEMENT_PAGE = "/admin/adminAccountManagementPage";
@@ -1010,6 +1023,8 @@ public final class Const {
         public static final String AUTOMATED_FEEDBACK_OPENING_REMINDERS = "/feedbackSessionOpeningReminders";
         public static final String AUTOMATED_FEEDBACK_CLOSING_REMINDERS = "/feedbackSessionClosingReminders";
         public static final String AUTOMATED_FEEDBACK_PUBLISHED_REMINDERS = "/feedbackSessionPublishedReminders";
+        public static final String AUTOMATED_METRICS_SNAPSHOTS_PRUNING = "/metricsSnapshotsPruning";
+        public static final String AUTOMATED_SEARCH_INDEX_SNAPSHOT = "/searchIndexSnapshot";
         
         public static final String BACKDOOR = "/backdoor";
         
@@ -1024,6 +1039,9 @@ public final class Const {
         public static final String FEEDBACK_REMIND_EMAIL_PARTICULAR_USERS_WORKER =
                                     "/feedbackRemindEmailParticularUsersWorker";
         public static final String SEND_EMAIL_WORKER = "/sendEmailWorker";
+        public static final String FEEDBACK_RESPONSE_COMMENT_DOCUMENTS_DELETION_WORKER =
+                                    "/feedbackResponseCommentDocumentsDeletionWorker";
+        public static final String METRICS_SNAPSHOT_WORKER = "/metricsSnapshotWorker";
     }
     
     public static class AutomatedActionNames {
@@ -1040,6 +1058,8 @@ public final class Const {
         public static final String AUTOMATED_FEEDBACK_CLOSING_REMINDERS = "feedbackSessionClosingReminders";
         public static final String AUTOMATED_FEEDBACK_CLOSED_REMINDERS = "feedbackSessionClosedReminders";
         public static final String AUTOMATED_FEEDBACK_PUBLISHED_REMINDERS = "feedbackSessionPublishedReminders";
+        public static final String AUTOMATED_METRICS_SNAPSHOTS_PRUNING = "metricsSnapshotsPruning";
+        public static final String AUTOMATED_SEARCH_INDEX_SNAPSHOT = "searchIndexSnapshot";
     }
     
     public static class PublicActionNames {
@@ -1332,6 +1352,8 @@ public final class Const {
                 "You have received feedback from others. Please see below.";
         public static final String FEEDBACK_RESULTS_NOTHINGNEW =
                 "You have not received any new feedback but you may review your own submissions below.";
+        public static final String FEEDBACK_RESULTS_INVALID_CURSOR =
+                "The next page of responses could not be loaded. Please reload the results page.";
         public static final String FEEDBACK_RESULTS_SECTIONVIEWWARNING =
                 "This session seems to have a large number of responses. "
                 + "It is recommended to view the results one question/section at a time. "
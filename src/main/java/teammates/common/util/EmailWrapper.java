@@ -1,7 +1,13 @@
 package teammates.common.util;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Represents an email message and its important metadata.
+ * <br> The content can optionally be described by a template shared with other emails, together
+ * with the substitutions that turn the template into the content of this email. Emails with the
+ * same template can then be sent as a batch.
  */
 public class EmailWrapper {
     
@@ -12,6 +18,8 @@ public class EmailWrapper {
     private String bcc;
     private String subject;
     private String content;
+    private String contentTemplate;
+    private Map<String, String> substitutions = new LinkedHashMap<String, String>();
     
     public String getSenderName() {
         return senderName;
@@ -69,6 +77,28 @@ public class EmailWrapper {
         this.content = content;
     }
     
+    /**
+     * @return the template of the content, or the content itself if no template has been set
+     */
+    public String getContentTemplate() {
+        return contentTemplate == null ? content : contentTemplate;
+    }
+    
+    public void setContentTemplate(String contentTemplate) {
+        this.contentTemplate = contentTemplate;
+    }
+    
+    /**
+     * @return the values to replace the placeholders in the content template with, keyed by placeholder
+     */
+    public Map<String, String> getSubstitutions() {
+        return substitutions;
+    }
+    
+    public void setSubstitutions(Map<String, String> substitutions) {
+        this.substitutions = substitutions;
+    }
+    
     public String getInfoForLogging() {
         return "[Email sent]to=" + getRecipient()
                + "|from=" + getSenderEmail()
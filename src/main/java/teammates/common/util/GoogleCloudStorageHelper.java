@@ -1,13 +1,12 @@
 package teammates.common.util;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.channels.Channels;
 
-import com.google.appengine.api.blobstore.BlobInfoFactory;
 import com.google.appengine.api.blobstore.BlobKey;
 import com.google.appengine.api.blobstore.BlobstoreInputStream;
 import com.google.appengine.api.blobstore.BlobstoreServiceFactory;
@@ -15,6 +14,7 @@ import com.google.appengine.api.blobstore.UploadOptions;
 import com.google.appengine.tools.cloudstorage.GcsFileOptions;
 import com.google.appengine.tools.cloudstorage.GcsFilename;
 import com.google.appengine.tools.cloudstorage.GcsOutputChannel;
+import com.google.appengine.tools.cloudstorage.GcsService;
 import com.google.appengine.tools.cloudstorage.GcsServiceFactory;
 import com.google.appengine.tools.cloudstorage.RetryParams;
 
@@ -23,7 +23,8 @@ import com.google.appengine.tools.cloudstorage.RetryParams;
  */
 public final class GoogleCloudStorageHelper {
     
-    private static final int MAX_READING_LENGTH = 900000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int LEGACY_READING_LENGTH = 900000;
     private static final Logger log = Logger.getLogger();
     
     private GoogleCloudStorageHelper() {
@@ -89,97 +90,82 @@ public final class GoogleCloudStorageHelper {
     }
     
     /**
-     * Gets the file with the specified {@link BlobKey} in the Google Cloud Storage,
-     * parses it and returns it as a list of list.<br>
+     * Opens the file with the specified {@link BlobKey} in the Google Cloud Storage
+     * for reading its email addresses one at a time, starting from the address at {@code offset}.<br>
      * Assumption: the file represented by {@code blobKey} is a valid txt file
-     *             that can be parsed into a comma-separated list
+     *             that can be parsed into a comma-separated list, and {@code offset} is
+     *             either 0 or an offset given by {@link GroupReceiverListReader#getOffset()}
      */
-    public static List<List<String>> getGroupReceiverList(BlobKey blobKey) throws IOException {
+    public static GroupReceiverListReader openGroupReceiverList(BlobKey blobKey, long offset) throws IOException {
         Assumption.assertNotNull(blobKey);
         
-        // It turns out that error will occur if we read more than around 900000 bytes of data per time
-        // from the blobstream, which also brings problems when this large number of emails are all stored in one
-        // list. As a result, to prevent unexpected errors, we read the txt file several times and each time
-        // at most 900000 bytes are read, after which a new list is created to store all the emails addresses that
-        // happen to be in the newly read bytes.
-        
-        // For email address which happens to be broken according to two consecutive reading, a check will be done
-        // before storing all emails separated from the second reading into a new list.
-        // Broken email will be fixed by deleting the first item of the email list from current reading
-        // AND appending it to the last item of the email list from last reading.
-        
-        // The email list from each reading is inserted into an upper list (list of list).
-        // The structure is as below:
-        
-        // ListOfList:
-        //       ListFromReading_1 :
-        //                     [example@email.com]
-        //                            ...
-        //       ListFromReading_2 :
-        //                     [example@email.com]
-        //                            ...
-        
-        // This is the list of list
-        List<List<String>> listOfList = new LinkedList<List<String>>();
-        
-        // Offset is needed for remembering where it stops from last reading
-        int offset = 0;
-        
-        // File size is needed to track the number of unread bytes
-        int size = (int) getFileSize(blobKey);
+        // the blob is fetched from the blobstore in parts as it is read,
+        // so a list of any size can be read without holding all of it in memory
+        InputStream blobStream = new BufferedInputStream(new BlobstoreInputStream(blobKey, offset), READ_BUFFER_SIZE);
+        return new GroupReceiverListReader(blobStream, offset);
+    }
+    
+    /**
+     * Gets the offset in the file with the specified {@link BlobKey} of the email address at
+     * {@code emailIndex} of the list at {@code listIndex}, the position that tasks paused before the file
+     * was read as a stream were resumed from. Those tasks read the file in parts of
+     * {@value #LEGACY_READING_LENGTH} bytes, split each part by comma into a list, and moved an address
+     * cut across two parts into the list of the earlier part.
+     * @return an offset that {@link #openGroupReceiverList} can start reading from
+     */
+    public static long getGroupReceiverListOffset(BlobKey blobKey, int listIndex, int emailIndex) throws IOException {
+        Assumption.assertNotNull(blobKey);
         
-        while (size > 0) {
-            // Make sure not to over-read
-            int bytesToRead = Math.min(size, MAX_READING_LENGTH);
-            InputStream blobStream = new BlobstoreInputStream(blobKey, offset);
-            byte[] array = new byte[bytesToRead];
-            
-            blobStream.read(array);
-            
-            // Remember where it stops reading
-            offset += MAX_READING_LENGTH;
-            // Decrease unread bytes
-            size -= MAX_READING_LENGTH;
-            
-            // Get the read bytes into string and split it by ","
-            String readString = new String(array);
-            List<String> newList = Arrays.asList(readString.split(","));
-            
-            if (listOfList.isEmpty()) {
-                // This is the first time reading
-                listOfList.add(newList);
-            } else {
-                // Check if the last reading stopped in the middle of a email address string
-                List<String> lastAddedList = listOfList.get(listOfList.size() - 1);
-                // Get the last item of the list from last reading
-                String lastStringOfLastAddedList = lastAddedList.get(lastAddedList.size() - 1);
-                // Get the first item of the list from current reading
-                String firstStringOfNewList = newList.get(0);
-                
-                if (lastStringOfLastAddedList.contains("@") && firstStringOfNewList.contains("@")) {
-                    // No broken email from last reading found, simply add the list
-                    // from current reading into the upper list.
-                    listOfList.add(newList);
-                } else {
-                    // Either the left part or the right part of the broken email string does not contains a "@".
-                    // Simply append the right part to the left part (last item of the list from last reading).
-                    listOfList.get(listOfList.size() - 1)
-                              .set(lastAddedList.size() - 1, lastStringOfLastAddedList + firstStringOfNewList);
-                    
-                    // And also needs to delete the right part which is the first item of the list from current reading
-                    listOfList.add(newList.subList(1, newList.size() - 1));
+        long offset = (long) listIndex * LEGACY_READING_LENGTH;
+        int separatorsToSkip = emailIndex;
+        InputStream blobStream =
+                new BufferedInputStream(new BlobstoreInputStream(blobKey, Math.max(offset - 1, 0)), READ_BUFFER_SIZE);
+        try {
+            // the rest of an address cut across two parts was left out of the list of the later part
+            if (offset > 0 && blobStream.read() != ',') {
+                separatorsToSkip++;
+            }
+            while (separatorsToSkip > 0) {
+                int nextByte = blobStream.read();
+                if (nextByte == -1) {
+                    break;
+                }
+                offset++;
+                if (nextByte == ',') {
+                    separatorsToSkip--;
                 }
             }
-            
+        } finally {
             blobStream.close();
         }
-        
-        return listOfList;
+        return offset;
+    }
+    
+    /**
+     * Opens the file with the specified {@code fileName} in the specified {@code bucketName}
+     * of the Google Cloud Storage for reading.
+     * @return the stream to read the file from, or null if there is no such file
+     */
+    public static InputStream openFileForReading(String bucketName, String fileName) throws IOException {
+        GcsFilename gcsFilename = new GcsFilename(bucketName, fileName);
+        GcsService gcsService = GcsServiceFactory.createGcsService(RetryParams.getDefaultInstance());
+        if (gcsService.getMetadata(gcsFilename) == null) {
+            return null;
+        }
+        return Channels.newInputStream(gcsService.openPrefetchingReadChannel(gcsFilename, 0, READ_BUFFER_SIZE));
     }
     
-    private static long getFileSize(BlobKey blobKey) {
-        BlobInfoFactory blobInfoFactory = new BlobInfoFactory();
-        return blobInfoFactory.loadBlobInfo(blobKey).getSize();
+    /**
+     * Opens the file with the specified {@code fileName} in the specified {@code bucketName}
+     * of the Google Cloud Storage for writing. The file is created, or replaces the existing file,
+     * when the stream is closed.
+     */
+    public static OutputStream openFileForWriting(String bucketName, String fileName) throws IOException {
+        GcsFilename gcsFilename = new GcsFilename(bucketName, fileName);
+        GcsOutputChannel outputChannel =
+                GcsServiceFactory.createGcsService(RetryParams.getDefaultInstance())
+                                 .createOrReplace(gcsFilename, GcsFileOptions.getDefaultInstance());
+        return Channels.newOutputStream(outputChannel);
     }
     
 }
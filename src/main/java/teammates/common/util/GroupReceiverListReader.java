@@ -0,0 +1,94 @@
+package teammates.common.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the email addresses of a comma-separated group receiver list one at a time,
+ * so that only the address being read is held in memory.<br>
+ * The reader can be stopped at any point and a new reader started from {@link #getOffset()}
+ * to carry on with the addresses not yet read.
+ */
+public class GroupReceiverListReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+
+    private final InputStream stream;
+
+    /**
+     * The offset in the list of the next byte to be read from the stream.
+     */
+    private long position;
+
+    private String nextAddress;
+    private long nextAddressOffset;
+
+    /**
+     * @param stream the list, starting from the byte at {@code offset}
+     * @param offset the offset of the first byte of {@code stream} in the list;
+     *               must be at the start of an address
+     */
+    public GroupReceiverListReader(InputStream stream, long offset) {
+        Assumption.assertNotNull(stream);
+        this.stream = stream;
+        this.position = offset;
+    }
+
+    public boolean hasNext() throws IOException {
+        if (nextAddress == null) {
+            readNextAddress();
+        }
+        return nextAddress != null;
+    }
+
+    public String next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String address = nextAddress;
+        nextAddress = null;
+        return address;
+    }
+
+    /**
+     * @return the offset in the list of the first address not yet returned by {@link #next()}
+     */
+    public long getOffset() {
+        return nextAddress == null ? position : nextAddressOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void readNextAddress() throws IOException {
+        ByteArrayOutputStream addressBytes = new ByteArrayOutputStream();
+        int nextByte = 0;
+        // blank entries, such as the one after a trailing separator, are skipped
+        while (nextByte != -1) {
+            long addressOffset = position;
+            addressBytes.reset();
+            nextByte = stream.read();
+            while (nextByte != -1 && nextByte != SEPARATOR) {
+                addressBytes.write(nextByte);
+                position++;
+                nextByte = stream.read();
+            }
+            if (nextByte == SEPARATOR) {
+                position++;
+            }
+
+            String address = addressBytes.toString(Const.SystemParams.ENCODING).trim();
+            if (!address.isEmpty()) {
+                nextAddress = address;
+                nextAddressOffset = addressOffset;
+                return;
+            }
+        }
+    }
+
+}
@@ -11,48 +11,85 @@ import com.google.gson.JsonSyntaxException;
 
 /**
  * Provides means to handle, manipulate, and convert JSON objects to/from strings.
+ * 
+ * <p>The {@link Gson} instances used are created once and shared, as they are immutable and thread-safe.
+ * This also allows the type adapters discovered by Gson to be cached and reused across calls.
  */
 public final class JsonUtils {
     
+    /**
+     * Gson that reformats the JSON string in pretty-print format.
+     * Used for output that is meant to be read by humans, e.g. backups and test data.
+     */
+    private static final Gson PRETTY_PRINTING_GSON = getTeammatesGsonBuilder().setPrettyPrinting().create();
+    
+    /**
+     * Gson that produces the JSON string without any extra whitespace.
+     * Used for output that is sent over the wire or stored in the datastore.
+     */
+    private static final Gson COMPACT_GSON = getTeammatesGsonBuilder().create();
+    
+    /**
+     * Gson with the default settings, for data that does not use the prescribed date format.
+     */
+    private static final Gson DEFAULT_GSON = new Gson();
+    
     private JsonUtils() {
         // utility class
     }
     
     /**
-     * This creates a Gson object that can handle the Date format we use in the
-     * Json file and also reformat the Json string in pretty-print format.
+     * This creates a GsonBuilder that can handle the Date format we use in the Json file.
      */
-    private static Gson getTeammatesGson() {
+    private static GsonBuilder getTeammatesGsonBuilder() {
         return new GsonBuilder().setDateFormat(DateFormat.FULL)
                                 .setDateFormat(Const.SystemParams.DEFAULT_DATE_TIME_FORMAT)
-                                .setPrettyPrinting()
-                                .disableHtmlEscaping()
-                                .create();
+                                .disableHtmlEscaping();
     }
     
     /**
+     * Serializes {@code src} in pretty-print format.
      * @see {@link Gson#toJson(Object, Type)}.
      */
     public static String toJson(Object src, Type typeOfSrc) {
-        return getTeammatesGson().toJson(src, typeOfSrc);
+        return PRETTY_PRINTING_GSON.toJson(src, typeOfSrc);
     }
     
     /**
+     * Serializes {@code src} in pretty-print format.
      * @see {@link Gson#toJson(Object)}.
      */
     public static String toJson(Object src) {
-        return getTeammatesGson().toJson(src);
+        return PRETTY_PRINTING_GSON.toJson(src);
+    }
+    
+    /**
+     * Serializes {@code src} without any extra whitespace.
+     * @see {@link Gson#toJson(Object, Type)}.
+     */
+    public static String toCompactJson(Object src, Type typeOfSrc) {
+        return COMPACT_GSON.toJson(src, typeOfSrc);
+    }
+    
+    /**
+     * Serializes {@code src} without any extra whitespace.
+     * @see {@link Gson#toJson(Object)}.
+     */
+    public static String toCompactJson(Object src) {
+        return COMPACT_GSON.toJson(src);
     }
     
     /**
+     * Deserializes {@code json}, which can be either in pretty-print or compact format.
      * @see {@link Gson#fromJson(String, Type)}.
      */
     public static <T> T fromJson(String json, Type typeOfT) {
+        RequestMetrics.recordJsonParse();
         try {
-            return getTeammatesGson().fromJson(json, typeOfT);
+            return COMPACT_GSON.fromJson(json, typeOfT);
         } catch (JsonSyntaxException e) {
             // some of the existing data does not use the prescribed date format
-            return new Gson().fromJson(json, typeOfT);
+            return DEFAULT_GSON.fromJson(json, typeOfT);
         }
     }
     
@@ -60,6 +97,7 @@ public final class JsonUtils {
      * @see {@link JsonParser#parse(String)}.
      */
     public static JsonElement parse(String json) {
+        RequestMetrics.recordJsonParse();
         JsonParser parser = new JsonParser();
         return parser.parse(json);
     }
@@ -0,0 +1,75 @@
+package teammates.common.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in a fixed set of buckets, so that percentiles can be estimated
+ * in constant memory however many latencies are recorded.
+ * <br> Latencies can be recorded by several threads at the same time.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The upper bounds, in milliseconds, of all buckets except the last one, which has no upper bound.
+     * The bounds grow roughly geometrically, so the relative error of an estimate is about the same
+     * for fast and for slow requests.
+     */
+    private static final long[] BUCKET_UPPER_BOUNDS = {
+        1, 2, 3, 5, 7, 10, 15, 20, 30, 50, 70, 100, 150, 200, 300, 500, 700,
+        1000, 1500, 2000, 3000, 5000, 7000, 10000, 15000, 20000, 30000, 60000
+    };
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long latencyInMillis) {
+        bucketCounts.incrementAndGet(getBucketIndex(latencyInMillis));
+        count.incrementAndGet();
+        long currentMax = max.get();
+        while (latencyInMillis > currentMax && !max.compareAndSet(currentMax, latencyInMillis)) {
+            currentMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile between 0 (exclusive) and 100 (inclusive)
+     * @return the upper bound of the bucket the given percentile of the latencies falls in,
+     *         but not more than the largest latency recorded, or 0 if no latency has been recorded.
+     */
+    public long getPercentile(double percentile) {
+        Assumption.assertTrue(percentile > 0 && percentile <= 100);
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+            seen += bucketCounts.get(i);
+            if (seen >= rank) {
+                return Math.min(BUCKET_UPPER_BOUNDS[i], max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int getBucketIndex(long latencyInMillis) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+            if (latencyInMillis <= BUCKET_UPPER_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_BOUNDS.length;
+    }
+
+}
@@ -0,0 +1,97 @@
+package teammates.common.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the work done on the hot paths while a single request is processed:
+ * datastore queries, entities read, JSON parses and emails enqueued.
+ * <br> It is bound to the current thread only while a request is being processed
+ * (see {@link #startRecording()}), and is inherited by the threads the request starts,
+ * so work done on those threads is counted for the request too.
+ * Outside of a request (e.g. in tests, scripts and task queue workers), nothing is counted.
+ */
+public final class RequestMetrics {
+
+    private static final InheritableThreadLocal<RequestMetrics> PER_THREAD_METRICS =
+            new InheritableThreadLocal<RequestMetrics>();
+
+    private final AtomicInteger queryCount = new AtomicInteger();
+    private final AtomicInteger entitiesReadCount = new AtomicInteger();
+    private final AtomicInteger jsonParseCount = new AtomicInteger();
+    private final AtomicInteger emailsEnqueuedCount = new AtomicInteger();
+
+    /**
+     * Binds a new {@link RequestMetrics} to the current thread.
+     * Must be paired with {@link #stopRecording()} once the request is processed.
+     */
+    public static void startRecording() {
+        PER_THREAD_METRICS.set(new RequestMetrics());
+    }
+
+    /**
+     * Removes the {@link RequestMetrics} bound to the current thread.
+     * @return the removed metrics, or null if there were none
+     */
+    public static RequestMetrics stopRecording() {
+        RequestMetrics metrics = PER_THREAD_METRICS.get();
+        PER_THREAD_METRICS.remove();
+        return metrics;
+    }
+
+    /**
+     * @return the metrics of the request being processed by the current thread,
+     *         or null if the current thread is not processing a request.
+     */
+    public static RequestMetrics getCurrent() {
+        return PER_THREAD_METRICS.get();
+    }
+
+    public static boolean isRecording() {
+        return PER_THREAD_METRICS.get() != null;
+    }
+
+    public static void recordQuery() {
+        RequestMetrics metrics = PER_THREAD_METRICS.get();
+        if (metrics != null) {
+            metrics.queryCount.incrementAndGet();
+        }
+    }
+
+    public static void recordEntitiesRead(int numberOfEntities) {
+        RequestMetrics metrics = PER_THREAD_METRICS.get();
+        if (metrics != null) {
+            metrics.entitiesReadCount.addAndGet(numberOfEntities);
+        }
+    }
+
+    public static void recordJsonParse() {
+        RequestMetrics metrics = PER_THREAD_METRICS.get();
+        if (metrics != null) {
+            metrics.jsonParseCount.incrementAndGet();
+        }
+    }
+
+    public static void recordEmailsEnqueued(int numberOfEmails) {
+        RequestMetrics metrics = PER_THREAD_METRICS.get();
+        if (metrics != null) {
+            metrics.emailsEnqueuedCount.addAndGet(numberOfEmails);
+        }
+    }
+
+    public int getQueryCount() {
+        return queryCount.get();
+    }
+
+    public int getEntitiesReadCount() {
+        return entitiesReadCount.get();
+    }
+
+    public int getJsonParseCount() {
+        return jsonParseCount.get();
+    }
+
+    public int getEmailsEnqueuedCount() {
+        return emailsEnqueuedCount.get();
+    }
+
+}
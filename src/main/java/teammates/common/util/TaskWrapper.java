@@ -0,0 +1,37 @@
+package teammates.common.util;
+
+import java.util.Map;
+
+/**
+ * Represents a task to be added to a task queue: the URL of the worker that carries it out,
+ * the parameters the worker is given and how long to wait before carrying it out.
+ */
+public class TaskWrapper {
+
+    private final String workerUrl;
+    private final Map<String, String> paramMap;
+    private final long countdownMillis;
+
+    public TaskWrapper(String workerUrl, Map<String, String> paramMap) {
+        this(workerUrl, paramMap, 0);
+    }
+
+    public TaskWrapper(String workerUrl, Map<String, String> paramMap, long countdownMillis) {
+        this.workerUrl = workerUrl;
+        this.paramMap = paramMap;
+        this.countdownMillis = countdownMillis;
+    }
+
+    public String getWorkerUrl() {
+        return workerUrl;
+    }
+
+    public Map<String, String> getParamMap() {
+        return paramMap;
+    }
+
+    public long getCountdownMillis() {
+        return countdownMillis;
+    }
+
+}
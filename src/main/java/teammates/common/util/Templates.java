@@ -1,5 +1,11 @@
 package teammates.common.util;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public final class Templates {
     
     public static final String INSTRUCTOR_SAMPLE_DATA = FileHelper.readResourceFile("InstructorSampleData.json");
@@ -18,6 +24,34 @@ public final class Templates {
      */
     public static String populateTemplate(String template, String... values) {
         Assumption.assertTrue("The number of values passed in must be even", values.length % 2 == 0);
+        if (!isAllPlaceholders(values)) {
+            return populateTemplateByReplacing(template, values);
+        }
+        CompiledTemplate compiledTemplate = CompiledTemplates.TEMPLATES.get(template);
+        if (compiledTemplate == null) {
+            compiledTemplate = CompiledTemplate.compile(template);
+        }
+        return compiledTemplate.populate(values);
+    }
+    
+    /**
+     * Populates the HTML templates by replacing each key of {@code values} in the
+     * template string with its value, in the iteration order of {@code values}.
+     */
+    public static String populateTemplate(String template, Map<String, String> values) {
+        return populateTemplate(template, CompiledTemplate.toKeyValuePairs(values));
+    }
+    
+    private static boolean isAllPlaceholders(String... values) {
+        for (int i = 0; i < values.length; i += 2) {
+            if (!CompiledTemplate.isPlaceholder(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String populateTemplateByReplacing(String template, String... values) {
         String populatedTemplate = template;
         for (int i = 0; i < values.length; i += 2) {
             populatedTemplate = populatedTemplate.replace(values[i], values[i + 1]);
@@ -25,6 +59,39 @@ public final class Templates {
         return populatedTemplate;
     }
     
+    /**
+     * The email and feedback question templates, compiled once when first needed.
+     * The templates are looked up by identity, so other strings with the same content are compiled
+     * whenever they are populated.
+     */
+    private static final class CompiledTemplates {
+        
+        static final Map<String, CompiledTemplate> TEMPLATES = compileTemplatesIn(
+                EmailTemplates.class, FeedbackQuestion.FormTemplates.class);
+        
+        private CompiledTemplates() {
+            // utility class
+        }
+        
+        private static Map<String, CompiledTemplate> compileTemplatesIn(Class<?>... templateClasses) {
+            Map<String, CompiledTemplate> templates = new IdentityHashMap<String, CompiledTemplate>();
+            for (Class<?> templateClass : templateClasses) {
+                for (Field field : templateClass.getFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                        try {
+                            String template = (String) field.get(null);
+                            templates.put(template, CompiledTemplate.compile(template));
+                        } catch (IllegalAccessException e) {
+                            Assumption.fail("Template " + field.getName() + " is not accessible");
+                        }
+                    }
+                }
+            }
+            return Collections.unmodifiableMap(templates);
+        }
+        
+    }
+    
     /**
      * Collection of templates of emails to be sent by the system.
      */
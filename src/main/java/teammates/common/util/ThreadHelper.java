@@ -2,9 +2,14 @@ package teammates.common.util;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import teammates.common.exception.TeammatesException;
 
+import com.google.appengine.api.ThreadManager;
+import com.google.apphosting.api.ApiProxy;
+
 public final class ThreadHelper {
     public static final int WAIT_DURATION = 20;
     private static final Logger log = Logger.getLogger();
@@ -32,6 +37,34 @@ public final class ThreadHelper {
         }
     }
     
+    /**
+     * Returns a factory of threads that can call App Engine services on behalf of the request
+     * being processed by the current thread. Such threads must finish before the request does.
+     * <br> Outside of a request (e.g. in tests and scripts), the threads are given the
+     * App Engine environment of the current thread instead.
+     */
+    public static ThreadFactory getRequestThreadFactory() {
+        final ApiProxy.Environment environment = ApiProxy.getCurrentEnvironment();
+        ThreadFactory requestThreadFactory = environment == null ? null : ThreadManager.currentRequestThreadFactory();
+        if (requestThreadFactory != null) {
+            return requestThreadFactory;
+        }
+
+        final ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return defaultThreadFactory.newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        ApiProxy.setEnvironmentForCurrentThread(environment);
+                        runnable.run();
+                    }
+                });
+            }
+        };
+    }
+
     public static String getCurrentThreadStack() {
         StringWriter sw = new StringWriter();
         new Throwable("").printStackTrace(new PrintWriter(sw));
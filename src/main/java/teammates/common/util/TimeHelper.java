@@ -10,6 +10,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 import teammates.common.util.Const.SystemParams;
 
@@ -320,6 +321,14 @@ public final class TimeHelper {
         
     }
 
+    /**
+     * Returns the number of whole days from the epoch to the given date, so that dates
+     * can be grouped by the day they fall on. Later dates never have fewer days.
+     */
+    public static long getDaysSinceEpoch(Date date) {
+        return TimeUnit.MILLISECONDS.toDays(date.getTime());
+    }
+
     public static boolean isOlderThanAYear(Date compareDate) {
         Date currentDate = new Date();
         int differenceInDays;
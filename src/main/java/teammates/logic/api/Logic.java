@@ -1,5 +1,8 @@
 package teammates.logic.api;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +31,8 @@ import teammates.common.datatransfer.FeedbackSessionResultsBundle;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.InstructorPrivileges;
 import teammates.common.datatransfer.InstructorSearchResultBundle;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.datatransfer.PersistenceCheckMetricsBundle;
 import teammates.common.datatransfer.SectionDetailsBundle;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentProfileAttributes;
@@ -40,9 +45,11 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.ExceedingRangeException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.exception.JoinCourseException;
+import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.RequestMetrics;
 import teammates.logic.core.AccountsLogic;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.CommentsLogic;
@@ -54,6 +61,7 @@ import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.MetricsLogic;
 import teammates.logic.core.ProfilesLogic;
 import teammates.logic.core.StudentsLogic;
 
@@ -87,6 +95,7 @@ public class Logic {
     protected static FeedbackResponseCommentsLogic feedbackResponseCommentsLogic = FeedbackResponseCommentsLogic.inst();
     protected static AdminEmailsLogic adminEmailsLogic = AdminEmailsLogic.inst();
     protected static ProfilesLogic profilesLogic = ProfilesLogic.inst();
+    protected static MetricsLogic metricsLogic = MetricsLogic.inst();
 
     /**
      * Produces the URL the user should use to login to the system
@@ -344,6 +353,15 @@ public class Logic {
         instructorsLogic.putDocument(instructor);
     }
     
+    /**
+     * Create or update documents for the given Instructors in batches,
+     * retrieving the course of each once
+     */
+    public void putInstructorDocuments(List<InstructorAttributes> instructors) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, instructors);
+        instructorsLogic.putDocuments(instructors);
+    }
+    
     /**
      * Remove document for the given Instructor
      * @param comment to be removed from documents
@@ -1305,6 +1323,15 @@ public class Logic {
         studentsLogic.putDocument(student);
     }
     
+    /**
+     * Create or update documents for the given Students in batches,
+     * retrieving the course of each once
+     */
+    public void putStudentDocuments(List<StudentAttributes> students) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, students);
+        studentsLogic.putDocuments(students);
+    }
+    
     /**
      * Generates students list of a course in CSV format. <br>
      * Preconditions: <br>
@@ -1550,6 +1577,27 @@ public class Logic {
                 filterText, isMissingResponsesShown, isStatsShown);
     }
     
+    /**
+     * Writes summary results (without comments) in CSV format to {@code writer}.
+     * If {@code section} is null, results from all sections are written. <br>
+     * Preconditions: <br>
+     * * All parameters except {@code section} and {@code filterText} are non-null. <br>
+     */
+    public void writeFeedbackSessionResultSummaryAsCsv(
+            String courseId, String feedbackSessionName, String instructorEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown,
+            Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, writer);
+        
+        feedbackSessionsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                feedbackSessionName, courseId, instructorEmail, section,
+                filterText, isMissingResponsesShown, isStatsShown, writer);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -1860,12 +1908,16 @@ public class Logic {
     
     /**
      * Gets a question+response bundle for questions with responses that
-     * is visible to the instructor for a feedback session within the given range
+     * is visible to the instructor for a feedback session, reading one page of responses.
+     * The {@code nextCursor} of the bundle is the cursor to pass to read the next page.
      * Preconditions: <br>
-     * * All parameters are non-null.
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor null to read the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorWithinRangeFromView(
-            String feedbackSessionName, String courseId, String userEmail, long range, String viewType)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorPageFromView(
+            String feedbackSessionName, String courseId, String userEmail, String cursor, int pageSize,
+            String viewType)
             throws EntityDoesNotExistException {
         
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
@@ -1873,19 +1925,22 @@ public class Logic {
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, viewType);
        
-        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorWithinRangeFromView(feedbackSessionName,
-                                                                                               courseId, userEmail,
-                                                                                               range, viewType);
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorPageFromView(
+                                        feedbackSessionName, courseId, userEmail, cursor, pageSize, viewType);
     }
     
     /**
      * Gets a question+response bundle for questions with responses that
-     * is visible to the instructor for a feedback session in a section within the given range
+     * is visible to the instructor for a feedback session in a section, reading one page of responses.
+     * The {@code nextCursor} of the bundle is the cursor to pass to read the next page.
      * Preconditions: <br>
-     * * All parameters are non-null.
+     * * All parameters except {@code section} and {@code cursor} are non-null.
+     * @param cursor null to read the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range, String viewType)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorInSectionPageFromView(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize, String viewType)
             throws EntityDoesNotExistException {
         
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
@@ -1893,44 +1948,52 @@ public class Logic {
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, viewType);
         
-        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
-                                        feedbackSessionName, courseId, userEmail, section, range, viewType);
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorInSectionPageFromView(
+                                        feedbackSessionName, courseId, userEmail, section, cursor, pageSize, viewType);
     }
     
     /**
      * Gets a question+response bundle for questions with responses that
-     * is visible to the instructor for a feedback session from a section within the given range
+     * is visible to the instructor for a feedback session from a section, reading one page of responses.
+     * The {@code nextCursor} of the bundle is the cursor to pass to read the next page.
      * Preconditions: <br>
-     * * All parameters are non-null.
+     * * All parameters except {@code section} and {@code cursor} are non-null.
+     * @param cursor null to read the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionWithinRange(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
             throws EntityDoesNotExistException {
         
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
 
-        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorFromSectionWithinRange(
-                                        feedbackSessionName, courseId, userEmail, section, range);
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorFromSectionPage(
+                                        feedbackSessionName, courseId, userEmail, section, cursor, pageSize);
     }
     
     /**
      * Gets a question+response bundle for questions with responses that
-     * is visible to the instructor for a feedback session to a section within the given range
+     * is visible to the instructor for a feedback session to a section, reading one page of responses.
+     * The {@code nextCursor} of the bundle is the cursor to pass to read the next page.
      * Preconditions: <br>
-     * * All parameters are non-null.
+     * * All parameters except {@code section} and {@code cursor} are non-null.
+     * @param cursor null to read the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionWithinRange(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
             throws EntityDoesNotExistException {
         
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackSessionName);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, courseId);
         Assumption.assertNotNull(ERROR_NULL_PARAMETER, userEmail);
 
-        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorToSectionWithinRange(
-                                        feedbackSessionName, courseId, userEmail, section, range);
+        return feedbackSessionsLogic.getFeedbackSessionResultsForInstructorToSectionPage(
+                                        feedbackSessionName, courseId, userEmail, section, cursor, pageSize);
     }
 
     /**
@@ -2079,6 +2142,16 @@ public class Logic {
         return feedbackResponsesLogic.getFeedbackResponse(feedbackResponseId);
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the existing responses among {@code feedbackResponseIds}, read with one batched get
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, feedbackResponseIds);
+        return feedbackResponsesLogic.getFeedbackResponses(feedbackResponseIds);
+    }
+    
     public FeedbackResponseAttributes getFeedbackResponse(String feedbackQuestionId,
                                                           String giverEmail,
                                                           String recipient) {
@@ -2130,6 +2203,22 @@ public class Logic {
         feedbackResponsesLogic.updateFeedbackResponse(feedbackResponse);
     }
     
+    /**
+     * Creates, updates and deletes the given responses together, with batched datastore calls.
+     * The responses that cannot be saved are skipped, and the others are saved.
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the errors of the responses that were not saved
+     */
+    public List<TeammatesException> saveFeedbackResponses(List<FeedbackResponseAttributes> responsesToSave,
+                                                          List<FeedbackResponseAttributes> responsesToDelete)
+            throws EntityDoesNotExistException {
+        
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToSave);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, responsesToDelete);
+        return feedbackResponsesLogic.saveFeedbackResponses(responsesToSave, responsesToDelete);
+    }
+    
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -2209,6 +2298,15 @@ public class Logic {
         feedbackResponseCommentsLogic.putDocument(comment);
     }
     
+    /**
+     * Create or update documents for the given FeedbackResponseComments in batches,
+     * retrieving the rosters of their courses and their responses once for all of them
+     */
+    public void putFeedbackResponseCommentDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, comments);
+        feedbackResponseCommentsLogic.putDocuments(comments);
+    }
+    
     /**
      * Remove document for the given FeedbackResponseComment
      * @param comment to be removed from documents
@@ -2306,6 +2404,15 @@ public class Logic {
         commentsLogic.putDocument(comment);
     }
     
+    /**
+     * Create or update documents for the given Comments in batches,
+     * retrieving the rosters of their courses once for all of them
+     */
+    public void putCommentDocuments(List<CommentAttributes> comments) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, comments);
+        commentsLogic.putDocuments(comments);
+    }
+    
     /**
      * Remove document for the given Comment
      * @param comment to be removed from the documents
@@ -2625,6 +2732,40 @@ public class Logic {
         return errorReport;
     }
 
+    /**
+     * Records the time taken by a request handled by an action of the type {@code actionName},
+     * together with its outcome and the work done by the request.
+     * @param outcome {@link MetricsLogic#OUTCOME_SUCCESS}, or what the request failed with
+     */
+    public void recordActionMetrics(String actionName, long timeTakenInMillis, String outcome,
+                                    RequestMetrics requestMetrics) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, actionName);
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, outcome);
+        metricsLogic.recordRequest(actionName, timeTakenInMillis, outcome, requestMetrics);
+    }
+
+    /**
+     * @return the metrics of the requests handled by this app instance since its last metrics snapshot.
+     */
+    public MetricsSnapshotBundle getCurrentMetricsSnapshot() {
+        return metricsLogic.getCurrentSnapshot();
+    }
+
+    /**
+     * @return the checks that this app instance ran to confirm its datastore writes, since it started.
+     */
+    public PersistenceCheckMetricsBundle getPersistenceCheckMetrics() {
+        return metricsLogic.getPersistenceCheckMetrics();
+    }
+
+    /**
+     * @return the metrics snapshots of all app instances that ended at or after {@code endTime}, latest first.
+     */
+    public List<MetricsSnapshotBundle> getMetricsSnapshotsEndingFrom(Date endTime) {
+        Assumption.assertNotNull(ERROR_NULL_PARAMETER, endTime);
+        return metricsLogic.getSnapshotsEndingFrom(endTime);
+    }
+
     public List<String> getArchivedCourseIds(List<CourseAttributes> allCourses,
                                              Map<String, InstructorAttributes> instructorsForCourses) {
         Assumption.assertNotNull(allCourses);
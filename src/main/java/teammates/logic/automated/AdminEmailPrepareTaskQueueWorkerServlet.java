@@ -15,7 +15,9 @@ import teammates.common.util.Const;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.TaskWrapper;
 import teammates.logic.core.AdminEmailsLogic;
 import teammates.logic.core.TaskQueuesLogic;
 
@@ -32,8 +34,6 @@ import com.google.apphosting.api.ApiProxy;
 @SuppressWarnings("serial")
 public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
     
-    private List<List<String>> processedReceiverEmails = new ArrayList<List<String>>();
-    
     //param needed for sending small number of emails
     private String addressReceiverListString;
     
@@ -74,24 +74,16 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
                             req, ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY);
             Assumption.assertNotNull(groupReceiverListFileKey);
             
-            String indexOfEmailListToResumeAsString =
-                    HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
-            String indexOfEmailToResumeAsString =
+            String offsetToResumeAsString =
                     HttpRequestHelper.getValueFromRequestParameterMap(
-                            req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
+                            req, ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET);
             
-            int indexOfEmailListToResume = indexOfEmailListToResumeAsString == null
-                                           ? 0
-                                           : Integer.parseInt(indexOfEmailListToResumeAsString);
-            int indexOfEmailToResume = indexOfEmailToResumeAsString == null
-                                       ? 0
-                                       : Integer.parseInt(indexOfEmailToResumeAsString);
-  
             try {
-                processedReceiverEmails =
-                        GoogleCloudStorageHelper.getGroupReceiverList(new BlobKey(groupReceiverListFileKey));
-                addAdminEmailToTaskQueue(emailId, indexOfEmailListToResume, indexOfEmailToResume);
+                long offsetToResume = offsetToResumeAsString == null
+                                      ? getOffsetToResumeFromIndexes(req)
+                                      : Long.parseLong(offsetToResumeAsString);
+                
+                addAdminEmailToTaskQueue(emailId, offsetToResume);
     
             } catch (IOException e) {
                 log.severe("Unexpected error while adding admin email tasks" + e.getMessage());
@@ -100,20 +92,46 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
         }
     }
     
+    /**
+     * Gets the offset to resume from for a task paused before the list offset replaced the list and
+     * email indexes, so that such tasks still in the queue do not start the list again.
+     */
+    private long getOffsetToResumeFromIndexes(HttpServletRequest req) throws IOException {
+        String indexOfEmailListToResumeAsString =
+                HttpRequestHelper.getValueFromRequestParameterMap(
+                        req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX);
+        String indexOfEmailToResumeAsString =
+                HttpRequestHelper.getValueFromRequestParameterMap(
+                        req, ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX);
+        
+        if (indexOfEmailListToResumeAsString == null && indexOfEmailToResumeAsString == null) {
+            return 0;
+        }
+        
+        int indexOfEmailListToResume = indexOfEmailListToResumeAsString == null
+                                       ? 0
+                                       : Integer.parseInt(indexOfEmailListToResumeAsString);
+        int indexOfEmailToResume = indexOfEmailToResumeAsString == null
+                                   ? 0
+                                   : Integer.parseInt(indexOfEmailToResumeAsString);
+        
+        return GoogleCloudStorageHelper.getGroupReceiverListOffset(
+                new BlobKey(groupReceiverListFileKey), indexOfEmailListToResume, indexOfEmailToResume);
+    }
+    
     private boolean isNearDeadline() {
         
         long timeLeftInMillis = ApiProxy.getCurrentEnvironment().getRemainingMillis();
         return timeLeftInMillis / 1000 < 100;
     }
     
-    private void pauseAndCreateAnNewTask(int indexOfEmailList, int indexOfEmail) {
+    private void pauseAndCreateAnNewTask(long offsetOfReceiverList) {
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
         HashMap<String, String> paramMap = new HashMap<String, String>();
         paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
         paramMap.put(ParamsNames.ADMIN_EMAIL_GROUP_RECEIVER_LIST_FILE_KEY, groupReceiverListFileKey);
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_LIST_INDEX, Integer.toString(indexOfEmailList));
-        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_EMAIL_INDEX, Integer.toString(indexOfEmail));
+        paramMap.put(ParamsNames.ADMIN_GROUP_RECEIVER_LIST_OFFSET, Long.toString(offsetOfReceiverList));
         paramMap.put(ParamsNames.ADMIN_EMAIL_TASK_QUEUE_MODE, Const.ADMIN_EMAIL_TASK_QUEUE_GROUP_MODE);
         
         taskQueueLogic.createAndAddTask(SystemParams.ADMIN_PREPARE_EMAIL_TASK_QUEUE,
@@ -125,7 +143,6 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         List<String> addressList = new ArrayList<String>();
         
         if (addressReceiverListString.contains(",")) {
@@ -134,82 +151,89 @@ public class AdminEmailPrepareTaskQueueWorkerServlet extends WorkerServlet {
             addressList.add(addressReceiverListString);
         }
         
-        for (String emailAddress : addressList) {
-            HashMap<String, String> paramMap = new HashMap<String, String>();
-            paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-            paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, emailAddress);
-            paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
-            paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
-            
-            try {
-                taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-            } catch (IllegalArgumentException e) {
-                if (e.getMessage().toLowerCase().contains("task size too large")) {
-                    log.info("Email task size exceeds max limit. Switching to large email task mode.");
-                    paramMap.remove(ParamsNames.ADMIN_EMAIL_SUBJECT);
-                    paramMap.remove(ParamsNames.ADMIN_EMAIL_CONTENT);
-                    taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                    Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                }
-            }
-               
-        }
+        addAdminEmailTasks(adminEmail, addressList, false);
 
     }
     
-    private void addAdminEmailToTaskQueue(String emailId, int indexOfEmailListToResume, int indexOfEmailToResume) {
+    private void addAdminEmailToTaskQueue(String emailId, long offsetToResume) throws IOException {
         
         AdminEmailAttributes adminEmail = AdminEmailsLogic.inst().getAdminEmailById(emailId);
         Assumption.assertNotNull(adminEmail);
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
         
-        log.info("Resume Adding group mail tasks for mail with id " + emailId + "from list index: "
-                + indexOfEmailListToResume + " email index: " + indexOfEmailToResume);
+        log.info("Resume Adding group mail tasks for mail with id " + emailId + " from list offset: "
+                + offsetToResume);
         
-        int indexOfLastEmailList = 0;
-        int indexOfLastEmail = 0;
+        // only the part of the list from where the last task paused is read
+        GroupReceiverListReader reader =
+                GoogleCloudStorageHelper.openGroupReceiverList(new BlobKey(groupReceiverListFileKey), offsetToResume);
+        int numberOfReceivers = 0;
+        boolean isLargeEmail = false;
         
-        for (int i = indexOfEmailListToResume; i < processedReceiverEmails.size(); i++) {
-            
-            List<String> currentEmailList = processedReceiverEmails.get(i);
-            
-            for (int j = indexOfEmailToResume; j < currentEmailList.size(); j++) {
-                String receiverEmail = currentEmailList.get(j);
+        try {
+            while (reader.hasNext()) {
                 
-                HashMap<String, String> paramMap = new HashMap<String, String>();
-                paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
-                paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
-                paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
-                
-                try {
-                    taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                    Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                } catch (IllegalArgumentException e) {
-                    if (e.getMessage().toLowerCase().contains("task size too large")) {
-                        log.info("Email task size exceeds max limit. Switching to large email task mode.");
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_SUBJECT);
-                        paramMap.remove(ParamsNames.ADMIN_EMAIL_CONTENT);
-                        taskQueueLogic.createAndAddTask(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
-                                                        Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap);
-                    }
+                // the tasks are added in batches, each as large as the task queue takes in one call
+                List<String> receiverEmails = new ArrayList<String>();
+                while (reader.hasNext() && receiverEmails.size() < TaskQueuesLogic.MAX_TASKS_PER_ADD) {
+                    receiverEmails.add(reader.next());
                 }
                 
-                if (isNearDeadline()) {
-                    pauseAndCreateAnNewTask(i, j);
+                isLargeEmail = addAdminEmailTasks(adminEmail, receiverEmails, isLargeEmail);
+                numberOfReceivers += receiverEmails.size();
+                
+                if (reader.hasNext() && isNearDeadline()) {
+                    pauseAndCreateAnNewTask(reader.getOffset());
                     log.info("Adding group mail tasks for mail with id " + emailId
-                             + " have been paused with list index: " + i + " email index: " + j);
+                             + " have been paused with list offset: " + reader.getOffset());
                     return;
                 }
-                
-                indexOfLastEmail = j;
             }
-            indexOfLastEmailList = i;
+        } finally {
+            reader.close();
         }
         
         log.info("Adding Group mail tasks for mail with id " + emailId
-                + "was complete. List index : " + indexOfLastEmailList
-                + " Email index: " + indexOfLastEmail);
+                + "was complete. Number of receivers added by this task: " + numberOfReceivers);
+    }
+    
+    /**
+     * Adds a task for each of the {@code receiverEmails}. The subject and content of the email are
+     * left out of the tasks in large email task mode, which is switched to if a task is too large.
+     * @return whether the email is in large email task mode after the tasks are added
+     */
+    private boolean addAdminEmailTasks(AdminEmailAttributes adminEmail, List<String> receiverEmails,
+                                       boolean isLargeEmail) {
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        
+        try {
+            taskQueueLogic.createAndAddTasks(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
+                                             getAdminEmailTasks(adminEmail, receiverEmails, !isLargeEmail));
+        } catch (IllegalArgumentException e) {
+            if (e.getMessage().toLowerCase().contains("task size too large")) {
+                // none of the tasks of the batch with the task too large were added
+                log.info("Email task size exceeds max limit. Switching to large email task mode.");
+                taskQueueLogic.createAndAddTasks(SystemParams.ADMIN_EMAIL_TASK_QUEUE,
+                                                 getAdminEmailTasks(adminEmail, receiverEmails, false));
+                return true;
+            }
+        }
+        return isLargeEmail;
+    }
+    
+    private List<TaskWrapper> getAdminEmailTasks(AdminEmailAttributes adminEmail, List<String> receiverEmails,
+                                                 boolean isIncludingEmailContent) {
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
+        for (String receiverEmail : receiverEmails) {
+            HashMap<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.ADMIN_EMAIL_ID, emailId);
+            paramMap.put(ParamsNames.ADMIN_EMAIL_RECEIVER, receiverEmail);
+            // in large email task mode, the worker reads the subject and content from the datastore
+            if (isIncludingEmailContent) {
+                paramMap.put(ParamsNames.ADMIN_EMAIL_SUBJECT, adminEmail.getSubject());
+                paramMap.put(ParamsNames.ADMIN_EMAIL_CONTENT, adminEmail.getContent().getValue());
+            }
+            tasks.add(new TaskWrapper(Const.ActionURIs.ADMIN_EMAIL_WORKER, paramMap));
+        }
+        return tasks;
     }
 }
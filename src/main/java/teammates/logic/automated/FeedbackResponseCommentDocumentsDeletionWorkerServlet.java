@@ -0,0 +1,34 @@
+package teammates.logic.automated;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.JsonUtils;
+import teammates.logic.core.FeedbackResponseCommentsLogic;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Removes the search documents of feedback response comments that were found to be stale,
+ * i.e. whose comment, response, question or session no longer exists, while searching.
+ */
+@SuppressWarnings("serial")
+public class FeedbackResponseCommentDocumentsDeletionWorkerServlet extends WorkerServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String commentIds =
+                HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.FEEDBACK_RESPONSE_COMMENT_IDS);
+        Assumption.assertNotNull(commentIds);
+        
+        List<Long> feedbackResponseCommentIds = JsonUtils.fromJson(commentIds, new TypeToken<List<Long>>(){}.getType());
+        FeedbackResponseCommentsLogic.inst().deleteDocuments(feedbackResponseCommentIds);
+        
+        log.info("Removed " + feedbackResponseCommentIds.size() + " stale feedback response comment documents");
+    }
+}
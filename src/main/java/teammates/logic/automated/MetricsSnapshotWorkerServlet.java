@@ -0,0 +1,44 @@
+package teammates.logic.automated;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.datatransfer.ActionMetricsBundle;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.JsonUtils;
+import teammates.logic.core.MetricsLogic;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Saves a snapshot of the request metrics of an app instance, as scheduled by {@link MetricsLogic#scheduleSnapshot()}.
+ */
+@SuppressWarnings("serial")
+public class MetricsSnapshotWorkerServlet extends WorkerServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        String instanceId = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.METRICS_SNAPSHOT_INSTANCE_ID);
+        Assumption.assertNotNull(instanceId);
+        String startTime = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.METRICS_SNAPSHOT_START_TIME);
+        Assumption.assertNotNull(startTime);
+        String endTime = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.METRICS_SNAPSHOT_END_TIME);
+        Assumption.assertNotNull(endTime);
+        String actionMetricsJson =
+                HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.METRICS_SNAPSHOT_ACTION_METRICS);
+        Assumption.assertNotNull(actionMetricsJson);
+        
+        List<ActionMetricsBundle> actionMetrics =
+                JsonUtils.fromJson(actionMetricsJson, new TypeToken<List<ActionMetricsBundle>>(){}.getType());
+        MetricsLogic.inst().saveSnapshot(new MetricsSnapshotBundle(instanceId, new Date(Long.parseLong(startTime)),
+                                                                   new Date(Long.parseLong(endTime)), actionMetrics));
+        
+        log.info("Saved the metrics snapshot of instance " + instanceId);
+    }
+}
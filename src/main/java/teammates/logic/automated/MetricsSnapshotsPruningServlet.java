@@ -0,0 +1,25 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Const;
+import teammates.logic.core.MetricsLogic;
+
+/**
+ * Deletes the request metrics snapshots past their retention period. Run daily by cron.
+ */
+@SuppressWarnings("serial")
+public class MetricsSnapshotsPruningServlet extends AutomatedRemindersServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        servletName = Const.AutomatedActionNames.AUTOMATED_METRICS_SNAPSHOTS_PRUNING;
+        action = "delete expired metrics snapshots";
+
+        String message = "Deleting metrics snapshots older than " + MetricsLogic.SNAPSHOT_RETENTION_DAYS + " days";
+        logMessage(req, message);
+        
+        MetricsLogic.inst().deleteExpiredSnapshots();
+    }
+}
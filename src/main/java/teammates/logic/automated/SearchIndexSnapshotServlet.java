@@ -0,0 +1,26 @@
+package teammates.logic.automated;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.util.Const;
+import teammates.storage.search.SearchManager;
+
+/**
+ * Saves a snapshot of the search indices if they are kept in the memory of the app. Run every
+ * 10 minutes by cron, as instances are not always told when they are shut down.
+ */
+@SuppressWarnings("serial")
+public class SearchIndexSnapshotServlet extends AutomatedRemindersServlet {
+    
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        servletName = Const.AutomatedActionNames.AUTOMATED_SEARCH_INDEX_SNAPSHOT;
+        action = "save search index snapshot";
+
+        String message = "Saving a snapshot of the search indices";
+        logMessage(req, message);
+        
+        SearchManager.saveSnapshot();
+    }
+}
@@ -1,15 +1,21 @@
 package teammates.logic.automated;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
+import teammates.common.util.CompiledTemplate;
 import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
+import teammates.common.util.JsonUtils;
 import teammates.logic.core.EmailSender;
 
+import com.google.gson.reflect.TypeToken;
+
 @SuppressWarnings("serial")
 public class SendEmailWorkerServlet extends WorkerServlet {
     
@@ -18,37 +24,62 @@ public class SendEmailWorkerServlet extends WorkerServlet {
         String emailSubject = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SUBJECT);
         Assumption.assertNotNull(emailSubject);
         
-        String emailContent = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_CONTENT);
-        Assumption.assertNotNull(emailContent);
+        String emailContentTemplate = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_CONTENT);
+        Assumption.assertNotNull(emailContentTemplate);
         
         String emailSender = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SENDER);
         Assumption.assertNotNull(emailSender);
         
         String emailSenderName = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_SENDERNAME);
         
-        String emailReceiver = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVER);
-        Assumption.assertNotNull(emailReceiver);
-        
         String emailReply = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_REPLY_TO_ADDRESS);
         Assumption.assertNotNull(emailReply);
         
-        EmailWrapper message = new EmailWrapper();
-        message.setRecipient(emailReceiver);
-        message.setSenderEmail(emailSender);
-        if (emailSenderName != null) {
-            message.setSenderName(emailSenderName);
+        List<EmailWrapper> messages = getReceivers(req);
+        CompiledTemplate compiledContentTemplate = CompiledTemplate.compile(emailContentTemplate);
+        for (EmailWrapper message : messages) {
+            message.setSenderEmail(emailSender);
+            if (emailSenderName != null) {
+                message.setSenderName(emailSenderName);
+            }
+            message.setContentTemplate(emailContentTemplate);
+            message.setContent(compiledContentTemplate.populate(message.getSubstitutions()));
+            message.setSubject(emailSubject);
+            message.setReplyTo(emailReply);
         }
-        message.setContent(emailContent);
-        message.setSubject(emailSubject);
-        message.setReplyTo(emailReply);
-        
-        try {
-            new EmailSender().sendEmail(message);
-        } catch (Exception e) {
-            log.severe("Error while sending email via servlet: " + TeammatesException.toStringWithStackTrace(e));
+        
+        List<EmailWrapper> failedMessages = new EmailSender().sendEmailBatch(messages);
+        if (failedMessages.size() == messages.size()) {
+            log.severe("Error while sending emails via servlet: none of the " + messages.size() + " emails were sent");
             
             // Sets an arbitrary retry code outside of the range 200-299 so GAE will automatically retry upon failure
             resp.setStatus(100);
+        } else if (!failedMessages.isEmpty()) {
+            log.severe("Error while sending emails via servlet: " + failedMessages.size() + " of the "
+                       + messages.size() + " emails were not sent and are queued again");
+            
+            // retries only the emails that failed, so that the others are not sent twice
+            new EmailSender().sendEmails(failedMessages);
         }
     }
+    
+    /**
+     * Returns the receivers of the batch of emails, each with only the recipient and the substitutions set.
+     */
+    private List<EmailWrapper> getReceivers(HttpServletRequest req) {
+        String emailReceivers = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVERS);
+        if (emailReceivers != null) {
+            return JsonUtils.fromJson(emailReceivers, new TypeToken<ArrayList<EmailWrapper>>(){}.getType());
+        }
+        
+        // tasks queued by older versions carry a single receiver
+        String emailReceiver = HttpRequestHelper.getValueFromRequestParameterMap(req, ParamsNames.EMAIL_RECEIVER);
+        Assumption.assertNotNull(emailReceiver);
+        
+        EmailWrapper receiver = new EmailWrapper();
+        receiver.setRecipient(emailReceiver);
+        List<EmailWrapper> receivers = new ArrayList<EmailWrapper>();
+        receivers.add(receiver);
+        return receivers;
+    }
 }
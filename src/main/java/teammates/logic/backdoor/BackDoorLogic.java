@@ -27,8 +27,8 @@ import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.JsonUtils;
-import teammates.common.util.ThreadHelper;
 import teammates.logic.api.Logic;
+import teammates.logic.core.CourseRosterCache;
 import teammates.storage.api.AccountsDb;
 import teammates.storage.api.CommentsDb;
 import teammates.storage.api.CoursesDb;
@@ -53,11 +53,11 @@ public class BackDoorLogic extends Logic {
     private static final FeedbackResponseCommentsDb fcDb = new FeedbackResponseCommentsDb();
     
     public String putDocumentsForStudents(DataBundle dataBundle) {
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : dataBundle.students.values()) {
-            student = getStudentForEmail(student.course, student.email);
-            putDocument(student);
-            ThreadHelper.waitFor(50);
+            students.add(getStudentForEmail(student.course, student.email));
         }
+        putStudentDocuments(students);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -130,6 +130,16 @@ public class BackDoorLogic extends Logic {
         accountsDb.createAccounts(studentAccounts, false);
         studentsDb.createStudentsWithoutSearchability(students.values());
         
+        Set<String> courseIdsWithRosterChanges = new HashSet<String>();
+        for (InstructorAttributes instructor : instructors.values()) {
+            courseIdsWithRosterChanges.add(instructor.courseId);
+        }
+        for (StudentAttributes student : students.values()) {
+            courseIdsWithRosterChanges.add(student.course);
+        }
+        for (String courseId : courseIdsWithRosterChanges) {
+            CourseRosterCache.inst().invalidate(courseId);
+        }
 
         Map<String, FeedbackSessionAttributes> sessions = dataBundle.feedbackSessions;
         for (FeedbackSessionAttributes session : sessions.values()) {
@@ -242,25 +252,24 @@ public class BackDoorLogic extends Logic {
     public String putDocuments(DataBundle dataBundle) {
         // query the entity in db first to get the actual data and create document for actual entity
         
-        Map<String, StudentAttributes> students = dataBundle.students;
-        for (StudentAttributes student : students.values()) {
-            StudentAttributes studentInDb = studentsDb.getStudentForEmail(student.course, student.email);
-            studentsDb.putDocument(studentInDb);
-            ThreadHelper.waitFor(50);
+        List<StudentAttributes> studentsInDb = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            studentsInDb.add(studentsDb.getStudentForEmail(student.course, student.email));
         }
+        studentsDb.putDocuments(studentsInDb);
         
-        Map<String, FeedbackResponseCommentAttributes> responseComments = dataBundle.feedbackResponseComments;
-        for (FeedbackResponseCommentAttributes responseComment : responseComments.values()) {
-            FeedbackResponseCommentAttributes fcInDb = fcDb.getFeedbackResponseComment(
-                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail);
-            fcDb.putDocument(fcInDb);
+        List<FeedbackResponseCommentAttributes> responseCommentsInDb = new ArrayList<FeedbackResponseCommentAttributes>();
+        for (FeedbackResponseCommentAttributes responseComment : dataBundle.feedbackResponseComments.values()) {
+            responseCommentsInDb.add(fcDb.getFeedbackResponseComment(
+                    responseComment.courseId, responseComment.createdAt, responseComment.giverEmail));
         }
+        fcDb.putDocuments(responseCommentsInDb);
         
-        Map<String, CommentAttributes> comments = dataBundle.comments;
-        for (CommentAttributes comment : comments.values()) {
-            CommentAttributes commentInDb = commentsDb.getComment(comment);
-            commentsDb.putDocument(commentInDb);
+        List<CommentAttributes> commentsInDb = new ArrayList<CommentAttributes>();
+        for (CommentAttributes comment : dataBundle.comments.values()) {
+            commentsInDb.add(commentsDb.getComment(comment));
         }
+        commentsDb.putDocuments(commentsInDb);
         
         return Const.StatusCodes.BACKDOOR_STATUS_SUCCESS;
     }
@@ -471,6 +480,9 @@ public class BackDoorLogic extends Logic {
             fqDb.deleteFeedbackQuestionsForCourses(courseIds);
             frDb.deleteFeedbackResponsesForCourses(courseIds);
             fcDb.deleteFeedbackResponseCommentsForCourses(courseIds);
+            for (String courseId : courseIds) {
+                CourseRosterCache.inst().invalidate(courseId);
+            }
         }
     }
 
@@ -236,6 +236,13 @@ public class CommentsLogic {
         commentsDb.putDocument(comment);
     }
     
+    /**
+     * Create or update documents for the comments in batches
+     */
+    public void putDocuments(List<CommentAttributes> comments) {
+        commentsDb.putDocuments(comments);
+    }
+    
     public CommentSearchResultBundle searchComment(String queryString, List<InstructorAttributes> instructors,
                                                    String cursorString) {
         return commentsDb.search(queryString, instructors, cursorString);
@@ -0,0 +1,217 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Config;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.ThreadHelper;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.Datastore;
+
+/**
+ * Caches the {@link CourseRoster} of courses across requests, keyed by course ID,
+ * so that the students and instructors of a course are not read from the datastore on every request.
+ * The implementation is chosen by "app.rostercache" in build.properties.
+ * <br> Rosters are cached as JSON, so every lookup returns a new {@link CourseRoster}
+ * which the caller is free to modify. The students keep their creation and update time stamps.
+ * <br> The roster of a course must be invalidated whenever its students or instructors change;
+ * {@link StudentsLogic} and {@link InstructorsLogic} do this for their write operations.
+ */
+public abstract class CourseRosterCache {
+
+    /**
+     * A roster read from the datastore before an invalidation may only be ready to be cached after it.
+     * The roster of a course is not cached for this long after it is invalidated,
+     * so that such a stale roster is not cached.
+     */
+    protected static final int INVALIDATION_QUIET_PERIOD_MILLIS = 5000;
+
+    /**
+     * The most rosters that {@link #getCourseRosters(List)} reads from the datastore at the same time.
+     */
+    public static final int MAX_CONCURRENT_ROSTER_READS = 10;
+
+    private static CourseRosterCache instance;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public static CourseRosterCache inst() {
+        if (instance == null) {
+            if (Config.isUsingMemcacheRosterCache()) {
+                instance = new MemcacheCourseRosterCache();
+            } else if (Config.isUsingInProcessRosterCache()) {
+                instance = new InProcessCourseRosterCache();
+            } else {
+                instance = new NoCourseRosterCache();
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the roster of the course, read from the datastore only if it is not cached.
+     */
+    public CourseRoster getCourseRoster(String courseId) {
+        CourseRoster roster = getCachedCourseRoster(courseId);
+        return roster == null ? readCourseRoster(courseId) : roster;
+    }
+
+    /**
+     * @return the rosters of the courses, keyed by course ID. The rosters that are not cached
+     *         are read from the datastore concurrently, by up to {@link #MAX_CONCURRENT_ROSTER_READS}
+     *         threads of the current request.
+     */
+    public Map<String, CourseRoster> getCourseRosters(List<String> courseIds) {
+        Map<String, CourseRoster> rosters = new HashMap<String, CourseRoster>();
+        List<String> uncachedCourseIds = new ArrayList<String>();
+        for (String courseId : courseIds) {
+            CourseRoster roster = getCachedCourseRoster(courseId);
+            if (roster == null) {
+                uncachedCourseIds.add(courseId);
+            } else {
+                rosters.put(courseId, roster);
+            }
+        }
+
+        if (uncachedCourseIds.size() <= 1) {
+            for (String courseId : uncachedCourseIds) {
+                rosters.put(courseId, readCourseRoster(courseId));
+            }
+            return rosters;
+        }
+
+        ExecutorService executor =
+                Executors.newFixedThreadPool(Math.min(uncachedCourseIds.size(), MAX_CONCURRENT_ROSTER_READS),
+                                             ThreadHelper.getRequestThreadFactory());
+        try {
+            Map<String, Future<CourseRoster>> rosterReads = new LinkedHashMap<String, Future<CourseRoster>>();
+            for (final String courseId : uncachedCourseIds) {
+                rosterReads.put(courseId, executor.submit(new Callable<CourseRoster>() {
+                    @Override
+                    public CourseRoster call() {
+                        try {
+                            return readCourseRoster(courseId);
+                        } finally {
+                            // the thread ends with the pool, so the persistence manager bound to it is not reused
+                            Datastore.closePersistenceManagerForCurrentThread();
+                        }
+                    }
+                }));
+            }
+            for (Map.Entry<String, Future<CourseRoster>> rosterRead : rosterReads.entrySet()) {
+                rosters.put(rosterRead.getKey(), rosterRead.getValue().get());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Failed to read the rosters of courses " + uncachedCourseIds, e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return rosters;
+    }
+
+    private CourseRoster getCachedCourseRoster(String courseId) {
+        String cachedRoster = getCachedRoster(courseId);
+        if (cachedRoster == null) {
+            return null;
+        }
+        CachedRoster roster = JsonUtils.fromJson(cachedRoster, CachedRoster.class);
+        if (roster.studentCreatedTimes == null) {
+            // cached by a version of the app that did not keep the time stamps
+            removeCachedRoster(courseId);
+            return null;
+        }
+        hitCount.incrementAndGet();
+        for (int i = 0; i < roster.students.size(); i++) {
+            roster.students.get(i).setTimestamps(new Date(roster.studentCreatedTimes.get(i)),
+                                                 new Date(roster.studentUpdatedTimes.get(i)));
+        }
+        return new CourseRoster(roster.students, roster.instructors);
+    }
+
+    private CourseRoster readCourseRoster(String courseId) {
+        missCount.incrementAndGet();
+
+        CachedRoster roster = new CachedRoster();
+        roster.students = new StudentsDb().getStudentsForCourse(courseId);
+        roster.instructors = new InstructorsDb().getInstructorsForCourse(courseId);
+        roster.studentCreatedTimes = new ArrayList<Long>();
+        roster.studentUpdatedTimes = new ArrayList<Long>();
+        for (StudentAttributes student : roster.students) {
+            roster.studentCreatedTimes.add(student.getCreatedAt().getTime());
+            roster.studentUpdatedTimes.add(student.getUpdatedAt().getTime());
+        }
+        cacheRoster(courseId, JsonUtils.toCompactJson(roster, CachedRoster.class));
+        return new CourseRoster(roster.students, roster.instructors);
+    }
+
+    /**
+     * Removes the roster of the course from the cache. To be called after its students or instructors change.
+     */
+    public void invalidate(String courseId) {
+        removeCachedRoster(courseId);
+    }
+
+    /**
+     * @return the roster of the course as JSON, or null if it is not cached.
+     */
+    protected abstract String getCachedRoster(String courseId);
+
+    /**
+     * Caches the roster of the course as JSON, unless it was invalidated
+     * within the last {@link #INVALIDATION_QUIET_PERIOD_MILLIS}.
+     */
+    protected abstract void cacheRoster(String courseId, String roster);
+
+    protected abstract void removeCachedRoster(String courseId);
+
+    /**
+     * @return the number of rosters evicted to keep the cache within its size limit
+     */
+    public abstract long getEvictionCount();
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the fraction of lookups that were served from the cache, or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * The form in which a roster is stored in the cache.
+     * The time stamps of students are not serialized with them, so they are kept alongside,
+     * in milliseconds because the JSON date format does not keep seconds.
+     */
+    private static class CachedRoster {
+        List<StudentAttributes> students;
+        List<InstructorAttributes> instructors;
+        List<Long> studentCreatedTimes;
+        List<Long> studentUpdatedTimes;
+    }
+
+}
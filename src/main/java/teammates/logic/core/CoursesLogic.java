@@ -11,6 +11,7 @@ import java.util.Set;
 import teammates.common.datatransfer.AccountAttributes;
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.CourseDetailsBundle;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.CourseSummaryBundle;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
@@ -61,6 +62,7 @@ public class CoursesLogic {
     private static final AccountsLogic accountsLogic = AccountsLogic.inst();
     private static final FeedbackSessionsLogic feedbackSessionsLogic = FeedbackSessionsLogic.inst();
     private static final CommentsLogic commentsLogic = CommentsLogic.inst();
+    private static final CourseRosterCache rosterCache = CourseRosterCache.inst();
 
     public static CoursesLogic inst() {
         if (instance == null) {
@@ -301,7 +303,15 @@ public class CoursesLogic {
     public List<SectionDetailsBundle> getSectionsForCourse(CourseAttributes course, CourseDetailsBundle cdd) {
         Assumption.assertNotNull("Course is null", course);
         
-        List<StudentAttributes> students = studentsLogic.getStudentsForCourse(course.getId());
+        return getSectionsForCourse(studentsLogic.getStudentsForCourse(course.getId()), cdd);
+    }
+    
+    /**
+     * @param students all students of the course, which are sorted by this method
+     * @param cdd {@link CourseDetailsBundle}, whose stats are updated with the students
+     */
+    private List<SectionDetailsBundle> getSectionsForCourse(List<StudentAttributes> students,
+                                                            CourseDetailsBundle cdd) {
         StudentAttributes.sortBySectionName(students);
         
         List<SectionDetailsBundle> sections = new ArrayList<SectionDetailsBundle>();
@@ -506,6 +516,13 @@ public class CoursesLogic {
         return cdd;
     }
     
+    private CourseDetailsBundle getCourseSummary(CourseAttributes cd, CourseRoster roster) {
+        CourseDetailsBundle cdd = new CourseDetailsBundle(cd);
+        cdd.sections = (ArrayList<SectionDetailsBundle>) getSectionsForCourse(roster.getStudents(), cdd);
+        
+        return cdd;
+    }
+    
     // TODO: reduce calls to this function, use above function instead.
     /**
      * @param courseId
@@ -674,8 +691,16 @@ public class CoursesLogic {
             log.severe("Course(s) was deleted but the instructor still exists: " + Const.EOL + courseIdList.toString());
         }
         
+        // the students of all courses are read together, as reading them one course at a time is slow
+        // for instructors of many courses
+        List<String> existingCourseIds = new ArrayList<String>();
+        for (CourseAttributes ca : courseList) {
+            existingCourseIds.add(ca.getId());
+        }
+        Map<String, CourseRoster> rosters = rosterCache.getCourseRosters(existingCourseIds);
+        
         for (CourseAttributes ca : courseList) {
-            courseSummaryList.put(ca.getId(), getCourseSummary(ca));
+            courseSummaryList.put(ca.getId(), getCourseSummary(ca, rosters.get(ca.getId())));
         }
         
         return courseSummaryList;
@@ -3,7 +3,9 @@ package teammates.logic.core;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import teammates.common.datatransfer.CourseAttributes;
@@ -13,6 +15,7 @@ import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.UserType;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.TeammatesException;
+import teammates.common.util.CompiledTemplate;
 import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.EmailType;
@@ -45,7 +48,7 @@ public class EmailGenerator {
      */
     public List<EmailWrapper> generateFeedbackSessionOpeningEmails(FeedbackSessionAttributes session) {
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
+        String template = EmailTemplates.USER_FEEDBACK_SESSION.replace("${status}", "is now open");
         
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
         boolean isEmailNeeded = fsLogic.isFeedbackSessionForStudentsToAnswer(session);
@@ -56,12 +59,8 @@ public class EmailGenerator {
                                            ? studentsLogic.getStudentsForCourse(session.getCourseId())
                                            : new ArrayList<StudentAttributes>();
         
-        List<EmailWrapper> emails = generateFeedbackSessionEmailBases(course, session, students, instructors, template,
-                                                                      EmailType.FEEDBACK_OPENING.getSubject());
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is now open"));
-        }
-        return emails;
+        return generateFeedbackSessionEmailBases(course, session, students, instructors, template,
+                                                 EmailType.FEEDBACK_OPENING.getSubject());
     }
     
     /**
@@ -73,16 +72,12 @@ public class EmailGenerator {
             List<InstructorAttributes> instructorsToRemind, List<InstructorAttributes> instructorsToNotify) {
         
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
-        String template = EmailTemplates.USER_FEEDBACK_SESSION;
+        String template = EmailTemplates.USER_FEEDBACK_SESSION.replace("${status}", "is still open for submissions");
         List<EmailWrapper> emails =
                 generateFeedbackSessionEmailBasesForInstructorReminders(course, session, instructorsToRemind, template,
                                                                         EmailType.FEEDBACK_SESSION_REMINDER.getSubject());
         emails.addAll(generateFeedbackSessionEmailBases(course, session, students, instructorsToNotify, template,
                                                         EmailType.FEEDBACK_SESSION_REMINDER.getSubject()));
-        
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is still open for submissions"));
-        }
         return emails;
     }
     
@@ -193,36 +188,22 @@ public class EmailGenerator {
         boolean isEmailNeeded = fsLogic.isFeedbackSessionForStudentsToAnswer(session);
         
         if (isEmailNeeded) {
-            List<StudentAttributes> studentsForCourse = studentsLogic.getStudentsForCourse(session.getCourseId());
-            
-            for (StudentAttributes student : studentsForCourse) {
-                try {
-                    if (!fsLogic.isFeedbackSessionFullyCompletedByStudent(session.getFeedbackSessionName(),
-                            session.getCourseId(), student.email)) {
-                        students.add(student);
-                    }
-                } catch (EntityDoesNotExistException e) {
-                    log.severe("Course " + session.getCourseId() + " does not exist or "
-                               + "session " + session.getFeedbackSessionName() + " does not exist");
-                    // Course or session cannot be found for one student => it will be the case for all students
-                    // Do not waste time looping through all students
-                    break;
-                }
+            try {
+                students = fsLogic.getFeedbackSessionCompletionStatus(session).getStudentsYetToFullyComplete();
+            } catch (EntityDoesNotExistException e) {
+                log.severe("Course " + session.getCourseId() + " does not exist or "
+                           + "session " + session.getFeedbackSessionName() + " does not exist");
             }
         }
         
-        String template = EmailTemplates.USER_FEEDBACK_SESSION_CLOSING;
+        String template = EmailTemplates.USER_FEEDBACK_SESSION_CLOSING.replace("${status}", "is closing soon");
         CourseAttributes course = coursesLogic.getCourse(session.getCourseId());
         List<InstructorAttributes> instructors = isEmailNeeded
                                                  ? instructorsLogic.getInstructorsForCourse(session.getCourseId())
                                                  : new ArrayList<InstructorAttributes>();
         
-        List<EmailWrapper> emails = generateFeedbackSessionEmailBases(course, session, students, instructors, template,
-                                                                      EmailType.FEEDBACK_CLOSING.getSubject());
-        for (EmailWrapper email : emails) {
-            email.setContent(email.getContent().replace("${status}", "is closing soon"));
-        }
-        return emails;
+        return generateFeedbackSessionEmailBases(course, session, students, instructors, template,
+                                                 EmailType.FEEDBACK_CLOSING.getSubject());
     }
     
     /**
@@ -298,8 +279,19 @@ public class EmailGenerator {
             List<InstructorAttributes> instructors, String template, String subject) {
         
         List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
+        
+        // the parts of the student emails that are the same for all students are filled in once,
+        // so that the emails share a template and can be sent in batches
+        CompiledTemplate studentTemplate = CompiledTemplate.compile(Templates.populateTemplate(template,
+                "${courseName}", course.getName(),
+                "${courseId}", course.getId(),
+                "${feedbackSessionName}", session.getFeedbackSessionName(),
+                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
+                "${instructorFragment}", "",
+                "${supportEmail}", Config.SUPPORT_EMAIL));
         for (StudentAttributes student : students) {
-            emails.add(generateFeedbackSessionEmailBaseForStudents(course, session, student, template, subject));
+            emails.add(generateFeedbackSessionEmailBaseForStudents(course, session, student, studentTemplate,
+                                                                   subject));
         }
         for (InstructorAttributes instructor : instructors) {
             emails.add(generateFeedbackSessionEmailBaseForInstructors(course, session, instructor, template, subject));
@@ -308,8 +300,8 @@ public class EmailGenerator {
     }
     
     private EmailWrapper generateFeedbackSessionEmailBaseForStudents(
-            CourseAttributes course, FeedbackSessionAttributes session, StudentAttributes student, String template,
-            String subject) {
+            CourseAttributes course, FeedbackSessionAttributes session, StudentAttributes student,
+            CompiledTemplate template, String subject) {
         
         String submitUrl = Config.getAppUrl(Const.ActionURIs.STUDENT_FEEDBACK_SUBMISSION_EDIT_PAGE)
                                  .withCourseId(course.getId())
@@ -325,20 +317,16 @@ public class EmailGenerator {
                                  .withStudentEmail(student.email)
                                  .toAbsoluteString();
         
-        String emailBody = Templates.populateTemplate(template,
-                "${userName}", student.name,
-                "${courseName}", course.getName(),
-                "${courseId}", course.getId(),
-                "${feedbackSessionName}", session.getFeedbackSessionName(),
-                "${deadline}", TimeHelper.formatTime12H(session.getEndTime()),
-                "${instructorFragment}", "",
-                "${submitUrl}", submitUrl,
-                "${reportUrl}", reportUrl,
-                "${supportEmail}", Config.SUPPORT_EMAIL);
+        Map<String, String> substitutions = new LinkedHashMap<String, String>();
+        substitutions.put("${userName}", student.name);
+        substitutions.put("${submitUrl}", submitUrl);
+        substitutions.put("${reportUrl}", reportUrl);
         
         EmailWrapper email = getEmptyEmailAddressedToEmail(student.email);
         email.setSubject(String.format(subject, course.getName(), session.getFeedbackSessionName()));
-        email.setContent(emailBody);
+        email.setContent(template.populate(substitutions));
+        email.setContentTemplate(template.getTemplate());
+        email.setSubstitutions(substitutions);
         return email;
     }
     
@@ -1,6 +1,9 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,7 +15,10 @@ import teammates.common.util.Const.ParamsNames;
 import teammates.common.util.Const.SystemParams;
 import teammates.common.util.EmailLogEntry;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.JsonUtils;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestMetrics;
+import teammates.common.util.TaskWrapper;
 
 /**
  * Handles operations related to sending emails.
@@ -21,6 +27,12 @@ public class EmailSender {
     
     private static final Logger log = Logger.getLogger();
     
+    /**
+     * The maximum number of emails sent by one send-email task.
+     * Mailjet accepts at most 50 messages in one call.
+     */
+    private static final int EMAIL_BATCH_SIZE = 50;
+    
     private final EmailSenderService service;
     
     public EmailSender() {
@@ -35,55 +47,115 @@ public class EmailSender {
         }
     }
     
+    public EmailSender(EmailSenderService service) {
+        this.service = service;
+    }
+    
     /**
-     * Sends the given list of {@code messages}.
+     * Sends the given list of {@code messages}.<br>
+     * The messages are grouped into batches by {@link #getEmailBatches(List)} and each batch is sent
+     * by one task, which carries the shared content template and the recipients with their substitutions.
      */
     public void sendEmails(List<EmailWrapper> messages) {
         if (messages.isEmpty()) {
             return;
         }
         
-        // Equally spread out the emails to be sent over 1 hour
+        List<List<EmailWrapper>> batches = getEmailBatches(messages);
+        
+        // Equally spread out the batches to be sent over 1 hour
         // Sets interval to a maximum of 5 seconds if the interval is too large
         int oneHourInMillis = 60 * 60 * 1000;
-        int emailIntervalMillis = Math.min(5000, oneHourInMillis / messages.size());
+        int batchIntervalMillis = Math.min(5000, oneHourInMillis / batches.size());
+        
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
+        for (List<EmailWrapper> batch : batches) {
+            long batchDelayTimer = tasks.size() * batchIntervalMillis;
+            tasks.add(getEmailBatchTask(batch, batchDelayTimer));
+        }
         
-        int numberOfEmailsSent = 0;
+        try {
+            TaskQueuesLogic.inst().createAndAddTasks(SystemParams.SEND_EMAIL_TASK_QUEUE, tasks);
+            RequestMetrics.recordEmailsEnqueued(messages.size());
+        } catch (Exception e) {
+            EmailWrapper firstMessage = messages.get(0);
+            log.severe("Error when adding email batches to task queue: " + e.getMessage() + "\n"
+                       + "Number of email batches: " + batches.size() + "\n"
+                       + "Number of email receivers: " + messages.size() + "\n"
+                       + "First email sender: " + firstMessage.getSenderEmail() + "\n"
+                       + "First email receiver: " + firstMessage.getRecipient() + "\n"
+                       + "First email subject: " + firstMessage.getSubject());
+        }
+    }
+    
+    /**
+     * Groups the given {@code messages} into batches of at most {@value #EMAIL_BATCH_SIZE} messages,
+     * where the messages in a batch have the same sender, reply-to address, subject and content template.
+     */
+    public List<List<EmailWrapper>> getEmailBatches(List<EmailWrapper> messages) {
+        Map<List<String>, List<EmailWrapper>> messagesByTemplate =
+                new LinkedHashMap<List<String>, List<EmailWrapper>>();
         for (EmailWrapper m : messages) {
-            long emailDelayTimer = numberOfEmailsSent * emailIntervalMillis;
-            addEmailToTaskQueue(m, emailDelayTimer);
-            numberOfEmailsSent++;
+            List<String> template = Arrays.asList(m.getSenderEmail(), m.getSenderName(), m.getReplyTo(),
+                                                  m.getSubject(), m.getContentTemplate());
+            List<EmailWrapper> messagesWithTemplate = messagesByTemplate.get(template);
+            if (messagesWithTemplate == null) {
+                messagesWithTemplate = new ArrayList<EmailWrapper>();
+                messagesByTemplate.put(template, messagesWithTemplate);
+            }
+            messagesWithTemplate.add(m);
         }
+        
+        List<List<EmailWrapper>> batches = new ArrayList<List<EmailWrapper>>();
+        for (List<EmailWrapper> messagesWithTemplate : messagesByTemplate.values()) {
+            for (int i = 0; i < messagesWithTemplate.size(); i += EMAIL_BATCH_SIZE) {
+                int end = Math.min(i + EMAIL_BATCH_SIZE, messagesWithTemplate.size());
+                batches.add(new ArrayList<EmailWrapper>(messagesWithTemplate.subList(i, end)));
+            }
+        }
+        return batches;
     }
     
-    private void addEmailToTaskQueue(EmailWrapper message, long emailDelayTimer) {
-        String emailSubject = message.getSubject();
-        String emailSenderName = message.getSenderName();
-        String emailSender = message.getSenderEmail();
-        String emailReceiver = message.getRecipient();
-        String emailReplyToAddress = message.getReplyTo();
-        try {
-            Map<String, String> paramMap = new HashMap<String, String>();
-            paramMap.put(ParamsNames.EMAIL_SUBJECT, emailSubject);
-            paramMap.put(ParamsNames.EMAIL_CONTENT, message.getContent());
-            paramMap.put(ParamsNames.EMAIL_SENDER, emailSender);
-            if (emailSenderName != null && !emailSenderName.isEmpty()) {
-                paramMap.put(ParamsNames.EMAIL_SENDERNAME, emailSenderName);
+    private TaskWrapper getEmailBatchTask(List<EmailWrapper> batch, long batchDelayTimer) {
+        EmailWrapper firstMessage = batch.get(0);
+        String emailSenderName = firstMessage.getSenderName();
+        
+        // only the recipient and the substitutions differ between the messages in a batch
+        List<EmailWrapper> receivers = new ArrayList<EmailWrapper>();
+        for (EmailWrapper m : batch) {
+            EmailWrapper receiver = new EmailWrapper();
+            receiver.setRecipient(m.getRecipient());
+            receiver.setSubstitutions(m.getSubstitutions());
+            receivers.add(receiver);
+        }
+        
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.EMAIL_SUBJECT, firstMessage.getSubject());
+        paramMap.put(ParamsNames.EMAIL_CONTENT, firstMessage.getContentTemplate());
+        paramMap.put(ParamsNames.EMAIL_SENDER, firstMessage.getSenderEmail());
+        if (emailSenderName != null && !emailSenderName.isEmpty()) {
+            paramMap.put(ParamsNames.EMAIL_SENDERNAME, emailSenderName);
+        }
+        paramMap.put(ParamsNames.EMAIL_RECEIVERS, JsonUtils.toCompactJson(receivers));
+        paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, firstMessage.getReplyTo());
+        
+        return new TaskWrapper(Const.ActionURIs.SEND_EMAIL_WORKER, paramMap, batchDelayTimer);
+    }
+    
+    /**
+     * Sends the given {@code messages}, which share the same content template, with as few calls
+     * to the email service as the service allows, and generates a log report for each message sent.
+     * @return the messages that failed to send
+     */
+    public List<EmailWrapper> sendEmailBatch(List<EmailWrapper> messages) {
+        List<EmailWrapper> failedMessages = service.sendEmails(messages);
+        
+        for (EmailWrapper m : messages) {
+            if (!failedMessages.contains(m)) {
+                log.info(new EmailLogEntry(m).generateLogMessage());
             }
-            paramMap.put(ParamsNames.EMAIL_RECEIVER, emailReceiver);
-            paramMap.put(ParamsNames.EMAIL_REPLY_TO_ADDRESS, emailReplyToAddress);
-            
-            TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-            taskQueueLogic.createAndAddDeferredTask(SystemParams.SEND_EMAIL_TASK_QUEUE,
-                    Const.ActionURIs.SEND_EMAIL_WORKER, paramMap, emailDelayTimer);
-        } catch (Exception e) {
-            log.severe("Error when adding email to task queue: " + e.getMessage() + "\n"
-                       + "Email sender: " + emailSender + "\n"
-                       + "Email sender name: " + emailSenderName + "\n"
-                       + "Email receiver: " + emailReceiver + "\n"
-                       + "Email subject: " + emailSubject + "\n"
-                       + "Email reply to address: " + emailReplyToAddress);
         }
+        return failedMessages;
     }
     
     /**
@@ -1,5 +1,8 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import teammates.common.exception.EmailSendingException;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.Logger;
@@ -32,6 +35,26 @@ public abstract class EmailSenderService {
         }
     }
     
+    /**
+     * Sends the emails packaged as {@code wrappers}, which share the same sender, reply-to address,
+     * subject and content template, and differ only in their recipients and substitutions.<br>
+     * The emails are sent one at a time by default. Services that can send many emails in one call
+     * override this to do so.
+     * @return the emails that failed to send
+     */
+    public List<EmailWrapper> sendEmails(List<EmailWrapper> wrappers) {
+        List<EmailWrapper> failedEmails = new ArrayList<EmailWrapper>();
+        for (EmailWrapper wrapper : wrappers) {
+            try {
+                sendEmail(wrapper);
+            } catch (EmailSendingException e) {
+                log.severe("Email failed to send: " + wrapper.getInfoForLogging() + "\nCause: " + e.getMessage());
+                failedEmails.add(wrapper);
+            }
+        }
+        return failedEmails;
+    }
+    
     @SuppressWarnings("PMD.SignatureDeclareThrowsException")
     // accounts for the many different Exceptions from different email services
     protected abstract void sendEmailWithService(EmailWrapper wrapper) throws Exception;
@@ -1,6 +1,7 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -10,6 +11,7 @@ import java.util.Map;
 import java.util.Set;
 
 import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
@@ -17,7 +19,6 @@ import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
-import teammates.common.datatransfer.TeamDetailsBundle;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
@@ -37,6 +38,7 @@ public class FeedbackQuestionsLogic {
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
+    private static final CourseRosterCache rosterCache = CourseRosterCache.inst();
     
     public static FeedbackQuestionsLogic inst() {
         if (instance == null) {
@@ -108,6 +110,13 @@ public class FeedbackQuestionsLogic {
         return fqDb.getFeedbackQuestion(feedbackQuestionId);
     }
     
+    /**
+     * @return the ids among {@code feedbackQuestionIds} of the questions that exist
+     */
+    public Set<String> getExistingFeedbackQuestionIds(Collection<String> feedbackQuestionIds) {
+        return fqDb.getExistingFeedbackQuestionIds(feedbackQuestionIds);
+    }
+    
     /**
      * Gets a single question corresponding to the given parameters.
      */
@@ -139,7 +148,14 @@ public class FeedbackQuestionsLogic {
         
         return questions;
     }
-    
+
+    /**
+     * Gets a {@link List} of every FeedbackQuestion in all sessions of the given course, in no particular order.
+     */
+    public List<FeedbackQuestionAttributes> getFeedbackQuestionsForCourse(String courseId) {
+        return fqDb.getFeedbackQuestionsForCourse(courseId);
+    }
+
     // TODO can be removed once we are sure that question numbers will be consistent
     private boolean areQuestionNumbersConsistent(List<FeedbackQuestionAttributes> questions) {
         Set<Integer> questionNumbersInSession = new HashSet<>();
@@ -340,17 +356,37 @@ public class FeedbackQuestionsLogic {
     
     public Map<String, String> getRecipientsForQuestion(FeedbackQuestionAttributes question, String giver)
             throws EntityDoesNotExistException {
-        
-        InstructorAttributes instructorGiver = instructorsLogic.getInstructorForEmail(question.courseId, giver);
-        StudentAttributes studentGiver = studentsLogic.getStudentForEmail(question.courseId, giver);
-        
-        return getRecipientsForQuestion(question, giver, instructorGiver, studentGiver);
+        return getRecipientsForQuestion(question, giver, rosterCache.getCourseRoster(question.courseId));
+    }
+
+    /**
+     * Gets the possible recipients of the giver for the question from the roster of the course,
+     * without reading from the datastore. Callers that get the recipients of many questions
+     * should read the roster once and pass it to every call.
+     * @return the possible recipients, as a map of their identifiers to their names
+     */
+    public Map<String, String> getRecipientsForQuestion(FeedbackQuestionAttributes question, String giver,
+                                                        CourseRoster roster) {
+        return getRecipientsForQuestion(question, giver, roster.getInstructorForEmail(giver),
+                                        roster.getStudentForEmail(giver), roster);
     }
 
     public Map<String, String> getRecipientsForQuestion(
             FeedbackQuestionAttributes question, String giver,
             InstructorAttributes instructorGiver, StudentAttributes studentGiver)
                     throws EntityDoesNotExistException {
+        return getRecipientsForQuestion(question, giver, instructorGiver, studentGiver,
+                                        rosterCache.getCourseRoster(question.courseId));
+    }
+
+    /**
+     * Gets the possible recipients of the giver for the question from the roster of the course,
+     * without reading from the datastore.
+     * @see #getRecipientsForQuestion(FeedbackQuestionAttributes, String, CourseRoster)
+     */
+    public Map<String, String> getRecipientsForQuestion(
+            FeedbackQuestionAttributes question, String giver,
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver, CourseRoster roster) {
 
         Map<String, String> recipients = new HashMap<String, String>();
         
@@ -377,8 +413,7 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case STUDENTS:
-            List<StudentAttributes> studentsInCourse = studentsLogic.getStudentsForCourse(question.courseId);
-            for (StudentAttributes student : studentsInCourse) {
+            for (StudentAttributes student : roster.getStudents()) {
                 // Ensure student does not evaluate himself
                 if (!giver.equals(student.email)) {
                     recipients.put(student.email, student.name);
@@ -386,8 +421,7 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case INSTRUCTORS:
-            List<InstructorAttributes> instructorsInCourse = instructorsLogic.getInstructorsForCourse(question.courseId);
-            for (InstructorAttributes instr : instructorsInCourse) {
+            for (InstructorAttributes instr : roster.getInstructors()) {
                 // Ensure instructor does not evaluate himself
                 if (!giver.equals(instr.email)) {
                     recipients.put(instr.email, instr.name);
@@ -395,12 +429,11 @@ public class FeedbackQuestionsLogic {
             }
             break;
         case TEAMS:
-            List<TeamDetailsBundle> teams = coursesLogic.getTeamsForCourse(question.courseId);
-            for (TeamDetailsBundle team : teams) {
+            for (String teamName : roster.getTeamNames()) {
                 // Ensure student('s team) does not evaluate own team.
-                if (!giverTeam.equals(team.name)) {
+                if (!giverTeam.equals(teamName)) {
                     // recipientEmail doubles as team name in this case.
-                    recipients.put(team.name, team.name);
+                    recipients.put(teamName, teamName);
                 }
             }
             break;
@@ -408,16 +441,14 @@ public class FeedbackQuestionsLogic {
             recipients.put(giverTeam, giverTeam);
             break;
         case OWN_TEAM_MEMBERS:
-            List<StudentAttributes> students = studentsLogic.getStudentsForTeam(giverTeam, question.courseId);
-            for (StudentAttributes student : students) {
+            for (StudentAttributes student : roster.getStudentsForTeam(giverTeam)) {
                 if (!student.email.equals(giver)) {
                     recipients.put(student.email, student.name);
                 }
             }
             break;
         case OWN_TEAM_MEMBERS_INCLUDING_SELF:
-            List<StudentAttributes> teamMembers = studentsLogic.getStudentsForTeam(giverTeam, question.courseId);
-            for (StudentAttributes student : teamMembers) {
+            for (StudentAttributes student : roster.getStudentsForTeam(giverTeam)) {
                 // accepts self feedback too
                 recipients.put(student.email, student.name);
             }
@@ -438,6 +469,15 @@ public class FeedbackQuestionsLogic {
   
     public boolean isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes question, String email)
             throws EntityDoesNotExistException {
+        return isQuestionFullyAnsweredByUser(question, email, rosterCache.getCourseRoster(question.courseId));
+    }
+
+    /**
+     * Checks if a question has been fully answered by a user, using the given roster of the course
+     * to find the possible recipients.
+     */
+    public boolean isQuestionFullyAnsweredByUser(FeedbackQuestionAttributes question, String email,
+                                                 CourseRoster roster) {
         
         int numberOfResponsesGiven =
                 frLogic.getFeedbackResponsesFromGiverForQuestion(question.getId(), email).size();
@@ -445,7 +485,7 @@ public class FeedbackQuestionsLogic {
                 question.numberOfEntitiesToGiveFeedbackTo;
         
         if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
-            numberOfResponsesNeeded = getRecipientsForQuestion(question, email).size();
+            numberOfResponsesNeeded = getRecipientsForQuestion(question, email, roster).size();
         }
         
         return numberOfResponsesGiven >= numberOfResponsesNeeded ? true : false;
@@ -733,10 +773,16 @@ public class FeedbackQuestionsLogic {
             List<FeedbackQuestionAttributes> questions, String giver)
             throws EntityDoesNotExistException {
         List<FeedbackQuestionAttributes> questionsWithRecipients = new ArrayList<FeedbackQuestionAttributes>();
+        Map<String, CourseRoster> rosters = new HashMap<String, CourseRoster>();
         for (FeedbackQuestionAttributes question : questions) {
             int numRecipients = question.numberOfEntitiesToGiveFeedbackTo;
             if (numRecipients == Const.MAX_POSSIBLE_RECIPIENTS) {
-                numRecipients = this.getRecipientsForQuestion(question, giver)
+                CourseRoster roster = rosters.get(question.courseId);
+                if (roster == null) {
+                    roster = rosterCache.getCourseRoster(question.courseId);
+                    rosters.put(question.courseId, roster);
+                }
+                numRecipients = this.getRecipientsForQuestion(question, giver, roster)
                         .size();
             }
             if (numRecipients > 0) {
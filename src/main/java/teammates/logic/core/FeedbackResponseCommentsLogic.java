@@ -1,8 +1,11 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import teammates.common.datatransfer.CommentSendingState;
@@ -20,6 +23,10 @@ import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.JsonUtils;
 import teammates.storage.api.FeedbackResponseCommentsDb;
 
 /**
@@ -171,6 +178,13 @@ public class FeedbackResponseCommentsLogic {
         frcDb.putDocument(comment);
     }
     
+    /**
+     * Create or update documents for the given comments in batches
+     */
+    public void putDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        frcDb.putDocuments(comments);
+    }
+    
     public List<FeedbackResponseCommentAttributes> getFeedbackResponseCommentsForGiver(String courseId,
                                                                                        String giverEmail) {
         return frcDb.getFeedbackResponseCommentForGiver(courseId, giverEmail);
@@ -190,6 +204,10 @@ public class FeedbackResponseCommentsLogic {
         frcDb.deleteFeedbackResponseCommentsForResponse(responseId);
     }
     
+    public void deleteFeedbackResponseCommentsForResponses(List<String> responseIds) {
+        frcDb.deleteFeedbackResponseCommentsForResponses(responseIds);
+    }
+    
     public void deleteFeedbackResponseComment(FeedbackResponseCommentAttributes feedbackResponseComment) {
         frcDb.deleteEntity(feedbackResponseComment);
     }
@@ -202,6 +220,33 @@ public class FeedbackResponseCommentsLogic {
         frcDb.deleteDocument(commentToDelete);
     }
     
+    /**
+     * Remove documents for the comments with the given ids
+     */
+    public void deleteDocuments(List<Long> feedbackResponseCommentIds) {
+        frcDb.deleteDocuments(feedbackResponseCommentIds);
+    }
+    
+    /**
+     * Schedules the removal of the documents for the comments with the given ids, e.g. documents
+     * found to be stale while searching, so that they are not removed in the user's request.
+     */
+    public void scheduleDocumentsDeletion(List<Long> feedbackResponseCommentIds) {
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.FEEDBACK_RESPONSE_COMMENT_IDS, JsonUtils.toCompactJson(feedbackResponseCommentIds));
+        
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddTask(SystemParams.SEARCH_DOCUMENT_TASK_QUEUE,
+                Const.ActionURIs.FEEDBACK_RESPONSE_COMMENT_DOCUMENTS_DELETION_WORKER, paramMap);
+    }
+    
+    /**
+     * @return the ids among {@code feedbackResponseCommentIds} of the comments that exist
+     */
+    public Set<Long> getExistingFeedbackResponseCommentIds(Collection<Long> feedbackResponseCommentIds) {
+        return frcDb.getExistingFeedbackResponseCommentIds(feedbackResponseCommentIds);
+    }
+    
     /**
      * Verify whether the comment's giver name is visible to certain user
      * @param comment
@@ -1,8 +1,10 @@
 package teammates.logic.core;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -11,12 +13,14 @@ import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.datatransfer.StudentEnrollDetails;
 import teammates.common.datatransfer.UserRole;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Logger;
 import teammates.storage.api.FeedbackResponsesDb;
@@ -59,6 +63,20 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponse(feedbackResponseId);
     }
 
+    /**
+     * @return the ids among {@code feedbackResponseIds} of the responses that exist
+     */
+    public Set<String> getExistingFeedbackResponseIds(Collection<String> feedbackResponseIds) {
+        return frDb.getExistingFeedbackResponseIds(feedbackResponseIds);
+    }
+
+    /**
+     * @return the existing responses among {@code feedbackResponseIds}, read with one batched get
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        return frDb.getFeedbackResponses(feedbackResponseIds);
+    }
+
     public FeedbackResponseAttributes getFeedbackResponse(
             String feedbackQuestionId, String giverEmail, String recipient) {
         return frDb.getFeedbackResponse(feedbackQuestionId, giverEmail, recipient);
@@ -93,36 +111,31 @@ public class FeedbackResponsesLogic {
         return frDb.getFeedbackResponsesForSessionToSection(feedbackSessionName, courseId, section);
     }
     
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionWithinRange(
-            String feedbackSessionName, String courseId, long range) {
-        return frDb.getFeedbackResponsesForSessionWithinRange(feedbackSessionName, courseId, range);
-    }
-
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSectionWithinRange(
-            String feedbackSessionName, String courseId, String section,
-            long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
         if (section == null) {
-            return getFeedbackResponsesForSessionWithinRange(feedbackSessionName, courseId, range);
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
         }
-        return frDb.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName, courseId, section, range);
+        return frDb.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId, section,
+                                                                cursor, pageSize);
     }
 
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSectionWithinRange(
-            String feedbackSessionName, String courseId, String section,
-            long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
         if (section == null) {
-            return getFeedbackResponsesForSessionWithinRange(feedbackSessionName, courseId, range);
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
         }
-        return frDb.getFeedbackResponsesForSessionFromSectionWithinRange(feedbackSessionName, courseId, section, range);
+        return frDb.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId, section,
+                                                                  cursor, pageSize);
     }
 
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionToSectionWithinRange(
-            String feedbackSessionName, String courseId, String section,
-            long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
         if (section == null) {
-            return getFeedbackResponsesForSessionWithinRange(feedbackSessionName, courseId, range);
+            return frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, cursor, pageSize);
         }
-        return frDb.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName, courseId, section, range);
+        return frDb.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId, section,
+                                                                cursor, pageSize);
     }
 
     public List<FeedbackResponseAttributes> getFeedbackResponsesForQuestion(String feedbackQuestionId) {
@@ -411,11 +424,150 @@ public class FeedbackResponsesLogic {
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
         Assumption.assertNotNull(oldResponseEntity);
         
+        FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
+        FeedbackResponseAttributes newResponse = getUpdatedResponse(updatedResponse, oldResponse);
+    
+        if (newResponse.recipient.equals(oldResponse.recipient)
+                && newResponse.giver.equals(oldResponse.giver)) {
+            try {
+                frDb.updateFeedbackResponseOptimized(newResponse, oldResponseEntity);
+            } catch (EntityDoesNotExistException e) {
+                Assumption.fail();
+            }
+        } else {
+            // Recreate response to prevent possible future id conflict.
+            recreateResponse(newResponse, oldResponse);
+        }
+    }
+
+    /**
+     * Creates, updates and deletes the responses of a submission together. The existing
+     * responses are read with one batched get, and the changes are written with one batched
+     * put and one batched delete, so the number of datastore calls does not grow with the
+     * number of responses.<br>
+     * A response in {@code responsesToSave} without an id is created, or updates the existing
+     * response with the same giver and recipient. A response with an id updates that response,
+     * which is recreated if the giver or recipient is changed, as in
+     * {@link #updateFeedbackResponse(FeedbackResponseAttributes, FeedbackResponse)}.
+     * The comments of deleted responses are deleted as well.<br>
+     * A response that is invalid, or that would replace another response when recreated, is
+     * not saved, and the response it updates is left as it is. The other responses are saved.
+     * @return the errors of the responses that were not saved, in the order of {@code responsesToSave}
+     * @throws EntityDoesNotExistException if a response to update does not exist. Nothing is written then.
+     */
+    public List<TeammatesException> saveFeedbackResponses(List<FeedbackResponseAttributes> responsesToSave,
+                                                          List<FeedbackResponseAttributes> responsesToDelete)
+            throws EntityDoesNotExistException {
+        
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseAttributes response : responsesToSave) {
+            if (response.getId() != null) {
+                responseIds.add(response.getId());
+            }
+            responseIds.add(FeedbackResponse.generateId(response.feedbackQuestionId, response.giver,
+                                                        response.recipient));
+        }
+        for (FeedbackResponseAttributes response : responsesToDelete) {
+            responseIds.add(response.getId());
+        }
+        Map<String, FeedbackResponse> existingEntities = frDb.getFeedbackResponseEntities(responseIds);
+        
+        Map<String, FeedbackResponse> entitiesToDelete = new LinkedHashMap<String, FeedbackResponse>();
+        for (FeedbackResponseAttributes response : responsesToDelete) {
+            FeedbackResponse entityToDelete = existingEntities.get(response.getId());
+            if (entityToDelete != null) {
+                entitiesToDelete.put(entityToDelete.getId(), entityToDelete);
+            }
+        }
+        
+        Map<String, FeedbackResponseAttributes> newResponses = new LinkedHashMap<String, FeedbackResponseAttributes>();
+        Map<String, String> recreatedResponseIds = new HashMap<String, String>();
+        List<TeammatesException> errors = new ArrayList<TeammatesException>();
+        for (FeedbackResponseAttributes response : responsesToSave) {
+            String oldResponseId = response.getId() == null
+                                 ? FeedbackResponse.generateId(response.feedbackQuestionId, response.giver,
+                                                               response.recipient)
+                                 : response.getId();
+            FeedbackResponse oldResponseEntity = existingEntities.get(oldResponseId);
+            
+            if (oldResponseEntity == null) {
+                if (response.getId() != null) {
+                    throw new EntityDoesNotExistException(
+                            "Trying to update a feedback response that does not exist.");
+                }
+                FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(response);
+                if (isValidForSaving(newResponse, errors)) {
+                    newResponses.put(oldResponseId, newResponse);
+                }
+                continue;
+            }
+            
+            FeedbackResponseAttributes newResponse =
+                    getUpdatedResponse(response, new FeedbackResponseAttributes(oldResponseEntity));
+            if (!isValidForSaving(newResponse, errors)) {
+                continue;
+            }
+            String newResponseId = FeedbackResponse.generateId(newResponse.feedbackQuestionId, newResponse.giver,
+                                                               newResponse.recipient);
+            if (!newResponseId.equals(oldResponseId)) {
+                // Recreate response to prevent possible future id conflict.
+                boolean isNewResponseIdRead = responseIds.contains(newResponseId);
+                if (existingEntities.containsKey(newResponseId)
+                        || !isNewResponseIdRead && frDb.getFeedbackResponse(newResponseId) != null) {
+                    log.warning("Trying to update an existing response to one that already exists.");
+                    errors.add(new EntityAlreadyExistsException(
+                            "Trying to update a feedback response to one that already exists."));
+                    continue;
+                }
+                newResponse.setId(null);
+                entitiesToDelete.put(oldResponseId, oldResponseEntity);
+                recreatedResponseIds.put(oldResponseId, newResponseId);
+            }
+            newResponses.put(newResponseId, newResponse);
+        }
+        
+        // a response saved again in the same submission is replaced rather than deleted
+        entitiesToDelete.keySet().removeAll(newResponses.keySet());
+        
+        List<String> deletedResponseIds = new ArrayList<String>(entitiesToDelete.keySet());
+        deletedResponseIds.removeAll(recreatedResponseIds.keySet());
+        try {
+            frDb.saveFeedbackResponses(newResponses.values(), existingEntities, entitiesToDelete.values());
+            
+            frcLogic.deleteFeedbackResponseCommentsForResponses(deletedResponseIds);
+            for (Map.Entry<String, String> recreatedResponseId : recreatedResponseIds.entrySet()) {
+                frcLogic.updateFeedbackResponseCommentsForChangingResponseId(recreatedResponseId.getKey(),
+                                                                             recreatedResponseId.getValue());
+            }
+        } catch (InvalidParametersException e) {
+            // the responses were validated above, and the comments only change the response they belong to
+            Assumption.fail(TeammatesException.toStringWithStackTrace(e));
+        }
+        return errors;
+    }
+    
+    /**
+     * Sanitizes {@code response} for saving and checks that it is valid.
+     * If it is not, the reason is added to {@code errors}.
+     */
+    private boolean isValidForSaving(FeedbackResponseAttributes response, List<TeammatesException> errors) {
+        response.sanitizeForSaving();
+        if (!response.isValid()) {
+            errors.add(new InvalidParametersException(response.getInvalidityInfo()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of {@code updatedResponse} with the values that cannot be changed, and
+     * the values left null, taken from {@code oldResponse}.
+     */
+    private FeedbackResponseAttributes getUpdatedResponse(FeedbackResponseAttributes updatedResponse,
+                                                          FeedbackResponseAttributes oldResponse) {
         // Create a copy.
         FeedbackResponseAttributes newResponse = new FeedbackResponseAttributes(updatedResponse);
         
-        FeedbackResponseAttributes oldResponse = new FeedbackResponseAttributes(oldResponseEntity);
-
         // Copy values that cannot be changed to defensively avoid invalid
         // parameters.
         newResponse.courseId = oldResponse.courseId;
@@ -438,18 +590,7 @@ public class FeedbackResponsesLogic {
         if (newResponse.recipientSection == null) {
             newResponse.recipientSection = oldResponse.recipientSection;
         }
-    
-        if (newResponse.recipient.equals(oldResponse.recipient)
-                && newResponse.giver.equals(oldResponse.giver)) {
-            try {
-                frDb.updateFeedbackResponseOptimized(newResponse, oldResponseEntity);
-            } catch (EntityDoesNotExistException e) {
-                Assumption.fail();
-            }
-        } else {
-            // Recreate response to prevent possible future id conflict.
-            recreateResponse(newResponse, oldResponse);
-        }
+        return newResponse;
     }
 
     private void recreateResponse(
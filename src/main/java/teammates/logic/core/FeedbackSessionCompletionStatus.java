@@ -0,0 +1,208 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+
+/**
+ * Completion status of a feedback session for every student and instructor of its course.
+ * <br> The questions, responses and roster of the session are read once when this is
+ * created, so checking many participants does not query the datastore per participant.
+ * A question is fully answered by a participant in the same way as in
+ * {@link FeedbackQuestionsLogic#isQuestionFullyAnsweredByUser}, with the recipients found by
+ * {@link FeedbackQuestionsLogic#getRecipientsForQuestion(FeedbackQuestionAttributes, String, CourseRoster)}.
+ */
+public class FeedbackSessionCompletionStatus {
+
+    private static final FeedbackQuestionsLogic fqLogic = FeedbackQuestionsLogic.inst();
+
+    private final FeedbackSessionAttributes session;
+    private final List<StudentAttributes> students;
+    private final List<InstructorAttributes> instructors;
+    private final CourseRoster roster;
+    private final List<FeedbackQuestionAttributes> questions;
+    private final List<FeedbackQuestionAttributes> studentQuestions;
+
+    /** Number of responses given, by question id and then by giver email. */
+    private final Map<String, Map<String, Integer>> numberOfResponsesGiven =
+            new HashMap<String, Map<String, Integer>>();
+
+    /**
+     * Number of possible recipients, by question id and then by the giver's place in the course.
+     * The recipients of a giver only depend on whether the giver is a student or an instructor
+     * of the course and on the giver's team, so the givers of the same team share the count.
+     */
+    private final Map<String, Map<String, Integer>> numberOfPossibleRecipients =
+            new HashMap<String, Map<String, Integer>>();
+
+    public FeedbackSessionCompletionStatus(FeedbackSessionAttributes session, CourseRoster roster,
+                                           List<FeedbackQuestionAttributes> questions,
+                                           List<FeedbackResponseAttributes> responses) {
+        Assumption.assertNotNull(session);
+        Assumption.assertNotNull(roster);
+        this.session = session;
+        this.roster = roster;
+        this.students = roster.getStudents();
+        this.instructors = roster.getInstructors();
+        this.questions = questions;
+        this.studentQuestions = fqLogic.getFeedbackQuestionsForStudents(questions);
+
+        for (FeedbackResponseAttributes response : responses) {
+            Map<String, Integer> responsesForQuestion = numberOfResponsesGiven.get(response.feedbackQuestionId);
+            if (responsesForQuestion == null) {
+                responsesForQuestion = new HashMap<String, Integer>();
+                numberOfResponsesGiven.put(response.feedbackQuestionId, responsesForQuestion);
+            }
+            Integer count = responsesForQuestion.get(response.giver);
+            responsesForQuestion.put(response.giver, count == null ? 1 : count + 1);
+        }
+    }
+
+    public FeedbackSessionAttributes getFeedbackSession() {
+        return session;
+    }
+
+    public List<StudentAttributes> getStudents() {
+        return students;
+    }
+
+    public List<InstructorAttributes> getInstructors() {
+        return instructors;
+    }
+
+    /**
+     * Returns true if the student has given all the responses needed for every student question.
+     */
+    public boolean isFullyCompletedByStudent(String studentEmail) {
+        return isAllQuestionsFullyAnsweredBy(studentQuestions, studentEmail);
+    }
+
+    /**
+     * Returns true if the instructor has given all the responses needed for every question
+     * the instructor is to answer.
+     */
+    public boolean isFullyCompletedByInstructor(String instructorEmail) {
+        return isAllQuestionsFullyAnsweredBy(getQuestionsForInstructor(instructorEmail), instructorEmail);
+    }
+
+    /**
+     * Returns true if the student has submitted the session, or if there is nothing
+     * for students to submit.
+     */
+    public boolean isCompletedByStudent(String studentEmail) {
+        return session.getRespondingStudentList().contains(studentEmail)
+               || studentQuestions.isEmpty();
+    }
+
+    /**
+     * Returns true if the instructor has submitted the session, or if there is nothing
+     * for the instructor to submit.
+     */
+    public boolean isCompletedByInstructor(String instructorEmail) {
+        return session.getRespondingInstructorList().contains(instructorEmail)
+               || getQuestionsForInstructor(instructorEmail).isEmpty();
+    }
+
+    /**
+     * Returns the students of the course who have not fully completed the session.
+     * @see #isFullyCompletedByStudent
+     */
+    public List<StudentAttributes> getStudentsYetToFullyComplete() {
+        List<StudentAttributes> studentsYetToComplete = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            if (!isFullyCompletedByStudent(student.email)) {
+                studentsYetToComplete.add(student);
+            }
+        }
+        return studentsYetToComplete;
+    }
+
+    /**
+     * Returns the students of the course who have not submitted the session.
+     * @see #isCompletedByStudent
+     */
+    public List<StudentAttributes> getStudentsYetToComplete() {
+        List<StudentAttributes> studentsYetToComplete = new ArrayList<StudentAttributes>();
+        for (StudentAttributes student : students) {
+            if (!isCompletedByStudent(student.email)) {
+                studentsYetToComplete.add(student);
+            }
+        }
+        return studentsYetToComplete;
+    }
+
+    /**
+     * Returns the instructors of the course who have not submitted the session.
+     * @see #isCompletedByInstructor
+     */
+    public List<InstructorAttributes> getInstructorsYetToComplete() {
+        List<InstructorAttributes> instructorsYetToComplete = new ArrayList<InstructorAttributes>();
+        for (InstructorAttributes instructor : instructors) {
+            if (!isCompletedByInstructor(instructor.email)) {
+                instructorsYetToComplete.add(instructor);
+            }
+        }
+        return instructorsYetToComplete;
+    }
+
+    private List<FeedbackQuestionAttributes> getQuestionsForInstructor(String instructorEmail) {
+        boolean isCreator = session.getCreatorEmail().equals(instructorEmail);
+        if (!isCreator && !roster.isInstructorOfCourse(instructorEmail)) {
+            return new ArrayList<FeedbackQuestionAttributes>();
+        }
+        return fqLogic.getFeedbackQuestionsForInstructor(questions, isCreator);
+    }
+
+    private boolean isAllQuestionsFullyAnsweredBy(List<FeedbackQuestionAttributes> questionsToAnswer,
+                                                  String email) {
+        for (FeedbackQuestionAttributes question : questionsToAnswer) {
+            if (!isQuestionFullyAnsweredBy(question, email)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isQuestionFullyAnsweredBy(FeedbackQuestionAttributes question, String email) {
+        Map<String, Integer> responsesForQuestion = numberOfResponsesGiven.get(question.getId());
+        Integer count = responsesForQuestion == null ? null : responsesForQuestion.get(email);
+        int numberOfResponsesGiven = count == null ? 0 : count;
+
+        int numberOfResponsesNeeded = question.numberOfEntitiesToGiveFeedbackTo;
+        if (numberOfResponsesNeeded == Const.MAX_POSSIBLE_RECIPIENTS) {
+            numberOfResponsesNeeded = getNumberOfPossibleRecipients(question, email);
+        }
+
+        return numberOfResponsesGiven >= numberOfResponsesNeeded;
+    }
+
+    private int getNumberOfPossibleRecipients(FeedbackQuestionAttributes question, String giver) {
+        StudentAttributes studentGiver = roster.getStudentForEmail(giver);
+        boolean isInstructorGiver = roster.isInstructorOfCourse(giver);
+        String giverTeam = studentGiver == null ? (isInstructorGiver ? "" : giver) : studentGiver.team;
+        String giverKey = (studentGiver == null ? "-" : "S") + (isInstructorGiver ? "I" : "-") + giverTeam;
+
+        Map<String, Integer> recipientsForQuestion = numberOfPossibleRecipients.get(question.getId());
+        if (recipientsForQuestion == null) {
+            recipientsForQuestion = new HashMap<String, Integer>();
+            numberOfPossibleRecipients.put(question.getId(), recipientsForQuestion);
+        }
+        Integer count = recipientsForQuestion.get(giverKey);
+        if (count == null) {
+            count = fqLogic.getRecipientsForQuestion(question, giver, roster).size();
+            recipientsForQuestion.put(giverKey, count);
+        }
+        return count;
+    }
+
+}
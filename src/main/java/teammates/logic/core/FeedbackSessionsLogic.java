@@ -1,7 +1,11 @@
 package teammates.logic.core;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -20,6 +24,7 @@ import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionDetailsBundle;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
@@ -43,10 +48,9 @@ import teammates.common.util.EmailWrapper;
 import teammates.common.util.Logger;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
+import teammates.common.util.TaskWrapper;
 import teammates.common.util.TimeHelper;
 import teammates.storage.api.FeedbackSessionsDb;
-import teammates.storage.api.InstructorsDb;
-import teammates.storage.api.StudentsDb;
 
 public class FeedbackSessionsLogic {
     
@@ -61,6 +65,7 @@ public class FeedbackSessionsLogic {
     private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
     private static final StudentsLogic studentsLogic = StudentsLogic.inst();
+    private static final CourseRosterCache rosterCache = CourseRosterCache.inst();
     private static final String QUESTION_ID_FOR_RESPONSE_RATE = "-1";
     private static final int EMAIL_NAME_PAIR = 0;
     private static final int EMAIL_LASTNAME_PAIR = 1;
@@ -69,8 +74,9 @@ public class FeedbackSessionsLogic {
     private static final String PARAM_FROM_SECTION = "fromSection";
     private static final String PARAM_IN_SECTION = "inSection";
     private static final String PARAM_IS_INCLUDE_RESPONSE_STATUS = "isIncludeResponseStatus";
+    private static final String PARAM_CURSOR = "cursor";
+    private static final String PARAM_PAGE_SIZE = "pageSize";
     private static final String PARAM_QUESTION_ID = "questionId";
-    private static final String PARAM_RANGE = "range";
     private static final String PARAM_SECTION = "section";
     private static final String PARAM_TO_SECTION = "toSection";
     private static final String PARAM_VIEW_TYPE = "viewType";
@@ -129,6 +135,14 @@ public class FeedbackSessionsLogic {
         return fsDb.getFeedbackSession(courseId, feedbackSessionName);
     }
 
+    /**
+     * @return the identification strings of the sessions among {@code feedbackSessions} that exist
+     */
+    public Set<String> getExistingFeedbackSessionIdentifications(
+            Collection<FeedbackSessionAttributes> feedbackSessions) {
+        return fsDb.getExistingFeedbackSessionIdentifications(feedbackSessions);
+    }
+
     public List<FeedbackSessionAttributes> getFeedbackSessionsForCourse(
             String courseId) {
         return fsDb.getFeedbackSessionsForCourse(courseId);
@@ -310,12 +324,13 @@ public class FeedbackSessionsLogic {
         
         InstructorAttributes instructorGiver = instructor;
         StudentAttributes studentGiver = null;
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
 
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponsesForInstructor(courseId,
                     userEmail, fsa, instructor, bundle, recipientList,
-                    question, instructorGiver, studentGiver);
+                    question, instructorGiver, studentGiver, roster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -344,7 +359,7 @@ public class FeedbackSessionsLogic {
 
         updateBundleAndRecipientListWithResponsesForInstructor(courseId,
                 userEmail, fsa, instructor, bundle, recipientList,
-                question, instructorGiver, studentGiver);
+                question, instructorGiver, studentGiver, rosterCache.getCourseRoster(courseId));
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
     }
@@ -357,19 +372,19 @@ public class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            InstructorAttributes instructorGiver, StudentAttributes studentGiver)
-            throws EntityDoesNotExistException {
+            InstructorAttributes instructorGiver, StudentAttributes studentGiver,
+            CourseRoster roster) {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromGiverForQuestion(
                         question.getId(), userEmail);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver);
+                fqLogic.getRecipientsForQuestion(question, userEmail, instructorGiver, studentGiver, roster);
         // instructor can only see students in allowed sections for him/her
         if (question.recipientType.equals(FeedbackParticipantType.STUDENTS)) {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> studentEntry = iter.next();
-                StudentAttributes student = studentsLogic.getStudentForEmail(courseId, studentEntry.getKey());
+                StudentAttributes student = roster.getStudentForEmail(studentEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(student.section,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -381,7 +396,7 @@ public class FeedbackSessionsLogic {
             Iterator<Map.Entry<String, String>> iter = recipients.entrySet().iterator();
             while (iter.hasNext()) {
                 Map.Entry<String, String> teamEntry = iter.next();
-                String teamSection = studentsLogic.getSectionForTeam(courseId, teamEntry.getKey());
+                String teamSection = roster.getSectionForTeam(teamEntry.getKey());
                 if (!instructor.isAllowedForPrivilege(teamSection,
                         fsa.getFeedbackSessionName(), Const.ParamsNames.INSTRUCTOR_PERMISSION_SUBMIT_SESSION_IN_SECTIONS)) {
                     iter.remove();
@@ -430,10 +445,12 @@ public class FeedbackSessionsLogic {
             }
         }
 
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
+
         for (FeedbackQuestionAttributes question : questions) {
 
             updateBundleAndRecipientListWithResponsesForStudent(userEmail, student,
-                    bundle, recipientList, question, hiddenInstructorEmails);
+                    bundle, recipientList, question, hiddenInstructorEmails, roster);
         }
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
@@ -468,7 +485,7 @@ public class FeedbackSessionsLogic {
         }
 
         updateBundleAndRecipientListWithResponsesForStudent(userEmail, student,
-                bundle, recipientList, question, hiddenInstructorEmails);
+                bundle, recipientList, question, hiddenInstructorEmails, rosterCache.getCourseRoster(courseId));
 
         return new FeedbackSessionQuestionsBundle(fsa, bundle, recipientList);
     }
@@ -479,13 +496,13 @@ public class FeedbackSessionsLogic {
             Map<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> bundle,
             Map<String, Map<String, String>> recipientList,
             FeedbackQuestionAttributes question,
-            Set<String> hiddenInstructorEmails)
-            throws EntityDoesNotExistException {
+            Set<String> hiddenInstructorEmails,
+            CourseRoster roster) {
         List<FeedbackResponseAttributes> responses =
                 frLogic.getFeedbackResponsesFromStudentOrTeamForQuestion(
                         question, student);
         Map<String, String> recipients =
-                fqLogic.getRecipientsForQuestion(question, userEmail, null, student);
+                fqLogic.getRecipientsForQuestion(question, userEmail, null, student, roster);
 
         removeHiddenInstructors(question, responses, recipients, hiddenInstructorEmails);
 
@@ -579,8 +596,7 @@ public class FeedbackSessionsLogic {
         List<FeedbackQuestionAttributes> allQuestions = fqLogic.getFeedbackQuestionsForSession(feedbackSessionName,
                         courseId);
         
-        CourseRoster roster = new CourseRoster(new StudentsDb().getStudentsForCourse(courseId),
-                                               new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         return getFeedbackSessionResponseStatus(session, roster, allQuestions);
     }
 
@@ -596,9 +612,7 @@ public class FeedbackSessionsLogic {
         // Load details of students and instructors once and pass it to callee
         // methods
         // (rather than loading them many times).
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -621,9 +635,17 @@ public class FeedbackSessionsLogic {
                                                 String questionId, String selectedSection)
                                         throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
+        
+        return getFeedbackSessionResultsForInstructorFromQuestionInSection(
+                feedbackSessionName, courseId, userEmail, questionId, selectedSection, roster);
+    }
+
+    private FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromQuestionInSection(
+                                                String feedbackSessionName, String courseId, String userEmail,
+                                                String questionId, String selectedSection, CourseRoster roster)
+                                        throws EntityDoesNotExistException {
+
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
@@ -637,37 +659,38 @@ public class FeedbackSessionsLogic {
     }
 
     /**
-     * Gets results of a feedback session to show to an instructor in an indicated range
-     * @throws ExceedingRangeException if the results are beyond the range
+     * Gets results of a feedback session to show to an instructor, reading only one page of the responses.
+     * @param cursor the {@code nextCursor} of the bundle of the previous page, or null for the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorWithinRangeFromView(
-            String feedbackSessionName, String courseId, String userEmail, long range, String viewType)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorPageFromView(
+            String feedbackSessionName, String courseId, String userEmail, String cursor, int pageSize,
+            String viewType)
             throws EntityDoesNotExistException {
         
-        return getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
-                feedbackSessionName, courseId, userEmail, null, range, viewType);
+        return getFeedbackSessionResultsForInstructorInSectionPageFromView(
+                feedbackSessionName, courseId, userEmail, null, cursor, pageSize, viewType);
     }
 
     /**
-     * Gets results of a feedback session to show to an instructor in a section in an indicated range
-     * @throws ExceedingRangeException if the results are beyond the range
+     * Gets results of a feedback session in a section to show to an instructor,
+     * reading only one page of the responses.
+     * @param cursor the {@code nextCursor} of the bundle of the previous page, or null for the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range, String viewType)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorInSectionPageFromView(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize, String viewType)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
         params.put(PARAM_FROM_SECTION, "false");
         params.put(PARAM_TO_SECTION, "false");
         params.put(PARAM_SECTION, section);
-        if (range > 0) {
-            params.put(PARAM_RANGE, String.valueOf(range));
-        }
+        putPageParams(params, cursor, pageSize);
         params.put(PARAM_VIEW_TYPE, viewType);
 
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail,
@@ -675,52 +698,57 @@ public class FeedbackSessionsLogic {
     }
 
     /**
-     * Gets results of a feedback session to show to an instructor in a section in an indicated range
-     * @throws ExceedingRangeException if the results are beyond the range
+     * Gets results of a feedback session given from a section to show to an instructor,
+     * reading only one page of the responses.
+     * @param cursor the {@code nextCursor} of the bundle of the previous page, or null for the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionWithinRange(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorFromSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
         params.put(PARAM_FROM_SECTION, "true");
         params.put(PARAM_TO_SECTION, "false");
         params.put(PARAM_SECTION, section);
-        if (range > 0) {
-            params.put(PARAM_RANGE, String.valueOf(range));
-        }
+        putPageParams(params, cursor, pageSize);
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail,
                                                           UserRole.INSTRUCTOR, roster, params);
     }
 
     /**
-     * Gets results of a feedback session to show to an instructor in a section in an indicated range
-     * @throws ExceedingRangeException if the results are beyond the range
+     * Gets results of a feedback session received by a section to show to an instructor,
+     * reading only one page of the responses.
+     * @param cursor the {@code nextCursor} of the bundle of the previous page, or null for the first page
+     * @param pageSize the number of responses in a page, or 0 to read all responses
      */
-    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionWithinRange(
-            String feedbackSessionName, String courseId, String userEmail, String section, long range)
+    public FeedbackSessionResultsBundle getFeedbackSessionResultsForInstructorToSectionPage(
+            String feedbackSessionName, String courseId, String userEmail, String section,
+            String cursor, int pageSize)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
         params.put(PARAM_FROM_SECTION, "false");
         params.put(PARAM_TO_SECTION, "true");
         params.put(PARAM_SECTION, section);
-        if (range > 0) {
-            params.put(PARAM_RANGE, String.valueOf(range));
-        }
+        putPageParams(params, cursor, pageSize);
         return getFeedbackSessionResultsForUserWithParams(feedbackSessionName, courseId, userEmail,
                                                           UserRole.INSTRUCTOR, roster, params);
     }
+
+    private void putPageParams(Map<String, String> params, String cursor, int pageSize) {
+        if (pageSize > 0) {
+            params.put(PARAM_PAGE_SIZE, String.valueOf(pageSize));
+            params.put(PARAM_CURSOR, cursor);
+        }
+    }
     
     /**
      * Gets results of a feedback session to show to an instructor.
@@ -741,9 +769,7 @@ public class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
         
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "true");
@@ -763,9 +789,7 @@ public class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "false");
         params.put(PARAM_IN_SECTION, "false");
@@ -785,9 +809,7 @@ public class FeedbackSessionsLogic {
             String section)
             throws EntityDoesNotExistException {
 
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         Map<String, String> params = new HashMap<String, String>();
         params.put(PARAM_IS_INCLUDE_RESPONSE_STATUS, "true");
         params.put(PARAM_IN_SECTION, "false");
@@ -852,10 +874,10 @@ public class FeedbackSessionsLogic {
             String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown)
             throws EntityDoesNotExistException, ExceedingRangeException {
         
-        long indicatedRange = section == null ? 2000 : -1;
-        FeedbackSessionResultsBundle results = getFeedbackSessionResultsForInstructorInSectionWithinRangeFromView(
+        int indicatedPageSize = section == null ? 2000 : 0;
+        FeedbackSessionResultsBundle results = getFeedbackSessionResultsForInstructorInSectionPageFromView(
                 feedbackSessionName, courseId, userEmail, section,
-                indicatedRange, Const.FeedbackSessionResults.QUESTION_SORT_TYPE);
+                null, indicatedPageSize, Const.FeedbackSessionResults.QUESTION_SORT_TYPE);
         
         if (!results.isComplete) {
             throw new ExceedingRangeException(ERROR_NUMBER_OF_RESPONSES_EXCEEDS_RANGE);
@@ -864,20 +886,7 @@ public class FeedbackSessionsLogic {
         Collections.sort(results.responses,
                 results.compareByGiverRecipientQuestion);
         
-        StringBuilder exportBuilder = new StringBuilder(100);
-
-        exportBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(results.feedbackSession.getCourseId())))
-                     .append(Const.EOL)
-                     .append(String.format("Session Name,%s",
-                             Sanitizer.sanitizeForCsv(results.feedbackSession.getFeedbackSessionName())))
-                     .append(Const.EOL);
-        
-        if (section != null) {
-            exportBuilder.append(String.format("Section Name,%s", Sanitizer.sanitizeForCsv(section)))
-                         .append(Const.EOL);
-        }
-
-        exportBuilder.append(Const.EOL).append(Const.EOL);
+        StringBuilder exportBuilder = getCsvHeader(results.feedbackSession, section);
         
         Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet =
                 results.getQuestionResponseMap().entrySet();
@@ -894,6 +903,67 @@ public class FeedbackSessionsLogic {
         
     }
 
+    /**
+     * Writes the summary results (without comments) of a feedback session in CSV format to {@code writer}.
+     * If {@code section} is null, responses from all sections are included.<br>
+     * Unlike {@link #getFeedbackSessionResultsSummaryInSectionAsCsv}, responses are loaded and written
+     * one question at a time, so there is no limit on the number of responses in the session.
+     */
+    public void writeFeedbackSessionResultsSummaryInSectionAsCsv(
+            String feedbackSessionName, String courseId, String userEmail,
+            String section, String filterText, boolean isMissingResponsesShown, boolean isStatsShown,
+            Writer writer)
+            throws EntityDoesNotExistException, IOException {
+        
+        FeedbackSessionAttributes session = fsDb.getFeedbackSession(courseId, feedbackSessionName);
+        
+        if (session == null) {
+            throw new EntityDoesNotExistException(ERROR_NON_EXISTENT_FS_VIEW + courseId + "/" + feedbackSessionName);
+        }
+        
+        // Load details of students and instructors once and reuse it for every question
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
+        List<FeedbackQuestionAttributes> allQuestions =
+                fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        
+        writer.append(getCsvHeader(session, section));
+        
+        boolean isFilterTextGiven = filterText != null && !filterText.isEmpty();
+        for (FeedbackQuestionAttributes question : allQuestions) {
+            if (isFilterTextGiven
+                    && !question.getQuestionMetaData().getValue().toLowerCase().contains(filterText.toLowerCase())) {
+                continue;
+            }
+            
+            FeedbackSessionResultsBundle results = getFeedbackSessionResultsForInstructorFromQuestionInSection(
+                    feedbackSessionName, courseId, userEmail, question.getId(), section, roster);
+            
+            for (Map.Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>> entry
+                    : results.getQuestionResponseMap().entrySet()) {
+                writer.append(getFeedbackSessionResultsForQuestionInCsvFormat(
+                        results, entry, isMissingResponsesShown, isStatsShown));
+            }
+        }
+    }
+
+    private StringBuilder getCsvHeader(FeedbackSessionAttributes session, String section) {
+        StringBuilder headerBuilder = new StringBuilder(100);
+        
+        headerBuilder.append(String.format("Course,%s", Sanitizer.sanitizeForCsv(session.getCourseId())))
+                     .append(Const.EOL)
+                     .append(String.format("Session Name,%s",
+                             Sanitizer.sanitizeForCsv(session.getFeedbackSessionName())))
+                     .append(Const.EOL);
+        
+        if (section != null) {
+            headerBuilder.append(String.format("Section Name,%s", Sanitizer.sanitizeForCsv(section)))
+                         .append(Const.EOL);
+        }
+        
+        headerBuilder.append(Const.EOL).append(Const.EOL);
+        return headerBuilder;
+    }
+
     private Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> filterQuestions(
             Set<Entry<FeedbackQuestionAttributes, List<FeedbackResponseAttributes>>> entrySet,
             String filterText) {
@@ -1515,28 +1585,12 @@ public class FeedbackSessionsLogic {
 
         FeedbackSessionAttributes session = getFeedbackSession(
                 feedbackSessionName, courseId);
-        List<StudentAttributes> studentList = studentsLogic
-                .getStudentsForCourse(courseId);
-        List<InstructorAttributes> instructorList = instructorsLogic
-                .getInstructorsForCourse(courseId);
+        FeedbackSessionCompletionStatus completionStatus = getFeedbackSessionCompletionStatus(session);
+        List<InstructorAttributes> instructorList = completionStatus.getInstructors();
 
-        // Filter out students who have submitted the feedback session
-        List<StudentAttributes> studentsToRemindList = new ArrayList<StudentAttributes>();
-        for (StudentAttributes student : studentList) {
-            if (!isFeedbackSessionCompletedByStudent(session, student.email)) {
-                studentsToRemindList.add(student);
-            }
-        }
-
-        // Filter out instructors who have submitted the feedback session
-        List<InstructorAttributes> instructorsToRemindList = new ArrayList<InstructorAttributes>();
-        for (InstructorAttributes instructor : instructorList) {
-            if (!isFeedbackSessionCompletedByInstructor(
-                    session.getFeedbackSessionName(), session.getCourseId(),
-                    instructor.email)) {
-                instructorsToRemindList.add(instructor);
-            }
-        }
+        // Filter out students and instructors who have submitted the feedback session
+        List<StudentAttributes> studentsToRemindList = completionStatus.getStudentsYetToComplete();
+        List<InstructorAttributes> instructorsToRemindList = completionStatus.getInstructorsYetToComplete();
 
         try {
             List<EmailWrapper> emails = new EmailGenerator().generateFeedbackSessionReminderEmails(
@@ -1557,20 +1611,19 @@ public class FeedbackSessionsLogic {
         FeedbackSessionAttributes session = getFeedbackSession(
                 feedbackSessionName, courseId);
         
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         List<InstructorAttributes> instructorList = instructorsLogic
                 .getInstructorsForCourse(courseId);
         List<StudentAttributes> studentsToRemindList = new ArrayList<StudentAttributes>();
         List<InstructorAttributes> instructorsToRemindList = new ArrayList<InstructorAttributes>();
 
         for (String userEmail : usersToRemind) {
-            StudentAttributes student = studentsLogic
-                    .getStudentForEmail(courseId, userEmail);
+            StudentAttributes student = roster.getStudentForEmail(userEmail);
             if (student != null) {
                 studentsToRemindList.add(student);
             }
 
-            InstructorAttributes instructor = instructorsLogic
-                    .getInstructorForEmail(courseId, userEmail);
+            InstructorAttributes instructor = roster.getInstructorForEmail(userEmail);
             if (instructor != null) {
                 instructorsToRemindList.add(instructor);
             }
@@ -1653,9 +1706,7 @@ public class FeedbackSessionsLogic {
     public void scheduleFeedbackSessionOpeningEmails() {
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsWhichNeedOpenEmailsToBeSent();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_OPENING);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_OPENING);
     }
 
     public List<FeedbackSessionAttributes> getFeedbackSessionsClosingWithinTimeLimit() {
@@ -1697,25 +1748,19 @@ public class FeedbackSessionsLogic {
 
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsClosingWithinTimeLimit();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_CLOSING);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_CLOSING);
     }
     
     public void scheduleFeedbackSessionClosedEmails() {
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsClosedWithinThePastHour();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_CLOSED);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_CLOSED);
     }
 
     public void scheduleFeedbackSessionPublishedEmails() {
         List<FeedbackSessionAttributes> sessions = getFeedbackSessionsWhichNeedAutomatedPublishedEmailsToBeSent();
 
-        for (FeedbackSessionAttributes session : sessions) {
-            sendFeedbackSessionPublishedEmail(session);
-        }
+        addFeedbackSessionRemindersToEmailsQueue(sessions, EmailType.FEEDBACK_PUBLISHED);
     }
 
     /**
@@ -1765,6 +1810,27 @@ public class FeedbackSessionsLogic {
 
     public FeedbackSessionDetailsBundle getFeedbackSessionDetails(
             FeedbackSessionAttributes fsa) throws EntityDoesNotExistException {
+        
+        if (fsa.getFeedbackSessionType() != FeedbackSessionType.STANDARD) {
+            return getFeedbackSessionDetails(fsa, null, null);
+        }
+        
+        CourseRoster roster = rosterCache.getCourseRoster(fsa.getCourseId());
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
+        return getFeedbackSessionDetails(fsa, roster, questions);
+    }
+    
+    /**
+     * Gets the response statistics of the session.
+     * The number of respondents is the size of the respondent lists, which are kept up to date as
+     * responses are submitted and deleted, so only the expected number of respondents is worked out here.
+     * @param roster the roster of the course; only used for standard sessions
+     * @param questions all questions in the session; only used for standard sessions
+     */
+    private FeedbackSessionDetailsBundle getFeedbackSessionDetails(
+            FeedbackSessionAttributes fsa, CourseRoster roster, List<FeedbackQuestionAttributes> questions)
+            throws EntityDoesNotExistException {
 
         FeedbackSessionDetailsBundle details =
                 new FeedbackSessionDetailsBundle(fsa);
@@ -1774,17 +1840,13 @@ public class FeedbackSessionsLogic {
         
         switch (fsa.getFeedbackSessionType()) {
         case STANDARD:
-            List<StudentAttributes> students = studentsLogic.getStudentsForCourse(fsa.getCourseId());
-            List<InstructorAttributes> instructors = instructorsLogic.getInstructorsForCourse(fsa.getCourseId());
-            List<FeedbackQuestionAttributes> questions =
-                    fqLogic.getFeedbackQuestionsForSession(fsa.getFeedbackSessionName(), fsa.getCourseId());
             List<FeedbackQuestionAttributes> studentQns = fqLogic.getFeedbackQuestionsForStudents(questions);
 
             if (!studentQns.isEmpty()) {
-                details.stats.expectedTotal += students.size();
+                details.stats.expectedTotal += roster.getStudents().size();
             }
         
-            for (InstructorAttributes instructor : instructors) {
+            for (InstructorAttributes instructor : roster.getInstructors()) {
                 List<FeedbackQuestionAttributes> instructorQns =
                         fqLogic.getFeedbackQuestionsForInstructor(questions, fsa.isCreator(instructor.email));
                 if (!instructorQns.isEmpty()) {
@@ -1829,9 +1891,7 @@ public class FeedbackSessionsLogic {
         // Load details of students and instructors once and pass it to callee
         // methods
         // (rather than loading them many times).
-        CourseRoster roster = new CourseRoster(
-                new StudentsDb().getStudentsForCourse(courseId),
-                new InstructorsDb().getInstructorsForCourse(courseId));
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         
         return getFeedbackSessionResultsForUserInSectionByQuestions(
                 feedbackSessionName, courseId, userEmail, role, section, roster);
@@ -2056,6 +2116,10 @@ public class FeedbackSessionsLogic {
     
                     boolean thisQuestionHasResponses = !responsesForThisQn.isEmpty();
                     if (thisQuestionHasResponses) {
+                        InstructorAttributes instructor = null;
+                        if (role == UserRole.INSTRUCTOR) {
+                            instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
+                        }
                         for (FeedbackResponseAttributes response : responsesForThisQn) {
                             boolean isVisibleResponse = false;
                             if (response.giver.equals(userEmail)
@@ -2067,10 +2131,6 @@ public class FeedbackSessionsLogic {
                                             && question.isResponseVisibleTo(FeedbackParticipantType.STUDENTS)) {
                                 isVisibleResponse = true;
                             }
-                            InstructorAttributes instructor = null;
-                            if (role == UserRole.INSTRUCTOR) {
-                                instructor = instructorsLogic.getInstructorForEmail(courseId, userEmail);
-                            }
                             if (isVisibleResponse && instructor != null) {
                                 boolean isGiverSectionRestricted =
                                         !instructor.isAllowedForPrivilege(
@@ -2126,10 +2186,11 @@ public class FeedbackSessionsLogic {
         boolean isInSection = Boolean.parseBoolean(params.get(PARAM_IN_SECTION));
         boolean isToSection = Boolean.parseBoolean(params.get(PARAM_TO_SECTION));
         boolean isFromSection = Boolean.parseBoolean(params.get(PARAM_FROM_SECTION));
-        boolean isComplete = params.get(PARAM_RANGE) == null;
+        boolean isComplete = true;
+        String nextCursor = null;
         
         List<FeedbackResponseAttributes> allResponses = new ArrayList<FeedbackResponseAttributes>();
-        if (params.get(PARAM_RANGE) == null) {
+        if (params.get(PARAM_PAGE_SIZE) == null) {
             if (isInSection) {
                 allResponses = frLogic.getFeedbackResponsesForSessionInSection(feedbackSessionName,
                                                                                courseId, section);
@@ -2143,26 +2204,28 @@ public class FeedbackSessionsLogic {
                 Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
             }
         } else {
-            long range = Long.parseLong(params.get(PARAM_RANGE));
+            String cursor = params.get(PARAM_CURSOR);
+            int pageSize = Integer.parseInt(params.get(PARAM_PAGE_SIZE));
+            FeedbackResponsesPage page = null;
             if (isInSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionInSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
+                page = frLogic.getFeedbackResponsesForSessionInSectionPage(feedbackSessionName, courseId,
+                                                                           section, cursor, pageSize);
             } else if (isFromSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionFromSectionWithinRange(feedbackSessionName,
-                                                                                            courseId, section, range);
+                page = frLogic.getFeedbackResponsesForSessionFromSectionPage(feedbackSessionName, courseId,
+                                                                             section, cursor, pageSize);
             } else if (isToSection) {
-                allResponses = frLogic.getFeedbackResponsesForSessionToSectionWithinRange(feedbackSessionName,
-                                                                                          courseId, section, range);
+                page = frLogic.getFeedbackResponsesForSessionToSectionPage(feedbackSessionName, courseId,
+                                                                           section, cursor, pageSize);
             } else {
                 Assumption.fail(ASSUMPTION_FAIL_RESPONSE_ORIGIN);
             }
-            if (allResponses.size() <= range) {
-                isComplete = true;
-            } else {
+            allResponses = page.responses;
+            nextCursor = page.nextCursor;
+            isComplete = page.isLastPage();
+            if (!isComplete) {
                 for (FeedbackQuestionAttributes qn : allQuestions) {
                     relevantQuestions.put(qn.getId(), qn);
                 }
-                
             }
         }
         
@@ -2254,6 +2317,7 @@ public class FeedbackSessionsLogic {
                         session, responses, relevantQuestions, emailNameTable,
                         emailLastNameTable, emailTeamNameTable, sectionTeamNameTable,
                         visibilityTable, responseStatus, roster, responseComments, isComplete);
+        results.nextCursor = nextCursor;
 
         return results;
     }
@@ -2437,10 +2501,28 @@ public class FeedbackSessionsLogic {
                 new ArrayList<FeedbackSessionDetailsBundle>();
         List<FeedbackSessionAttributes> fsInCourse =
                 fsDb.getFeedbackSessionsForCourse(courseId);
+        if (fsInCourse.isEmpty()) {
+            return fsDetailsWithoutPrivate;
+        }
+        
+        // Load the roster and the questions of the course once and share them among all its sessions
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
+        Map<String, List<FeedbackQuestionAttributes>> questionsBySession =
+                new HashMap<String, List<FeedbackQuestionAttributes>>();
+        for (FeedbackSessionAttributes fsa : fsInCourse) {
+            questionsBySession.put(fsa.getFeedbackSessionName(), new ArrayList<FeedbackQuestionAttributes>());
+        }
+        for (FeedbackQuestionAttributes question : fqLogic.getFeedbackQuestionsForCourse(courseId)) {
+            List<FeedbackQuestionAttributes> questionsInSession = questionsBySession.get(question.feedbackSessionName);
+            if (questionsInSession != null) {
+                questionsInSession.add(question);
+            }
+        }
 
         for (FeedbackSessionAttributes fsa : fsInCourse) {
             if (!fsa.isPrivateSession() || fsa.isCreator(instructorEmail)) {
-                fsDetailsWithoutPrivate.add(getFeedbackSessionDetails(fsa));
+                fsDetailsWithoutPrivate.add(getFeedbackSessionDetails(
+                        fsa, roster, questionsBySession.get(fsa.getFeedbackSessionName())));
             }
         }
 
@@ -2559,6 +2641,24 @@ public class FeedbackSessionsLogic {
         return new String[] { giverRecipientName, giverRecipientLastName, teamName };
     }
 
+    /**
+     * Reads the questions, responses and roster of the session once, to check
+     * the completion status of all its participants without further queries.
+     */
+    public FeedbackSessionCompletionStatus getFeedbackSessionCompletionStatus(
+            FeedbackSessionAttributes session) throws EntityDoesNotExistException {
+        String feedbackSessionName = session.getFeedbackSessionName();
+        String courseId = session.getCourseId();
+
+        List<FeedbackQuestionAttributes> questions =
+                fqLogic.getFeedbackQuestionsForSession(feedbackSessionName, courseId);
+        List<FeedbackResponseAttributes> responses =
+                frLogic.getFeedbackResponsesForSession(feedbackSessionName, courseId);
+
+        return new FeedbackSessionCompletionStatus(session, rosterCache.getCourseRoster(courseId),
+                                                   questions, responses);
+    }
+
     public boolean isFeedbackSessionFullyCompletedByStudent(
             String feedbackSessionName,
             String courseId, String userEmail)
@@ -2572,8 +2672,9 @@ public class FeedbackSessionsLogic {
                 fqLogic.getFeedbackQuestionsForStudents(feedbackSessionName,
                         courseId);
 
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, roster)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
@@ -2596,8 +2697,9 @@ public class FeedbackSessionsLogic {
                         courseId,
                         userEmail);
 
+        CourseRoster roster = rosterCache.getCourseRoster(courseId);
         for (FeedbackQuestionAttributes question : allQuestions) {
-            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail)) {
+            if (!fqLogic.isQuestionFullyAnsweredByUser(question, userEmail, roster)) {
                 // If any question is not completely answered, session is not
                 // completed
                 return false;
@@ -2705,21 +2807,26 @@ public class FeedbackSessionsLogic {
     }
 
     private void sendFeedbackSessionPublishedEmail(FeedbackSessionAttributes session) {
-        addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_PUBLISHED);
+        addFeedbackSessionRemindersToEmailsQueue(Arrays.asList(session), EmailType.FEEDBACK_PUBLISHED);
     }
     
     public void sendFeedbackSessionUnpublishedEmail(FeedbackSessionAttributes session) {
-        addFeedbackSessionReminderToEmailsQueue(session, EmailType.FEEDBACK_UNPUBLISHED);
+        addFeedbackSessionRemindersToEmailsQueue(Arrays.asList(session), EmailType.FEEDBACK_UNPUBLISHED);
     }
 
-    private void addFeedbackSessionReminderToEmailsQueue(FeedbackSessionAttributes session, EmailType emailType) {
-        Map<String, String> paramMap = new HashMap<String, String>();
-        paramMap.put(ParamsNames.EMAIL_FEEDBACK, session.getFeedbackSessionName());
-        paramMap.put(ParamsNames.EMAIL_COURSE, session.getCourseId());
-        paramMap.put(ParamsNames.EMAIL_TYPE, emailType.toString());
+    private void addFeedbackSessionRemindersToEmailsQueue(List<FeedbackSessionAttributes> sessions,
+                                                          EmailType emailType) {
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
+        for (FeedbackSessionAttributes session : sessions) {
+            Map<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.EMAIL_FEEDBACK, session.getFeedbackSessionName());
+            paramMap.put(ParamsNames.EMAIL_COURSE, session.getCourseId());
+            paramMap.put(ParamsNames.EMAIL_TYPE, emailType.toString());
+            tasks.add(new TaskWrapper(Const.ActionURIs.EMAIL_WORKER, paramMap));
+        }
         
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.EMAIL_TASK_QUEUE, Const.ActionURIs.EMAIL_WORKER, paramMap);
+        taskQueueLogic.createAndAddTasks(SystemParams.EMAIL_TASK_QUEUE, tasks);
     }
     
 }
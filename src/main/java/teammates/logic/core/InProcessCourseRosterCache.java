@@ -0,0 +1,73 @@
+package teammates.logic.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches rosters in the memory of this instance, evicting the least recently used roster
+ * when more than {@link #MAX_CACHED_ROSTERS} are cached.
+ * <br> Invalidations are not seen by other instances, so this is meant for the dev server
+ * and for tests; use {@link MemcacheCourseRosterCache} when the app runs on more than one instance.
+ */
+public class InProcessCourseRosterCache extends CourseRosterCache {
+
+    public static final int MAX_CACHED_ROSTERS = 50;
+
+    private final Map<String, String> rosters = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            boolean isOverLimit = size() > MAX_CACHED_ROSTERS;
+            if (isOverLimit) {
+                evictionCount++;
+            }
+            return isOverLimit;
+        }
+
+    };
+
+    private final Map<String, Long> invalidationTimes = new LinkedHashMap<String, Long>();
+
+    private long evictionCount;
+
+    @Override
+    protected synchronized String getCachedRoster(String courseId) {
+        return rosters.get(courseId);
+    }
+
+    @Override
+    protected synchronized void cacheRoster(String courseId, String roster) {
+        removeExpiredInvalidationTimes();
+        if (!invalidationTimes.containsKey(courseId)) {
+            rosters.put(courseId, roster);
+        }
+    }
+
+    @Override
+    protected synchronized void removeCachedRoster(String courseId) {
+        rosters.remove(courseId);
+        invalidationTimes.remove(courseId);
+        invalidationTimes.put(courseId, System.currentTimeMillis());
+    }
+
+    @Override
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Forgets the invalidations that are older than {@link #INVALIDATION_QUIET_PERIOD_MILLIS}.
+     * They are kept in the order they happened, so only the oldest ones need to be checked.
+     */
+    private void removeExpiredInvalidationTimes() {
+        long expiryTime = System.currentTimeMillis() - INVALIDATION_QUIET_PERIOD_MILLIS;
+        Iterator<Long> iterator = invalidationTimes.values().iterator();
+        while (iterator.hasNext() && iterator.next() < expiryTime) {
+            iterator.remove();
+        }
+    }
+
+}
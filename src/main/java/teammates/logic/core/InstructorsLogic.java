@@ -30,6 +30,7 @@ public class InstructorsLogic {
     private static final CoursesLogic coursesLogic = CoursesLogic.inst();
     private static final CommentsLogic commentsLogic = CommentsLogic.inst();
     private static final FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+    private static final CourseRosterCache rosterCache = CourseRosterCache.inst();
     
     private static final Logger log = Logger.getLogger();
     
@@ -51,6 +52,10 @@ public class InstructorsLogic {
         instructorsDb.putDocument(instructor);
     }
     
+    public void putDocuments(List<InstructorAttributes> instructors) {
+        instructorsDb.putDocuments(instructors);
+    }
+    
     public void deleteDocument(InstructorAttributes instructor) {
         instructorsDb.deleteDocument(instructor);
     }
@@ -78,7 +83,9 @@ public class InstructorsLogic {
         
         log.info("going to create instructor :\n" + instructorToAdd.toString());
         
-        return instructorsDb.createInstructor(instructorToAdd);
+        InstructorAttributes createdInstructor = instructorsDb.createInstructor(instructorToAdd);
+        rosterCache.invalidate(instructorToAdd.courseId);
+        return createdInstructor;
     }
 
     public void setArchiveStatusOfInstructor(String googleId, String courseId, boolean archiveStatus)
@@ -87,6 +94,7 @@ public class InstructorsLogic {
         InstructorAttributes instructor = instructorsDb.getInstructorForGoogleId(courseId, googleId);
         instructor.isArchived = archiveStatus;
         instructorsDb.updateInstructorByGoogleId(instructor);
+        rosterCache.invalidate(courseId);
     }
     
     public InstructorAttributes getInstructorForEmail(String courseId, String email) {
@@ -195,6 +203,7 @@ public class InstructorsLogic {
         checkForUpdatingRespondents(instructor);
         
         instructorsDb.updateInstructorByGoogleId(instructor);
+        rosterCache.invalidate(instructor.courseId);
     }
     
     private void checkForUpdatingRespondents(InstructorAttributes instructor)
@@ -237,6 +246,7 @@ public class InstructorsLogic {
         verifyIsEmailOfInstructorOfCourse(email, instructor.courseId);
         
         instructorsDb.updateInstructorByEmail(instructor);
+        rosterCache.invalidate(instructor.courseId);
     }
     
     /**
@@ -345,6 +355,7 @@ public class InstructorsLogic {
         commentsLogic.deleteCommentsForInstructor(courseId, email);
         fsLogic.deleteInstructorFromRespondentsList(getInstructorForEmail(courseId, email));
         instructorsDb.deleteInstructor(courseId, email);
+        rosterCache.invalidate(courseId);
     }
 
     public void deleteInstructorsForGoogleIdAndCascade(String googleId) {
@@ -361,6 +372,7 @@ public class InstructorsLogic {
     public void deleteInstructorsForCourse(String courseId) {
         
         instructorsDb.deleteInstructorsForCourse(courseId);
+        rosterCache.invalidate(courseId);
     }
 
 }
@@ -1,5 +1,8 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -47,14 +50,53 @@ public class MailjetService extends EmailSenderService {
         return request;
     }
     
+    /**
+     * Parses the {@code wrappers} into one request that carries each of them as a separate message.
+     */
+    public MailjetRequest parseToEmail(List<EmailWrapper> wrappers) {
+        JSONArray messages = new JSONArray();
+        for (EmailWrapper wrapper : wrappers) {
+            messages.put(new JSONObject(parseToEmail(wrapper).getBody()));
+        }
+        return new MailjetRequest(Email.resource).property(Email.MESSAGES, messages);
+    }
+    
+    /**
+     * {@inheritDoc}
+     * The emails are sent with one call to Mailjet.
+     */
+    @Override
+    public List<EmailWrapper> sendEmails(List<EmailWrapper> wrappers) {
+        if (wrappers.size() <= 1) {
+            return super.sendEmails(wrappers);
+        }
+        
+        try {
+            MailjetResponse response = post(parseToEmail(wrappers));
+            if (response.getStatus() != SUCCESS_CODE) {
+                log.severe("Emails failed to send: " + response.getData().toString());
+                return wrappers;
+            }
+            return new ArrayList<EmailWrapper>();
+        } catch (MailjetException | MailjetSocketTimeoutException e) {
+            log.severe("Emails failed to send: " + e.getMessage());
+            return wrappers;
+        }
+    }
+    
     @Override
     protected void sendEmailWithService(EmailWrapper wrapper) throws MailjetException, MailjetSocketTimeoutException {
-        MailjetRequest email = parseToEmail(wrapper);
-        MailjetClient mailjet = new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY);
-        MailjetResponse response = mailjet.post(email);
+        MailjetResponse response = post(parseToEmail(wrapper));
         if (response.getStatus() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getData().toString());
         }
     }
     
+    /**
+     * Makes the call to Mailjet that sends the {@code email}.
+     */
+    protected MailjetResponse post(MailjetRequest email) throws MailjetException, MailjetSocketTimeoutException {
+        return new MailjetClient(Config.MAILJET_APIKEY, Config.MAILJET_SECRETKEY).post(email);
+    }
+    
 }
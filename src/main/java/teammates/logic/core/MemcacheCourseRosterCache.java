@@ -0,0 +1,111 @@
+package teammates.logic.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * Caches rosters in memcache, which is shared by all instances of the app,
+ * so that an invalidation on one instance is seen by all of them.
+ * <br> Memcache evicts the least recently used values by itself when it runs out of memory
+ * and does not report those evictions, so {@link #getEvictionCount()} is always 0.
+ * Cached rosters also expire after {@link #EXPIRATION_SECONDS}.
+ * <br> Rosters larger than {@link #COMPRESSION_THRESHOLD_BYTES} are cached gzipped, so that courses
+ * with thousands of students are cached too.
+ */
+public class MemcacheCourseRosterCache extends CourseRosterCache {
+
+    public static final int EXPIRATION_SECONDS = 60 * 60;
+
+    /**
+     * Memcache does not accept values larger than 1 MB; rosters that are larger than this
+     * in UTF-8 even when gzipped are not cached.
+     */
+    public static final int MAX_ROSTER_BYTES = 900000;
+
+    /**
+     * Rosters larger than this in UTF-8 are gzipped. Roster JSON repeats the same field names and
+     * course ID for every student, so it shrinks to about a tenth.
+     */
+    public static final int COMPRESSION_THRESHOLD_BYTES = 100000;
+
+    private static final String NAMESPACE = "courseroster";
+
+    private final MemcacheService memcache = MemcacheServiceFactory.getMemcacheService(NAMESPACE);
+
+    @Override
+    protected String getCachedRoster(String courseId) {
+        Object roster = memcache.get(courseId);
+        return roster instanceof byte[] ? decompress((byte[]) roster) : (String) roster;
+    }
+
+    @Override
+    protected void cacheRoster(String courseId, String roster) {
+        Object value = roster;
+        byte[] rosterBytes = roster.getBytes(StandardCharsets.UTF_8);
+        if (rosterBytes.length > COMPRESSION_THRESHOLD_BYTES) {
+            byte[] compressedRoster = compress(rosterBytes);
+            if (compressedRoster.length > MAX_ROSTER_BYTES) {
+                return;
+            }
+            value = compressedRoster;
+        }
+        // memcache refuses to add the value if the key was deleted within the quiet period
+        memcache.put(courseId, value, Expiration.byDeltaSeconds(EXPIRATION_SECONDS),
+                     SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+    }
+
+    @Override
+    protected void removeCachedRoster(String courseId) {
+        memcache.delete(courseId, INVALIDATION_QUIET_PERIOD_MILLIS);
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return 0;
+    }
+
+    private static byte[] compress(byte[] roster) {
+        ByteArrayOutputStream compressedRoster = new ByteArrayOutputStream();
+        try {
+            GZIPOutputStream out = new GZIPOutputStream(compressedRoster);
+            try {
+                out.write(roster);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            // not thrown when writing to memory
+            throw new RuntimeException("Failed to compress a roster", e);
+        }
+        return compressedRoster.toByteArray();
+    }
+
+    private static String decompress(byte[] compressedRoster) {
+        ByteArrayOutputStream roster = new ByteArrayOutputStream();
+        try {
+            GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedRoster));
+            try {
+                byte[] buffer = new byte[8192];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    roster.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // not thrown when reading from memory
+            throw new RuntimeException("Failed to decompress a roster", e);
+        }
+        return new String(roster.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
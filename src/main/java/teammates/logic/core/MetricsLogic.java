@@ -0,0 +1,244 @@
+package teammates.logic.core;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import teammates.common.datatransfer.ActionMetricsBundle;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.datatransfer.PersistenceCheckMetricsBundle;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.LatencyHistogram;
+import teammates.common.util.Logger;
+import teammates.common.util.RequestMetrics;
+import teammates.common.util.TimeHelper;
+import teammates.storage.api.MetricsSnapshotsDb;
+import teammates.storage.api.PersistenceCheck;
+
+/**
+ * Handles the logic related to the metrics of the requests handled by the app.
+ * <br> Each app instance keeps the metrics of the requests it handles in memory. Once every
+ * {@link #SNAPSHOT_INTERVAL_MILLIS}, the request that finds the interval over adds a task that saves
+ * the metrics as a snapshot to the datastore, and the instance starts collecting metrics afresh.
+ * Snapshots past their retention period are deleted by a daily cron job.
+ */
+public class MetricsLogic {
+
+    public static final long SNAPSHOT_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * The outcome of a request that did not fail. Failed requests are recorded with what they failed with.
+     */
+    public static final String OUTCOME_SUCCESS = "Success";
+
+    /**
+     * Snapshots older than this are deleted by {@link #deleteExpiredSnapshots()}.
+     */
+    public static final int SNAPSHOT_RETENTION_DAYS = 30;
+
+    private static final Logger log = Logger.getLogger();
+
+    /**
+     * Identifies the snapshots of this app instance.
+     */
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private static MetricsLogic instance;
+    private static final MetricsSnapshotsDb metricsSnapshotsDb = new MetricsSnapshotsDb();
+
+    private final AtomicReference<MetricsPeriod> currentPeriod =
+            new AtomicReference<MetricsPeriod>(new MetricsPeriod());
+
+    public static MetricsLogic inst() {
+        if (instance == null) {
+            instance = new MetricsLogic();
+        }
+        return instance;
+    }
+
+    /**
+     * Records a request handled by an action of the type {@code actionName}, and schedules a snapshot
+     * of the metrics collected so far if one is due.
+     * @param outcome {@link #OUTCOME_SUCCESS}, or what the request failed with
+     * @param requestMetrics the work done by the request, or null if it was not recorded
+     */
+    public void recordRequest(String actionName, long timeTakenInMillis, String outcome,
+                              RequestMetrics requestMetrics) {
+        Assumption.assertNotNull(actionName);
+        Assumption.assertNotNull(outcome);
+
+        MetricsPeriod period = currentPeriod.get();
+        period.getActionMetrics(actionName).record(timeTakenInMillis, outcome, requestMetrics);
+
+        boolean isSnapshotDue = System.currentTimeMillis() - period.startTime.getTime() >= SNAPSHOT_INTERVAL_MILLIS;
+        if (isSnapshotDue) {
+            scheduleSnapshot(period);
+        }
+    }
+
+    /**
+     * @return the metrics of the requests handled by this app instance since its last snapshot was saved.
+     */
+    public MetricsSnapshotBundle getCurrentSnapshot() {
+        return currentPeriod.get().toSnapshot(new Date());
+    }
+
+    /**
+     * @return the checks that this app instance ran to confirm its datastore writes, since it started.
+     */
+    public PersistenceCheckMetricsBundle getPersistenceCheckMetrics() {
+        return PersistenceCheck.inst().getMetrics();
+    }
+
+    /**
+     * Adds a task that saves the metrics of the requests handled by this app instance since its last
+     * snapshot, and starts collecting metrics afresh.
+     * @return the snapshot that the task saves
+     */
+    public MetricsSnapshotBundle scheduleSnapshot() {
+        return scheduleSnapshot(currentPeriod.get());
+    }
+
+    /**
+     * Saves the snapshot to the datastore. To be called by the task added by {@link #scheduleSnapshot()}.
+     */
+    public void saveSnapshot(MetricsSnapshotBundle snapshot) {
+        Assumption.assertNotNull(snapshot);
+        metricsSnapshotsDb.createSnapshot(snapshot);
+    }
+
+    /**
+     * Deletes the snapshots that ended more than {@link #SNAPSHOT_RETENTION_DAYS} days ago.
+     */
+    public void deleteExpiredSnapshots() {
+        metricsSnapshotsDb.deleteSnapshotsEndingBefore(TimeHelper.getDateOffsetToCurrentTime(-SNAPSHOT_RETENTION_DAYS));
+    }
+
+    /**
+     * @return the saved snapshots of all app instances that ended at or after {@code endTime}, latest first.
+     */
+    public List<MetricsSnapshotBundle> getSnapshotsEndingFrom(Date endTime) {
+        Assumption.assertNotNull(endTime);
+        return metricsSnapshotsDb.getSnapshotsEndingFrom(endTime);
+    }
+
+    private MetricsSnapshotBundle scheduleSnapshot(MetricsPeriod period) {
+        // only the request that ends the period schedules it
+        if (!currentPeriod.compareAndSet(period, new MetricsPeriod())) {
+            return null;
+        }
+        MetricsSnapshotBundle snapshot = period.toSnapshot(new Date());
+
+        // the times are passed in milliseconds because the JSON date format does not keep seconds
+        Map<String, String> paramMap = new HashMap<String, String>();
+        paramMap.put(ParamsNames.METRICS_SNAPSHOT_INSTANCE_ID, snapshot.instanceId);
+        paramMap.put(ParamsNames.METRICS_SNAPSHOT_START_TIME, String.valueOf(snapshot.startTime.getTime()));
+        paramMap.put(ParamsNames.METRICS_SNAPSHOT_END_TIME, String.valueOf(snapshot.endTime.getTime()));
+        paramMap.put(ParamsNames.METRICS_SNAPSHOT_ACTION_METRICS, JsonUtils.toCompactJson(snapshot.actionMetrics));
+        try {
+            TaskQueuesLogic.inst().createAndAddTask(Const.SystemParams.METRICS_SNAPSHOT_TASK_QUEUE,
+                                                    Const.ActionURIs.METRICS_SNAPSHOT_WORKER, paramMap);
+        } catch (Exception e) {
+            // losing a snapshot is not worth failing the request for
+            log.warning("Failed to schedule metrics snapshot: " + TeammatesException.toStringWithStackTrace(e));
+        }
+        return snapshot;
+    }
+
+    /**
+     * The metrics collected by this app instance since its last snapshot was saved.
+     * <br> A request that records its metrics just as the period ends may record them in the
+     * period already being saved, in which case they are not included in any snapshot.
+     */
+    private static class MetricsPeriod {
+
+        final Date startTime = new Date();
+        final ConcurrentMap<String, ActionMetrics> actionMetrics = new ConcurrentHashMap<String, ActionMetrics>();
+
+        ActionMetrics getActionMetrics(String actionName) {
+            ActionMetrics metrics = actionMetrics.get(actionName);
+            if (metrics == null) {
+                ActionMetrics newMetrics = new ActionMetrics();
+                metrics = actionMetrics.putIfAbsent(actionName, newMetrics);
+                if (metrics == null) {
+                    metrics = newMetrics;
+                }
+            }
+            return metrics;
+        }
+
+        MetricsSnapshotBundle toSnapshot(Date endTime) {
+            List<ActionMetricsBundle> bundles = new ArrayList<ActionMetricsBundle>();
+            for (Map.Entry<String, ActionMetrics> entry : new TreeMap<String, ActionMetrics>(actionMetrics).entrySet()) {
+                bundles.add(entry.getValue().toBundle(entry.getKey()));
+            }
+            return new MetricsSnapshotBundle(INSTANCE_ID, startTime, endTime, bundles);
+        }
+
+    }
+
+    private static class ActionMetrics {
+
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final ConcurrentMap<String, AtomicLong> failureCounts = new ConcurrentHashMap<String, AtomicLong>();
+        final AtomicLong queriesTotal = new AtomicLong();
+        final AtomicLong entitiesReadTotal = new AtomicLong();
+        final AtomicLong jsonParsesTotal = new AtomicLong();
+        final AtomicLong emailsEnqueuedTotal = new AtomicLong();
+
+        void record(long timeTakenInMillis, String outcome, RequestMetrics requestMetrics) {
+            latencies.record(timeTakenInMillis);
+            if (!OUTCOME_SUCCESS.equals(outcome)) {
+                AtomicLong failureCount = failureCounts.get(outcome);
+                if (failureCount == null) {
+                    AtomicLong newFailureCount = new AtomicLong();
+                    failureCount = failureCounts.putIfAbsent(outcome, newFailureCount);
+                    if (failureCount == null) {
+                        failureCount = newFailureCount;
+                    }
+                }
+                failureCount.incrementAndGet();
+            }
+            if (requestMetrics != null) {
+                queriesTotal.addAndGet(requestMetrics.getQueryCount());
+                entitiesReadTotal.addAndGet(requestMetrics.getEntitiesReadCount());
+                jsonParsesTotal.addAndGet(requestMetrics.getJsonParseCount());
+                emailsEnqueuedTotal.addAndGet(requestMetrics.getEmailsEnqueuedCount());
+            }
+        }
+
+        ActionMetricsBundle toBundle(String actionName) {
+            ActionMetricsBundle bundle = new ActionMetricsBundle();
+            bundle.actionName = actionName;
+            bundle.requestCount = latencies.getCount();
+            bundle.latencyP50 = latencies.getPercentile(50);
+            bundle.latencyP95 = latencies.getPercentile(95);
+            bundle.latencyP99 = latencies.getPercentile(99);
+            bundle.latencyMax = latencies.getMax();
+            bundle.queriesTotal = queriesTotal.get();
+            bundle.entitiesReadTotal = entitiesReadTotal.get();
+            bundle.jsonParsesTotal = jsonParsesTotal.get();
+            bundle.emailsEnqueuedTotal = emailsEnqueuedTotal.get();
+            bundle.failureCounts = new TreeMap<String, Long>();
+            for (Map.Entry<String, AtomicLong> entry : failureCounts.entrySet()) {
+                bundle.failureCounts.put(entry.getKey(), entry.getValue().get());
+            }
+            return bundle;
+        }
+
+    }
+
+}
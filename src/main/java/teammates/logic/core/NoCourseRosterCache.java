@@ -0,0 +1,28 @@
+package teammates.logic.core;
+
+/**
+ * Does not cache rosters; every roster is read from the datastore.
+ */
+public class NoCourseRosterCache extends CourseRosterCache {
+
+    @Override
+    protected String getCachedRoster(String courseId) {
+        return null;
+    }
+
+    @Override
+    protected void cacheRoster(String courseId, String roster) {
+        // rosters are not cached
+    }
+
+    @Override
+    protected void removeCachedRoster(String courseId) {
+        // rosters are not cached
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return 0;
+    }
+
+}
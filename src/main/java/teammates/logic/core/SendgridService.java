@@ -1,5 +1,10 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.jsoup.Jsoup;
 
 import teammates.common.util.Config;
@@ -39,14 +44,80 @@ public class SendgridService extends EmailSenderService {
         return email;
     }
     
+    /**
+     * Parses the {@code wrappers} sharing the same content template into one email addressed to all
+     * their recipients, which SendGrid personalizes for each recipient with their substitutions.
+     */
+    public Email parseToEmail(List<EmailWrapper> wrappers) {
+        EmailWrapper firstWrapper = wrappers.get(0);
+        Email email = new Email();
+        email.setFrom(firstWrapper.getSenderEmail());
+        if (firstWrapper.getSenderName() != null && !firstWrapper.getSenderName().isEmpty()) {
+            email.setFromName(firstWrapper.getSenderName());
+        }
+        email.setReplyTo(firstWrapper.getReplyTo());
+        
+        String[] recipients = new String[wrappers.size()];
+        Set<String> placeholders = new LinkedHashSet<String>();
+        for (int i = 0; i < wrappers.size(); i++) {
+            recipients[i] = wrappers.get(i).getRecipient();
+            placeholders.addAll(wrappers.get(i).getSubstitutions().keySet());
+        }
+        email.addSmtpApiTo(recipients);
+        for (String placeholder : placeholders) {
+            String[] values = new String[wrappers.size()];
+            for (int i = 0; i < wrappers.size(); i++) {
+                String value = wrappers.get(i).getSubstitutions().get(placeholder);
+                values[i] = value == null ? "" : value;
+            }
+            email.addSubstitution(placeholder, values);
+        }
+        
+        if (firstWrapper.getBcc() != null && !firstWrapper.getBcc().isEmpty()) {
+            email.addBcc(firstWrapper.getBcc());
+        }
+        email.setSubject(firstWrapper.getSubject());
+        email.setHtml(firstWrapper.getContentTemplate());
+        email.setText(Jsoup.parse(firstWrapper.getContentTemplate()).text());
+        return email;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * The emails are sent with one call to SendGrid.
+     */
+    @Override
+    public List<EmailWrapper> sendEmails(List<EmailWrapper> wrappers) {
+        if (wrappers.size() <= 1) {
+            return super.sendEmails(wrappers);
+        }
+        
+        try {
+            Response response = send(parseToEmail(wrappers));
+            if (response.getCode() != SUCCESS_CODE) {
+                log.severe("Emails failed to send: " + response.getMessage());
+                return wrappers;
+            }
+            return new ArrayList<EmailWrapper>();
+        } catch (SendGridException e) {
+            log.severe("Emails failed to send: " + e.getMessage());
+            return wrappers;
+        }
+    }
+    
     @Override
     protected void sendEmailWithService(EmailWrapper wrapper) throws SendGridException {
-        Email email = parseToEmail(wrapper);
-        SendGrid sendgrid = new SendGrid(Config.SENDGRID_APIKEY);
-        Response response = sendgrid.send(email);
+        Response response = send(parseToEmail(wrapper));
         if (response.getCode() != SUCCESS_CODE) {
             log.severe("Email failed to send: " + response.getMessage());
         }
     }
     
+    /**
+     * Makes the call to SendGrid that sends the {@code email}.
+     */
+    protected Response send(Email email) throws SendGridException {
+        return new SendGrid(Config.SENDGRID_APIKEY).send(email);
+    }
+    
 }
@@ -3,6 +3,7 @@ package teammates.logic.core;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
@@ -28,6 +29,7 @@ import teammates.common.util.FieldValidator;
 import teammates.common.util.JsonUtils;
 import teammates.common.util.Sanitizer;
 import teammates.common.util.StringHelper;
+import teammates.common.util.TaskWrapper;
 import teammates.storage.api.StudentsDb;
 
 /**
@@ -50,6 +52,7 @@ public class StudentsLogic {
     private FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
     private ProfilesLogic profilesLogic = ProfilesLogic.inst();
     private CommentsLogic commentsLogic = CommentsLogic.inst();
+    private CourseRosterCache rosterCache = CourseRosterCache.inst();
     
     public static StudentsLogic inst() {
         if (instance == null) {
@@ -73,6 +76,7 @@ public class StudentsLogic {
     public void createStudentCascade(StudentAttributes studentData, boolean hasDocument)
             throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
         studentsDb.createStudent(studentData, hasDocument);
+        rosterCache.invalidate(studentData.course);
         
         if (!coursesLogic.isCoursePresent(studentData.course)) {
             throw new EntityDoesNotExistException(
@@ -259,6 +263,7 @@ public class StudentsLogic {
         
         studentsDb.updateStudent(student.course, originalEmail, student.name, student.team, student.section,
                                  student.email, student.googleId, student.comments, hasDocument, false);
+        rosterCache.invalidate(student.course);
         
         // cascade email change, if any
         if (!originalEmail.equals(student.email)) {
@@ -284,6 +289,7 @@ public class StudentsLogic {
         studentsDb.updateStudent(originalStudent.course, originalEmail, originalStudent.name,
                                  originalStudent.team, originalStudent.section, originalStudent.email,
                                  originalStudent.googleId, originalStudent.comments, hasDocument, false);
+        rosterCache.invalidate(courseId);
     }
 
     public List<StudentAttributes> enrollStudents(String enrollLines,
@@ -304,7 +310,8 @@ public class StudentsLogic {
             String courseId, boolean hasDocument)
             throws EntityDoesNotExistException, EnrollException, InvalidParametersException, EntityAlreadyExistsException {
         
-        if (!coursesLogic.isCoursePresent(courseId)) {
+        CourseAttributes course = coursesLogic.getCourse(courseId);
+        if (course == null) {
             throw new EntityDoesNotExistException("Course does not exist :"
                     + courseId);
         }
@@ -338,32 +345,44 @@ public class StudentsLogic {
         }
 
         verifyIsWithinSizeLimitPerEnrollment(studentList);
-        validateSectionsAndTeams(studentList, courseId);
+        
+        // the roster is retrieved once and reused for validation, diffing and the return list
+        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
+        validateSectionsAndTeams(studentList, studentsInCourse);
 
-        // TODO: can we use a batch persist operation here?
-        // enroll all students
+        Map<String, StudentAttributes> studentsInCourseByEmail = new HashMap<String, StudentAttributes>();
+        for (StudentAttributes student : studentsInCourse) {
+            studentsInCourseByEmail.put(student.email, student);
+        }
+        
+        List<StudentAttributes> studentsToCreate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsToUpdate = new ArrayList<StudentAttributes>();
         for (StudentAttributes student : studentList) {
-            StudentEnrollDetails enrollmentDetails;
-            
-            enrollmentDetails = enrollStudent(student, hasDocument);
+            StudentEnrollDetails enrollmentDetails =
+                    getEnrollmentDetails(student, studentsInCourseByEmail.get(student.email));
+            if (enrollmentDetails.updateStatus == StudentUpdateStatus.NEW) {
+                studentsToCreate.add(student);
+            } else if (enrollmentDetails.updateStatus == StudentUpdateStatus.MODIFIED) {
+                studentsToUpdate.add(student);
+            }
             student.updateStatus = enrollmentDetails.updateStatus;
             
             enrollmentList.add(enrollmentDetails);
             returnList.add(student);
         }
         
+        // enroll all students in one batch
+        studentsDb.enrollStudents(course, studentsToCreate, studentsToUpdate, hasDocument);
+        rosterCache.invalidate(courseId);
+        
         //Adjust submissions for all feedback responses within the course
         List<FeedbackSessionAttributes> feedbackSessions = FeedbackSessionsLogic.inst()
                 .getFeedbackSessionsForCourse(courseId);
         
-        for (FeedbackSessionAttributes session : feedbackSessions) {
-            //Schedule adjustment of submissions for feedback session in course
-            scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentList, courseId,
-                    session.getFeedbackSessionName());
-        }
+        //Schedule adjustment of submissions for each feedback session in course
+        scheduleSubmissionAdjustmentForFeedbackInCourse(enrollmentList, courseId, feedbackSessions);
 
         // add to return list students not included in the enroll list.
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
         for (StudentAttributes student : studentsInCourse) {
             if (!isInEnrollList(student, returnList)) {
                 student.updateStatus = StudentUpdateStatus.NOT_IN_ENROLL_LIST;
@@ -387,8 +406,13 @@ public class StudentsLogic {
      * @throws EnrollException
      */
     public void validateSectionsAndTeams(List<StudentAttributes> studentList, String courseId) throws EnrollException {
+        validateSectionsAndTeams(studentList, getStudentsForCourse(courseId));
+    }
+    
+    private void validateSectionsAndTeams(List<StudentAttributes> studentList,
+            List<StudentAttributes> studentsInCourse) throws EnrollException {
 
-        List<StudentAttributes> mergedList = getMergedList(studentList, courseId);
+        List<StudentAttributes> mergedList = getMergedList(studentList, studentsInCourse);
 
         if (mergedList.size() < 2) { // no conflicts
             return;
@@ -425,9 +449,13 @@ public class StudentsLogic {
     }
     
     private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList, String courseId) {
+        return getMergedList(studentList, getStudentsForCourse(courseId));
+    }
+    
+    private List<StudentAttributes> getMergedList(List<StudentAttributes> studentList,
+            List<StudentAttributes> studentsInCourse) {
 
         List<StudentAttributes> mergedList = new ArrayList<StudentAttributes>();
-        List<StudentAttributes> studentsInCourse = getStudentsForCourse(courseId);
 
         for (StudentAttributes student : studentList) {
             mergedList.add(student);
@@ -510,33 +538,34 @@ public class StudentsLogic {
     }
 
     private void scheduleSubmissionAdjustmentForFeedbackInCourse(
-            ArrayList<StudentEnrollDetails> enrollmentList, String courseId, String sessionName) {
+            ArrayList<StudentEnrollDetails> enrollmentList, String courseId,
+            List<FeedbackSessionAttributes> feedbackSessions) {
         // private methods -- should I test this?
-        HashMap<String, String> paramMap = new HashMap<String, String>();
-        
-        paramMap.put(ParamsNames.COURSE_ID, courseId);
-        paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, sessionName);
+        String enrollmentDetails = JsonUtils.toCompactJson(enrollmentList);
         
-        String enrollmentDetails = JsonUtils.toJson(enrollmentList);
-        paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
+        for (FeedbackSessionAttributes session : feedbackSessions) {
+            HashMap<String, String> paramMap = new HashMap<String, String>();
+            
+            paramMap.put(ParamsNames.COURSE_ID, courseId);
+            paramMap.put(ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName());
+            paramMap.put(ParamsNames.ENROLLMENT_DETAILS, enrollmentDetails);
+            
+            tasks.add(new TaskWrapper(Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap));
+        }
         
         TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE,
-                Const.ActionURIs.FEEDBACK_SUBMISSION_ADJUSTMENT_WORKER, paramMap);
+        taskQueueLogic.createAndAddTasks(SystemParams.FEEDBACK_SUBMISSION_ADJUSTMENT_TASK_QUEUE, tasks);
         
     }
     
-    private EmailWrapper scheduleRegistrationInviteToStudent(CourseAttributes course, StudentAttributes student) {
+    private TaskWrapper getRegistrationInviteTask(CourseAttributes course, StudentAttributes student) {
         HashMap<String, String> paramMap = new HashMap<String, String>();
         
         paramMap.put(ParamsNames.COURSE_ID, course.getId());
         paramMap.put(ParamsNames.STUDENT_EMAIL, student.getEmail());
         
-        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
-        taskQueueLogic.createAndAddTask(SystemParams.COURSE_JOIN_REMIND_EMAIL_TASK_QUEUE,
-                Const.ActionURIs.COURSE_JOIN_REMIND_EMAIL_WORKER, paramMap);
-        
-        return new EmailGenerator().generateStudentCourseJoinEmail(course, student);
+        return new TaskWrapper(Const.ActionURIs.COURSE_JOIN_REMIND_EMAIL_WORKER, paramMap);
     }
 
     public EmailWrapper sendRegistrationInviteToStudent(String courseId, String studentEmail)
@@ -596,11 +625,16 @@ public class StudentsLogic {
         List<StudentAttributes> studentDataList = getUnregisteredStudentsForCourse(courseId);
         
         List<EmailWrapper> emailsSent = new ArrayList<EmailWrapper>();
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
         CourseAttributes course = coursesLogic.getCourse(courseId);
+        EmailGenerator emailGenerator = new EmailGenerator();
         for (StudentAttributes s : studentDataList) {
-            EmailWrapper email = scheduleRegistrationInviteToStudent(course, s);
-            emailsSent.add(email);
+            tasks.add(getRegistrationInviteTask(course, s));
+            emailsSent.add(emailGenerator.generateStudentCourseJoinEmail(course, s));
         }
+        
+        TaskQueuesLogic taskQueueLogic = TaskQueuesLogic.inst();
+        taskQueueLogic.createAndAddTasks(SystemParams.COURSE_JOIN_REMIND_EMAIL_TASK_QUEUE, tasks);
         return emailsSent;
     }
 
@@ -618,6 +652,7 @@ public class StudentsLogic {
         commentsLogic.deleteCommentsForStudent(courseId, studentEmail);
         fsLogic.deleteStudentFromRespondentsList(getStudentForEmail(courseId, studentEmail));
         studentsDb.deleteStudent(courseId, studentEmail, hasDocument);
+        rosterCache.invalidate(courseId);
     }
 
     public void deleteStudentsForGoogleId(String googleId) {
@@ -626,6 +661,9 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondentsList(student);
         }
         studentsDb.deleteStudentsForGoogleId(googleId);
+        for (StudentAttributes student : students) {
+            rosterCache.invalidate(student.course);
+        }
     }
 
     public void deleteStudentsForGoogleIdWithoutDocument(String googleId) {
@@ -634,6 +672,9 @@ public class StudentsLogic {
             fsLogic.deleteStudentFromRespondentsList(student);
         }
         studentsDb.deleteStudentsForGoogleIdWithoutDocument(googleId);
+        for (StudentAttributes student : students) {
+            rosterCache.invalidate(student.course);
+        }
     }
     
     public void deleteStudentsForGoogleIdAndCascade(String googleId) {
@@ -647,10 +688,12 @@ public class StudentsLogic {
 
     public void deleteStudentsForCourse(String courseId) {
         studentsDb.deleteStudentsForCourse(courseId);
+        rosterCache.invalidate(courseId);
     }
 
     public void deleteStudentsForCourseWithoutDocument(String courseId) {
         studentsDb.deleteStudentsForCourseWithoutDocument(courseId);
+        rosterCache.invalidate(courseId);
     }
     
     public void adjustFeedbackResponseForEnrollments(
@@ -676,11 +719,45 @@ public class StudentsLogic {
         studentsDb.putDocument(student);
     }
     
+    public void putDocuments(List<StudentAttributes> students) {
+        studentsDb.putDocuments(students);
+    }
+    
     private StudentEnrollDetails enrollStudent(StudentAttributes validStudentAttributes, Boolean hasDocument)
             throws InvalidParametersException, EntityDoesNotExistException, EntityAlreadyExistsException {
         StudentAttributes originalStudentAttributes = getStudentForEmail(
                 validStudentAttributes.course, validStudentAttributes.email);
+        StudentEnrollDetails enrollmentDetails =
+                getEnrollmentDetails(validStudentAttributes, originalStudentAttributes);
+        
+        List<StudentAttributes> studentsToCreate = new ArrayList<StudentAttributes>();
+        List<StudentAttributes> studentsToUpdate = new ArrayList<StudentAttributes>();
+        if (enrollmentDetails.updateStatus == StudentUpdateStatus.NEW) {
+            studentsToCreate.add(validStudentAttributes);
+        } else if (enrollmentDetails.updateStatus == StudentUpdateStatus.MODIFIED) {
+            studentsToUpdate.add(validStudentAttributes);
+        } else {
+            return enrollmentDetails;
+        }
+        
+        CourseAttributes course = coursesLogic.getCourse(validStudentAttributes.course);
+        if (course == null) {
+            throw new EntityDoesNotExistException(
+                    "Course does not exist [" + validStudentAttributes.course + "]");
+        }
+        studentsDb.enrollStudents(course, studentsToCreate, studentsToUpdate, hasDocument);
+        rosterCache.invalidate(course.getId());
         
+        return enrollmentDetails;
+    }
+    
+    /**
+     * Compares {@code validStudentAttributes} against the existing record of the student
+     * and works out how the enrollment changes the student. If the student is modified,
+     * {@code validStudentAttributes} is merged with the existing record, ready to be saved.
+     */
+    private StudentEnrollDetails getEnrollmentDetails(StudentAttributes validStudentAttributes,
+            StudentAttributes originalStudentAttributes) {
         StudentEnrollDetails enrollmentDetails = new StudentEnrollDetails();
         enrollmentDetails.course = validStudentAttributes.course;
         enrollmentDetails.email = validStudentAttributes.email;
@@ -691,8 +768,7 @@ public class StudentsLogic {
         if (validStudentAttributes.isEnrollInfoSameAs(originalStudentAttributes)) {
             enrollmentDetails.updateStatus = StudentUpdateStatus.UNMODIFIED;
         } else if (isModifyingExistingStudent) {
-            updateStudentCascadeWithSubmissionAdjustmentScheduled(originalStudentAttributes.email,
-                                                                  validStudentAttributes, true);
+            validStudentAttributes.updateWithExistingRecord(originalStudentAttributes);
             enrollmentDetails.updateStatus = StudentUpdateStatus.MODIFIED;
             
             if (!originalStudentAttributes.team.equals(validStudentAttributes.team)) {
@@ -702,7 +778,6 @@ public class StudentsLogic {
                 enrollmentDetails.oldSection = originalStudentAttributes.section;
             }
         } else {
-            createStudentCascade(validStudentAttributes, hasDocument);
             enrollmentDetails.updateStatus = StudentUpdateStatus.NEW;
         }
 
@@ -1,16 +1,35 @@
 package teammates.logic.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+
+import teammates.common.util.Logger;
+import teammates.common.util.TaskWrapper;
+import teammates.common.util.ThreadHelper;
 
 import com.google.appengine.api.taskqueue.Queue;
+import com.google.appengine.api.taskqueue.QueueConstants;
 import com.google.appengine.api.taskqueue.QueueFactory;
+import com.google.appengine.api.taskqueue.TaskAlreadyExistsException;
 import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TransientFailureException;
 
 /**
  * Handles  operations related to Task Queues.
  */
 public class TaskQueuesLogic {
 
+    /**
+     * The maximum number of tasks App Engine accepts in one call to add tasks.
+     */
+    public static final int MAX_TASKS_PER_ADD = QueueConstants.maxTasksPerAdd();
+
+    private static final int MAX_ADD_TASKS_ATTEMPTS = 3;
+
+    private static final Logger log = Logger.getLogger();
+
     private static TaskQueuesLogic instance;
     
     public static TaskQueuesLogic inst() {
@@ -68,4 +87,52 @@ public class TaskQueuesLogic {
         
         requiredQueue.add(taskToBeAdded);
     }
+
+    /**
+     * Adds the given {@code tasks} to the queue, with one call to App Engine for every
+     * {@value #MAX_TASKS_PER_ADD} tasks rather than one call for every task.<br>
+     * The tasks are given unique names, so that a call which fails part way can be retried
+     * without adding the tasks it did add again. The names are random rather than sequential,
+     * as App Engine stores tasks by name and sequential names make the adds contend on one range.
+     * @throws IllegalArgumentException if a task is too large to be added. A task too large
+     *         is found before any task in its call is added.
+     */
+    public void createAndAddTasks(String queueName, List<TaskWrapper> tasks) {
+        Queue requiredQueue = QueueFactory.getQueue(queueName);
+
+        List<TaskOptions> tasksToBeAdded = new ArrayList<TaskOptions>();
+        for (TaskWrapper task : tasks) {
+            TaskOptions taskToBeAdded = TaskOptions.Builder.withUrl(task.getWorkerUrl())
+                                                           .taskName(UUID.randomUUID().toString())
+                                                           .countdownMillis(task.getCountdownMillis());
+            for (Map.Entry<String, String> entry : task.getParamMap().entrySet()) {
+                taskToBeAdded = taskToBeAdded.param(entry.getKey(), entry.getValue());
+            }
+            tasksToBeAdded.add(taskToBeAdded);
+        }
+
+        for (int i = 0; i < tasksToBeAdded.size(); i += MAX_TASKS_PER_ADD) {
+            int end = Math.min(i + MAX_TASKS_PER_ADD, tasksToBeAdded.size());
+            addTasks(requiredQueue, tasksToBeAdded.subList(i, end));
+        }
+    }
+
+    private void addTasks(Queue queue, List<TaskOptions> tasks) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                queue.add(tasks);
+                return;
+            } catch (TaskAlreadyExistsException e) {
+                // every task has now been added, some of them by an earlier attempt
+                return;
+            } catch (TransientFailureException e) {
+                if (attempt >= MAX_ADD_TASKS_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Retrying adding " + tasks.size() + " tasks to " + queue.getQueueName()
+                         + ": " + e.getMessage());
+                ThreadHelper.waitBriefly();
+            }
+        }
+    }
 }
@@ -17,6 +17,7 @@ import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.entity.Account;
 import teammates.storage.entity.StudentProfile;
 
@@ -38,6 +39,7 @@ public class AccountsDb extends EntitiesDb {
     public void createAccount(AccountAttributes accountToAdd)
             throws InvalidParametersException {
         // TODO: use createEntity once there is a proper way to add instructor accounts.
+        clearRequestCache();
         try {
             // this is for legacy code to be handled
             if (accountToAdd != null && accountToAdd.studentProfile == null) {
@@ -87,7 +89,13 @@ public class AccountsDb extends EntitiesDb {
     public AccountAttributes getAccount(String googleId, boolean retrieveStudentProfile) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
         
-        Account a = getAccountEntity(googleId, retrieveStudentProfile);
+        // the profile is only loaded if asked for, so the two lookups are cached separately
+        String cacheKey = RequestCache.makeKey("Account", googleId, String.valueOf(retrieveStudentProfile));
+        Account a = (Account) getCachedEntity(cacheKey);
+        if (a == null) {
+            a = getAccountEntity(googleId, retrieveStudentProfile);
+            cacheEntity(cacheKey, a);
+        }
     
         if (a == null) {
             return null;
@@ -131,6 +139,8 @@ public class AccountsDb extends EntitiesDb {
             throws InvalidParametersException, EntityDoesNotExistException {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, a);
         
+        clearRequestCache();
+        
         if (!a.isValid()) {
             throw new InvalidParametersException(a.getInvalidityInfo());
         }
@@ -180,6 +190,8 @@ public class AccountsDb extends EntitiesDb {
     public void deleteAccount(String googleId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
         
+        clearRequestCache();
+        
         AccountAttributes accountToDelete = getAccount(googleId, true);
 
         if (accountToDelete == null) {
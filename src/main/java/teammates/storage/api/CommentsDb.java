@@ -3,6 +3,7 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -25,6 +26,7 @@ import teammates.common.util.Sanitizer;
 import teammates.storage.entity.Comment;
 import teammates.storage.search.CommentSearchDocument;
 import teammates.storage.search.CommentSearchQuery;
+import teammates.storage.search.SearchDocumentContext;
 
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
@@ -484,6 +486,26 @@ public class CommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.COMMENT, new CommentSearchDocument(comment));
     }
     
+    /**
+     * Creates or updates the search documents for the given comments in batches. The rosters of their
+     * courses are retrieved once for all of them instead of once for every recipient of every comment.
+     */
+    public void putDocuments(List<CommentAttributes> comments) {
+        Set<String> courseIds = new HashSet<String>();
+        for (CommentAttributes comment : comments) {
+            courseIds.add(comment.courseId);
+        }
+        
+        SearchDocumentContext context = new SearchDocumentContext();
+        context.prefetchRosters(courseIds);
+        
+        List<CommentSearchDocument> documents = new ArrayList<CommentSearchDocument>();
+        for (CommentAttributes comment : comments) {
+            documents.add(new CommentSearchDocument(comment, context));
+        }
+        putDocuments(Const.SearchIndex.COMMENT, documents);
+    }
+    
     /**
      * Search for comments
      * @return {@link CommentSearchResultBundle}
@@ -13,6 +13,7 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.entity.Course;
 
 /**
@@ -30,6 +31,8 @@ public class CoursesDb extends EntitiesDb {
     
     public void createCourses(Collection<CourseAttributes> coursesToAdd) throws InvalidParametersException {
         
+        clearRequestCache();
+        
         List<EntityAttributes> coursesToUpdate = createEntities(coursesToAdd);
         for (EntityAttributes entity : coursesToUpdate) {
             CourseAttributes course = (CourseAttributes) entity;
@@ -52,7 +55,12 @@ public class CoursesDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        Course c = getCourseEntity(courseId);
+        String cacheKey = RequestCache.makeKey("Course", courseId);
+        Course c = (Course) getCachedEntity(cacheKey);
+        if (c == null) {
+            c = getCourseEntity(courseId);
+            cacheEntity(cacheKey, c);
+        }
 
         if (c == null) {
             return null;
@@ -108,6 +116,8 @@ public class CoursesDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseToUpdate);
         
+        clearRequestCache();
+        
         courseToUpdate.sanitizeForSaving();
         
         if (!courseToUpdate.isValid()) {
@@ -138,6 +148,8 @@ public class CoursesDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
 
+        clearRequestCache();
+        
         // only the courseId is important here, everything else are placeholders
         CourseAttributes entityToDelete = new CourseAttributes(courseId, "Non-existent course", "UTC");
         
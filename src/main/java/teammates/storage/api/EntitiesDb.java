@@ -6,22 +6,25 @@ import java.util.List;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
-import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
 import teammates.common.util.Logger;
-import teammates.common.util.ThreadHelper;
+import teammates.common.util.RequestMetrics;
 import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.MetricsRecordingPersistenceManager;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.search.SearchDocument;
 import teammates.storage.search.SearchManager;
 import teammates.storage.search.SearchQuery;
 
 import com.google.appengine.api.blobstore.BlobKey;
+import com.google.appengine.api.search.Document;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
 import com.google.appengine.api.search.SearchQueryException;
@@ -54,6 +57,7 @@ public abstract class EntitiesDb {
         
         Assumption.assertNotNull(
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entityToAdd);
+        clearRequestCache();
         
         entityToAdd.sanitizeForSaving();
         
@@ -75,25 +79,7 @@ public abstract class EntitiesDb {
         getPm().makePersistent(entity);
         getPm().flush();
 
-        // Wait for the operation to persist
-        int elapsedTime = 0;
-        Object createdEntity = getEntity(entityToAdd);
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            while (createdEntity == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                createdEntity = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (createdEntity == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                        + entityToAdd.getEntityTypeAsString() + "->"
-                        + entityToAdd.getIdentificationString());
-            }
-        }
+        PersistenceCheck.inst().confirmCreated(this, entityToAdd, entity);
         
         log.info(entityToAdd.getBackupIdentifier());
         
@@ -105,6 +91,7 @@ public abstract class EntitiesDb {
         
         Assumption.assertNotNull(
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
+        clearRequestCache();
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
         List<Object> entities = new ArrayList<Object>();
@@ -137,6 +124,7 @@ public abstract class EntitiesDb {
         
         Assumption.assertNotNull(
                 Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToAdd);
+        clearRequestCache();
         
         List<EntityAttributes> entitiesToUpdate = new ArrayList<EntityAttributes>();
         List<Object> entities = new ArrayList<Object>();
@@ -175,6 +163,7 @@ public abstract class EntitiesDb {
             throws InvalidParametersException {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entityToAdd);
+        clearRequestCache();
         
         entityToAdd.sanitizeForSaving();
         
@@ -186,25 +175,7 @@ public abstract class EntitiesDb {
         getPm().makePersistent(entity);
         getPm().flush();
 
-        // Wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToAdd);
-            while (entityCheck == null
-                   && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToAdd);
-                //check before incrementing to avoid boundary case problem
-                if (entityCheck == null) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: create"
-                         + entityToAdd.getEntityTypeAsString() + "->"
-                         + entityToAdd.getIdentificationString());
-            }
-        }
+        PersistenceCheck.inst().confirmCreated(this, entityToAdd, entity);
         log.info(entityToAdd.getBackupIdentifier());
         
         return entity;
@@ -219,6 +190,7 @@ public abstract class EntitiesDb {
      */
     public void deleteEntity(EntityAttributes entityToDelete) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entityToDelete);
+        clearRequestCache();
 
         Object entity = getEntity(entityToDelete);
 
@@ -229,34 +201,14 @@ public abstract class EntitiesDb {
         getPm().deletePersistent(entity);
         getPm().flush();
         
-        // wait for the operation to persist
-        if (Config.PERSISTENCE_CHECK_DURATION > 0) {
-            int elapsedTime = 0;
-            Object entityCheck = getEntity(entityToDelete);
-            boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-            while (!isEntityDeleted
-                    && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-                ThreadHelper.waitBriefly();
-                entityCheck = getEntity(entityToDelete);
-                
-                isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
-                //check before incrementing to avoid boundary case problem
-                if (!isEntityDeleted) {
-                    elapsedTime += ThreadHelper.WAIT_DURATION;
-                }
-            }
-            if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-                log.info("Operation did not persist in time: delete"
-                        + entityToDelete.getEntityTypeAsString() + "->"
-                        + entityToDelete.getIdentificationString());
-            }
-        }
+        PersistenceCheck.inst().confirmDeleted(this, entityToDelete);
         log.info(entityToDelete.getBackupIdentifier());
     }
     
     public void deleteEntities(Collection<? extends EntityAttributes> entitiesToDelete) {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToDelete);
+        clearRequestCache();
         List<Object> entities = new ArrayList<Object>();
         for (EntityAttributes entityToDelete : entitiesToDelete) {
             Object entity = getEntity(entityToDelete);
@@ -293,8 +245,65 @@ public abstract class EntitiesDb {
      */
     protected abstract Object getEntity(EntityAttributes attributes);
     
+    /**
+     * While a request is being processed, the persistence manager returned counts the queries it runs
+     * and the entities it reads in the {@link RequestMetrics} of the request.
+     */
     protected PersistenceManager getPm() {
-        return Datastore.getPersistenceManager();
+        PersistenceManager pm = Datastore.getPersistenceManager();
+        return RequestMetrics.isRecording() ? MetricsRecordingPersistenceManager.wrap(pm) : pm;
+    }
+    
+    /**
+     * @return the existing entities of {@code entityClass} among those with the given {@code ids},
+     *         read with one batched get instead of one query per entity.
+     *         {@code idField} is the name of the primary key field of {@code entityClass}.
+     */
+    protected List<?> getEntitiesWithIds(Class<?> entityClass, String idField, Collection<?> ids) {
+        List<Object> entities = new ArrayList<Object>();
+        if (ids.isEmpty()) {
+            return entities;
+        }
+        
+        // a contains filter on the primary key is run as a batched get
+        Query q = getPm().newQuery(entityClass);
+        q.setFilter(":p.contains(" + idField + ")");
+        
+        for (Object entity : (List<?>) q.execute(new ArrayList<Object>(ids))) {
+            if (!JDOHelper.isDeleted(entity)) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+    
+    /**
+     * @return the entity cached for {@code cacheKey} in the current request, or null if there is none.
+     */
+    protected Object getCachedEntity(String cacheKey) {
+        RequestCache cache = Datastore.getRequestCache();
+        return cache == null ? null : cache.get(cacheKey);
+    }
+    
+    /**
+     * Caches {@code entity} for {@code cacheKey} until the end of the current request, if any.
+     */
+    protected void cacheEntity(String cacheKey, Object entity) {
+        RequestCache cache = Datastore.getRequestCache();
+        if (cache != null) {
+            cache.put(cacheKey, entity);
+        }
+    }
+    
+    /**
+     * Must be called before every write so that later lookups in the same request
+     * do not return outdated entities.
+     */
+    protected void clearRequestCache() {
+        RequestCache cache = Datastore.getRequestCache();
+        if (cache != null) {
+            cache.clear();
+        }
     }
     
     //the followings APIs are used by Teammates' search engine
@@ -306,6 +315,22 @@ public abstract class EntitiesDb {
         }
     }
     
+    protected void putDocuments(String indexName, List<? extends SearchDocument> documents) {
+        List<Document> builtDocuments = new ArrayList<Document>();
+        for (SearchDocument document : documents) {
+            try {
+                builtDocuments.add(document.build());
+            } catch (Exception e) {
+                log.info("Failed to build searchable document in " + indexName + " for " + document.toString());
+            }
+        }
+        try {
+            SearchManager.putDocuments(indexName, builtDocuments);
+        } catch (Exception e) {
+            log.info("Failed to put " + builtDocuments.size() + " searchable documents in " + indexName);
+        }
+    }
+    
     protected void getDocument(String indexName, String documentId) {
         SearchManager.getDocument(indexName, documentId);
     }
@@ -2,7 +2,9 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -52,6 +54,22 @@ public class FeedbackQuestionsDb extends EntitiesDb {
         return new FeedbackQuestionAttributes(fq);
     }
 
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the ids among {@code feedbackQuestionIds} of the questions that exist,
+     *         read with one batched get
+     */
+    public Set<String> getExistingFeedbackQuestionIds(Collection<String> feedbackQuestionIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackQuestionIds);
+        
+        Set<String> existingIds = new HashSet<String>();
+        for (Object question : getEntitiesWithIds(FeedbackQuestion.class, "feedbackQuestionId", feedbackQuestionIds)) {
+            existingIds.add(((FeedbackQuestion) question).getId());
+        }
+        return existingIds;
+    }
+
     public FeedbackQuestionAttributes createFeedbackQuestionWithoutExistenceCheck(
             EntityAttributes entityToAdd) throws InvalidParametersException {
         Object obj = this.createEntityWithoutExistenceCheck(entityToAdd);
@@ -4,8 +4,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
@@ -23,6 +25,7 @@ import teammates.common.util.Const;
 import teammates.storage.entity.FeedbackResponseComment;
 import teammates.storage.search.FeedbackResponseCommentSearchDocument;
 import teammates.storage.search.FeedbackResponseCommentSearchQuery;
+import teammates.storage.search.SearchDocumentContext;
 
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
@@ -33,6 +36,12 @@ import com.google.appengine.api.search.ScoredDocument;
  */
 public class FeedbackResponseCommentsDb extends EntitiesDb {
 
+    /**
+     * The most values the datastore accepts in one IN filter. It runs such a filter as
+     * one sub-query per value.
+     */
+    private static final int MAX_VALUES_PER_IN_FILTER = 30;
+
     /**
      * This method is for testing only
      * @param commentsToAdd
@@ -204,6 +213,34 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         getPm().flush();
     }
     
+    /*
+     * Remove response comments for the response Ids. The comments are found with one query per
+     * 30 responses, which the datastore runs as one sub-query per response, and deleted together.
+     */
+    public void deleteFeedbackResponseCommentsForResponses(List<String> responseIds) {
+        
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responseIds);
+        if (responseIds.isEmpty()) {
+            return;
+        }
+        
+        List<FeedbackResponseComment> frcList = new ArrayList<FeedbackResponseComment>();
+        for (int i = 0; i < responseIds.size(); i += MAX_VALUES_PER_IN_FILTER) {
+            List<String> batchOfResponseIds =
+                    responseIds.subList(i, Math.min(i + MAX_VALUES_PER_IN_FILTER, responseIds.size()));
+            Query q = getPm().newQuery(FeedbackResponseComment.class);
+            q.setFilter(":p.contains(feedbackResponseId)");
+            
+            @SuppressWarnings("unchecked")
+            List<FeedbackResponseComment> commentsOfBatch =
+                    (List<FeedbackResponseComment>) q.execute(new ArrayList<String>(batchOfResponseIds));
+            frcList.addAll(commentsOfBatch);
+        }
+        
+        getPm().deletePersistentAll(getCommentsWithoutDeletedEntity(frcList));
+        getPm().flush();
+    }
+    
     /*
      * Remove response comments for the course Ids
      */
@@ -428,6 +465,34 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         getPm().close();
     }
     
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the ids among {@code feedbackResponseCommentIds} of the comments that exist,
+     *         read with one batched get
+     */
+    public Set<Long> getExistingFeedbackResponseCommentIds(Collection<Long> feedbackResponseCommentIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseCommentIds);
+        
+        Set<Long> existingIds = new HashSet<Long>();
+        for (Object comment : getEntitiesWithIds(FeedbackResponseComment.class, "feedbackResponseCommentId",
+                                                 feedbackResponseCommentIds)) {
+            existingIds.add(((FeedbackResponseComment) comment).getFeedbackResponseCommentId());
+        }
+        return existingIds;
+    }
+    
+    /*
+     * Remove search documents for the comments with the given ids
+     */
+    public void deleteDocuments(List<Long> feedbackResponseCommentIds) {
+        String[] documentIds = new String[feedbackResponseCommentIds.size()];
+        for (int i = 0; i < documentIds.length; i++) {
+            documentIds[i] = feedbackResponseCommentIds.get(i).toString();
+        }
+        deleteDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documentIds);
+    }
+    
     /*
      * Create or update search document for the given comment
      */
@@ -435,6 +500,30 @@ public class FeedbackResponseCommentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, new FeedbackResponseCommentSearchDocument(comment));
     }
     
+    /**
+     * Creates or updates the search documents for the given comments in batches. The rosters of their
+     * courses and their responses are retrieved once for all of them, and the sessions and questions
+     * once for each, instead of once for every comment.
+     */
+    public void putDocuments(List<FeedbackResponseCommentAttributes> comments) {
+        Set<String> courseIds = new HashSet<String>();
+        Set<String> feedbackResponseIds = new HashSet<String>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            courseIds.add(comment.courseId);
+            feedbackResponseIds.add(comment.feedbackResponseId);
+        }
+        
+        SearchDocumentContext context = new SearchDocumentContext();
+        context.prefetchRosters(courseIds);
+        context.prefetchFeedbackResponses(feedbackResponseIds);
+        
+        List<FeedbackResponseCommentSearchDocument> documents = new ArrayList<FeedbackResponseCommentSearchDocument>();
+        for (FeedbackResponseCommentAttributes comment : comments) {
+            documents.add(new FeedbackResponseCommentSearchDocument(comment, context));
+        }
+        putDocuments(Const.SearchIndex.FEEDBACK_RESPONSE_COMMENT, documents);
+    }
+    
     /**
      * Search for response comments
      * @return {@link FeedbackResponseCommentSearchResultBundle}
@@ -3,20 +3,29 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.storage.datastore.MetricsRecordingPersistenceManager;
 import teammates.storage.entity.FeedbackResponse;
 
+import com.google.appengine.api.datastore.Cursor;
+
 public class FeedbackResponsesDb extends EntitiesDb {
 
     public void createFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToAdd)
@@ -213,30 +222,6 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return fraList;
     }
     
-    /**
-     * Preconditions: <br>
-     * * All parameters are non-null.
-     * @return An empty list if no such responses are found.
-     */
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionWithinRange(
-            String feedbackSessionName, String courseId, long range) {
-        
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
-        
-        List<FeedbackResponse> frList =
-                getFeedbackResponseEntitiesForSessionWithinRange(feedbackSessionName, courseId, range);
-        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
-        
-        for (FeedbackResponse fr : frList) {
-            if (!JDOHelper.isDeleted(fr)) {
-                fraList.add(new FeedbackResponseAttributes(fr));
-            }
-        }
-        
-        return fraList;
-    }
-
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -311,80 +296,94 @@ public class FeedbackResponsesDb extends EntitiesDb {
 
         return fraList;
     }
-    
+
     /**
+     * Gets one page of the responses in a session, in the order they are stored.
      * Preconditions: <br>
-     * * All parameters are non-null.
-     * @return An empty list if no such responses are found.
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@code nextCursor} of the previous page, or null to get the first page.
      */
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionInSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionPage(
+            String feedbackSessionName, String courseId, String cursor, int pageSize) {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
-        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
-
-        Collection<FeedbackResponse> frList = getFeedbackResponseEntitiesForSessionInSectionWithinRange(feedbackSessionName,
-                                                                                      courseId, section, range);
-        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
 
-        for (FeedbackResponse fr : frList) {
-            if (!JDOHelper.isDeleted(fr)) {
-                fraList.add(new FeedbackResponseAttributes(fr));
-            }
-        }
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
 
-        return fraList;
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId);
     }
 
     /**
+     * Gets one page of the responses given or received in a section, in the order they are stored.
      * Preconditions: <br>
-     * * All parameters are non-null.
-     * @return An empty list if no such responses are found.
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@code nextCursor} of the previous page, or null to get the first page.
      */
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionFromSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionInSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
 
-        Collection<FeedbackResponse> frList =
-                getFeedbackResponseEntitiesForSessionFromSectionWithinRange(feedbackSessionName, courseId, section, range);
-        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
-
-        for (FeedbackResponse fr : frList) {
-            if (!JDOHelper.isDeleted(fr)) {
-                fraList.add(new FeedbackResponseAttributes(fr));
-            }
-        }
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& sections.contains(sectionParam)");
 
-        return fraList;
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
     }
 
     /**
+     * Gets one page of the responses given from a section, ordered by giver
+     * so that the responses of a giver are rarely split across two pages.
      * Preconditions: <br>
-     * * All parameters are non-null.
-     * @return An empty list if no such responses are found.
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@code nextCursor} of the previous page, or null to get the first page.
      */
-    public List<FeedbackResponseAttributes> getFeedbackResponsesForSessionToSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
+    public FeedbackResponsesPage getFeedbackResponsesForSessionFromSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
 
-        Collection<FeedbackResponse> frList = getFeedbackResponseEntitiesForSessionToSectionWithinRange(feedbackSessionName,
-                                                                                      courseId, section, range);
-        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& giverSection == sectionParam");
+        q.setOrdering("giverEmail ascending");
 
-        for (FeedbackResponse fr : frList) {
-            if (!JDOHelper.isDeleted(fr)) {
-                fraList.add(new FeedbackResponseAttributes(fr));
-            }
-        }
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
+    }
 
-        return fraList;
+    /**
+     * Gets one page of the responses received by a section, ordered by recipient
+     * so that the responses of a recipient are rarely split across two pages.
+     * Preconditions: <br>
+     * * All parameters except {@code cursor} are non-null.
+     * @param cursor the {@code nextCursor} of the previous page, or null to get the first page.
+     */
+    public FeedbackResponsesPage getFeedbackResponsesForSessionToSectionPage(
+            String feedbackSessionName, String courseId, String section, String cursor, int pageSize) {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, section);
+
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
+        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
+                    + "&& courseId == courseIdParam "
+                    + "&& receiverSection == sectionParam");
+        q.setOrdering("receiver ascending");
+
+        return getFeedbackResponsesPage(q, cursor, pageSize, feedbackSessionName, courseId, section);
     }
     
     /**
@@ -647,7 +646,133 @@ public class FeedbackResponsesDb extends EntitiesDb {
             throws InvalidParametersException, EntityDoesNotExistException {
         updateFeedbackResponseOptimized(newAttributes, fr, false);
     }
-    
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return The existing responses among {@code feedbackResponseIds}, by id. The responses
+     *         are read with one batched get instead of one query per response.
+     */
+    public Map<String, FeedbackResponse> getFeedbackResponseEntities(Collection<String> feedbackResponseIds) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackResponseIds);
+
+        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
+        if (feedbackResponseIds.isEmpty()) {
+            return feedbackResponses;
+        }
+
+        // a contains filter on the primary key is run as a batched get
+        Query q = getPm().newQuery(FeedbackResponse.class);
+        q.setFilter(":p.contains(feedbackResponseId)");
+
+        @SuppressWarnings("unchecked")
+        List<FeedbackResponse> feedbackResponseList =
+                (List<FeedbackResponse>) q.execute(new ArrayList<String>(feedbackResponseIds));
+
+        for (FeedbackResponse feedbackResponse : feedbackResponseList) {
+            if (!JDOHelper.isDeleted(feedbackResponse)) {
+                feedbackResponses.put(feedbackResponse.getId(), feedbackResponse);
+            }
+        }
+        return feedbackResponses;
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the ids among {@code feedbackResponseIds} of the responses that exist,
+     *         read with one batched get
+     */
+    public Set<String> getExistingFeedbackResponseIds(Collection<String> feedbackResponseIds) {
+        return new HashSet<String>(getFeedbackResponseEntities(feedbackResponseIds).keySet());
+    }
+
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the existing responses among {@code feedbackResponseIds}, read with one batched get
+     */
+    public List<FeedbackResponseAttributes> getFeedbackResponses(Collection<String> feedbackResponseIds) {
+        List<FeedbackResponseAttributes> feedbackResponses = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse feedbackResponse : getFeedbackResponseEntities(feedbackResponseIds).values()) {
+            feedbackResponses.add(new FeedbackResponseAttributes(feedbackResponse));
+        }
+        return feedbackResponses;
+    }
+
+    /**
+     * Writes {@code responsesToSave} with one batched put and deletes {@code entitiesToDelete}
+     * with one batched delete. A response replaces the entity in {@code existingEntities} that
+     * has the same id, keeping its creation time. Nothing is written if any response is invalid.
+     * The created and deleted responses are confirmed by the {@link PersistenceCheck}, as in
+     * {@link #createEntity} and {@link #deleteEntity}.<br>
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * * {@code existingEntities} contains every existing entity that a response replaces,
+     *   as returned by {@link #getFeedbackResponseEntities}.
+     */
+    public void saveFeedbackResponses(Collection<FeedbackResponseAttributes> responsesToSave,
+                                      Map<String, FeedbackResponse> existingEntities,
+                                      Collection<FeedbackResponse> entitiesToDelete)
+            throws InvalidParametersException {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, responsesToSave);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, existingEntities);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, entitiesToDelete);
+        clearRequestCache();
+
+        List<FeedbackResponse> entitiesToSave = new ArrayList<FeedbackResponse>();
+        List<FeedbackResponse> entitiesToReplace = new ArrayList<FeedbackResponse>();
+        Map<FeedbackResponse, FeedbackResponseAttributes> createdEntities =
+                new LinkedHashMap<FeedbackResponse, FeedbackResponseAttributes>();
+
+        for (FeedbackResponseAttributes responseToSave : responsesToSave) {
+            responseToSave.sanitizeForSaving();
+
+            if (!responseToSave.isValid()) {
+                throw new InvalidParametersException(responseToSave.getInvalidityInfo());
+            }
+
+            FeedbackResponse entityToSave = responseToSave.toEntity();
+            FeedbackResponse existingEntity = existingEntities.get(entityToSave.getId());
+            if (existingEntity != null) {
+                entityToSave.setCreatedAt(existingEntity.getCreatedAt());
+                entitiesToReplace.add(existingEntity);
+            } else {
+                createdEntities.put(entityToSave, responseToSave);
+            }
+            entitiesToSave.add(entityToSave);
+        }
+        
+        // the deleted entities cannot be read once they are deleted
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse entityToDelete : entitiesToDelete) {
+            responsesToDelete.add(new FeedbackResponseAttributes(entityToDelete));
+        }
+
+        // Changes to entities already managed by the persistence manager are written one entity
+        // at a time, so the existing entities are detached and their replacements, which have the
+        // same keys, are written together with the new ones.
+        getPm().makeTransientAll(entitiesToReplace);
+        getPm().deletePersistentAll(entitiesToDelete);
+        getPm().makePersistentAll(entitiesToSave);
+        getPm().flush();
+
+        for (Map.Entry<FeedbackResponse, FeedbackResponseAttributes> createdEntity : createdEntities.entrySet()) {
+            PersistenceCheck.inst().confirmCreated(this, createdEntity.getValue(), createdEntity.getKey());
+        }
+        for (FeedbackResponseAttributes responseToDelete : responsesToDelete) {
+            PersistenceCheck.inst().confirmDeleted(this, responseToDelete);
+        }
+        for (FeedbackResponseAttributes responseToSave : responsesToSave) {
+            log.info(responseToSave.getBackupIdentifier());
+        }
+        
+        // The saved entities stay new in the persistence manager, where a later save of the same
+        // responses could not detach them, so it is closed as in updateFeedbackResponseOptimized.
+        closePm();
+    }
+
     public void deleteFeedbackResponsesForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
@@ -754,31 +879,29 @@ public class FeedbackResponsesDb extends EntitiesDb {
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestionInSection(
                 String feedbackQuestionId, String section) {
         
-        List<FeedbackResponse> feedbackResponses = new ArrayList<FeedbackResponse>();
-       
         Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackQuestionIdParam, String giverSectionParam, String receiverSectionParam");
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam "
-                    + "&& giverSection == giverSectionParam "
-                    + "&& receiverSection == receiverSectionParam");
+        q.declareParameters("String feedbackQuestionIdParam, String sectionParam");
+        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && sections.contains(sectionParam)");
         
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, section);
-        feedbackResponses.addAll(firstQueryResponses);
-         
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section, "None");
-        feedbackResponses.addAll(secondQueryResponses);
-
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> thirdQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, "None", section);
-        feedbackResponses.addAll(thirdQueryResponses);
+        List<FeedbackResponse> queryResponses =
+                (List<FeedbackResponse>) q.execute(feedbackQuestionId, section);
+        
+        // only keep responses between the section and itself or the default section
+        List<FeedbackResponse> feedbackResponses = new ArrayList<FeedbackResponse>();
+        for (FeedbackResponse response : queryResponses) {
+            if (isSectionOrDefaultSection(response.getGiverSection(), section)
+                    && isSectionOrDefaultSection(response.getRecipientSection(), section)) {
+                feedbackResponses.add(response);
+            }
+        }
        
         return feedbackResponses;
     }
+    
+    private boolean isSectionOrDefaultSection(String responseSection, String section) {
+        return section.equals(responseSection) || Const.DEFAULT_SECTION.equals(responseSection);
+    }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForQuestion(
                 String feedbackQuestionId) {
@@ -821,54 +944,20 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
     
-    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionWithinRange(
-            String feedbackSessionName, String courseId, long range) {
-        
-        Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackSessionNameParam, String courseIdParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam && courseId == courseIdParam");
-        q.setRange(0, range + 1);
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> feedbackResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId);
-        
-        return feedbackResponses;
-    }
- 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSection(
             String feedbackSessionName, String courseId, String section) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
         q.setFilter("feedbackSessionName == feedbackSessionNameParam "
                     + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
+                    + "&& sections.contains(sectionParam)");
         
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
 
     private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSection(
@@ -902,76 +991,47 @@ public class FeedbackResponsesDb extends EntitiesDb {
 
         return queryResponses;
     }
-    
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForSessionInSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
 
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
+    /**
+     * Reads up to {@code pageSize} responses from {@code q}, starting at {@code cursor}.
+     */
+    private FeedbackResponsesPage getFeedbackResponsesPage(Query q, String cursor, int pageSize,
+                                                          Object... parameters) {
+        Assumption.assertTrue(pageSize > 0);
 
-        Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        q.setRange(0, range + 1);
-        
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
-        q.setRange(0, range + 1);
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
+        List<FeedbackResponse> feedbackResponses = executeFromCursor(q, cursor, pageSize, parameters);
+        List<FeedbackResponseAttributes> fraList = new ArrayList<FeedbackResponseAttributes>();
+        for (FeedbackResponse fr : feedbackResponses) {
+            if (!JDOHelper.isDeleted(fr)) {
+                fraList.add(new FeedbackResponseAttributes(fr));
             }
         }
-        
-        return feedbackResponses.values();
-    }
-
-    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionFromSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
-
-        Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& giverSection == sectionParam");
-        q.setRange(0, range + 1);
 
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> queryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
+        if (feedbackResponses.size() < pageSize) {
+            return new FeedbackResponsesPage(fraList, null);
+        }
 
-        return queryResponses;
+        // the page is full, so look ahead for one more response to tell whether there is a next page
+        List<?> queryResult = MetricsRecordingPersistenceManager.unwrapQueryResult(feedbackResponses);
+        String nextCursor = JDOCursorHelper.getCursor(queryResult).toWebSafeString();
+        boolean isLastPage = executeFromCursor(q, nextCursor, 1, parameters).isEmpty();
+        return new FeedbackResponsesPage(fraList, isLastPage ? null : nextCursor);
     }
 
-    private List<FeedbackResponse> getFeedbackResponseEntitiesForSessionToSectionWithinRange(
-            String feedbackSessionName, String courseId, String section, long range) {
-
-        Query q = getPm().newQuery(FeedbackResponse.class);
-        q.declareParameters("String feedbackSessionNameParam, String courseIdParam, String sectionParam");
-        q.setFilter("feedbackSessionName == feedbackSessionNameParam "
-                    + "&& courseId == courseIdParam "
-                    + "&& receiverSection == sectionParam");
-        q.setRange(0, range + 1);
+    private List<FeedbackResponse> executeFromCursor(Query q, String cursor, int range, Object... parameters) {
+        if (cursor != null) {
+            Map<String, Object> extensions = new HashMap<String, Object>();
+            extensions.put(JDOCursorHelper.CURSOR_EXTENSION, Cursor.fromWebSafeString(cursor));
+            q.setExtensions(extensions);
+        }
+        q.setRange(0, range);
 
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> queryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackSessionName, courseId, section);
+        List<FeedbackResponse> feedbackResponses = (List<FeedbackResponse>) q.executeWithArray(parameters);
 
-        return queryResponses;
+        // the cursor of the results is only available after all of them are read
+        feedbackResponses.size();
+        return feedbackResponses;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestion(
@@ -988,37 +1048,19 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesForReceiverForQuestionInSection(
             String feedbackQuestionId, String receiver, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String receiverParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& sections.contains(sectionParam)");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && receiver == receiverParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackQuestionId, receiver, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestion(
@@ -1035,37 +1077,19 @@ public class FeedbackResponsesDb extends EntitiesDb {
         return feedbackResponses;
     }
 
-    private Collection<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
+    private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForQuestionInSection(
             String feedbackQuestionId, String giverEmail, String section) {
         
-        Map<String, FeedbackResponse> feedbackResponses = new HashMap<String, FeedbackResponse>();
-        
         Query q = getPm().newQuery(FeedbackResponse.class);
         q.declareParameters("String feedbackQuestionIdParam, String giverEmailParam, String sectionParam");
         q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                    + "&& giverSection == sectionParam");
+                    + "&& sections.contains(sectionParam)");
     
         @SuppressWarnings("unchecked")
-        List<FeedbackResponse> firstQueryResponses =
-                (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : firstQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
-        
-        q.setFilter("feedbackQuestionId == feedbackQuestionIdParam && giverEmail == giverEmailParam "
-                + "&& receiverSection == sectionParam");
-        @SuppressWarnings("unchecked")
-        List<FeedbackResponse> secondQueryResponses =
+        List<FeedbackResponse> queryResponses =
                 (List<FeedbackResponse>) q.execute(feedbackQuestionId, giverEmail, section);
-        for (FeedbackResponse response : secondQueryResponses) {
-            if (!JDOHelper.isDeleted(response)) {
-                feedbackResponses.put(response.getId(), response);
-            }
-        }
         
-        return feedbackResponses.values();
+        return queryResponses;
     }
     
     private List<FeedbackResponse> getFeedbackResponseEntitiesFromGiverForSessionWithinRange(
@@ -3,13 +3,22 @@ package teammates.storage.api;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import javax.jdo.JDOException;
 import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.Transaction;
 
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
@@ -18,15 +27,33 @@ import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
+import teammates.common.util.ThreadHelper;
 import teammates.common.util.TimeHelper;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.entity.FeedbackSession;
+import teammates.storage.entity.FeedbackSessionRespondentShard;
 
 public class FeedbackSessionsDb extends EntitiesDb {
     
     public static final String ERROR_UPDATE_NON_EXISTENT = "Trying to update non-existent Feedback Session : ";
 
+    /**
+     * Respondents of a session are spread over this many {@link FeedbackSessionRespondentShard}s,
+     * so that submissions to the same session do not all write to one entity.
+     */
+    public static final int NUMBER_OF_RESPONDENT_SHARDS = 20;
+
+    private static final int MAX_RESPONDENT_SHARD_UPDATE_ATTEMPTS = 10;
+    
+    /**
+     * The most keys the datastore accepts in one batched get.
+     */
+    private static final int MAX_KEYS_PER_BATCH_GET = 1000;
+
     public void createFeedbackSessions(Collection<FeedbackSessionAttributes> feedbackSessionsToAdd)
             throws InvalidParametersException {
+        clearRequestCache();
+        
         List<EntityAttributes> feedbackSessionsToUpdate = createEntities(feedbackSessionsToAdd);
         for (EntityAttributes entity : feedbackSessionsToUpdate) {
             FeedbackSessionAttributes session = (FeedbackSessionAttributes) entity;
@@ -40,42 +67,26 @@ public class FeedbackSessionsDb extends EntitiesDb {
         }
     }
        
+    /**
+     * Gets the sessions that start or end within the given window, which is in the time zone {@code zone}.
+     * <br> Sessions are looked up by the days they start and end on, which sessions saved by older
+     * versions do not have until they are saved again.
+     */
     public List<FeedbackSessionAttributes> getAllOpenFeedbackSessions(Date start, Date end, double zone) {
         
         List<FeedbackSessionAttributes> list = new LinkedList<FeedbackSessionAttributes>();
         
-        final Query endTimequery = getPm().newQuery("SELECT FROM teammates.storage.entity.FeedbackSession "
-                                                    + "WHERE this.endTime>rangeStart && this.endTime<=rangeEnd "
-                                                    + " PARAMETERS java.util.Date rangeStart, "
-                                                    + "java.util.Date rangeEnd");
-
-        final Query startTimequery = getPm().newQuery("SELECT FROM teammates.storage.entity.FeedbackSession "
-                                                      + "WHERE this.startTime>=rangeStart && this.startTime<rangeEnd "
-                                                      + "PARAMETERS java.util.Date rangeStart, "
-                                                      + "java.util.Date rangeEnd");
-            
         Calendar startCal = Calendar.getInstance();
         startCal.setTime(start);
         Calendar endCal = Calendar.getInstance();
         endCal.setTime(end);
 
-        Date curStart = TimeHelper.convertToUserTimeZone(startCal, -25).getTime();
-        Date curEnd = TimeHelper.convertToUserTimeZone(endCal, 25).getTime();
-     
-        @SuppressWarnings("unchecked")
-        List<FeedbackSession> endEntities = (List<FeedbackSession>) endTimequery.execute(curStart, curEnd);
-        @SuppressWarnings("unchecked")
-        List<FeedbackSession> startEntities = (List<FeedbackSession>) startTimequery.execute(curStart, curEnd);
+        // the window is widened to cover sessions in all time zones, and narrowed for each session below
+        long firstDay = TimeHelper.getDaysSinceEpoch(TimeHelper.convertToUserTimeZone(startCal, -25).getTime());
+        long lastDay = TimeHelper.getDaysSinceEpoch(TimeHelper.convertToUserTimeZone(endCal, 25).getTime());
         
-        List<FeedbackSession> endTimeEntities = new ArrayList<FeedbackSession>(endEntities);
-        List<FeedbackSession> startTimeEntities = new ArrayList<FeedbackSession>(startEntities);
-        
-        endTimeEntities.removeAll(startTimeEntities);
-        startTimeEntities.removeAll(endTimeEntities);
-        endTimeEntities.addAll(startTimeEntities);
-                    
-        
-        Iterator<FeedbackSession> it = endTimeEntities.iterator();
+        Iterator<FeedbackSession> it = getFeedbackSessionEntitiesStartingOrEndingOnDays(firstDay, lastDay).iterator();
+        Set<String> seenFeedbackSessionIds = new HashSet<String>();
 
         while (it.hasNext()) {
             FeedbackSession feedbackSession = it.next();
@@ -85,6 +96,12 @@ public class FeedbackSessionsDb extends EntitiesDb {
                 continue;
             }
             
+            // a session starting and ending within the range is returned by the query for each of its days
+            if (!seenFeedbackSessionIds.add(FeedbackSession.generateId(feedbackSession.getFeedbackSessionName(),
+                                                                       feedbackSession.getCourseId()))) {
+                continue;
+            }
+            
             startCal.setTime(start);
             endCal.setTime(end);
             FeedbackSessionAttributes fs = new FeedbackSessionAttributes(feedbackSession);
@@ -107,10 +124,50 @@ public class FeedbackSessionsDb extends EntitiesDb {
                 list.add(fs);
             }
         }
-             
+        
+        addRespondentsFromShards(list);
         return list;
     }
 
+    /**
+     * @return the sessions in order of the first of their days within the range. A session with both of
+     *         its days within the range is returned once for each of them.
+     */
+    private List<FeedbackSession> getFeedbackSessionEntitiesStartingOrEndingOnDays(long firstDay, long lastDay) {
+        Query q = getPm().newQuery(FeedbackSession.class);
+        q.declareParameters("Long firstDay, Long lastDay");
+        // an entity matches only if one of its days is within both bounds
+        q.setFilter("startAndEndDays >= firstDay && startAndEndDays <= lastDay");
+
+        // the results are read from the datastore in batches as they are iterated over
+        @SuppressWarnings("unchecked")
+        List<FeedbackSession> feedbackSessions = (List<FeedbackSession>) q.execute(firstDay, lastDay);
+        return feedbackSessions;
+    }
+    
+    /**
+     * Preconditions: <br>
+     * * All parameters are non-null.
+     * @return the identification strings of the sessions among {@code feedbackSessions} that exist,
+     *         read with one batched get. Respondents are not needed for this, so their shards are not read.
+     */
+    public Set<String> getExistingFeedbackSessionIdentifications(
+            Collection<FeedbackSessionAttributes> feedbackSessions) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessions);
+        
+        Set<String> feedbackSessionIds = new HashSet<String>();
+        for (FeedbackSessionAttributes feedbackSession : feedbackSessions) {
+            feedbackSessionIds.add(FeedbackSession.generateId(feedbackSession.getFeedbackSessionName(),
+                                                              feedbackSession.getCourseId()));
+        }
+        
+        Set<String> existingIdentifications = new HashSet<String>();
+        for (Object entity : getEntitiesWithIds(FeedbackSession.class, "feedbackSessionId", feedbackSessionIds)) {
+            FeedbackSessionAttributes existingSession = new FeedbackSessionAttributes((FeedbackSession) entity);
+            existingIdentifications.add(existingSession.getIdentificationString());
+        }
+        return existingIdentifications;
+    }
     
     /**
      * Preconditions: <br>
@@ -122,17 +179,35 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSessionName);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        FeedbackSession fs = getFeedbackSessionEntity(feedbackSessionName, courseId);
+        String cacheKey = RequestCache.makeKey("FeedbackSession", courseId, feedbackSessionName);
+        FeedbackSession fs = (FeedbackSession) getCachedEntity(cacheKey);
+        if (fs == null) {
+            fs = getFeedbackSessionEntity(feedbackSessionName, courseId);
+            cacheEntity(cacheKey, fs);
+        }
         
         if (fs == null) {
             log.info("Trying to get non-existent Session: " + feedbackSessionName + "/" + courseId);
             return null;
         }
-        return new FeedbackSessionAttributes(fs);
+        
+        String shardsCacheKey = RequestCache.makeKey("FeedbackSessionRespondentShards", courseId, feedbackSessionName);
+        @SuppressWarnings("unchecked")
+        List<FeedbackSessionRespondentShard> shards =
+                (List<FeedbackSessionRespondentShard>) getCachedEntity(shardsCacheKey);
+        if (shards == null) {
+            shards = getRespondentShardEntitiesForSession(feedbackSessionName, courseId);
+            cacheEntity(shardsCacheKey, shards);
+        }
+        
+        FeedbackSessionAttributes fsa = new FeedbackSessionAttributes(fs);
+        addRespondentsFromShards(fsa, shards);
+        return fsa;
         
     }
     
     /**
+     * Respondents kept in {@link FeedbackSessionRespondentShard}s are not included.
      * @return empty list if none found.
      * @deprecated Not scalable. Created for data migration purposes.
      */
@@ -158,15 +233,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesForCourse(courseId);
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionsWithRespondents(getFeedbackSessionEntitiesForCourse(courseId));
     }
         
     /**
@@ -174,15 +241,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
      */
     public List<FeedbackSessionAttributes> getFeedbackSessionsPossiblyNeedingOpenEmail() {
                 
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesPossiblyNeedingOpenEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionsWithRespondents(getFeedbackSessionEntitiesPossiblyNeedingOpenEmail());
     }
     
     /**
@@ -190,15 +249,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
      */
     public List<FeedbackSessionAttributes> getFeedbackSessionsPossiblyNeedingClosingEmail() {
                 
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesPossiblyNeedingClosingEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionsWithRespondents(getFeedbackSessionEntitiesPossiblyNeedingClosingEmail());
     }
     
     /**
@@ -206,15 +257,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
      */
     public List<FeedbackSessionAttributes> getFeedbackSessionsPossiblyNeedingClosedEmail() {
                 
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesPossiblyNeedingClosedEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionsWithRespondents(getFeedbackSessionEntitiesPossiblyNeedingClosedEmail());
     }
     
     /**
@@ -222,15 +265,7 @@ public class FeedbackSessionsDb extends EntitiesDb {
      */
     public List<FeedbackSessionAttributes> getFeedbackSessionsPossiblyNeedingPublishedEmail() {
         
-        List<FeedbackSession> fsList = getFeedbackSessionEntitiesPossiblyNeedingPublishedEmail();
-        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
-        
-        for (FeedbackSession fs : fsList) {
-            if (!JDOHelper.isDeleted(fs)) {
-                fsaList.add(new FeedbackSessionAttributes(fs));
-            }
-        }
-        return fsaList;
+        return getFeedbackSessionsWithRespondents(getFeedbackSessionEntitiesPossiblyNeedingPublishedEmail());
     }
     
     /**
@@ -249,6 +284,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
                 Const.StatusCodes.DBLEVEL_NULL_INPUT,
                 newAttributes);
         
+        clearRequestCache();
+        
         newAttributes.sanitizeForSaving();
         
         if (!newAttributes.isValid()) {
@@ -295,20 +332,9 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
+        getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        addRespondents(emails, feedbackSession, true);
 
-        fs.getRespondingInstructorList().addAll(emails);
-        
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
     }
@@ -320,22 +346,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        if (fs.getRespondingInstructorList().contains(oldEmail)) {
-            fs.getRespondingInstructorList().remove(oldEmail);
-            fs.getRespondingInstructorList().add(newEmail);
-        }
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        updateRespondent(oldEmail, newEmail, fs, feedbackSession, true);
        
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -346,19 +358,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().clear();
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        clearRespondents(fs, feedbackSession, true);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -378,19 +379,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingInstructorList().remove(email);
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        deleteRespondent(email, fs, feedbackSession, true);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -402,19 +392,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, emails);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingStudentList().addAll(emails);
+        getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        addRespondents(emails, feedbackSession, false);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -427,22 +406,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, newEmail);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        if (fs.getRespondingStudentList().contains(oldEmail)) {
-            fs.getRespondingStudentList().remove(oldEmail);
-            fs.getRespondingStudentList().add(newEmail);
-        }
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        updateRespondent(oldEmail, newEmail, fs, feedbackSession, false);
         
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -453,19 +418,8 @@ public class FeedbackSessionsDb extends EntitiesDb {
 
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
-        feedbackSession.sanitizeForSaving();
-
-        if (!feedbackSession.isValid()) {
-            throw new InvalidParametersException(feedbackSession.getInvalidityInfo());
-        }
-
-        FeedbackSession fs = (FeedbackSession) getEntity(feedbackSession);
-        if (fs == null) {
-            throw new EntityDoesNotExistException(
-                    ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
-        }
-
-        fs.getRespondingStudentList().clear();
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        clearRespondents(fs, feedbackSession, false);
 
         log.info(feedbackSession.getBackupIdentifier());
         getPm().close();
@@ -477,6 +431,48 @@ public class FeedbackSessionsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
 
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        deleteRespondent(email, fs, feedbackSession, false);
+
+        log.info(feedbackSession.getBackupIdentifier());
+        getPm().close();
+    }
+    
+    /**
+     * Moves the respondents kept in the session entity by older versions into the shards of the session.
+     * They are removed from the session entity only after they are in the shards, so that none are lost
+     * if this fails midway.
+     */
+    public void moveLegacyRespondentsToShards(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, feedbackSession);
+
+        FeedbackSession fs = getFeedbackSessionEntityForRespondentUpdate(feedbackSession);
+        for (boolean isInstructor : new boolean[] {false, true}) {
+            Set<String> legacyRespondents = getLegacyRespondents(fs, isInstructor);
+            if (legacyRespondents != null && !legacyRespondents.isEmpty()) {
+                addRespondents(new ArrayList<String>(legacyRespondents), feedbackSession, isInstructor);
+                legacyRespondents.clear();
+            }
+        }
+
+        log.info(feedbackSession.getBackupIdentifier());
+        getPm().close();
+    }
+    
+    /**
+     * @return the index of the respondent shard {@code email} is kept in.
+     */
+    public static int getRespondentShardIndex(String email) {
+        return (email.hashCode() & Integer.MAX_VALUE) % NUMBER_OF_RESPONDENT_SHARDS;
+    }
+
+    private FeedbackSession getFeedbackSessionEntityForRespondentUpdate(FeedbackSessionAttributes feedbackSession)
+            throws InvalidParametersException, EntityDoesNotExistException {
+
+        clearRequestCache();
+        
         feedbackSession.sanitizeForSaving();
 
         if (!feedbackSession.isValid()) {
@@ -488,16 +484,161 @@ public class FeedbackSessionsDb extends EntitiesDb {
             throw new EntityDoesNotExistException(
                     ERROR_UPDATE_NON_EXISTENT + feedbackSession.toString());
         }
-        
-        fs.getRespondingStudentList().remove(email);
+        return fs;
+    }
 
-        log.info(feedbackSession.getBackupIdentifier());
-        getPm().close();
+    private void addRespondents(List<String> emails, FeedbackSessionAttributes feedbackSession,
+                                boolean isInstructor) {
+        Map<Integer, List<String>> emailsByShard = new HashMap<Integer, List<String>>();
+        for (String email : emails) {
+            int shardIndex = getRespondentShardIndex(email);
+            List<String> emailsInShard = emailsByShard.get(shardIndex);
+            if (emailsInShard == null) {
+                emailsInShard = new ArrayList<String>();
+                emailsByShard.put(shardIndex, emailsInShard);
+            }
+            emailsInShard.add(email);
+        }
+
+        for (Map.Entry<Integer, List<String>> emailsInShard : emailsByShard.entrySet()) {
+            updateRespondentShard(feedbackSession, emailsInShard.getKey(), isInstructor,
+                                  emailsInShard.getValue(), new ArrayList<String>());
+        }
     }
-    
+
+    /**
+     * Removes the respondent from its shard, and from the respondents kept in the
+     * session entity itself by older versions.
+     */
+    private void deleteRespondent(String email, FeedbackSession fs, FeedbackSessionAttributes feedbackSession,
+                                  boolean isInstructor) {
+        List<String> emails = new ArrayList<String>();
+        emails.add(email);
+        updateRespondentShard(feedbackSession, getRespondentShardIndex(email), isInstructor,
+                              new ArrayList<String>(), emails);
+
+        // the session entity is changed only after the shard transaction is done,
+        // as a transaction cannot write to both entity groups
+        Set<String> legacyRespondents = getLegacyRespondents(fs, isInstructor);
+        if (legacyRespondents != null && legacyRespondents.contains(email)) {
+            legacyRespondents.remove(email);
+        }
+    }
+
+    private void updateRespondent(String oldEmail, String newEmail, FeedbackSession fs,
+                                  FeedbackSessionAttributes feedbackSession, boolean isInstructor) {
+        Set<String> legacyRespondents = getLegacyRespondents(fs, isInstructor);
+        boolean isInSessionEntity = legacyRespondents != null && legacyRespondents.contains(oldEmail);
+
+        List<String> oldEmails = new ArrayList<String>();
+        oldEmails.add(oldEmail);
+        boolean isInShard = updateRespondentShard(feedbackSession, getRespondentShardIndex(oldEmail), isInstructor,
+                                                  new ArrayList<String>(), oldEmails);
+
+        if (isInShard || isInSessionEntity) {
+            List<String> newEmails = new ArrayList<String>();
+            newEmails.add(newEmail);
+            addRespondents(newEmails, feedbackSession, isInstructor);
+        }
+        if (isInSessionEntity) {
+            legacyRespondents.remove(oldEmail);
+        }
+    }
+
+    private void clearRespondents(FeedbackSession fs, FeedbackSessionAttributes feedbackSession,
+                                  boolean isInstructor) {
+        for (int shardIndex = 0; shardIndex < NUMBER_OF_RESPONDENT_SHARDS; shardIndex++) {
+            updateRespondentShard(feedbackSession, shardIndex, isInstructor, new ArrayList<String>(), null);
+        }
+
+        Set<String> legacyRespondents = getLegacyRespondents(fs, isInstructor);
+        if (legacyRespondents != null && !legacyRespondents.isEmpty()) {
+            legacyRespondents.clear();
+        }
+    }
+
+    private Set<String> getLegacyRespondents(FeedbackSession fs, boolean isInstructor) {
+        return isInstructor ? fs.getRespondingInstructorList() : fs.getRespondingStudentList();
+    }
+
+    /**
+     * Adds and removes respondents of one shard in a transaction, retrying if another
+     * request updates the same shard at the same time.
+     * @param emailsToRemove null to remove all respondents of the shard
+     * @return true if any respondent was removed.
+     */
+    private boolean updateRespondentShard(FeedbackSessionAttributes feedbackSession, int shardIndex,
+                                          boolean isInstructor, List<String> emailsToAdd,
+                                          List<String> emailsToRemove) {
+        PersistenceManager pm = getPm();
+        String shardId = FeedbackSessionRespondentShard.generateId(feedbackSession.getFeedbackSessionName(),
+                                                                   feedbackSession.getCourseId(), shardIndex);
+        for (int attempt = 1;; attempt++) {
+            Transaction tx = pm.currentTransaction();
+            try {
+                tx.begin();
+                FeedbackSessionRespondentShard shard = getRespondentShardEntity(pm, shardId);
+                boolean isNewShard = shard == null;
+                if (isNewShard) {
+                    if (emailsToAdd.isEmpty()) {
+                        tx.rollback();
+                        return false;
+                    }
+                    shard = new FeedbackSessionRespondentShard(feedbackSession.getFeedbackSessionName(),
+                                                               feedbackSession.getCourseId(), shardIndex);
+                }
+
+                Set<String> respondents = isInstructor ? shard.getRespondingInstructorList()
+                                                       : shard.getRespondingStudentList();
+                boolean isRemoved;
+                if (emailsToRemove == null) {
+                    isRemoved = !respondents.isEmpty();
+                    respondents.clear();
+                } else {
+                    isRemoved = respondents.removeAll(emailsToRemove);
+                }
+                respondents.addAll(emailsToAdd);
+                if (isNewShard) {
+                    // a new shard is persisted only once it is filled, as later changes to it are not saved
+                    pm.makePersistent(shard);
+                }
+
+                tx.commit();
+                return isRemoved;
+            } catch (JDOException | ConcurrentModificationException e) {
+                if (attempt >= MAX_RESPONDENT_SHARD_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Retrying update of respondent shard " + shardId + ": " + e.getMessage());
+                ThreadHelper.waitBriefly();
+            } finally {
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the shard from the datastore even if it is held by the persistence manager,
+     * so that the transaction it is read in notices concurrent updates to it.
+     */
+    private FeedbackSessionRespondentShard getRespondentShardEntity(PersistenceManager pm, String shardId) {
+        try {
+            FeedbackSessionRespondentShard shard =
+                    pm.getObjectById(FeedbackSessionRespondentShard.class, shardId);
+            pm.refresh(shard);
+            return shard;
+        } catch (JDOObjectNotFoundException e) {
+            return null;
+        }
+    }
+
     public void deleteFeedbackSessionsForCourse(String courseId) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        clearRequestCache();
+        
         List<String> courseIds = new ArrayList<String>();
         courseIds.add(courseId);
         deleteFeedbackSessionsForCourses(courseIds);
@@ -506,12 +647,124 @@ public class FeedbackSessionsDb extends EntitiesDb {
     public void deleteFeedbackSessionsForCourses(List<String> courseIds) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
+        clearRequestCache();
+        
         List<FeedbackSession> feedbackSessionList = getFeedbackSessionEntitiesForCourses(courseIds);
+        List<String> shardIds = new ArrayList<String>();
+        for (FeedbackSession fs : feedbackSessionList) {
+            addRespondentShardIds(shardIds, fs.getFeedbackSessionName(), fs.getCourseId());
+        }
         
+        getPm().deletePersistentAll(getRespondentShardEntitiesWithIds(shardIds));
         getPm().deletePersistentAll(feedbackSessionList);
         getPm().flush();
     }
     
+    @Override
+    public void deleteEntity(EntityAttributes entityToDelete) {
+        super.deleteEntity(entityToDelete);
+        
+        FeedbackSessionAttributes sessionToDelete = (FeedbackSessionAttributes) entityToDelete;
+        getPm().deletePersistentAll(getRespondentShardEntitiesForSession(sessionToDelete.getFeedbackSessionName(),
+                                                                         sessionToDelete.getCourseId()));
+        getPm().flush();
+    }
+    
+    /**
+     * Converts the session entities to attributes which include the respondents in the shards
+     * of the sessions.
+     */
+    private List<FeedbackSessionAttributes> getFeedbackSessionsWithRespondents(List<FeedbackSession> fsList) {
+        List<FeedbackSessionAttributes> fsaList = new ArrayList<FeedbackSessionAttributes>();
+        for (FeedbackSession fs : fsList) {
+            if (!JDOHelper.isDeleted(fs)) {
+                fsaList.add(new FeedbackSessionAttributes(fs));
+            }
+        }
+        addRespondentsFromShards(fsaList);
+        return fsaList;
+    }
+    
+    /**
+     * Adds the respondents in the shards of the sessions to the sessions.
+     * The shards of all the sessions are read together with batched gets of their keys.
+     */
+    private void addRespondentsFromShards(List<FeedbackSessionAttributes> sessions) {
+        List<String> shardIds = new ArrayList<String>();
+        for (FeedbackSessionAttributes session : sessions) {
+            addRespondentShardIds(shardIds, session.getFeedbackSessionName(), session.getCourseId());
+        }
+        
+        Map<String, List<FeedbackSessionRespondentShard>> shardsBySession =
+                new HashMap<String, List<FeedbackSessionRespondentShard>>();
+        for (FeedbackSessionRespondentShard shard : getRespondentShardEntitiesWithIds(shardIds)) {
+            String sessionId = FeedbackSession.generateId(shard.getFeedbackSessionName(), shard.getCourseId());
+            List<FeedbackSessionRespondentShard> shardsOfSession = shardsBySession.get(sessionId);
+            if (shardsOfSession == null) {
+                shardsOfSession = new ArrayList<FeedbackSessionRespondentShard>();
+                shardsBySession.put(sessionId, shardsOfSession);
+            }
+            shardsOfSession.add(shard);
+        }
+        
+        for (FeedbackSessionAttributes session : sessions) {
+            List<FeedbackSessionRespondentShard> shardsOfSession = shardsBySession.get(
+                    FeedbackSession.generateId(session.getFeedbackSessionName(), session.getCourseId()));
+            addRespondentsFromShards(session, shardsOfSession == null
+                                              ? new ArrayList<FeedbackSessionRespondentShard>()
+                                              : shardsOfSession);
+        }
+    }
+    
+    /**
+     * Sets the respondents of the session to those kept in the session entity by older versions
+     * together with those in the shards of the session.
+     */
+    private void addRespondentsFromShards(FeedbackSessionAttributes session,
+                                          List<FeedbackSessionRespondentShard> shards) {
+        Set<String> respondingInstructors = new HashSet<String>(session.getRespondingInstructorList());
+        Set<String> respondingStudents = new HashSet<String>(session.getRespondingStudentList());
+        
+        for (FeedbackSessionRespondentShard shard : shards) {
+            respondingInstructors.addAll(shard.getRespondingInstructorList());
+            respondingStudents.addAll(shard.getRespondingStudentList());
+        }
+        
+        session.setRespondingInstructorList(respondingInstructors);
+        session.setRespondingStudentList(respondingStudents);
+    }
+    
+    /**
+     * Adds the keys of all the shards a session can have, as the shards are looked up by key
+     * instead of by a query, which may not return shards that were just created.
+     */
+    private static void addRespondentShardIds(List<String> shardIds, String feedbackSessionName, String courseId) {
+        for (int shardIndex = 0; shardIndex < NUMBER_OF_RESPONDENT_SHARDS; shardIndex++) {
+            shardIds.add(FeedbackSessionRespondentShard.generateId(feedbackSessionName, courseId, shardIndex));
+        }
+    }
+    
+    private List<FeedbackSessionRespondentShard> getRespondentShardEntitiesForSession(String feedbackSessionName,
+                                                                                     String courseId) {
+        List<String> shardIds = new ArrayList<String>();
+        addRespondentShardIds(shardIds, feedbackSessionName, courseId);
+        return getRespondentShardEntitiesWithIds(shardIds);
+    }
+    
+    /**
+     * @return the existing shards among those with the given keys
+     */
+    @SuppressWarnings("unchecked")
+    private List<FeedbackSessionRespondentShard> getRespondentShardEntitiesWithIds(List<String> shardIds) {
+        List<FeedbackSessionRespondentShard> shards = new ArrayList<FeedbackSessionRespondentShard>();
+        for (int i = 0; i < shardIds.size(); i += MAX_KEYS_PER_BATCH_GET) {
+            List<String> batchOfShardIds = shardIds.subList(i, Math.min(i + MAX_KEYS_PER_BATCH_GET, shardIds.size()));
+            shards.addAll((List<FeedbackSessionRespondentShard>) getEntitiesWithIds(
+                    FeedbackSessionRespondentShard.class, "respondentShardId", batchOfShardIds));
+        }
+        return shards;
+    }
+    
     @SuppressWarnings("unchecked")
     private List<FeedbackSession> getFeedbackSessionEntitiesForCourses(List<String> courseIds) {
         Query q = getPm().newQuery(FeedbackSession.class);
@@ -20,9 +20,11 @@ import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.entity.Instructor;
 import teammates.storage.search.InstructorSearchDocument;
 import teammates.storage.search.InstructorSearchQuery;
+import teammates.storage.search.SearchDocumentContext;
 
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
@@ -50,6 +52,26 @@ public class InstructorsDb extends EntitiesDb {
         }
     }
     
+    /**
+     * Creates or updates the search documents for the given instructors in batches,
+     * retrieving the course of each once.
+     */
+    public void putDocuments(Collection<InstructorAttributes> instructors) {
+        SearchDocumentContext context = new SearchDocumentContext();
+        List<InstructorSearchDocument> documents = new ArrayList<InstructorSearchDocument>();
+        for (InstructorAttributes instructorParam : instructors) {
+            InstructorAttributes instructor = instructorParam;
+            if (instructor.key == null) {
+                instructor = this.getInstructorForEmail(instructor.courseId, instructor.email);
+            }
+            // defensive coding for legacy data
+            if (instructor.key != null) {
+                documents.add(new InstructorSearchDocument(instructor, context));
+            }
+        }
+        putDocuments(Const.SearchIndex.INSTRUCTOR, documents);
+    }
+    
     public void deleteDocument(InstructorAttributes instructorToDelete) {
         if (instructorToDelete.key == null) {
             InstructorAttributes instructor =
@@ -91,11 +113,14 @@ public class InstructorsDb extends EntitiesDb {
 
     public void createInstructors(Collection<InstructorAttributes> instructorsToAdd) throws InvalidParametersException {
         
+        clearRequestCache();
+        
         List<EntityAttributes> instructorsToUpdate = createEntities(instructorsToAdd);
         
+        List<InstructorAttributes> instructorsToIndex = new ArrayList<InstructorAttributes>();
         for (InstructorAttributes instructor : instructorsToAdd) {
             if (!instructorsToUpdate.contains(instructor)) {
-                putDocument(instructor);
+                instructorsToIndex.add(instructor);
             }
         }
         
@@ -108,13 +133,17 @@ public class InstructorsDb extends EntitiesDb {
              // difficult during testing
                 Assumption.fail("Entity found be already existing and not existing simultaneously");
             }
-            putDocument(instructor);
+            instructorsToIndex.add(instructor);
         }
+        
+        putDocuments(instructorsToIndex);
     }
 
     public void createInstructorsWithoutSearchability(Collection<InstructorAttributes> instructorsToAdd)
             throws InvalidParametersException {
         
+        clearRequestCache();
+        
         List<EntityAttributes> instructorsToUpdate = createEntities(instructorsToAdd);
 
         for (EntityAttributes entity : instructorsToUpdate) {
@@ -129,6 +158,8 @@ public class InstructorsDb extends EntitiesDb {
     
     public InstructorAttributes createInstructor(InstructorAttributes instructorToAdd)
             throws InvalidParametersException, EntityAlreadyExistsException {
+        clearRequestCache();
+        
         Instructor instructor = (Instructor) createEntity(instructorToAdd);
         if (instructor == null) {
             throw new InvalidParametersException("Created instructor is null.");
@@ -146,7 +177,12 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
-        Instructor i = getInstructorEntityForEmail(courseId, email);
+        String cacheKey = RequestCache.makeKey("InstructorForEmail", courseId, email);
+        Instructor i = (Instructor) getCachedEntity(cacheKey);
+        if (i == null) {
+            i = getInstructorEntityForEmail(courseId, email);
+            cacheEntity(cacheKey, i);
+        }
     
         if (i == null) {
             log.info("Trying to get non-existent Instructor: " + courseId + "/" + email);
@@ -164,7 +200,12 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
-        Instructor i = getInstructorEntityForGoogleId(courseId, googleId);
+        String cacheKey = RequestCache.makeKey("InstructorForGoogleId", courseId, googleId);
+        Instructor i = (Instructor) getCachedEntity(cacheKey);
+        if (i == null) {
+            i = getInstructorEntityForGoogleId(courseId, googleId);
+            cacheEntity(cacheKey, i);
+        }
     
         if (i == null || JDOHelper.isDeleted(i)) {
             log.info("Trying to get non-existent Instructor: " + googleId);
@@ -286,6 +327,8 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, instructorAttributesToUpdate);
          
+        clearRequestCache();
+        
         if (!instructorAttributesToUpdate.isValid()) {
             throw new InvalidParametersException(instructorAttributesToUpdate.getInvalidityInfo());
         }
@@ -325,6 +368,8 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, instructorAttributesToUpdate);
         
+        clearRequestCache();
+        
         if (!instructorAttributesToUpdate.isValid()) {
             throw new InvalidParametersException(instructorAttributesToUpdate.getInvalidityInfo());
         }
@@ -362,6 +407,8 @@ public class InstructorsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
 
+        clearRequestCache();
+        
         Instructor instructorToDelete = getInstructorEntityForEmail(courseId, email);
 
         if (instructorToDelete == null) {
@@ -402,6 +449,8 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
+        clearRequestCache();
+        
         List<Instructor> instructorsToDelete = getInstructorEntitiesForCourses(courseIds);
         
         for (Instructor instructor : instructorsToDelete) {
@@ -420,6 +469,8 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
 
+        clearRequestCache();
+        
         List<Instructor> instructorList = getInstructorEntitiesForGoogleId(googleId);
         
         for (Instructor instructor : instructorList) {
@@ -439,6 +490,8 @@ public class InstructorsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
 
+        clearRequestCache();
+        
         List<Instructor> instructorList = getInstructorEntitiesForCourse(courseId);
         
         for (Instructor instructor : instructorList) {
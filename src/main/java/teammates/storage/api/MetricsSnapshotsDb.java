@@ -0,0 +1,84 @@
+package teammates.storage.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.datatransfer.ActionMetricsBundle;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.util.Assumption;
+import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.entity.MetricsSnapshot;
+
+import com.google.appengine.api.datastore.Text;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Handles CRUD operations for metrics snapshots.
+ * <br> Unlike the other *Db classes, it does not extend {@link EntitiesDb}: snapshots are only ever
+ * added and listed, and reading or writing them is not counted in the metrics of the request doing it.
+ */
+public class MetricsSnapshotsDb {
+
+    public void createSnapshot(MetricsSnapshotBundle snapshot) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, snapshot);
+
+        MetricsSnapshot entity = new MetricsSnapshot(snapshot.instanceId, snapshot.startTime, snapshot.endTime,
+                                                     new Text(JsonUtils.toCompactJson(snapshot.actionMetrics)));
+        getPm().makePersistent(entity);
+        getPm().flush();
+    }
+
+    /**
+     * @return the snapshots of the periods that ended at or after {@code endTime}, latest first.
+     */
+    public List<MetricsSnapshotBundle> getSnapshotsEndingFrom(Date endTime) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, endTime);
+
+        List<MetricsSnapshotBundle> snapshots = new ArrayList<MetricsSnapshotBundle>();
+        for (MetricsSnapshot entity : getSnapshotEntitiesEndingFrom(endTime)) {
+            List<ActionMetricsBundle> actionMetrics =
+                    JsonUtils.fromJson(entity.getActionMetrics().getValue(),
+                                       new TypeToken<List<ActionMetricsBundle>>(){}.getType());
+            snapshots.add(new MetricsSnapshotBundle(entity.getInstanceId(), entity.getStartTime(),
+                                                    entity.getEndTime(), actionMetrics));
+        }
+        // sorted here rather than by the query, so that the query does not need an index of its own
+        Collections.sort(snapshots, new Comparator<MetricsSnapshotBundle>() {
+            @Override
+            public int compare(MetricsSnapshotBundle snapshot1, MetricsSnapshotBundle snapshot2) {
+                return snapshot2.endTime.compareTo(snapshot1.endTime);
+            }
+        });
+        return snapshots;
+    }
+
+    public void deleteSnapshotsEndingBefore(Date endTime) {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, endTime);
+
+        Query q = getPm().newQuery(MetricsSnapshot.class);
+        q.declareParameters("java.util.Date endTimeParam");
+        q.setFilter("endTime < endTimeParam");
+        q.deletePersistentAll(endTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MetricsSnapshot> getSnapshotEntitiesEndingFrom(Date endTime) {
+        Query q = getPm().newQuery(MetricsSnapshot.class);
+        q.declareParameters("java.util.Date endTimeParam");
+        q.setFilter("endTime >= endTimeParam");
+        return (List<MetricsSnapshot>) q.execute(endTime);
+    }
+
+    private PersistenceManager getPm() {
+        return Datastore.getPersistenceManager();
+    }
+
+}
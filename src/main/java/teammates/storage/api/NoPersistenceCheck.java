@@ -0,0 +1,20 @@
+package teammates.storage.api;
+
+import teammates.common.datatransfer.EntityAttributes;
+
+/**
+ * Does not confirm writes. A write is assumed to have persisted once the datastore accepts it.
+ */
+public class NoPersistenceCheck extends PersistenceCheck {
+    
+    @Override
+    public boolean isCreated(EntitiesDb db, EntityAttributes attributes, Object entity) {
+        return true;
+    }
+    
+    @Override
+    public boolean isDeleted(EntitiesDb db, EntityAttributes attributes) {
+        return true;
+    }
+    
+}
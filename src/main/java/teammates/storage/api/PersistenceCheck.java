@@ -0,0 +1,99 @@
+package teammates.storage.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.datatransfer.PersistenceCheckMetricsBundle;
+import teammates.common.util.Config;
+import teammates.common.util.Logger;
+
+/**
+ * Confirms that a datastore write is visible before {@link EntitiesDb} returns.
+ * The implementation is chosen by "app.persistence.consistency" in build.properties.
+ * Each implementation keeps count of how many checks it ran and how long they took.
+ */
+public abstract class PersistenceCheck {
+    
+    protected static final Logger log = Logger.getLogger();
+    
+    private final AtomicLong numberOfChecks = new AtomicLong();
+    private final AtomicLong totalCheckDurationInMillis = new AtomicLong();
+    
+    public static PersistenceCheck inst() {
+        return InstanceHolder.INSTANCE;
+    }
+    
+    private static PersistenceCheck createInstance() {
+        if (Config.isUsingNoPersistenceCheck()) {
+            return new NoPersistenceCheck();
+        } else if (Config.isUsingReadBackPersistenceCheck()) {
+            return new ReadBackPersistenceCheck();
+        } else {
+            return new PollingPersistenceCheck();
+        }
+    }
+    
+    /**
+     * Confirms that {@code entity}, which was just created for {@code attributes}, has persisted.
+     */
+    public void confirmCreated(EntitiesDb db, EntityAttributes attributes, Object entity) {
+        long startTime = System.currentTimeMillis();
+        boolean isPersisted = isCreated(db, attributes, entity);
+        recordCheck(startTime);
+        if (!isPersisted) {
+            log.info("Operation did not persist in time: create"
+                     + attributes.getEntityTypeAsString() + "->"
+                     + attributes.getIdentificationString());
+        }
+    }
+    
+    /**
+     * Confirms that the entity for {@code attributes}, which was just deleted, is gone.
+     */
+    public void confirmDeleted(EntitiesDb db, EntityAttributes attributes) {
+        long startTime = System.currentTimeMillis();
+        boolean isPersisted = isDeleted(db, attributes);
+        recordCheck(startTime);
+        if (!isPersisted) {
+            log.info("Operation did not persist in time: delete"
+                     + attributes.getEntityTypeAsString() + "->"
+                     + attributes.getIdentificationString());
+        }
+    }
+    
+    /**
+     * @return true if {@code entity}, created for {@code attributes}, is confirmed to have persisted
+     */
+    public abstract boolean isCreated(EntitiesDb db, EntityAttributes attributes, Object entity);
+    
+    /**
+     * @return true if the entity for {@code attributes} is confirmed to have been deleted
+     */
+    public abstract boolean isDeleted(EntitiesDb db, EntityAttributes attributes);
+    
+    private void recordCheck(long startTime) {
+        numberOfChecks.incrementAndGet();
+        totalCheckDurationInMillis.addAndGet(System.currentTimeMillis() - startTime);
+    }
+    
+    public long getNumberOfChecks() {
+        return numberOfChecks.get();
+    }
+    
+    public long getTotalCheckDurationInMillis() {
+        return totalCheckDurationInMillis.get();
+    }
+    
+    public PersistenceCheckMetricsBundle getMetrics() {
+        return new PersistenceCheckMetricsBundle(getClass().getSimpleName(), getNumberOfChecks(),
+                                                 getTotalCheckDurationInMillis());
+    }
+    
+    /**
+     * Creates the instance when it is first used; the class loader guarantees that this happens once.
+     */
+    private static final class InstanceHolder {
+        static final PersistenceCheck INSTANCE = createInstance();
+    }
+    
+}
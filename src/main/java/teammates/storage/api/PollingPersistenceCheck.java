@@ -0,0 +1,58 @@
+package teammates.storage.api;
+
+import javax.jdo.JDOHelper;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.util.Config;
+import teammates.common.util.ThreadHelper;
+
+/**
+ * Confirms writes by querying for the entity repeatedly until the write is visible,
+ * for up to {@link Config#PERSISTENCE_CHECK_DURATION}.
+ * This makes the datastore appear strongly consistent to queries, which tests rely on,
+ * at the cost of keeping the request thread waiting.
+ */
+public class PollingPersistenceCheck extends PersistenceCheck {
+    
+    @Override
+    public boolean isCreated(EntitiesDb db, EntityAttributes attributes, Object entity) {
+        if (Config.PERSISTENCE_CHECK_DURATION <= 0) {
+            return true;
+        }
+        int elapsedTime = 0;
+        Object createdEntity = db.getEntity(attributes);
+        while (createdEntity == null
+               && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            createdEntity = db.getEntity(attributes);
+            //check before incrementing to avoid boundary case problem
+            if (createdEntity == null) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        return elapsedTime < Config.PERSISTENCE_CHECK_DURATION;
+    }
+    
+    @Override
+    public boolean isDeleted(EntitiesDb db, EntityAttributes attributes) {
+        if (Config.PERSISTENCE_CHECK_DURATION <= 0) {
+            return true;
+        }
+        int elapsedTime = 0;
+        Object entityCheck = db.getEntity(attributes);
+        boolean isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
+        while (!isEntityDeleted
+                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            entityCheck = db.getEntity(attributes);
+            
+            isEntityDeleted = entityCheck == null || JDOHelper.isDeleted(entityCheck);
+            //check before incrementing to avoid boundary case problem
+            if (!isEntityDeleted) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        return elapsedTime < Config.PERSISTENCE_CHECK_DURATION;
+    }
+    
+}
@@ -0,0 +1,40 @@
+package teammates.storage.api;
+
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.storage.datastore.Datastore;
+
+/**
+ * Confirms a created entity by reading it back once by its key, which is strongly consistent.
+ * It is read with a new persistence manager, as the one that wrote it would answer from its cache.
+ * Deletions are not checked as a deleted key is immediately absent from lookups by key.
+ * Unlike {@link PollingPersistenceCheck}, this never waits on the request thread; writes
+ * may still take a while to show up in queries.
+ */
+public class ReadBackPersistenceCheck extends PersistenceCheck {
+    
+    @Override
+    public boolean isCreated(EntitiesDb db, EntityAttributes attributes, Object entity) {
+        Object objectId = JDOHelper.getObjectId(entity);
+        if (objectId == null) {
+            return false;
+        }
+        PersistenceManager pm = Datastore.openPersistenceManager();
+        try {
+            return pm.getObjectById(objectId, true) != null;
+        } catch (JDOObjectNotFoundException e) {
+            return false;
+        } finally {
+            pm.close();
+        }
+    }
+    
+    @Override
+    public boolean isDeleted(EntitiesDb db, EntityAttributes attributes) {
+        return true;
+    }
+    
+}
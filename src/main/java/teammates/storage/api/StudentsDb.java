@@ -2,6 +2,7 @@ package teammates.storage.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -10,6 +11,7 @@ import java.util.Map;
 import javax.jdo.JDOHelper;
 import javax.jdo.Query;
 
+import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.EntityAttributes;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
@@ -23,7 +25,9 @@ import teammates.common.util.Config;
 import teammates.common.util.Const;
 import teammates.common.util.StringHelper;
 import teammates.common.util.ThreadHelper;
+import teammates.storage.datastore.RequestCache;
 import teammates.storage.entity.CourseStudent;
+import teammates.storage.search.SearchDocumentContext;
 import teammates.storage.search.StudentSearchDocument;
 import teammates.storage.search.StudentSearchQuery;
 
@@ -43,6 +47,22 @@ public class StudentsDb extends EntitiesDb {
         putDocument(Const.SearchIndex.STUDENT, new StudentSearchDocument(student));
     }
     
+    /**
+     * Puts the search documents of the given students, who may belong to different courses,
+     * into the search index in batches, retrieving the course of each once.
+     */
+    public void putDocuments(List<StudentAttributes> students) {
+        putDocuments(students, new SearchDocumentContext());
+    }
+    
+    private void putDocuments(List<StudentAttributes> students, SearchDocumentContext context) {
+        List<StudentSearchDocument> documents = new ArrayList<StudentSearchDocument>();
+        for (StudentAttributes student : students) {
+            documents.add(new StudentSearchDocument(student, context));
+        }
+        putDocuments(Const.SearchIndex.STUDENT, documents);
+    }
+    
     /**
      * Search for students
      * @return {@link StudentSearchResultBundle}
@@ -132,6 +152,90 @@ public class StudentsDb extends EntitiesDb {
         }
     }
 
+    /**
+     * Creates {@code studentsToCreate} and updates the name, team, section and comments
+     * of {@code studentsToUpdate} in {@code course}. Existing students are retrieved with
+     * a single query, new students are persisted in a single batch and their search
+     * documents (if {@code hasDocument}) are put in batches. <br>
+     * Unlike {@link #createStudent}, this does not wait for the new students to become
+     * visible to queries. <br>
+     * Preconditions: <br>
+     * * All parameters are non-null and all students belong to {@code course}. <br>
+     * * {@code studentsToUpdate} have already been merged with their existing records
+     *   using {@link StudentAttributes#updateWithExistingRecord}. Their emails are not changed.
+     * 
+     * @throws EntityAlreadyExistsException if a student to be created already exists
+     * @throws EntityDoesNotExistException if a student to be updated does not exist
+     */
+    public void enrollStudents(CourseAttributes course, List<StudentAttributes> studentsToCreate,
+            List<StudentAttributes> studentsToUpdate, boolean hasDocument)
+            throws InvalidParametersException, EntityAlreadyExistsException, EntityDoesNotExistException {
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, course);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsToCreate);
+        Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, studentsToUpdate);
+        
+        clearRequestCache();
+        
+        Map<String, CourseStudent> existingStudents = new HashMap<String, CourseStudent>();
+        for (CourseStudent courseStudent : getCourseStudentEntitiesForCourse(course.getId())) {
+            if (!JDOHelper.isDeleted(courseStudent)) {
+                existingStudents.put(courseStudent.getEmail(), courseStudent);
+            }
+        }
+        
+        List<CourseStudent> newEntities = new ArrayList<CourseStudent>();
+        List<StudentAttributes> enrolledStudents = new ArrayList<StudentAttributes>();
+        
+        for (StudentAttributes student : studentsToCreate) {
+            student.sanitizeForSaving();
+            if (!student.isValid()) {
+                throw new InvalidParametersException(student.getInvalidityInfo());
+            }
+            CourseStudent existingStudent = existingStudents.get(student.email);
+            if (existingStudent != null) {
+                String error = String.format(ERROR_CREATE_ENTITY_ALREADY_EXISTS, student.getEntityTypeAsString())
+                        + student.getIdentificationString();
+                log.info(error);
+                throw new EntityAlreadyExistsException(error, existingStudent);
+            }
+            CourseStudent newStudent = (CourseStudent) student.toEntity();
+            newEntities.add(newStudent);
+            enrolledStudents.add(new StudentAttributes(newStudent));
+            log.info(student.getBackupIdentifier());
+        }
+        
+        for (StudentAttributes student : studentsToUpdate) {
+            if (!student.isValid()) {
+                throw new InvalidParametersException(student.getInvalidityInfo());
+            }
+            CourseStudent courseStudent = existingStudents.get(student.email);
+            if (courseStudent == null) {
+                throw new EntityDoesNotExistException(
+                        ERROR_UPDATE_NON_EXISTENT_STUDENT + course.getId() + "/" + student.email);
+            }
+            courseStudent.setName(student.name);
+            courseStudent.setLastName(StringHelper.splitName(student.name)[1]);
+            courseStudent.setComments(student.comments);
+            courseStudent.setTeamName(student.team);
+            courseStudent.setSectionName(student.section);
+            courseStudent.keepUpdateTimestamp = false;
+            enrolledStudents.add(new StudentAttributes(courseStudent));
+        }
+        
+        getPm().makePersistentAll(newEntities);
+        
+        if (hasDocument) {
+            // the course of the students is already retrieved
+            SearchDocumentContext context = new SearchDocumentContext();
+            context.addCourse(course);
+            putDocuments(enrolledStudents, context);
+        }
+        
+        log.info(Const.SystemParams.COURSE_BACKUP_LOG_MSG + course.getId());
+        // closing the persistence manager writes the changes to the updated students
+        getPm().close();
+    }
+
     /**
      * Preconditions: <br>
      * * All parameters are non-null.
@@ -143,7 +247,12 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
     
-        CourseStudent cs = getCourseStudentEntityForEmail(courseId, email);
+        String cacheKey = RequestCache.makeKey("StudentForEmail", courseId, email);
+        CourseStudent cs = (CourseStudent) getCachedEntity(cacheKey);
+        if (cs == null) {
+            cs = getCourseStudentEntityForEmail(courseId, email);
+            cacheEntity(cacheKey, cs);
+        }
         if (cs == null) {
             return null;
         }
@@ -159,6 +268,12 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         
+        String cacheKey = RequestCache.makeKey("StudentForGoogleId", courseId, googleId);
+        CourseStudent cachedStudent = (CourseStudent) getCachedEntity(cacheKey);
+        if (cachedStudent != null) {
+            return new StudentAttributes(cachedStudent);
+        }
+        
         // Return CourseStudent if it exists. Otherwise, fall back on Student.
         Query q = getPm().newQuery(CourseStudent.class);
         q.declareParameters("String googleIdParam, String courseIdParam");
@@ -171,6 +286,7 @@ public class StudentsDb extends EntitiesDb {
             return null;
         }
         
+        cacheEntity(cacheKey, courseStudentList.get(0));
         return new StudentAttributes(courseStudentList.get(0));
     }
     
@@ -398,6 +514,8 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
         
+        clearRequestCache();
+        
         verifyStudentExists(courseId, email);
         
         // Update CourseStudent if it exists.
@@ -456,6 +574,8 @@ public class StudentsDb extends EntitiesDb {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, email);
     
+        clearRequestCache();
+        
         // Delete from CourseStudent
 
         CourseStudent courseStudentToDelete = getCourseStudentEntityForEmail(courseId, email);
@@ -505,6 +625,8 @@ public class StudentsDb extends EntitiesDb {
     public void deleteStudentsForGoogleId(String googleId, boolean hasDocument) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, googleId);
 
+        clearRequestCache();
+        
         // Delete from CourseStudent
         List<CourseStudent> courseStudents = getCourseStudentEntitiesForGoogleId(googleId);
         if (hasDocument) {
@@ -537,6 +659,8 @@ public class StudentsDb extends EntitiesDb {
     public void deleteStudentsForCourse(String courseId, boolean hasDocument) {
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseId);
     
+        clearRequestCache();
+        
         List<CourseStudent> courseStudentList = getCourseStudentEntitiesForCourse(courseId);
         if (hasDocument) {
             for (CourseStudent student : courseStudentList) {
@@ -552,6 +676,8 @@ public class StudentsDb extends EntitiesDb {
         
         Assumption.assertNotNull(Const.StatusCodes.DBLEVEL_NULL_INPUT, courseIds);
         
+        clearRequestCache();
+        
         List<CourseStudent> courseStudentsToDelete = getCourseStudentEntitiesForCourses(courseIds);
         getPm().deletePersistentAll(courseStudentsToDelete);
         getPm().flush();
@@ -17,6 +17,7 @@ public final class Datastore {
     private static PersistenceManagerFactory pmf;
     private static final Logger log = Logger.getLogger();
     private static final ThreadLocal<PersistenceManager> PER_THREAD_PM = new ThreadLocal<PersistenceManager>();
+    private static final ThreadLocal<RequestCache> PER_THREAD_REQUEST_CACHE = new ThreadLocal<RequestCache>();
     
     private Datastore() {
         // utility class
@@ -48,4 +49,51 @@ public final class Datastore {
         return pm;
     }
 
+    /**
+     * Closes the persistence manager bound to the current thread, if any, and unbinds it.
+     * To be called by threads that are not request threads, e.g. those of a thread pool,
+     * once they are done with the datastore.
+     */
+    public static void closePersistenceManagerForCurrentThread() {
+        PersistenceManager pm = PER_THREAD_PM.get();
+        PER_THREAD_PM.remove();
+        if (pm != null && !pm.isClosed()) {
+            pm.close();
+        }
+    }
+
+    /**
+     * Opens a persistence manager that is not bound to the current thread, and so has nothing cached.
+     * The caller must close it.
+     */
+    public static PersistenceManager openPersistenceManager() {
+        return pmf.getPersistenceManager();
+    }
+
+    /**
+     * Binds a new {@link RequestCache} to the current thread.
+     * Must be paired with {@link #endRequestScope()} once the request is processed.
+     */
+    public static void startRequestScope() {
+        PER_THREAD_REQUEST_CACHE.set(new RequestCache());
+    }
+
+    /**
+     * Removes the {@link RequestCache} bound to the current thread.
+     * @return the removed cache, or null if there was none
+     */
+    public static RequestCache endRequestScope() {
+        RequestCache cache = PER_THREAD_REQUEST_CACHE.get();
+        PER_THREAD_REQUEST_CACHE.remove();
+        return cache;
+    }
+
+    /**
+     * @return the {@link RequestCache} of the request being processed by the current thread,
+     *         or null if the current thread is not processing a request (e.g. in tests and scripts).
+     */
+    public static RequestCache getRequestCache() {
+        return PER_THREAD_REQUEST_CACHE.get();
+    }
+
 }
@@ -0,0 +1,189 @@
+package teammates.storage.datastore;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import teammates.common.util.RequestMetrics;
+
+/**
+ * Wraps a {@link PersistenceManager} so that the queries it runs and the entities it reads are counted
+ * in the {@link RequestMetrics} of the current request. All calls are passed on to the wrapped
+ * persistence manager, and the {@link Query} objects it creates are wrapped in the same way.
+ * <br> The entities returned by a query are counted as they are read from its result,
+ * so that counting them does not make the datastore load results that are never read.
+ */
+public final class MetricsRecordingPersistenceManager {
+
+    /**
+     * The last persistence manager wrapped by each thread, so that a thread which calls
+     * {@link #wrap(PersistenceManager)} many times in a request reuses the same wrapper.
+     */
+    private static final ThreadLocal<PersistenceManager[]> LAST_WRAPPED = new ThreadLocal<PersistenceManager[]>();
+
+    private MetricsRecordingPersistenceManager() {
+        // utility class
+    }
+
+    public static PersistenceManager wrap(PersistenceManager pm) {
+        PersistenceManager[] lastWrapped = LAST_WRAPPED.get();
+        if (lastWrapped != null && lastWrapped[0] == pm) {
+            return lastWrapped[1];
+        }
+        PersistenceManager wrapper = (PersistenceManager) Proxy.newProxyInstance(
+                PersistenceManager.class.getClassLoader(), new Class<?>[] { PersistenceManager.class },
+                new PersistenceManagerHandler(pm));
+        LAST_WRAPPED.set(new PersistenceManager[] { pm, wrapper });
+        return wrapper;
+    }
+
+    /**
+     * @return the result of a query as returned by the wrapped query, for the calls that need the result
+     *         of the datastore itself, e.g. {@code JDOCursorHelper.getCursor(List)}
+     */
+    public static List<?> unwrapQueryResult(List<?> result) {
+        return result instanceof CountingResultList ? ((CountingResultList) result).result : result;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class PersistenceManagerHandler implements InvocationHandler {
+
+        private final PersistenceManager pm;
+
+        PersistenceManagerHandler(PersistenceManager pm) {
+            this.pm = pm;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = MetricsRecordingPersistenceManager.invoke(pm, method, args);
+            String methodName = method.getName();
+            if ("newQuery".equals(methodName) || "newNamedQuery".equals(methodName)) {
+                return Proxy.newProxyInstance(Query.class.getClassLoader(), new Class<?>[] { Query.class },
+                                              new QueryHandler((Query) result));
+            }
+            if ("getObjectById".equals(methodName)) {
+                RequestMetrics.recordEntitiesRead(1);
+            } else if ("getObjectsById".equals(methodName)) {
+                RequestMetrics.recordEntitiesRead(result instanceof Collection
+                                                  ? ((Collection<?>) result).size()
+                                                  : ((Object[]) result).length);
+            }
+            return result;
+        }
+
+    }
+
+    private static class QueryHandler implements InvocationHandler {
+
+        private final Query query;
+
+        QueryHandler(Query query) {
+            this.query = query;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = MetricsRecordingPersistenceManager.invoke(query, method, args);
+            String methodName = method.getName();
+            if (methodName.startsWith("execute")) {
+                RequestMetrics.recordQuery();
+                if (result instanceof List) {
+                    return new CountingResultList((List<?>) result);
+                } else if (result instanceof Collection) {
+                    RequestMetrics.recordEntitiesRead(((Collection<?>) result).size());
+                } else if (result != null) {
+                    // a unique result
+                    RequestMetrics.recordEntitiesRead(1);
+                }
+            } else if ("deletePersistentAll".equals(methodName)) {
+                RequestMetrics.recordQuery();
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Passes on the reads of a query result, counting the entities up to the furthest one read.
+     * Only {@link #size()} reads the whole result.
+     */
+    private static class CountingResultList extends AbstractList<Object> {
+
+        private final List<?> result;
+        private int numberOfEntitiesCounted;
+
+        CountingResultList(List<?> result) {
+            this.result = result;
+        }
+
+        @Override
+        public Object get(int index) {
+            Object entity = result.get(index);
+            countEntitiesUpTo(index + 1);
+            return entity;
+        }
+
+        @Override
+        public int size() {
+            int size = result.size();
+            countEntitiesUpTo(size);
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return result.isEmpty();
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            final Iterator<?> resultIterator = result.iterator();
+            return new Iterator<Object>() {
+                private int numberOfEntitiesRead;
+
+                @Override
+                public boolean hasNext() {
+                    return resultIterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    Object entity = resultIterator.next();
+                    numberOfEntitiesRead++;
+                    countEntitiesUpTo(numberOfEntitiesRead);
+                    return entity;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        private void countEntitiesUpTo(int numberOfEntities) {
+            if (numberOfEntities > numberOfEntitiesCounted) {
+                RequestMetrics.recordEntitiesRead(numberOfEntities - numberOfEntitiesCounted);
+                numberOfEntitiesCounted = numberOfEntities;
+            }
+        }
+
+    }
+
+}
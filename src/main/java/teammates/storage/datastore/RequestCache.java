@@ -0,0 +1,65 @@
+package teammates.storage.datastore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches entities that are looked up by key during a single request, so that looking up
+ * the same entity again in the same request does not query the datastore again.
+ * It is bound to the current thread by {@link Datastore} only while a request is being processed.
+ * <br> Entities, not *Attributes, are cached so that every lookup still returns a new *Attributes
+ * object which the caller is free to modify.
+ * <br> Any write through the storage layer clears the cache.
+ */
+public final class RequestCache {
+
+    private final Map<String, Object> entities = new HashMap<String, Object>();
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * @return the entity cached for {@code key}, or null if there is none.
+     */
+    public Object get(String key) {
+        Object entity = entities.get(key);
+        if (entity == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return entity;
+    }
+
+    public void put(String key, Object entity) {
+        if (entity != null) {
+            entities.put(key, entity);
+        }
+    }
+
+    /**
+     * Removes all cached entities. The hit and miss counts are kept.
+     */
+    public void clear() {
+        entities.clear();
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Builds the key of an entity lookup from the entity type and the values it is looked up by.
+     */
+    public static String makeKey(String entityType, String... lookupValues) {
+        StringBuilder key = new StringBuilder(entityType);
+        for (String lookupValue : lookupValues) {
+            key.append('%').append(lookupValue);
+        }
+        return key.toString();
+    }
+
+}
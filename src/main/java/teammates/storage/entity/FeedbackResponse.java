@@ -1,6 +1,8 @@
 package teammates.storage.entity;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.jdo.annotations.NotPersistent;
 import javax.jdo.annotations.PersistenceCapable;
@@ -54,6 +56,13 @@ public class FeedbackResponse implements StoreCallback {
     
     @Persistent
     private String receiverSection;
+    
+    /**
+     * The sections of the giver and the receiver, kept in sync with {@link #giverSection} and
+     * {@link #receiverSection}. Responses that involve a section are found with one query on this field.
+     */
+    @Persistent
+    private Set<String> sections;
 
     @Persistent
     private Text answer; //TODO: rename to responseMetaData, will require database conversion
@@ -75,13 +84,18 @@ public class FeedbackResponse implements StoreCallback {
         this.giverSection = giverSection;
         this.receiver = recipient;
         this.receiverSection = recipientSection;
+        updateSections();
         this.answer = answer;
                 
-        this.feedbackResponseId = feedbackQuestionId + "%" + giverEmail + "%" + receiver;
+        this.feedbackResponseId = generateId(feedbackQuestionId, giverEmail, receiver);
         
         this.setCreatedAt(new Date());
     }
 
+    public static String generateId(String feedbackQuestionId, String giverEmail, String receiver) {
+        return feedbackQuestionId + "%" + giverEmail + "%" + receiver;
+    }
+
     public String getId() {
         return feedbackResponseId;
     }
@@ -137,6 +151,7 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setGiverSection(String giverSection) {
         this.giverSection = giverSection;
+        updateSections();
     }
 
     public String getRecipientEmail() {
@@ -153,6 +168,26 @@ public class FeedbackResponse implements StoreCallback {
 
     public void setRecipientSection(String recipientSection) {
         this.receiverSection = recipientSection;
+        updateSections();
+    }
+    
+    public Set<String> getSections() {
+        return sections;
+    }
+    
+    /**
+     * Sets {@link #sections} to the giver and receiver sections. This is done whenever either of them is set;
+     * it only needs to be called directly to fill in the field for responses stored before it was added.
+     */
+    public void updateSections() {
+        Set<String> newSections = new HashSet<String>();
+        if (giverSection != null) {
+            newSections.add(giverSection);
+        }
+        if (receiverSection != null) {
+            newSections.add(receiverSection);
+        }
+        this.sections = newSections;
     }
 
     public Text getResponseMetaData() {
@@ -1,7 +1,9 @@
 package teammates.storage.entity;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import javax.jdo.annotations.Extension;
@@ -11,6 +13,7 @@ import javax.jdo.annotations.PrimaryKey;
 
 import teammates.common.datatransfer.FeedbackSessionType;
 import teammates.common.util.Const;
+import teammates.common.util.TimeHelper;
 
 import com.google.appengine.api.datastore.Text;
 
@@ -59,6 +62,13 @@ public class FeedbackSession {
     @Persistent
     private Date endTime;
 
+    /** The days of {@link #startTime} and {@link #endTime}, counted from the epoch, so that
+     * sessions starting or ending within a time window can be found with one query. <br>
+     * The value is null for legacy data, and is kept up to date by the setters of the two times.
+     */
+    @Persistent
+    private List<Long> startAndEndDays;
+
     @Persistent
     @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
     private Date sessionVisibleFromTime;
@@ -138,6 +148,7 @@ public class FeedbackSession {
         this.createdTime = createdTime;
         this.startTime = startTime;
         this.endTime = endTime;
+        updateStartAndEndDays();
         this.sessionVisibleFromTime = sessionVisibleFromTime;
         this.resultsVisibleFromTime = resultsVisibleFromTime;
         this.timeZone = Const.INT_UNINITIALIZED;
@@ -151,11 +162,15 @@ public class FeedbackSession {
         this.isOpeningEmailEnabled = isOpeningEmailEnabled;
         this.isClosingEmailEnabled = isClosingEmailEnabled;
         this.isPublishedEmailEnabled = isPublishedEmailEnabled;
-        this.feedbackSessionId = this.feedbackSessionName + "%" + this.courseId;
+        this.feedbackSessionId = generateId(this.feedbackSessionName, this.courseId);
         this.respondingInstructorList = instructorList;
         this.respondingStudentList = studentList;
     }
 
+    public static String generateId(String feedbackSessionName, String courseId) {
+        return feedbackSessionName + "%" + courseId;
+    }
+
     public String getFeedbackSessionName() {
         return feedbackSessionName;
     }
@@ -202,6 +217,7 @@ public class FeedbackSession {
 
     public void setStartTime(Date startTime) {
         this.startTime = startTime;
+        updateStartAndEndDays();
     }
 
     public Date getEndTime() {
@@ -210,6 +226,22 @@ public class FeedbackSession {
 
     public void setEndTime(Date endTime) {
         this.endTime = endTime;
+        updateStartAndEndDays();
+    }
+
+    public List<Long> getStartAndEndDays() {
+        return startAndEndDays;
+    }
+
+    private void updateStartAndEndDays() {
+        List<Long> days = new ArrayList<Long>();
+        if (startTime != null) {
+            days.add(TimeHelper.getDaysSinceEpoch(startTime));
+        }
+        if (endTime != null && !days.contains(TimeHelper.getDaysSinceEpoch(endTime))) {
+            days.add(TimeHelper.getDaysSinceEpoch(endTime));
+        }
+        this.startAndEndDays = days;
     }
 
     public Date getSessionVisibleFromTime() {
@@ -0,0 +1,85 @@
+package teammates.storage.entity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * Represents one shard of the students and instructors who have responded to a feedback session.
+ * <br> A respondent is kept in the shard picked by the hash of the email. As each shard is an
+ * entity group of its own, respondents in different shards can be recorded at the same time
+ * without contending on the {@link FeedbackSession} entity.
+ */
+@PersistenceCapable
+public class FeedbackSessionRespondentShard {
+
+    // Format is feedbackSessionName%courseId%shardIndex
+    // PMD.UnusedPrivateField and SingularField are suppressed
+    // as respondentShardId is persisted to the database
+    @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+    @PrimaryKey
+    @Persistent
+    private transient String respondentShardId;
+
+    @Persistent
+    private String feedbackSessionName;
+
+    @Persistent
+    private String courseId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private int shardIndex;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> respondingInstructorList;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Set<String> respondingStudentList;
+
+    public FeedbackSessionRespondentShard(String feedbackSessionName, String courseId, int shardIndex) {
+        this.feedbackSessionName = feedbackSessionName;
+        this.courseId = courseId;
+        this.shardIndex = shardIndex;
+        this.respondentShardId = generateId(feedbackSessionName, courseId, shardIndex);
+        this.respondingInstructorList = new HashSet<String>();
+        this.respondingStudentList = new HashSet<String>();
+    }
+
+    public static String generateId(String feedbackSessionName, String courseId, int shardIndex) {
+        return feedbackSessionName + "%" + courseId + "%" + shardIndex;
+    }
+
+    public String getFeedbackSessionName() {
+        return feedbackSessionName;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public Set<String> getRespondingInstructorList() {
+        if (respondingInstructorList == null) {
+            respondingInstructorList = new HashSet<String>();
+        }
+        return respondingInstructorList;
+    }
+
+    public Set<String> getRespondingStudentList() {
+        if (respondingStudentList == null) {
+            respondingStudentList = new HashSet<String>();
+        }
+        return respondingStudentList;
+    }
+
+}
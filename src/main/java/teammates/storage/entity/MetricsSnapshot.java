@@ -0,0 +1,69 @@
+package teammates.storage.entity;
+
+import java.util.Date;
+
+import javax.jdo.annotations.Extension;
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+import com.google.appengine.api.datastore.Text;
+
+/**
+ * Represents the metrics of the requests handled by one app instance in a period of time.
+ */
+@PersistenceCapable
+public class MetricsSnapshot {
+
+    // PMD.UnusedPrivateField and SingularField are suppressed
+    // as snapshotId is persisted to the database
+    @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
+    @PrimaryKey
+    @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
+    @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
+    private String snapshotId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private String instanceId;
+
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Date startTime;
+
+    @Persistent
+    private Date endTime;
+
+    /**
+     * The metrics of each type of action, as a JSON list of {@code ActionMetricsBundle}.
+     */
+    @Persistent
+    @Extension(vendorName = "datanucleus", key = "gae.unindexed", value = "true")
+    private Text actionMetrics;
+
+    public MetricsSnapshot(String instanceId, Date startTime, Date endTime, Text actionMetrics) {
+        this.snapshotId = null;
+        this.instanceId = instanceId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.actionMetrics = actionMetrics;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    public Text getActionMetrics() {
+        return actionMetrics;
+    }
+
+}
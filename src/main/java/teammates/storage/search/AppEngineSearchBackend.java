@@ -0,0 +1,169 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Config;
+import teammates.common.util.Logger;
+import teammates.common.util.ThreadHelper;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Index;
+import com.google.appengine.api.search.IndexSpec;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.PutException;
+import com.google.appengine.api.search.PutResponse;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchServiceFactory;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * The {@link SearchBackend} that keeps the search indices in the App Engine Search API.
+ * Codes reference:
+ * https://developers.google.com/appengine/docs/java/search/
+ */
+public class AppEngineSearchBackend implements SearchBackend {
+    private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
+            "Failed to put document %s into search index %s due to non-transient backend issue.";
+    private static final String ERROR_EXCEED_DURATION =
+            "Operation did not succeed in time to put document %s into search index %s";
+    // maximum number of documents the Search API accepts in a single put
+    private static final int MAX_DOCUMENTS_PER_PUT = 200;
+    private static final Logger log = Logger.getLogger();
+    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
+
+    @Override
+    public void putDocument(String indexName, Document document) {
+        int elapsedTime = 0;
+        boolean isSuccessful = tryPutDocument(indexName, document);
+        while (!isSuccessful
+                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            //retry putting the document
+            isSuccessful = tryPutDocument(indexName, document);
+            //check before incrementing to avoid boundary case problem
+            if (!isSuccessful) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
+            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
+        }
+    }
+
+    private boolean tryPutDocument(String indexName, Document document) {
+        Index index = getIndex(indexName);
+        try {
+            PutResponse result = index.put(document);
+            return result.getResults().get(0).getCode() == StatusCode.OK;
+        } catch (PutException e) {
+            //if it's a transient error in the server, it can be re-tried
+            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
+                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Puts up to MAX_DOCUMENTS_PER_PUT documents per call to the Search API.
+     */
+    @Override
+    public void putDocuments(String indexName, List<Document> documents) {
+        for (int i = 0; i < documents.size(); i += MAX_DOCUMENTS_PER_PUT) {
+            List<Document> batch = documents.subList(i, Math.min(i + MAX_DOCUMENTS_PER_PUT, documents.size()));
+            putDocumentBatch(indexName, batch);
+        }
+    }
+
+    private void putDocumentBatch(String indexName, List<Document> documents) {
+        int elapsedTime = 0;
+        List<Document> failedDocuments = tryPutDocuments(indexName, documents);
+        while (!failedDocuments.isEmpty()
+                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
+            ThreadHelper.waitBriefly();
+            //retry putting only the documents that failed
+            failedDocuments = tryPutDocuments(indexName, failedDocuments);
+            //check before incrementing to avoid boundary case problem
+            if (!failedDocuments.isEmpty()) {
+                elapsedTime += ThreadHelper.WAIT_DURATION;
+            }
+        }
+        for (Document document : failedDocuments) {
+            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
+        }
+    }
+
+    /**
+     * @return the documents that were not put successfully
+     */
+    private List<Document> tryPutDocuments(String indexName, List<Document> documents) {
+        Index index = getIndex(indexName);
+        List<OperationResult> results;
+        try {
+            results = index.put(documents).getResults();
+        } catch (PutException e) {
+            //if it's a transient error in the server, it can be re-tried
+            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
+                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, documents, indexName)
+                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            }
+            results = e.getResults();
+        }
+
+        List<Document> failedDocuments = new ArrayList<Document>();
+        for (int i = 0; i < documents.size(); i++) {
+            boolean isSuccessful = results != null && i < results.size() && results.get(i).getCode() == StatusCode.OK;
+            if (!isSuccessful) {
+                failedDocuments.add(documents.get(i));
+            }
+        }
+        return failedDocuments;
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).get(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocument(String indexName, String documentId) {
+        getIndex(indexName).deleteAsync(documentId);
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String[] documentIds) {
+        getIndex(indexName).deleteAsync(documentIds);
+    }
+
+    private Index getIndex(String indexName) {
+        Map<String, Index> indicesTable = getIndicesTable();
+        Index index = indicesTable.get(indexName);
+        if (index == null) {
+            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
+            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
+            indicesTable.put(indexName, index);
+        }
+        return index;
+    }
+
+    private Map<String, Index> getIndicesTable() {
+        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
+        if (indicesTable == null) {
+            indicesTable = new HashMap<String, Index>();
+            PER_THREAD_INDICES_TABLE.set(indicesTable);
+        }
+        return indicesTable;
+    }
+}
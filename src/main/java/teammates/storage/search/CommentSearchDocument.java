@@ -30,15 +30,23 @@ public class CommentSearchDocument extends SearchDocument {
         this.comment = comment;
     }
     
+    /**
+     * Use this when indexing many comments, with the rosters of their courses prefetched in {@code context}.
+     */
+    public CommentSearchDocument(CommentAttributes comment, SearchDocumentContext context) {
+        super(context);
+        this.comment = comment;
+    }
+    
     @Override
     protected void prepareData() {
         if (comment == null) {
             return;
         }
         
-        course = logic.getCourse(comment.courseId);
+        course = context.getCourse(comment.courseId);
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = context.getInstructorForEmail(comment.courseId, comment.giverEmail);
         
         String delim = "";
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -47,7 +55,7 @@ public class CommentSearchDocument extends SearchDocument {
         switch (comment.recipientType) {
         case PERSON:
             for (String email : comment.recipients) {
-                StudentAttributes student = logic.getStudentForEmail(comment.courseId, email);
+                StudentAttributes student = context.getStudentForEmail(comment.courseId, email);
                 if (student == null) {
                     commentRecipientNameBuilder.append(delim).append(email);
                     delim = ", ";
@@ -63,7 +71,7 @@ public class CommentSearchDocument extends SearchDocument {
         case TEAM:
             for (String team : comment.recipients) {
                 List<StudentAttributes> students =
-                        logic.getStudentsForTeam(StringHelper.recoverFromSanitizedText(team), comment.courseId);
+                        context.getStudentsForTeam(StringHelper.recoverFromSanitizedText(team), comment.courseId);
                 if (students != null) {
                     relatedStudents.addAll(students);
                 }
@@ -73,7 +81,7 @@ public class CommentSearchDocument extends SearchDocument {
             break;
         case SECTION:
             for (String section : comment.recipients) {
-                List<StudentAttributes> students = logic.getStudentsForSection(section, comment.courseId);
+                List<StudentAttributes> students = context.getStudentsForSection(section, comment.courseId);
                 if (students != null) {
                     relatedStudents.addAll(students);
                 }
@@ -141,11 +149,11 @@ public class CommentSearchDocument extends SearchDocument {
                                             .setDate(comment.createdAt))
                 // attribute field is used to convert a doc back to attribute
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.COMMENT_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(comment)))
+                                            .setText(JsonUtils.toCompactJson(comment)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.COMMENT_GIVER_NAME)
-                                            .setText(JsonUtils.toJson(displayedName)))
+                                            .setText(JsonUtils.toCompactJson(displayedName)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.COMMENT_RECIPIENT_NAME)
-                                            .setText(JsonUtils.toJson(commentRecipientName)))
+                                            .setText(JsonUtils.toCompactJson(commentRecipientName)))
                 .setId(comment.getCommentId().toString())
                 .build();
         return doc;
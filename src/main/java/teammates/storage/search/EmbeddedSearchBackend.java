@@ -0,0 +1,250 @@
+package teammates.storage.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import teammates.common.util.Assumption;
+import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.Logger;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * The {@link SearchBackend} that keeps the search indices in the memory of the app, as inverted indices
+ * of the tokens in the documents. Searching does not leave the instance, so it takes about as long
+ * for every search, and it works without the App Engine Search API, e.g. in tests.<br>
+ * Each instance of the app has its own indices, so this backend is for an app running on one instance.
+ * The indices can be kept across restarts with snapshots, on the local disk or in Google Cloud Storage.
+ */
+public class EmbeddedSearchBackend implements SearchBackend {
+
+    private static final String GCS_LOCATION_PREFIX = "gs://";
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int DOCUMENTS_PER_PUT_FROM_SNAPSHOT = 1000;
+    private static final int SNAPSHOT_BUFFER_SIZE = 64 * 1024;
+
+    private static final Logger log = Logger.getLogger();
+
+    private final Map<String, EmbeddedSearchIndex> indices = new HashMap<String, EmbeddedSearchIndex>();
+
+    /**
+     * Splits the text into the lower-case words that are searched for, at the characters
+     * {@link teammates.common.util.Sanitizer#sanitizeForSearch(String)} removes from query strings.
+     * Characters in a text searched for are thus split the same way whether they were removed
+     * from the query string or not.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<String>();
+        String lowerCaseText = text.toLowerCase();
+        int tokenStart = -1;
+        int i = 0;
+        while (i < lowerCaseText.length()) {
+            int separatorLength = getSeparatorLength(lowerCaseText, i);
+            if (separatorLength > 0) {
+                if (tokenStart != -1) {
+                    tokens.add(lowerCaseText.substring(tokenStart, i));
+                    tokenStart = -1;
+                }
+                i += separatorLength;
+            } else {
+                if (tokenStart == -1) {
+                    tokenStart = i;
+                }
+                i++;
+            }
+        }
+        if (tokenStart != -1) {
+            tokens.add(lowerCaseText.substring(tokenStart));
+        }
+        return tokens;
+    }
+
+    /**
+     * @return the length of the separator at the index of the text, or 0 if the character there is part of a word
+     */
+    private static int getSeparatorLength(String text, int index) {
+        char c = text.charAt(index);
+        // sanitizeForSearch escapes < and > in query strings, so the escaped forms separate words too
+        if (c == '&' && (text.startsWith("&lt;", index) || text.startsWith("&gt;", index))) {
+            return 4;
+        }
+        switch (c) {
+        // the characters sanitizeForSearch replaces with spaces
+        case '`': case '!': case '#': case '$': case '%': case '^': case '&': case '[': case ']': case '{': case '}':
+        case '|': case ';': case '*': case '.': case '?': case '\'': case '/': case '=': case ':':
+        // the characters sanitizeForSearch escapes
+        case '<': case '>':
+        // the characters that separate the values in searchable text and the words in query strings
+        case ',': case '"': case '(': case ')':
+            return 1;
+        default:
+            return Character.isWhitespace(c) ? 1 : 0;
+        }
+    }
+
+    @Override
+    public void putDocument(String indexName, Document document) {
+        getIndex(indexName).putDocuments(Arrays.asList(document));
+    }
+
+    @Override
+    public void putDocuments(String indexName, List<Document> documents) {
+        getIndex(indexName).putDocuments(documents);
+    }
+
+    @Override
+    public Document getDocument(String indexName, String documentId) {
+        return getIndex(indexName).getDocument(documentId);
+    }
+
+    @Override
+    public Results<ScoredDocument> searchDocuments(String indexName, Query query) {
+        return getIndex(indexName).search(query);
+    }
+
+    @Override
+    public void deleteDocument(String indexName, String documentId) {
+        getIndex(indexName).deleteDocuments(new String[] { documentId });
+    }
+
+    @Override
+    public void deleteDocuments(String indexName, String[] documentIds) {
+        getIndex(indexName).deleteDocuments(documentIds);
+    }
+
+    /**
+     * @return the number of documents in the given index
+     */
+    public int getIndexSize(String indexName) {
+        return getIndex(indexName).size();
+    }
+
+    /**
+     * Saves a snapshot of every index to {@code location}, which is either {@code gs://<bucket>/<file>}
+     * for a file in Google Cloud Storage or a path on the local disk.
+     */
+    public void saveSnapshot(String location) throws IOException {
+        Map<String, EmbeddedSearchIndex> indicesToSave;
+        synchronized (indices) {
+            indicesToSave = new HashMap<String, EmbeddedSearchIndex>(indices);
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(openSnapshotForWriting(location), SNAPSHOT_BUFFER_SIZE), SNAPSHOT_BUFFER_SIZE));
+        try {
+            out.writeInt(SNAPSHOT_FORMAT_VERSION);
+            out.writeInt(indicesToSave.size());
+            for (Map.Entry<String, EmbeddedSearchIndex> index : indicesToSave.entrySet()) {
+                out.writeUTF(index.getKey());
+                index.getValue().writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        commitSnapshot(location);
+    }
+
+    /**
+     * Puts the documents in the snapshot saved to {@code location} by {@link #saveSnapshot(String)}
+     * into the indices.
+     * @return false if there is no snapshot at {@code location}
+     */
+    public boolean loadSnapshot(String location) throws IOException {
+        InputStream snapshotStream = openSnapshotForReading(location);
+        if (snapshotStream == null) {
+            return false;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(snapshotStream, SNAPSHOT_BUFFER_SIZE), SNAPSHOT_BUFFER_SIZE));
+        try {
+            int formatVersion = in.readInt();
+            if (formatVersion != SNAPSHOT_FORMAT_VERSION) {
+                log.warning("Ignored search index snapshot of unknown format " + formatVersion + " at " + location);
+                return false;
+            }
+            int indexCount = in.readInt();
+            for (int i = 0; i < indexCount; i++) {
+                getIndex(in.readUTF()).readFrom(in, DOCUMENTS_PER_PUT_FROM_SNAPSHOT);
+            }
+        } finally {
+            in.close();
+        }
+        return true;
+    }
+
+    private EmbeddedSearchIndex getIndex(String indexName) {
+        synchronized (indices) {
+            EmbeddedSearchIndex index = indices.get(indexName);
+            if (index == null) {
+                index = new EmbeddedSearchIndex();
+                indices.put(indexName, index);
+            }
+            return index;
+        }
+    }
+
+    private static InputStream openSnapshotForReading(String location) throws IOException {
+        if (location.startsWith(GCS_LOCATION_PREFIX)) {
+            String[] bucketAndFileName = splitGcsLocation(location);
+            return GoogleCloudStorageHelper.openFileForReading(bucketAndFileName[0], bucketAndFileName[1]);
+        }
+        File snapshotFile = new File(location);
+        return snapshotFile.exists() ? new FileInputStream(snapshotFile) : null;
+    }
+
+    /**
+     * A snapshot on the local disk is written to a temporary file first, so that the snapshot
+     * saved before is kept if the app stops while writing. Google Cloud Storage only replaces
+     * the file when it is closed.
+     */
+    private static OutputStream openSnapshotForWriting(String location) throws IOException {
+        if (location.startsWith(GCS_LOCATION_PREFIX)) {
+            String[] bucketAndFileName = splitGcsLocation(location);
+            return GoogleCloudStorageHelper.openFileForWriting(bucketAndFileName[0], bucketAndFileName[1]);
+        }
+        return new FileOutputStream(getTemporarySnapshotFile(location));
+    }
+
+    private static void commitSnapshot(String location) throws IOException {
+        if (location.startsWith(GCS_LOCATION_PREFIX)) {
+            return;
+        }
+        File snapshotFile = new File(location);
+        if (snapshotFile.exists() && !snapshotFile.delete()
+                || !getTemporarySnapshotFile(location).renameTo(snapshotFile)) {
+            throw new IOException("Failed to replace the search index snapshot at " + location);
+        }
+    }
+
+    private static File getTemporarySnapshotFile(String location) {
+        return new File(location + ".tmp");
+    }
+
+    private static String[] splitGcsLocation(String location) {
+        String bucketAndFileName = location.substring(GCS_LOCATION_PREFIX.length());
+        int separatorIndex = bucketAndFileName.indexOf('/');
+        Assumption.assertTrue("Invalid Google Cloud Storage location: " + location,
+                              separatorIndex > 0 && separatorIndex < bucketAndFileName.length() - 1);
+        return new String[] { bucketAndFileName.substring(0, separatorIndex),
+                              bucketAndFileName.substring(separatorIndex + 1) };
+    }
+}
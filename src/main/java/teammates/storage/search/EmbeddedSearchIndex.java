@@ -0,0 +1,572 @@
+package teammates.storage.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import teammates.common.util.Const;
+
+import com.google.appengine.api.search.Cursor;
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.OperationResult;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.QueryOptions;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+import com.google.appengine.api.search.StatusCode;
+
+/**
+ * A search index of the {@link EmbeddedSearchBackend}: an inverted index from the tokens in the fields
+ * of its documents to the documents and the positions they are found at.<br>
+ * Every document put is given a new ordinal, greater than that of any document put before it,
+ * so posting lists are built by appending to them and stay sorted. Documents are returned with the
+ * latest one first, like the default ranks given by the App Engine Search API, and a cursor
+ * is the ordinal of the last document returned.
+ */
+class EmbeddedSearchIndex {
+
+    /**
+     * Fields holding the JSON of the entity a document is built from. They are only read back
+     * when converting a document to the entity and never searched, so they are not indexed.
+     */
+    private static final Set<String> UNSEARCHED_FIELDS = new HashSet<String>(Arrays.asList(
+            Const.SearchDocumentField.COMMENT_ATTRIBUTE,
+            Const.SearchDocumentField.STUDENT_ATTRIBUTE,
+            Const.SearchDocumentField.INSTRUCTOR_ATTRIBUTE,
+            Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_ATTRIBUTE,
+            Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE,
+            Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE,
+            Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE));
+
+    // the postings of deleted documents are removed once they outnumber the documents that are left
+    private static final int MIN_DELETED_DOCUMENTS_TO_COMPACT = 1000;
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    // the web-safe form of a cursor that is not per result, which the Search API expects
+    private static final String CURSOR_PREFIX = "false:";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinalsByDocumentId = new HashMap<String, Integer>();
+
+    /**
+     * The encoded documents by their ordinals. Ordinals of documents deleted or replaced are null.
+     */
+    private byte[][] documents = new byte[1024][];
+    private int nextOrdinal;
+    private int deletedDocumentCount;
+
+    private final Map<String, Map<String, PostingList>> postingListsByField =
+            new HashMap<String, Map<String, PostingList>>();
+
+    public void putDocuments(List<Document> documentsToPut) {
+        // documents are encoded and tokenized before taking the lock, so that searches wait only for the indexing
+        List<IndexedDocument> indexedDocuments = new ArrayList<IndexedDocument>(documentsToPut.size());
+        for (Document document : documentsToPut) {
+            indexedDocuments.add(new IndexedDocument(document));
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (IndexedDocument indexedDocument : indexedDocuments) {
+                removeDocument(indexedDocument.id);
+                addDocument(indexedDocument);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Document getDocument(String documentId) {
+        byte[] encodedDocument;
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinalsByDocumentId.get(documentId);
+            if (ordinal == null) {
+                return null;
+            }
+            encodedDocument = documents[ordinal];
+        } finally {
+            lock.readLock().unlock();
+        }
+        return decodeDocument(encodedDocument, Document.newBuilder()).build();
+    }
+
+    public void deleteDocuments(String[] documentIds) {
+        lock.writeLock().lock();
+        try {
+            for (String documentId : documentIds) {
+                removeDocument(documentId);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of documents in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsByDocumentId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Results<ScoredDocument> search(Query query) {
+        EmbeddedSearchQueryParser.Node queryNode = EmbeddedSearchQueryParser.parse(query.getQueryString());
+        QueryOptions options = query.getOptions() == null ? QueryOptions.newBuilder().build() : query.getOptions();
+        Cursor cursor = options.getCursor();
+        String cursorString = cursor == null ? null : cursor.toWebSafeString();
+
+        int[] matchingOrdinals;
+        List<byte[]> encodedDocuments = new ArrayList<byte[]>();
+        int start;
+        lock.readLock().lock();
+        try {
+            matchingOrdinals = queryNode == null ? getAllOrdinals() : queryNode.evaluate(this);
+
+            // the latest documents come first, so a page is taken from the end of the matches
+            int end = cursorString == null ? matchingOrdinals.length
+                                           : findFirstNotLessThan(matchingOrdinals, parseCursor(cursorString));
+            end = Math.max(0, end - options.getOffset());
+            start = Math.max(0, end - options.getLimit());
+            for (int i = end - 1; i >= start; i--) {
+                encodedDocuments.add(documents[matchingOrdinals[i]]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ScoredDocument> page = new ArrayList<ScoredDocument>(encodedDocuments.size());
+        for (byte[] encodedDocument : encodedDocuments) {
+            page.add((ScoredDocument) decodeDocument(encodedDocument, ScoredDocument.newBuilder()).build());
+        }
+        Cursor nextCursor = cursor == null || start == 0
+                            ? null
+                            : Cursor.newBuilder().build(CURSOR_PREFIX + matchingOrdinals[start]);
+        return new EmbeddedResults(page, matchingOrdinals.length, nextCursor);
+    }
+
+    /**
+     * Writes every document in the index, in the order they were put.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(ordinalsByDocumentId.size());
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (documents[ordinal] != null) {
+                    out.writeInt(documents[ordinal].length);
+                    out.write(documents[ordinal]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puts the documents written by {@link #writeTo(DataOutputStream)}.
+     */
+    public void readFrom(DataInputStream in, int documentsPerPut) throws IOException {
+        int documentCount = in.readInt();
+        List<Document> batch = new ArrayList<Document>();
+        for (int i = 0; i < documentCount; i++) {
+            byte[] encodedDocument = new byte[in.readInt()];
+            in.readFully(encodedDocument);
+            batch.add(decodeDocument(encodedDocument, Document.newBuilder()).build());
+            if (batch.size() == documentsPerPut) {
+                putDocuments(batch);
+                batch.clear();
+            }
+        }
+        putDocuments(batch);
+    }
+
+    /**
+     * @return the ordinals, in ascending order, of the documents with the tokens in the given field,
+     *         one right after the other; or in any field if {@code fieldName} is null
+     */
+    int[] findPhrase(String fieldName, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return NO_ORDINALS;
+        }
+        if (fieldName != null) {
+            Map<String, PostingList> postingLists = postingListsByField.get(fieldName);
+            return postingLists == null ? NO_ORDINALS : findPhrase(postingLists, tokens);
+        }
+        int[] ordinals = NO_ORDINALS;
+        for (Map<String, PostingList> postingLists : postingListsByField.values()) {
+            ordinals = EmbeddedSearchQueryParser.union(ordinals, findPhrase(postingLists, tokens));
+        }
+        return ordinals;
+    }
+
+    private int[] findPhrase(Map<String, PostingList> postingLists, List<String> tokens) {
+        PostingList[] lists = new PostingList[tokens.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postingLists.get(tokens.get(i));
+            if (lists[i] == null) {
+                return NO_ORDINALS;
+            }
+        }
+
+        // the documents are found from the postings of the rarest token, and the postings of the other tokens
+        // are sought at the positions before and after it. The postings of each list are in the order of
+        // (ordinal, position), and so are the postings sought, so each list is passed over once.
+        int rarest = 0;
+        for (int i = 1; i < lists.length; i++) {
+            if (lists[i].size < lists[rarest].size) {
+                rarest = i;
+            }
+        }
+        int[] nextPostings = new int[lists.length];
+        int[] ordinals = new int[Math.max(1, Math.min(lists[rarest].size, 16))];
+        int ordinalCount = 0;
+        for (int posting = 0; posting < lists[rarest].size; posting++) {
+            int ordinal = lists[rarest].ordinals[posting];
+            int phrasePosition = lists[rarest].positions[posting] - rarest;
+            if (documents[ordinal] == null || phrasePosition < 0
+                    || ordinalCount > 0 && ordinals[ordinalCount - 1] == ordinal) {
+                continue;
+            }
+            boolean isMatch = true;
+            for (int i = 0; i < lists.length && isMatch; i++) {
+                if (i != rarest) {
+                    nextPostings[i] = lists[i].seek(nextPostings[i], ordinal, phrasePosition + i);
+                    isMatch = lists[i].isAt(nextPostings[i], ordinal, phrasePosition + i);
+                }
+            }
+            if (isMatch) {
+                if (ordinalCount == ordinals.length) {
+                    ordinals = Arrays.copyOf(ordinals, ordinalCount * 2);
+                }
+                ordinals[ordinalCount++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(ordinals, ordinalCount);
+    }
+
+    /**
+     * @return the ordinals of all documents in the index, in ascending order
+     */
+    int[] getAllOrdinals() {
+        int[] ordinals = new int[ordinalsByDocumentId.size()];
+        int ordinalCount = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (documents[ordinal] != null) {
+                ordinals[ordinalCount++] = ordinal;
+            }
+        }
+        return ordinals;
+    }
+
+    private void addDocument(IndexedDocument indexedDocument) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        documents[ordinal] = indexedDocument.encodedDocument;
+        ordinalsByDocumentId.put(indexedDocument.id, ordinal);
+
+        for (Map.Entry<String, List<String>> field : indexedDocument.tokensByField.entrySet()) {
+            Map<String, PostingList> postingLists = postingListsByField.get(field.getKey());
+            if (postingLists == null) {
+                postingLists = new HashMap<String, PostingList>();
+                postingListsByField.put(field.getKey(), postingLists);
+            }
+            List<String> tokens = field.getValue();
+            for (int position = 0; position < tokens.size(); position++) {
+                String token = tokens.get(position);
+                if (token == null) {
+                    // a gap between two values of the field, so that no phrase spans both
+                    continue;
+                }
+                PostingList postingList = postingLists.get(token);
+                if (postingList == null) {
+                    postingList = new PostingList();
+                    postingLists.put(token, postingList);
+                }
+                postingList.add(ordinal, position);
+            }
+        }
+    }
+
+    private void removeDocument(String documentId) {
+        Integer ordinal = ordinalsByDocumentId.remove(documentId);
+        if (ordinal != null) {
+            // the postings of the document are skipped by searches until the index is compacted
+            documents[ordinal] = null;
+            deletedDocumentCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedDocumentCount < MIN_DELETED_DOCUMENTS_TO_COMPACT
+                || deletedDocumentCount < ordinalsByDocumentId.size()) {
+            return;
+        }
+        for (Map<String, PostingList> postingLists : postingListsByField.values()) {
+            Iterator<PostingList> iterator = postingLists.values().iterator();
+            while (iterator.hasNext()) {
+                PostingList postingList = iterator.next();
+                postingList.removeDeletedDocuments(documents);
+                if (postingList.size == 0) {
+                    iterator.remove();
+                }
+            }
+        }
+        deletedDocumentCount = 0;
+    }
+
+    private static int findFirstNotLessThan(int[] sortedOrdinals, int ordinal) {
+        int index = Arrays.binarySearch(sortedOrdinals, ordinal);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int parseCursor(String cursorString) {
+        try {
+            return Integer.parseInt(cursorString.substring(cursorString.indexOf(':') + 1));
+        } catch (NumberFormatException e) {
+            throw new SearchQueryException("Invalid cursor: " + cursorString);
+        }
+    }
+
+    private static byte[] encodeDocument(String documentId, Document document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            List<Field> fields = new ArrayList<Field>();
+            for (Field field : document.getFields()) {
+                fields.add(field);
+            }
+            writeString(out, documentId);
+            out.writeInt(fields.size());
+            for (Field field : fields) {
+                writeString(out, field.getName());
+                out.writeByte(field.getType().ordinal());
+                switch (field.getType()) {
+                case TEXT:
+                    writeString(out, field.getText());
+                    break;
+                case HTML:
+                    writeString(out, field.getHTML());
+                    break;
+                case ATOM:
+                    writeString(out, field.getAtom());
+                    break;
+                case DATE:
+                    out.writeLong(field.getDate().getTime());
+                    break;
+                case NUMBER:
+                    out.writeDouble(field.getNumber());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Field type not supported by the embedded search backend: "
+                                                       + field.getType());
+                }
+            }
+        } catch (IOException e) {
+            // not thrown when writing to memory
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Document.Builder decodeDocument(byte[] encodedDocument, Document.Builder builder) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(encodedDocument));
+        try {
+            builder.setId(readString(in));
+            int fieldCount = in.readInt();
+            for (int i = 0; i < fieldCount; i++) {
+                Field.Builder field = Field.newBuilder().setName(readString(in));
+                switch (Field.FieldType.values()[in.readByte()]) {
+                case TEXT:
+                    field.setText(readString(in));
+                    break;
+                case HTML:
+                    field.setHTML(readString(in));
+                    break;
+                case ATOM:
+                    field.setAtom(readString(in));
+                    break;
+                case DATE:
+                    field.setDate(new Date(in.readLong()));
+                    break;
+                case NUMBER:
+                    field.setNumber(in.readDouble());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown field type in encoded document");
+                }
+                builder.addField(field);
+            }
+        } catch (IOException e) {
+            // not thrown when reading from memory
+            throw new RuntimeException(e);
+        }
+        return builder;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(Const.SystemParams.ENCODING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, Const.SystemParams.ENCODING);
+    }
+
+    /**
+     * A document encoded and split into the tokens of its searched fields, ready to be added to the index.
+     */
+    private static final class IndexedDocument {
+
+        final String id;
+        final byte[] encodedDocument;
+
+        /**
+         * The tokens of each searched field, by their positions in the field.
+         */
+        final Map<String, List<String>> tokensByField = new HashMap<String, List<String>>();
+
+        IndexedDocument(Document document) {
+            // the App Engine Search API also gives a document without an id a new one
+            id = document.getId() == null ? UUID.randomUUID().toString() : document.getId();
+            encodedDocument = encodeDocument(id, document);
+
+            for (Field field : document.getFields()) {
+                String value = getSearchedValue(field);
+                if (value == null || UNSEARCHED_FIELDS.contains(field.getName())) {
+                    continue;
+                }
+                List<String> tokens = tokensByField.get(field.getName());
+                if (tokens == null) {
+                    tokens = new ArrayList<String>();
+                    tokensByField.put(field.getName(), tokens);
+                } else {
+                    tokens.add(null);
+                }
+                tokens.addAll(EmbeddedSearchBackend.tokenize(value));
+            }
+        }
+
+        private static String getSearchedValue(Field field) {
+            switch (field.getType()) {
+            case TEXT:
+                return field.getText();
+            case HTML:
+                return field.getHTML();
+            case ATOM:
+                return field.getAtom();
+            default:
+                // dates and numbers can only be compared, which the embedded search backend does not support
+                return null;
+            }
+        }
+    }
+
+    /**
+     * The ordinals of the documents a token is found in, with the position of the token in the field,
+     * in the order of (ordinal, position).
+     */
+    private static final class PostingList {
+
+        int[] ordinals = new int[1];
+        int[] positions = new int[1];
+        int size;
+
+        void add(int ordinal, int position) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            ordinals[size] = ordinal;
+            positions[size] = position;
+            size++;
+        }
+
+        /**
+         * @return the index of the first posting from {@code from} onwards that is not before the given
+         *         ordinal and position, or the size of the list if there is none
+         */
+        int seek(int from, int ordinal, int position) {
+            if (from >= size || !isBefore(from, ordinal, position)) {
+                return from;
+            }
+            // gallops over the postings before, as there can be many of them for a common token
+            int before = from;
+            int step = 1;
+            while (before + step < size && isBefore(before + step, ordinal, position)) {
+                before += step;
+                step *= 2;
+            }
+            int notBefore = Math.min(before + step, size);
+            while (notBefore - before > 1) {
+                int middle = (before + notBefore) >>> 1;
+                if (isBefore(middle, ordinal, position)) {
+                    before = middle;
+                } else {
+                    notBefore = middle;
+                }
+            }
+            return notBefore;
+        }
+
+        boolean isAt(int posting, int ordinal, int position) {
+            return posting < size && ordinals[posting] == ordinal && positions[posting] == position;
+        }
+
+        private boolean isBefore(int posting, int ordinal, int position) {
+            return ordinals[posting] < ordinal || ordinals[posting] == ordinal && positions[posting] < position;
+        }
+
+        void removeDeletedDocuments(byte[][] documents) {
+            int newSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (documents[ordinals[i]] != null) {
+                    ordinals[newSize] = ordinals[i];
+                    positions[newSize] = positions[i];
+                    newSize++;
+                }
+            }
+            size = newSize;
+            ordinals = Arrays.copyOf(ordinals, Math.max(1, newSize));
+            positions = Arrays.copyOf(positions, Math.max(1, newSize));
+        }
+    }
+
+    private static final class EmbeddedResults extends Results<ScoredDocument> {
+
+        private static final long serialVersionUID = 1L;
+
+        EmbeddedResults(List<ScoredDocument> page, long numberFound, Cursor cursor) {
+            super(new OperationResult(StatusCode.OK, null), page, numberFound, page.size(), cursor);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.appengine.api.search.SearchQueryException;
+
+/**
+ * Parses query strings of the App Engine Search API query language for the {@link EmbeddedSearchBackend}.<br>
+ * The parts of the language that {@link SearchQuery} uses are supported: words and quoted phrases,
+ * restricted to a field with {@code field:}, combined with {@code AND}, {@code OR}, {@code NOT} and
+ * parentheses. Words next to each other without an operator are combined with {@code AND}.
+ * Comparisons, e.g. of dates, are not supported.
+ */
+final class EmbeddedSearchQueryParser {
+
+    private static final String AND = "AND";
+    private static final String OR = "OR";
+    private static final String NOT = "NOT";
+
+    private enum TokenType { OPEN_PARENTHESIS, CLOSE_PARENTHESIS, FIELD, PHRASE, WORD, END }
+
+    private final String queryString;
+    private int position;
+
+    private TokenType tokenType;
+    private String token;
+
+    private EmbeddedSearchQueryParser(String queryString) {
+        this.queryString = queryString;
+        readToken();
+    }
+
+    /**
+     * @return the parsed query, or null if the query string is blank, i.e. matches every document
+     * @throws SearchQueryException if the query string cannot be parsed
+     */
+    public static Node parse(String queryString) {
+        EmbeddedSearchQueryParser parser = new EmbeddedSearchQueryParser(queryString);
+        if (parser.tokenType == TokenType.END) {
+            return null;
+        }
+        Node node = parser.parseOr(null);
+        if (parser.tokenType != TokenType.END) {
+            throw new SearchQueryException("Unexpected '" + parser.token + "' in query: " + queryString);
+        }
+        return node;
+    }
+
+    private Node parseOr(String fieldName) {
+        List<Node> nodes = new ArrayList<Node>();
+        nodes.add(parseAnd(fieldName));
+        while (isWord(OR)) {
+            readToken();
+            nodes.add(parseAnd(fieldName));
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new OrNode(nodes);
+    }
+
+    private Node parseAnd(String fieldName) {
+        List<Node> nodes = new ArrayList<Node>();
+        nodes.add(parseNot(fieldName));
+        while (tokenType != TokenType.END && tokenType != TokenType.CLOSE_PARENTHESIS && !isWord(OR)) {
+            if (isWord(AND)) {
+                readToken();
+            }
+            nodes.add(parseNot(fieldName));
+        }
+        return nodes.size() == 1 ? nodes.get(0) : new AndNode(nodes);
+    }
+
+    private Node parseNot(String fieldName) {
+        if (isWord(NOT)) {
+            readToken();
+            return new NotNode(parseNot(fieldName));
+        }
+        return parseTerm(fieldName);
+    }
+
+    private Node parseTerm(String fieldName) {
+        switch (tokenType) {
+        case OPEN_PARENTHESIS:
+            readToken();
+            Node node = parseOr(fieldName);
+            if (tokenType != TokenType.CLOSE_PARENTHESIS) {
+                throw new SearchQueryException("Missing ')' in query: " + queryString);
+            }
+            readToken();
+            return node;
+        case FIELD:
+            String restrictedFieldName = token;
+            readToken();
+            return parseTerm(restrictedFieldName);
+        case PHRASE:
+        case WORD:
+            Node phrase = new PhraseNode(fieldName, EmbeddedSearchBackend.tokenize(token));
+            readToken();
+            return phrase;
+        default:
+            throw new SearchQueryException("Unexpected end of query: " + queryString);
+        }
+    }
+
+    private boolean isWord(String word) {
+        return tokenType == TokenType.WORD && word.equals(token);
+    }
+
+    private void readToken() {
+        while (position < queryString.length() && Character.isWhitespace(queryString.charAt(position))) {
+            position++;
+        }
+        if (position == queryString.length()) {
+            tokenType = TokenType.END;
+            token = null;
+            return;
+        }
+
+        char c = queryString.charAt(position);
+        if (c == '(' || c == ')') {
+            tokenType = c == '(' ? TokenType.OPEN_PARENTHESIS : TokenType.CLOSE_PARENTHESIS;
+            token = String.valueOf(c);
+            position++;
+        } else if (c == '"') {
+            int end = queryString.indexOf('"', position + 1);
+            if (end == -1) {
+                throw new SearchQueryException("Missing '\"' in query: " + queryString);
+            }
+            tokenType = TokenType.PHRASE;
+            token = queryString.substring(position + 1, end);
+            position = end + 1;
+        } else {
+            int start = position;
+            while (position < queryString.length() && !isWordBoundary(queryString.charAt(position))) {
+                position++;
+            }
+            token = queryString.substring(start, position);
+            if (token.isEmpty()) {
+                throw new SearchQueryException("Unexpected ':' in query: " + queryString);
+            }
+            if (token.indexOf('<') != -1 || token.indexOf('>') != -1
+                    || token.indexOf('=') != -1) {
+                throw new SearchQueryException("Comparisons are not supported by the embedded search backend: "
+                                               + queryString);
+            }
+            if (position < queryString.length() && queryString.charAt(position) == ':') {
+                tokenType = TokenType.FIELD;
+                position++;
+            } else {
+                tokenType = TokenType.WORD;
+            }
+        }
+    }
+
+    private static boolean isWordBoundary(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"' || c == ':';
+    }
+
+    /**
+     * @return the ordinals in either of the ascending arrays, in ascending order
+     */
+    static int[] union(int[] ordinals, int[] otherOrdinals) {
+        int[] union = new int[ordinals.length + otherOrdinals.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < ordinals.length || j < otherOrdinals.length) {
+            if (j == otherOrdinals.length || i < ordinals.length && ordinals[i] < otherOrdinals[j]) {
+                union[size++] = ordinals[i++];
+            } else if (i == ordinals.length || otherOrdinals[j] < ordinals[i]) {
+                union[size++] = otherOrdinals[j++];
+            } else {
+                union[size++] = ordinals[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(union, size);
+    }
+
+    /**
+     * @return the ordinals in both of the ascending arrays, or in the first but not the second if
+     *         {@code isExcludingOtherOrdinals}, in ascending order
+     */
+    static int[] intersect(int[] ordinals, int[] otherOrdinals, boolean isExcludingOtherOrdinals) {
+        int[] intersection = new int[ordinals.length];
+        int j = 0;
+        int size = 0;
+        for (int ordinal : ordinals) {
+            while (j < otherOrdinals.length && otherOrdinals[j] < ordinal) {
+                j++;
+            }
+            boolean isInOtherOrdinals = j < otherOrdinals.length && otherOrdinals[j] == ordinal;
+            if (isInOtherOrdinals != isExcludingOtherOrdinals) {
+                intersection[size++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(intersection, size);
+    }
+
+    /**
+     * A part of a parsed query.
+     */
+    abstract static class Node {
+
+        /**
+         * @return the ordinals of the documents in the index that match this part of the query, in ascending order
+         */
+        abstract int[] evaluate(EmbeddedSearchIndex index);
+    }
+
+    private static final class PhraseNode extends Node {
+
+        private final String fieldName;
+        private final List<String> tokens;
+
+        PhraseNode(String fieldName, List<String> tokens) {
+            this.fieldName = fieldName;
+            this.tokens = tokens;
+        }
+
+        @Override
+        int[] evaluate(EmbeddedSearchIndex index) {
+            return index.findPhrase(fieldName, tokens);
+        }
+    }
+
+    private static final class AndNode extends Node {
+
+        private final List<Node> nodes;
+
+        AndNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int[] evaluate(EmbeddedSearchIndex index) {
+            int[] ordinals = null;
+            List<Node> excludedNodes = new ArrayList<Node>();
+            for (Node node : nodes) {
+                if (node instanceof NotNode) {
+                    // excluded directly instead of intersecting with all the documents not matching
+                    excludedNodes.add(((NotNode) node).node);
+                } else {
+                    ordinals = ordinals == null ? node.evaluate(index) : intersect(ordinals, node.evaluate(index), false);
+                }
+            }
+            if (ordinals == null) {
+                ordinals = index.getAllOrdinals();
+            }
+            for (Node excludedNode : excludedNodes) {
+                ordinals = intersect(ordinals, excludedNode.evaluate(index), true);
+            }
+            return ordinals;
+        }
+    }
+
+    private static final class OrNode extends Node {
+
+        private final List<Node> nodes;
+
+        OrNode(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int[] evaluate(EmbeddedSearchIndex index) {
+            int[] ordinals = new int[0];
+            for (Node node : nodes) {
+                ordinals = union(ordinals, node.evaluate(index));
+            }
+            return ordinals;
+        }
+    }
+
+    private static final class NotNode extends Node {
+
+        private final Node node;
+
+        NotNode(Node node) {
+            this.node = node;
+        }
+
+        @Override
+        int[] evaluate(EmbeddedSearchIndex index) {
+            return intersect(index.getAllOrdinals(), node.evaluate(index), true);
+        }
+    }
+}
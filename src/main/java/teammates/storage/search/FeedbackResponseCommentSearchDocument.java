@@ -39,21 +39,31 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         this.comment = comment;
     }
     
+    /**
+     * Use this when indexing many comments, with the rosters of their courses and their responses
+     * prefetched in {@code context}.
+     */
+    public FeedbackResponseCommentSearchDocument(FeedbackResponseCommentAttributes comment,
+                                                 SearchDocumentContext context) {
+        super(context);
+        this.comment = comment;
+    }
+    
     @Override
     protected void prepareData() {
         if (comment == null) {
             return;
         }
         
-        relatedSession = logic.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
+        relatedSession = context.getFeedbackSession(comment.feedbackSessionName, comment.courseId);
         
-        relatedQuestion = logic.getFeedbackQuestion(comment.feedbackQuestionId);
+        relatedQuestion = context.getFeedbackQuestion(comment.feedbackQuestionId);
         
-        relatedResponse = logic.getFeedbackResponse(comment.feedbackResponseId);
+        relatedResponse = context.getFeedbackResponse(comment.feedbackResponseId);
         
-        course = logic.getCourse(comment.courseId);
+        course = context.getCourse(comment.courseId);
         
-        giverAsInstructor = logic.getInstructorForEmail(comment.courseId, comment.giverEmail);
+        giverAsInstructor = context.getInstructorForEmail(comment.courseId, comment.giverEmail);
         
         relatedInstructors = new ArrayList<InstructorAttributes>();
         relatedStudents = new ArrayList<StudentAttributes>();
@@ -62,7 +72,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         Set<String> addedEmailSet = new HashSet<String>();
         if (relatedQuestion.giverType == FeedbackParticipantType.INSTRUCTORS
                 || relatedQuestion.giverType == FeedbackParticipantType.SELF) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.giver);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.giver);
             if (ins == null || addedEmailSet.contains(ins.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -71,7 +81,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
                 responseGiverName = ins.name + " (" + ins.displayedName + ")";
             }
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.giver);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.giver);
             if (stu == null || addedEmailSet.contains(stu.email)) {
                 responseGiverName = Const.USER_UNKNOWN_TEXT;
             } else {
@@ -82,7 +92,7 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         }
         
         if (relatedQuestion.recipientType == FeedbackParticipantType.INSTRUCTORS) {
-            InstructorAttributes ins = logic.getInstructorForEmail(comment.courseId, relatedResponse.recipient);
+            InstructorAttributes ins = context.getInstructorForEmail(comment.courseId, relatedResponse.recipient);
             if (ins != null && !addedEmailSet.contains(ins.email)) {
                 relatedInstructors.add(ins);
                 addedEmailSet.add(ins.email);
@@ -93,13 +103,13 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
         } else if (relatedQuestion.recipientType == FeedbackParticipantType.NONE) {
             responseRecipientName = Const.USER_NOBODY_TEXT;
         } else {
-            StudentAttributes stu = logic.getStudentForEmail(comment.courseId, relatedResponse.recipient);
+            StudentAttributes stu = context.getStudentForEmail(comment.courseId, relatedResponse.recipient);
             if (stu != null && !addedEmailSet.contains(stu.email)) {
                 relatedStudents.add(stu);
                 addedEmailSet.add(stu.email);
                 responseRecipientName = stu.name + " (" + stu.team + ")";
             }
-            List<StudentAttributes> team = logic.getStudentsForTeam(relatedResponse.recipient, comment.courseId);
+            List<StudentAttributes> team = context.getStudentsForTeam(relatedResponse.recipient, comment.courseId);
             if (team != null) {
                 responseRecipientName = relatedResponse.recipient; //it's actually a team name here
                 for (StudentAttributes studentInTeam : team) {
@@ -204,19 +214,19 @@ public class FeedbackResponseCommentSearchDocument extends SearchDocument {
                                             .setDate(comment.createdAt))
                 // attribute field is used to convert a doc back to attribute
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(comment)))
+                                            .setText(JsonUtils.toCompactJson(comment)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(relatedResponse)))
+                                            .setText(JsonUtils.toCompactJson(relatedResponse)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_GIVER_NAME)
-                                            .setText(JsonUtils.toJson(responseGiverName)))
+                                            .setText(JsonUtils.toCompactJson(responseGiverName)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_RECEIVER_NAME)
-                                            .setText(JsonUtils.toJson(responseRecipientName)))
+                                            .setText(JsonUtils.toCompactJson(responseRecipientName)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_QUESTION_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(relatedQuestion)))
+                                            .setText(JsonUtils.toCompactJson(relatedQuestion)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_SESSION_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(relatedSession)))
+                                            .setText(JsonUtils.toCompactJson(relatedSession)))
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.FEEDBACK_RESPONSE_COMMENT_GIVER_NAME)
-                                            .setText(JsonUtils.toJson(displayedName)))
+                                            .setText(JsonUtils.toCompactJson(displayedName)))
                 .setId(comment.getId().toString())
                 .build();
         return doc;
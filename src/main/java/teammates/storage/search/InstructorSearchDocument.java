@@ -18,13 +18,21 @@ public class InstructorSearchDocument extends SearchDocument {
         this.instructor = instructor;
     }
     
+    /**
+     * Use this when indexing many instructors, so that the course of each is retrieved once.
+     */
+    public InstructorSearchDocument(InstructorAttributes instructor, SearchDocumentContext context) {
+        super(context);
+        this.instructor = instructor;
+    }
+    
     @Override
     protected void prepareData() {
         if (instructor == null) {
             return;
         }
         
-        course = logic.getCourse(instructor.courseId);
+        course = context.getCourse(instructor.courseId);
     }
 
     @Override
@@ -51,7 +59,7 @@ public class InstructorSearchDocument extends SearchDocument {
                                                    .setText(searchableTextBuilder.toString()))
                        //attribute field is used to convert a doc back to attribute
                        .addField(Field.newBuilder().setName(Const.SearchDocumentField.INSTRUCTOR_ATTRIBUTE)
-                                                   .setText(JsonUtils.toJson(instructor)))
+                                                   .setText(JsonUtils.toCompactJson(instructor)))
                        .setId(StringHelper.encrypt(instructor.key))
                        .build();
                 
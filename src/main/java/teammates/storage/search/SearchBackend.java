@@ -0,0 +1,49 @@
+package teammates.storage.search;
+
+import java.util.List;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+
+/**
+ * Represents a full-text search service that holds the search indices.<br>
+ * Documents, queries and results are described with the value classes of the App Engine Search API
+ * whichever backend is used, so that {@link SearchDocument}s, {@link SearchQuery}s and the
+ * search result bundles work with every backend.
+ * @see SearchManager
+ */
+public interface SearchBackend {
+
+    /**
+     * Creates or updates the given document in the given index.
+     */
+    void putDocument(String indexName, Document document);
+
+    /**
+     * Creates or updates the given documents in the given index.
+     */
+    void putDocuments(String indexName, List<Document> documents);
+
+    /**
+     * @return the document with the given id in the given index, or null if there is no such document
+     */
+    Document getDocument(String indexName, String documentId);
+
+    /**
+     * @return the documents in the given index that match the query, one page at a time
+     *         as set by the query's options
+     */
+    Results<ScoredDocument> searchDocuments(String indexName, Query query);
+
+    /**
+     * Deletes the document with the given id from the given index.
+     */
+    void deleteDocument(String indexName, String documentId);
+
+    /**
+     * Deletes the documents with the given ids from the given index.
+     */
+    void deleteDocuments(String indexName, String[] documentIds);
+}
@@ -1,7 +1,5 @@
 package teammates.storage.search;
 
-import teammates.logic.api.Logic;
-
 import com.google.appengine.api.search.Document;
 
 /**
@@ -9,10 +7,17 @@ import com.google.appengine.api.search.Document;
  */
 public abstract class SearchDocument {
     
-    protected Logic logic;
+    protected SearchDocumentContext context;
     
     public SearchDocument() {
-        logic = new Logic();
+        this(new SearchDocumentContext());
+    }
+    
+    /**
+     * Use this when building many documents, so that they share the data looked up in {@code context}.
+     */
+    public SearchDocument(SearchDocumentContext context) {
+        this.context = context;
     }
     
     public Document build() {
@@ -0,0 +1,180 @@
+package teammates.storage.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.FeedbackQuestionAttributes;
+import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.logic.api.Logic;
+
+/**
+ * The data that {@link SearchDocument}s look up to build their documents, e.g. the course of a student
+ * or the question of a response comment. Every lookup is remembered, so the documents built with the same
+ * context retrieve each course, session and question once.<br>
+ * The rosters of the courses given to {@link #prefetchRosters(Collection)} and the responses given to
+ * {@link #prefetchFeedbackResponses(Collection)} are retrieved beforehand for a whole batch of documents,
+ * so that building the documents does not retrieve them one by one. Data that the caller already has,
+ * e.g. the course that students are enrolled into, can be given to the context with {@link #addCourse}.
+ */
+public class SearchDocumentContext {
+
+    private final Logic logic = new Logic();
+
+    private final Map<String, CourseAttributes> courses = new HashMap<String, CourseAttributes>();
+    private final Map<String, FeedbackSessionAttributes> sessions = new HashMap<String, FeedbackSessionAttributes>();
+    private final Map<String, FeedbackQuestionAttributes> questions = new HashMap<String, FeedbackQuestionAttributes>();
+    private final Map<String, FeedbackResponseAttributes> responses = new HashMap<String, FeedbackResponseAttributes>();
+    private final Map<String, InstructorAttributes> instructors = new HashMap<String, InstructorAttributes>();
+    private final Map<String, StudentAttributes> students = new HashMap<String, StudentAttributes>();
+    private final Map<String, List<StudentAttributes>> studentGroups = new HashMap<String, List<StudentAttributes>>();
+
+    private final Map<String, List<StudentAttributes>> studentRosters = new HashMap<String, List<StudentAttributes>>();
+
+    /**
+     * Retrieves the instructors and students of the courses, two queries per course,
+     * so that looking up the people of these courses later does not retrieve anything.
+     */
+    public void prefetchRosters(Collection<String> courseIds) {
+        for (String courseId : courseIds) {
+            if (studentRosters.containsKey(courseId)) {
+                continue;
+            }
+            for (InstructorAttributes instructor : logic.getInstructorsForCourse(courseId)) {
+                instructors.put(getKey(courseId, instructor.email), instructor);
+            }
+            List<StudentAttributes> roster = logic.getStudentsForCourse(courseId);
+            for (StudentAttributes student : roster) {
+                students.put(getKey(courseId, student.email), student);
+            }
+            studentRosters.put(courseId, roster);
+        }
+    }
+
+    /**
+     * Remembers a course that has already been retrieved, so that looking it up does not retrieve it again.
+     */
+    public void addCourse(CourseAttributes course) {
+        courses.put(course.getId(), course);
+    }
+
+    /**
+     * Retrieves the responses with one batched get.
+     */
+    public void prefetchFeedbackResponses(Collection<String> feedbackResponseIds) {
+        List<String> idsToRetrieve = new ArrayList<String>();
+        for (String feedbackResponseId : feedbackResponseIds) {
+            if (!responses.containsKey(feedbackResponseId)) {
+                idsToRetrieve.add(feedbackResponseId);
+                // remembered as missing unless it is retrieved below
+                responses.put(feedbackResponseId, null);
+            }
+        }
+        for (FeedbackResponseAttributes response : logic.getFeedbackResponses(idsToRetrieve)) {
+            responses.put(response.getId(), response);
+        }
+    }
+
+    public CourseAttributes getCourse(String courseId) {
+        if (!courses.containsKey(courseId)) {
+            courses.put(courseId, logic.getCourse(courseId));
+        }
+        return courses.get(courseId);
+    }
+
+    public FeedbackSessionAttributes getFeedbackSession(String feedbackSessionName, String courseId) {
+        String key = getKey(courseId, feedbackSessionName);
+        if (!sessions.containsKey(key)) {
+            sessions.put(key, logic.getFeedbackSession(feedbackSessionName, courseId));
+        }
+        return sessions.get(key);
+    }
+
+    public FeedbackQuestionAttributes getFeedbackQuestion(String feedbackQuestionId) {
+        if (!questions.containsKey(feedbackQuestionId)) {
+            questions.put(feedbackQuestionId, logic.getFeedbackQuestion(feedbackQuestionId));
+        }
+        return questions.get(feedbackQuestionId);
+    }
+
+    public FeedbackResponseAttributes getFeedbackResponse(String feedbackResponseId) {
+        if (!responses.containsKey(feedbackResponseId)) {
+            responses.put(feedbackResponseId, logic.getFeedbackResponse(feedbackResponseId));
+        }
+        return responses.get(feedbackResponseId);
+    }
+
+    /**
+     * @return null if there is no such instructor
+     */
+    public InstructorAttributes getInstructorForEmail(String courseId, String email) {
+        String key = getKey(courseId, email);
+        if (!instructors.containsKey(key) && !studentRosters.containsKey(courseId)) {
+            instructors.put(key, logic.getInstructorForEmail(courseId, email));
+        }
+        return instructors.get(key);
+    }
+
+    /**
+     * @return null if there is no such student
+     */
+    public StudentAttributes getStudentForEmail(String courseId, String email) {
+        String key = getKey(courseId, email);
+        if (!students.containsKey(key) && !studentRosters.containsKey(courseId)) {
+            students.put(key, logic.getStudentForEmail(courseId, email));
+        }
+        return students.get(key);
+    }
+
+    /**
+     * @return an empty list if there are no students in the team
+     */
+    public List<StudentAttributes> getStudentsForTeam(String teamName, String courseId) {
+        List<StudentAttributes> roster = studentRosters.get(courseId);
+        if (roster != null) {
+            List<StudentAttributes> studentsInTeam = new ArrayList<StudentAttributes>();
+            for (StudentAttributes student : roster) {
+                if (teamName.equals(student.team)) {
+                    studentsInTeam.add(student);
+                }
+            }
+            return studentsInTeam;
+        }
+        String key = getKey(courseId, "team:" + teamName);
+        if (!studentGroups.containsKey(key)) {
+            studentGroups.put(key, logic.getStudentsForTeam(teamName, courseId));
+        }
+        return studentGroups.get(key);
+    }
+
+    /**
+     * @return an empty list if there are no students in the section
+     */
+    public List<StudentAttributes> getStudentsForSection(String sectionName, String courseId) {
+        List<StudentAttributes> roster = studentRosters.get(courseId);
+        if (roster != null) {
+            List<StudentAttributes> studentsInSection = new ArrayList<StudentAttributes>();
+            for (StudentAttributes student : roster) {
+                if (sectionName.equals(student.section)) {
+                    studentsInSection.add(student);
+                }
+            }
+            return studentsInSection;
+        }
+        String key = getKey(courseId, "section:" + sectionName);
+        if (!studentGroups.containsKey(key)) {
+            studentGroups.put(key, logic.getStudentsForSection(sectionName, courseId));
+        }
+        return studentGroups.get(key);
+    }
+
+    private static String getKey(String courseId, String identifier) {
+        return courseId + "%" + identifier;
+    }
+}
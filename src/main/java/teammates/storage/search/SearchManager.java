@@ -1,122 +1,142 @@
 package teammates.storage.search;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.List;
 
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Config;
 import teammates.common.util.Logger;
-import teammates.common.util.ThreadHelper;
 
+import com.google.appengine.api.LifecycleManager;
+import com.google.appengine.api.LifecycleManager.ShutdownHook;
 import com.google.appengine.api.search.Document;
-import com.google.appengine.api.search.Index;
-import com.google.appengine.api.search.IndexSpec;
-import com.google.appengine.api.search.PutException;
-import com.google.appengine.api.search.PutResponse;
 import com.google.appengine.api.search.Query;
 import com.google.appengine.api.search.Results;
 import com.google.appengine.api.search.ScoredDocument;
-import com.google.appengine.api.search.SearchServiceFactory;
-import com.google.appengine.api.search.StatusCode;
 
 /**
  * Represents the search manager for index.
- * Codes reference:
- * https://developers.google.com/appengine/docs/java/search/
+ * The indices are kept by the {@link SearchBackend} set by "app.search.backend" in build.properties.
+ * If the embedded backend keeps a snapshot, the snapshot is loaded before the indices are first used.
  */
 public final class SearchManager {
-    private static final String ERROR_NON_TRANSIENT_BACKEND_ISSUE =
-            "Failed to put document %s into search index %s due to non-transient backend issue.";
-    private static final String ERROR_EXCEED_DURATION =
-            "Operation did not succeed in time to put document %s into search index %s";
     private static final Logger log = Logger.getLogger();
-    private static final ThreadLocal<Map<String, Index>> PER_THREAD_INDICES_TABLE = new ThreadLocal<Map<String, Index>>();
-    
+    private static final SearchBackend backend = Config.isUsingEmbeddedSearch()
+                                                 ? new EmbeddedSearchBackend()
+                                                 : new AppEngineSearchBackend();
+    private static volatile boolean isSnapshotLoaded;
+
     private SearchManager() {
         // utility class
     }
-    
+
     /*
      * Create or update the search document for the given document and index
      */
     public static void putDocument(String indexName, Document document) {
-        int elapsedTime = 0;
-        boolean isSuccessful = tryPutDocument(indexName, document);
-        while (!isSuccessful
-                && elapsedTime < Config.PERSISTENCE_CHECK_DURATION) {
-            ThreadHelper.waitBriefly();
-            //retry putting the document
-            isSuccessful = tryPutDocument(indexName, document);
-            //check before incrementing to avoid boundary case problem
-            if (!isSuccessful) {
-                elapsedTime += ThreadHelper.WAIT_DURATION;
-            }
-        }
-        if (elapsedTime >= Config.PERSISTENCE_CHECK_DURATION) {
-            log.severe(String.format(ERROR_EXCEED_DURATION, document, indexName));
-        }
+        loadSnapshot();
+        backend.putDocument(indexName, document);
     }
-    
-    private static boolean tryPutDocument(String indexName, Document document) {
-        Index index = getIndex(indexName);
-        try {
-            PutResponse result = index.put(document);
-            return result.getResults().get(0).getCode() == StatusCode.OK;
-        } catch (PutException e) {
-            //if it's a transient error in the server, it can be re-tried
-            if (!StatusCode.TRANSIENT_ERROR.equals(e.getOperationResult().getCode())) {
-                log.severe(String.format(ERROR_NON_TRANSIENT_BACKEND_ISSUE, document, indexName)
-                        + " e:\n" + TeammatesException.toStringWithStackTrace(e));
-            }
-            return false;
-        }
+
+    /*
+     * Create or update the search documents for the given documents and index
+     */
+    public static void putDocuments(String indexName, List<Document> documents) {
+        loadSnapshot();
+        backend.putDocuments(indexName, documents);
     }
-    
+
     /*
      * Get document for index and the documentId
      */
     public static Document getDocument(String indexName, String documentId) {
-        return getIndex(indexName).get(documentId);
+        loadSnapshot();
+        return backend.getDocument(indexName, documentId);
     }
-    
+
     /*
      * Search document by query
      */
     public static Results<ScoredDocument> searchDocuments(String indexName, Query query) {
-        return getIndex(indexName).search(query);
+        loadSnapshot();
+        return backend.searchDocuments(indexName, query);
     }
-    
+
     /*
      * Delete document by documentId
      */
     public static void deleteDocument(String indexName, String documentId) {
-        getIndex(indexName).deleteAsync(documentId);
+        loadSnapshot();
+        backend.deleteDocument(indexName, documentId);
     }
-    
+
     /*
      * Delete documents by documentIds
      */
     public static void deleteDocuments(String indexName, String[] documentIds) {
-        getIndex(indexName).deleteAsync(documentIds);
+        loadSnapshot();
+        backend.deleteDocuments(indexName, documentIds);
     }
-    
-    private static Index getIndex(String indexName) {
-        Map<String, Index> indicesTable = getIndicesTable();
-        Index index = indicesTable.get(indexName);
-        if (index == null) {
-            IndexSpec indexSpec = IndexSpec.newBuilder().setName(indexName).build();
-            index = SearchServiceFactory.getSearchService().getIndex(indexSpec);
-            indicesTable.put(indexName, index);
+
+    /**
+     * Loads the snapshot of the embedded search backend's indices, if there is one and it is not
+     * loaded yet. Once loaded, the snapshot is saved again when the instance is shut down.
+     * Does nothing for other backends, which keep their indices themselves.
+     * <br> This is called by the warmup request, so that the requests of users do not wait for
+     * the snapshot to load, and before the indices are first used, in case there was no warmup request.
+     */
+    public static void loadSnapshot() {
+        if (isSnapshotLoaded || !isKeepingSnapshot()) {
+            return;
+        }
+        synchronized (SearchManager.class) {
+            if (isSnapshotLoaded) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                EmbeddedSearchBackend embeddedBackend = (EmbeddedSearchBackend) backend;
+                if (embeddedBackend.loadSnapshot(Config.SEARCH_SNAPSHOT)) {
+                    log.info("Search indices loaded from " + Config.SEARCH_SNAPSHOT + " in "
+                             + (System.currentTimeMillis() - startTime) + " ms");
+                }
+            } catch (IOException e) {
+                log.severe("Failed to load search indices from " + Config.SEARCH_SNAPSHOT
+                           + " e:\n" + TeammatesException.toStringWithStackTrace(e));
+            }
+            isSnapshotLoaded = true;
         }
-        return index;
+        // not called for instances that are stopped abruptly, hence the snapshots saved by cron too
+        LifecycleManager.getInstance().setShutdownHook(new ShutdownHook() {
+            @Override
+            public void shutdown() {
+                saveSnapshot();
+            }
+        });
     }
 
-    private static Map<String, Index> getIndicesTable() {
-        Map<String, Index> indicesTable = PER_THREAD_INDICES_TABLE.get();
-        if (indicesTable == null) {
-            indicesTable = new HashMap<String, Index>();
-            PER_THREAD_INDICES_TABLE.set(indicesTable);
+    /**
+     * Saves a snapshot of the embedded search backend's indices.
+     * Does nothing for other backends, which keep their indices themselves, or if the snapshot
+     * has not been loaded, as the indices have not changed since.
+     */
+    public static void saveSnapshot() {
+        if (!isSnapshotLoaded || !isKeepingSnapshot()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            ((EmbeddedSearchBackend) backend).saveSnapshot(Config.SEARCH_SNAPSHOT);
+            log.info("Search indices saved to " + Config.SEARCH_SNAPSHOT + " in "
+                     + (System.currentTimeMillis() - startTime) + " ms");
+        } catch (IOException e) {
+            log.severe("Failed to save search indices to " + Config.SEARCH_SNAPSHOT
+                       + " e:\n" + TeammatesException.toStringWithStackTrace(e));
         }
-        return indicesTable;
+    }
+
+    private static boolean isKeepingSnapshot() {
+        return backend instanceof EmbeddedSearchBackend
+                && Config.SEARCH_SNAPSHOT != null && !Config.SEARCH_SNAPSHOT.trim().isEmpty();
     }
 }
@@ -17,13 +17,22 @@ public class StudentSearchDocument extends SearchDocument {
         this.student = student;
     }
     
+    /**
+     * Use this when indexing many students, so that the course of each is retrieved once.
+     * A course that has already been retrieved can be added to the context beforehand.
+     */
+    public StudentSearchDocument(StudentAttributes student, SearchDocumentContext context) {
+        super(context);
+        this.student = student;
+    }
+    
     @Override
     protected void prepareData() {
         if (student == null) {
             return;
         }
         
-        course = logic.getCourse(student.course);
+        course = context.getCourse(student.course);
     }
 
     @Override
@@ -52,7 +61,7 @@ public class StudentSearchDocument extends SearchDocument {
                                             .setText(searchableTextBuilder.toString()))
                 // attribute field is used to convert a doc back to attribute
                 .addField(Field.newBuilder().setName(Const.SearchDocumentField.STUDENT_ATTRIBUTE)
-                                            .setText(JsonUtils.toJson(student)))
+                                            .setText(JsonUtils.toCompactJson(student)))
                 .setId(student.key)
                 .build();
         
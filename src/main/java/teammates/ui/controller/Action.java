@@ -492,6 +492,18 @@ public abstract class Action {
                                       fileName,
                                       fileContent);
     }
+    
+    /**
+     * Generates a {@link StreamedFileDownloadResult} with the information in this object.
+     */
+    public StreamedFileDownloadResult createStreamedFileDownloadResult(
+            String fileName, StreamedFileDownloadResult.FileContentWriter contentWriter) {
+        return new StreamedFileDownloadResult("filedownload",
+                                              account,
+                                              statusToUser,
+                                              fileName,
+                                              contentWriter);
+    }
 
     protected ActionResult createPleaseJoinCourseResponse(String courseId) {
         String errorMessage = "You are not registered in the course " + Sanitizer.sanitizeForHtml(courseId);
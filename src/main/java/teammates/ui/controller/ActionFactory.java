@@ -4,13 +4,18 @@ package teammates.ui.controller;
 import static teammates.common.util.Const.ActionURIs.*;
 // CHECKSTYLE.ON:AvoidStarImport
 
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
 import teammates.common.exception.PageNotFoundException;
 import teammates.common.exception.TeammatesException;
 import teammates.common.util.Logger;
+import teammates.logic.api.Logic;
 
 /**
  * Is used to generate the matching {@link Action} for a given URI.
@@ -18,7 +23,22 @@ import teammates.common.util.Logger;
 public class ActionFactory {
     private static final Logger log = Logger.getLogger();
     
-    private static HashMap<String, Class<? extends Action>> actionMappings = new HashMap<String, Class<? extends Action>>();
+    /**
+     * The constructor of the action for each URI, looked up once when the class is loaded
+     * rather than on every request.
+     */
+    private static Map<String, Constructor<? extends Action>> actionConstructors =
+            new HashMap<String, Constructor<? extends Action>>();
+    
+    /**
+     * The URIs of the actions requested the most, which are created by {@link #warmUp()}
+     * before the first request comes in.
+     */
+    private static final List<String> FREQUENTLY_REQUESTED_URIS = Arrays.asList(
+            INSTRUCTOR_HOME_PAGE, INSTRUCTOR_COURSE_STATS_PAGE, INSTRUCTOR_FEEDBACK_STATS_PAGE,
+            INSTRUCTOR_COURSES_PAGE, INSTRUCTOR_COURSE_DETAILS_PAGE, INSTRUCTOR_FEEDBACKS_PAGE,
+            INSTRUCTOR_FEEDBACK_RESULTS_PAGE, STUDENT_HOME_PAGE, STUDENT_FEEDBACK_SUBMISSION_EDIT_PAGE,
+            STUDENT_FEEDBACK_SUBMISSION_EDIT_SAVE, STUDENT_FEEDBACK_RESULTS_PAGE);
     
     static {
         map(ADMIN_HOME_PAGE, AdminHomePageAction.class);
@@ -45,6 +65,7 @@ public class ActionFactory {
         map(ADMIN_EMAIL_MOVE_TO_TRASH, AdminEmailTrashAction.class);
         map(ADMIN_EMAIL_MOVE_OUT_TRASH, AdminEmailTrashAction.class);
         map(ADMIN_EMAIL_LOG_PAGE, AdminEmailLogPageAction.class);
+        map(ADMIN_METRICS_PAGE, AdminMetricsPageAction.class);
         
         map(INSTRUCTOR_COURSES_PAGE, InstructorCoursesPageAction.class);
         map(INSTRUCTOR_COURSE_STATS_PAGE, CourseStatsPageAction.class);
@@ -130,6 +151,18 @@ public class ActionFactory {
 
 
 
+    /**
+     * Loads and initializes the classes used by the most requested actions, including {@link Logic}
+     * and the *Logic singletons it holds, so that the first requests served by a new app instance
+     * do not have to wait for them.
+     */
+    public static void warmUp() {
+        for (String uri : FREQUENTLY_REQUESTED_URIS) {
+            getAction(uri);
+        }
+        new Logic();
+    }
+
     /**
      * @return the matching {@link Action} object for the URI in the {@code req}.
      *   The returned {@code Action} is already initialized using the {@code req}.
@@ -150,14 +183,14 @@ public class ActionFactory {
     }
 
     private static Action getAction(String uri) {
-        Class<? extends Action> controllerClass = actionMappings.get(uri);
+        Constructor<? extends Action> actionConstructor = actionConstructors.get(uri);
         
-        if (controllerClass == null) {
+        if (actionConstructor == null) {
             throw new PageNotFoundException(uri);
         }
         
         try {
-            return controllerClass.newInstance();
+            return actionConstructor.newInstance();
         } catch (Exception e) {
             throw new RuntimeException("Could not create the action for " + uri + ": "
                                        + TeammatesException.toStringWithStackTrace(e));
@@ -166,7 +199,12 @@ public class ActionFactory {
     }
 
     private static void map(String actionUri, Class<? extends Action> actionClass) {
-        actionMappings.put(actionUri, actionClass);
+        try {
+            actionConstructors.put(actionUri, actionClass.getConstructor());
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException("The action " + actionClass.getName() + " for " + actionUri
+                                       + " has no public constructor without parameters", e);
+        }
     }
 
 }
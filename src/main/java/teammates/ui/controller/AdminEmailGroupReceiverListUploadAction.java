@@ -6,6 +6,7 @@ import java.util.Map;
 
 import teammates.common.util.Const;
 import teammates.common.util.GoogleCloudStorageHelper;
+import teammates.common.util.GroupReceiverListReader;
 import teammates.logic.api.GateKeeper;
 
 import com.google.appengine.api.blobstore.BlobInfo;
@@ -35,17 +36,19 @@ public class AdminEmailGroupReceiverListUploadAction extends Action {
         }
         
         try {
-            List<List<String>> groupReceiverList =
-                    GoogleCloudStorageHelper.getGroupReceiverList(blobInfo.getBlobKey());
+            GroupReceiverListReader reader =
+                    GoogleCloudStorageHelper.openGroupReceiverList(blobInfo.getBlobKey(), 0);
             
             // log all email addresses retrieved from the txt file
             int i = 0;
             
-            for (List<String> list : groupReceiverList) {
-                for (String str : list) {
-                    log.info(str + " - " + i + " \n");
+            try {
+                while (reader.hasNext()) {
+                    log.info(reader.next() + " - " + i + " \n");
                     i++;
                 }
+            } finally {
+                reader.close();
             }
         } catch (IOException e) {
             data.isFileUploaded = false;
@@ -206,19 +206,10 @@ public class AdminInstructorAccountAddAction extends Action {
         List<StudentAttributes> students = backdoor.getStudentsForCourse(courseId);
         List<InstructorAttributes> instructors = backdoor.getInstructorsForCourse(courseId);
         
-        for (CommentAttributes comment : comments) {
-            backdoor.putDocument(comment);
-        }
-        for (FeedbackResponseCommentAttributes comment : frComments) {
-            backdoor.putDocument(comment);
-        }
-        for (StudentAttributes student : students) {
-            backdoor.putDocument(student);
-        }
-        
-        for (InstructorAttributes instructor : instructors) {
-            backdoor.putDocument(instructor);
-        }
+        backdoor.putCommentDocuments(comments);
+        backdoor.putFeedbackResponseCommentDocuments(frComments);
+        backdoor.putStudentDocuments(students);
+        backdoor.putInstructorDocuments(instructors);
         
         return courseId;
     }
@@ -0,0 +1,33 @@
+package teammates.ui.controller;
+
+import java.util.List;
+
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.util.TimeHelper;
+import teammates.logic.api.GateKeeper;
+
+/**
+ * Shows, as JSON, the request metrics of the app instance handling the request since its last
+ * metrics snapshot, together with the metrics snapshots of all app instances saved in the last day
+ * and the checks the instance ran to confirm its datastore writes.
+ */
+public class AdminMetricsPageAction extends Action {
+
+    @Override
+    protected ActionResult execute() {
+        
+        new GateKeeper().verifyAdminPrivileges(account);
+        
+        MetricsSnapshotBundle currentSnapshot = logic.getCurrentMetricsSnapshot();
+        List<MetricsSnapshotBundle> savedSnapshots =
+                logic.getMetricsSnapshotsEndingFrom(TimeHelper.getDateOffsetToCurrentTime(-1));
+        
+        statusToAdmin = "adminMetricsPage Page Load<br>"
+                      + "Number of metrics snapshots: " + savedSnapshots.size();
+        
+        AdminMetricsPageData data = new AdminMetricsPageData(account, currentSnapshot, savedSnapshots,
+                                                             logic.getPersistenceCheckMetrics());
+        return createAjaxResult(data);
+    }
+
+}
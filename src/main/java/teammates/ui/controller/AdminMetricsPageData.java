@@ -0,0 +1,23 @@
+package teammates.ui.controller;
+
+import java.util.List;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.datatransfer.PersistenceCheckMetricsBundle;
+
+public class AdminMetricsPageData extends PageData {
+    public MetricsSnapshotBundle currentSnapshot;
+    public List<MetricsSnapshotBundle> savedSnapshots;
+    public PersistenceCheckMetricsBundle persistenceCheckMetrics;
+
+    public AdminMetricsPageData(AccountAttributes account, MetricsSnapshotBundle currentSnapshot,
+                                List<MetricsSnapshotBundle> savedSnapshots,
+                                PersistenceCheckMetricsBundle persistenceCheckMetrics) {
+        super(account);
+        this.currentSnapshot = currentSnapshot;
+        this.savedSnapshots = savedSnapshots;
+        this.persistenceCheckMetrics = persistenceCheckMetrics;
+    }
+    
+}
@@ -49,7 +49,7 @@ public class AjaxResult extends ActionResult {
         
         resp.setContentType("application/json");
         resp.setCharacterEncoding("UTF-8");
-        String jsonData = JsonUtils.toJson(data);
+        String jsonData = JsonUtils.toCompactJson(data);
         
         resp.getWriter().write(jsonData);
     }
@@ -19,10 +19,14 @@ import teammates.common.util.Const;
 import teammates.common.util.EmailWrapper;
 import teammates.common.util.HttpRequestHelper;
 import teammates.common.util.Logger;
+import teammates.common.util.RequestMetrics;
 import teammates.common.util.StatusMessage;
 import teammates.common.util.StatusMessageColor;
 import teammates.logic.api.GateKeeper;
 import teammates.logic.api.Logic;
+import teammates.logic.core.MetricsLogic;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RequestCache;
 
 import com.google.appengine.api.datastore.DatastoreTimeoutException;
 import com.google.apphosting.api.DeadlineExceededException;
@@ -37,6 +41,22 @@ public class ControllerServlet extends HttpServlet {
 
     private static final Logger log = Logger.getLogger();
 
+    /**
+     * The action name under which the metrics of requests that fail before their action is created are recorded.
+     */
+    private static final String UNKNOWN_ACTION_NAME = "UnknownAction";
+
+    /**
+     * Warms up the classes used by the most requested actions. As the servlet is loaded on startup,
+     * this is done when App Engine starts the instance, before it is sent any request.
+     */
+    @Override
+    public void init() {
+        long startTime = System.currentTimeMillis();
+        ActionFactory.warmUp();
+        log.info("Actions warmed up in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
     @Override
     public final void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         this.doPost(req, resp);
@@ -46,19 +66,22 @@ public class ControllerServlet extends HttpServlet {
     @SuppressWarnings("PMD.AvoidCatchingThrowable") // used as fallback
     public final void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
 
+        Datastore.startRequestScope();
+        RequestMetrics.startRecording();
+        long startTime = System.currentTimeMillis();
+        Action c = null;
+        String outcome = MetricsLogic.OUTCOME_SUCCESS;
         try {
             /* We are using the Template Method Design Pattern here.
              * This method contains the high level logic of the the request processing.
              * Concrete details of the processing steps are to be implemented by child
              * classes, based on request-specific needs.
              */
-            long startTime = System.currentTimeMillis();
-            
             log.info("Request received : [" + req.getMethod() + "] " + req.getRequestURL().toString()
                     + ":" + HttpRequestHelper.printRequestParameters(req));
             log.info("User agent : " + req.getHeader("User-Agent"));
             
-            Action c = new ActionFactory().getAction(req);
+            c = new ActionFactory().getAction(req);
             if (c.isValidUser()) {
                 ActionResult actionResult = c.executeAndPostProcess();
                 actionResult.send(req, resp);
@@ -67,31 +90,38 @@ public class ControllerServlet extends HttpServlet {
             }
             
             long timeTaken = System.currentTimeMillis() - startTime;
+            RequestCache requestCache = Datastore.getRequestCache();
             // This is the log message that is used to generate the 'activity log' for the admin.
             
-            log.info(c.getLogMessage() + "|||" + timeTaken);
+            log.info(c.getLogMessage() + "|||" + timeTaken
+                     + "|||" + requestCache.getHitCount() + "|||" + requestCache.getMissCount());
             
         } catch (PageNotFoundException e) {
+            outcome = e.getClass().getSimpleName();
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ACTION_NOT_FOUND_PAGE);
         } catch (EntityNotFoundException e) {
+            outcome = e.getClass().getSimpleName();
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ENTITY_NOT_FOUND_PAGE);
 
         } catch (FeedbackSessionNotVisibleException e) {
+            outcome = e.getClass().getSimpleName();
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             req.getSession().setAttribute(Const.ParamsNames.FEEDBACK_SESSION_NOT_VISIBLE, e.getStartTimeString());
             resp.sendRedirect(Const.ViewURIs.FEEDBACK_SESSION_NOT_VISIBLE);
             
         } catch (UnauthorizedAccessException e) {
+            outcome = e.getClass().getSimpleName();
             log.warning(ActivityLogEntry.generateServletActionFailureLogMessage(req, e));
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.UNAUTHORIZED);
 
         } catch (DeadlineExceededException | DatastoreTimeoutException e) {
+            outcome = e.getClass().getSimpleName();
             /*This exception may not be caught because GAE kills
               the request soon after throwing it. In that case, the error
               message in the log will be emailed to the admin by a separate
@@ -101,6 +131,7 @@ public class ControllerServlet extends HttpServlet {
 
         //TODO: handle invalid parameters exception
         } catch (NullPostParameterException e) {
+            outcome = e.getClass().getSimpleName();
             String requestUrl = req.getRequestURL().toString();
             log.info(e.getMessage());
             cleanUpStatusMessageInSession(req);
@@ -121,6 +152,7 @@ public class ControllerServlet extends HttpServlet {
                 resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
             }
         } catch (Throwable t) {
+            outcome = t.getClass().getSimpleName();
             String requestMethod = req.getMethod();
             String requestUserAgent = req.getHeader("User-Agent");
             String requestPath = req.getServletPath();
@@ -134,6 +166,13 @@ public class ControllerServlet extends HttpServlet {
             }
             cleanUpStatusMessageInSession(req);
             resp.sendRedirect(Const.ViewURIs.ERROR_PAGE);
+        } finally {
+            // failed requests are recorded too, as they are often the slowest
+            String actionName = c == null ? UNKNOWN_ACTION_NAME : c.getClass().getSimpleName();
+            new Logic().recordActionMetrics(actionName, System.currentTimeMillis() - startTime, outcome,
+                                            RequestMetrics.getCurrent());
+            RequestMetrics.stopRecording();
+            Datastore.endRequestScope();
         }
         
     }
@@ -14,9 +14,8 @@ import teammates.common.datatransfer.FeedbackResponseDetails;
 import teammates.common.datatransfer.FeedbackSessionAttributes;
 import teammates.common.datatransfer.FeedbackSessionQuestionsBundle;
 import teammates.common.datatransfer.StudentAttributes;
-import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
-import teammates.common.exception.InvalidParametersException;
+import teammates.common.exception.TeammatesException;
 import teammates.common.util.Assumption;
 import teammates.common.util.Const;
 import teammates.common.util.HttpRequestHelper;
@@ -65,6 +64,9 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
         String userTeamForCourse = getUserTeamForCourse();
         String userSectionForCourse = getUserSectionForCourse();
         
+        List<FeedbackResponseAttributes> responsesToSave = new ArrayList<FeedbackResponseAttributes>();
+        List<FeedbackResponseAttributes> responsesToDelete = new ArrayList<FeedbackResponseAttributes>();
+        
         int numOfQuestionsToGet = data.bundle.questionResponseBundle.size();
         for (int questionIndx = 1; questionIndx <= numOfQuestionsToGet; questionIndx++) {
             String totalResponsesForQuestion =
@@ -128,7 +130,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
                 
                 if (response.responseMetaData.getValue().isEmpty()) {
                     // deletes the response since answer is empty
-                    saveResponse(response);
+                    addResponseToSave(response, responsesToSave, responsesToDelete);
                 } else {
                     response.giver = questionAttributes.giverType.isTeam() ? userTeamForCourse
                                                                                 : userEmailForCourse;
@@ -148,7 +150,7 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
             if (errors.isEmpty()) {
                 for (FeedbackResponseAttributes response : responsesForQuestion) {
-                    saveResponse(response);
+                    addResponseToSave(response, responsesToSave, responsesToDelete);
                 }
             } else {
                 List<StatusMessage> errorMessages = new ArrayList<StatusMessage>();
@@ -163,6 +165,8 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
             
         }
         
+        saveResponses(responsesToSave, responsesToDelete);
+        
         if (!isError) {
             statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESPONSES_SAVED, StatusMessageColor.SUCCESS));
         }
@@ -211,30 +215,32 @@ public abstract class FeedbackSubmissionEditSaveAction extends Action {
         return existingResponsesId.contains(response.getId());
     }
 
-    private void saveResponse(FeedbackResponseAttributes response)
-            throws EntityDoesNotExistException {
+    private void addResponseToSave(FeedbackResponseAttributes response,
+                                   List<FeedbackResponseAttributes> responsesToSave,
+                                   List<FeedbackResponseAttributes> responsesToDelete) {
         boolean isExistingResponse = response.getId() != null;
-        if (isExistingResponse) {
+        boolean hasEmptyField = response.responseMetaData.getValue().isEmpty() || response.recipient.isEmpty();
+        if (isExistingResponse && hasEmptyField) {
             // Delete away response if any empty fields
-            if (response.responseMetaData.getValue().isEmpty() || response.recipient.isEmpty()) {
-                logic.deleteFeedbackResponse(response);
-                return;
-            }
-            try {
-                logic.updateFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (EntityAlreadyExistsException | InvalidParametersException e) {
-                setStatusForException(e);
-            }
-        } else if (!response.responseMetaData.getValue().isEmpty()
-                   && !response.recipient.isEmpty()) {
-            try {
-                logic.createFeedbackResponse(response);
-                hasValidResponse = true;
-            } catch (InvalidParametersException e) {
-                setStatusForException(e);
-            }
+            responsesToDelete.add(response);
+        } else if (!hasEmptyField) {
+            responsesToSave.add(response);
+        }
+    }
+    
+    /**
+     * Saves all the responses of the submission together, so that the number of datastore
+     * calls does not grow with the number of responses. The responses that cannot be saved
+     * are reported to the user, and the others are saved.
+     */
+    private void saveResponses(List<FeedbackResponseAttributes> responsesToSave,
+                               List<FeedbackResponseAttributes> responsesToDelete)
+            throws EntityDoesNotExistException {
+        List<TeammatesException> errors = logic.saveFeedbackResponses(responsesToSave, responsesToDelete);
+        for (TeammatesException e : errors) {
+            setStatusForException(e);
         }
+        hasValidResponse = responsesToSave.size() > errors.size();
     }
     
     private FeedbackResponseAttributes extractFeedbackResponseData(
@@ -16,7 +16,7 @@ import teammates.ui.controller.InstructorFeedbackResultsPageData.ViewType;
 public class InstructorFeedbackResultsPageAction extends Action {
 
     private static final String ALL_SECTION_OPTION = "All";
-    private static final int DEFAULT_SECTION_QUERY_RANGE = 2500;
+    private static final int RESPONSES_PAGE_SIZE = 2500;
 
     @Override
     protected ActionResult execute() throws EntityDoesNotExistException {
@@ -79,32 +79,41 @@ public class InstructorFeedbackResultsPageAction extends Action {
         
         String questionId = getRequestParamValue(Const.ParamsNames.FEEDBACK_QUESTION_ID);
         String isTestingAjax = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_NEED_AJAX);
+        String cursor = getRequestParamValue(Const.ParamsNames.FEEDBACK_RESULTS_CURSOR);
+        boolean isSectionPageRead = false;
    
         if (ALL_SECTION_OPTION.equals(selectedSection) && questionId == null
                 && !Const.FeedbackSessionResults.QUESTION_SORT_TYPE.equals(sortType)) {
-            // bundle for all questions and all sections
-            data.setBundle(
-                     logic.getFeedbackSessionResultsForInstructorWithinRangeFromView(
-                                                                           feedbackSessionName, courseId,
-                                                                           instructor.email,
-                                                                           DEFAULT_SECTION_QUERY_RANGE, sortType));
+            // load page structure without responses,
+            // the responses of each section are loaded by ajax one page at a time
+            FeedbackSessionResultsBundle bundle =
+                    logic.getFeedbackSessionResultsForInstructorPageFromView(feedbackSessionName, courseId,
+                                                                             instructor.email, null, 1, sortType);
+            bundle.isComplete = true;
+            data.setBundle(bundle);
         } else if (Const.FeedbackSessionResults.QUESTION_SORT_TYPE.equals(sortType)) {
             data.setBundle(getBundleForQuestionView(isTestingAjax, courseId, feedbackSessionName, instructor, data,
                                                     selectedSection, sortType, questionId));
         } else if (Const.FeedbackSessionResults.GQR_SORT_TYPE.equals(sortType)
-                || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(sortType)) {
-            data.setBundle(logic
-                    .getFeedbackSessionResultsForInstructorFromSectionWithinRange(feedbackSessionName, courseId,
-                                                                                  instructor.email,
-                                                                                  selectedSection,
-                                                                                  DEFAULT_SECTION_QUERY_RANGE));
-        } else if (Const.FeedbackSessionResults.RQG_SORT_TYPE.equals(sortType)
+                || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(sortType)
+                || Const.FeedbackSessionResults.RQG_SORT_TYPE.equals(sortType)
                 || Const.FeedbackSessionResults.RGQ_SORT_TYPE.equals(sortType)) {
-            data.setBundle(logic
-                    .getFeedbackSessionResultsForInstructorToSectionWithinRange(feedbackSessionName, courseId,
-                                                                                instructor.email,
-                                                                                selectedSection,
-                                                                                DEFAULT_SECTION_QUERY_RANGE));
+            try {
+                data.setBundle(getBundleForSectionPage(courseId, feedbackSessionName, instructor, selectedSection,
+                                                       sortType, cursor));
+            } catch (IllegalArgumentException e) {
+                if (cursor == null) {
+                    throw e;
+                }
+                // the datastore rejects a cursor that was not given out with a page, e.g. a modified one
+                statusToUser.add(new StatusMessage(Const.StatusMessages.FEEDBACK_RESULTS_INVALID_CURSOR,
+                                                   StatusMessageColor.DANGER));
+                statusToAdmin = "Invalid cursor for the responses of feedback session " + feedbackSessionName
+                              + " in " + courseId + ": " + cursor;
+                isError = true;
+                return createRedirectResult(data.getInstructorFeedbackResultsLink(courseId, feedbackSessionName));
+            }
+            isSectionPageRead = true;
         }
 
         if (data.getBundle() == null) {
@@ -112,6 +121,15 @@ public class InstructorFeedbackResultsPageAction extends Action {
                                                   + " does not exist in " + courseId + ".");
         }
 
+        // the bundles without responses are read with a page size of 1, so their next cursor does not matter
+        boolean isOneOfManyPages = isSectionPageRead
+                                   && (cursor != null || data.getBundle().nextCursor != null);
+        if (isOneOfManyPages) {
+            // statistics and missing responses of a single page would not be correct for the whole section
+            showStats = null;
+            isMissingResponsesShown = false;
+        }
+
         // Warning for section wise viewing in case of many responses.
         boolean isShowSectionWarningForQuestionView = data.isLargeNumberOfRespondents()
                                                    && Const.FeedbackSessionResults.QUESTION_SORT_TYPE.equals(sortType);
@@ -180,10 +198,10 @@ public class InstructorFeedbackResultsPageAction extends Action {
                 
                 // all sections and all questions for question view
                 // set up question tables, responses to load by ajax
-                bundle = logic.getFeedbackSessionResultsForInstructorWithinRangeFromView(
+                bundle = logic.getFeedbackSessionResultsForInstructorPageFromView(
                                                feedbackSessionName, courseId,
                                                instructor.email,
-                                               1, sortType);
+                                               null, 1, sortType);
                 // set isComplete to true to prevent behavior when there are too many responses,
                 // such as the display of warning messages
                 bundle.isComplete = true;
@@ -209,6 +227,20 @@ public class InstructorFeedbackResultsPageAction extends Action {
         return bundle;
     }
 
+    private FeedbackSessionResultsBundle getBundleForSectionPage(
+            String courseId, String feedbackSessionName, InstructorAttributes instructor, String selectedSection,
+            String sortType, String cursor) throws EntityDoesNotExistException {
+        if (Const.FeedbackSessionResults.GQR_SORT_TYPE.equals(sortType)
+                || Const.FeedbackSessionResults.GRQ_SORT_TYPE.equals(sortType)) {
+            return logic.getFeedbackSessionResultsForInstructorFromSectionPage(feedbackSessionName, courseId,
+                                                                               instructor.email, selectedSection,
+                                                                               cursor, RESPONSES_PAGE_SIZE);
+        }
+        return logic.getFeedbackSessionResultsForInstructorToSectionPage(feedbackSessionName, courseId,
+                                                                         instructor.email, selectedSection,
+                                                                         cursor, RESPONSES_PAGE_SIZE);
+    }
+
     private ActionResult createAjaxResultForCsvTableLoadedInHtml(String courseId, String feedbackSessionName,
                                     InstructorAttributes instructor, InstructorFeedbackResultsPageData data,
                                     String selectedSection, String filterText, boolean isMissingResponsesShown,
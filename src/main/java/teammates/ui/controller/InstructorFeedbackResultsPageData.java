@@ -1665,7 +1665,7 @@ public class InstructorFeedbackResultsPageData extends PageData {
     }
 
     // TODO: swap showStats to a normal boolean
-    private boolean isStatsShown() {
+    public boolean isStatsShown() {
         return showStats != null;
     }
 
@@ -0,0 +1,95 @@
+package teammates.ui.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.exception.TeammatesException;
+import teammates.common.util.Const;
+import teammates.common.util.Logger;
+import teammates.common.util.StatusMessage;
+
+/**
+ * A {@link FileDownloadResult} whose content is generated while the response is being sent,
+ * instead of being built up as a single {@code String} beforehand.
+ */
+public class StreamedFileDownloadResult extends FileDownloadResult {
+    
+    /**
+     * Ends a file whose content could not be generated completely,
+     * so that it cannot be mistaken for a complete one.
+     */
+    public static final String INCOMPLETE_FILE_MARKER =
+            "ERROR: this file is incomplete as an error occurred while generating it. Please download it again.";
+    
+    private static final Logger log = Logger.getLogger();
+    
+    /**
+     * Generates the content of a file directly into the response.
+     */
+    public interface FileContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+    
+    private FileContentWriter contentWriter;
+    
+    public StreamedFileDownloadResult(
+            String destination, AccountAttributes account,
+            List<StatusMessage> status,
+            String fileName, FileContentWriter contentWriter) {
+        super(destination, account, status);
+        this.fileName = fileName;
+        this.contentWriter = contentWriter;
+    }
+    
+    /**
+     * The response is committed, and its status can no longer be changed, once the content written
+     * fills up the response buffer. If generating the content fails before that, the response is reset
+     * and the error is handled like that of any other action. If it fails after that, the file is ended
+     * with {@link #INCOMPLETE_FILE_MARKER}.
+     */
+    @Override
+    public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            super.send(req, resp);
+        } catch (RuntimeException | IOException e) {
+            if (!resp.isCommitted()) {
+                resp.reset();
+                throw e;
+            }
+            log.severe("Failed to generate the rest of " + fileName + " after sending part of it:\n"
+                       + TeammatesException.toStringWithStackTrace(e));
+            PrintWriter writer = resp.getWriter();
+            writer.write(Const.EOL + INCOMPLETE_FILE_MARKER + Const.EOL);
+            writer.flush();
+        }
+    }
+    
+    @Override
+    protected void writeFileContent(Writer writer) throws IOException {
+        contentWriter.writeTo(writer);
+    }
+    
+    /**
+     * Generates the whole content of the file in memory.
+     * Meant for inspecting the result only; {@link #send} does not use this.
+     */
+    @Override
+    public String getFileContent() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeFileContent(writer);
+        } catch (IOException e) {
+            // StringWriter does not throw IOException
+            throw new RuntimeException(e);
+        }
+        return writer.toString();
+    }
+    
+}
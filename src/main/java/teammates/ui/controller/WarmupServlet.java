@@ -0,0 +1,21 @@
+package teammates.ui.controller;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import teammates.storage.search.SearchManager;
+
+/**
+ * Handles the warmup requests that App Engine sends to an instance before it is sent any user request.
+ * The servlets that are loaded on startup are initialized before this is called.
+ */
+@SuppressWarnings("serial")
+public class WarmupServlet extends HttpServlet {
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        SearchManager.loadSnapshot();
+    }
+
+}
@@ -342,3 +342,41 @@ function removeSection(id) {
 
     $heading.parent().remove();
 }
+
+/**
+ * Loads the remaining pages of responses of a section one page after another,
+ * appending each page to the section body as it arrives.
+ * $nextPageCursor is the cursor input found in the page loaded before; there is no next page if it is empty.
+ */
+function appendRemainingPagesOfSection(formObject, $sectionBody, $nextPageCursor) {
+    if ($nextPageCursor.length === 0) {
+        return;
+    }
+
+    $.ajax({
+        type: 'POST',
+        cache: false,
+        url: $(formObject[0]).attr('action') + '?' + formObject.serialize() + '&' + $nextPageCursor.serialize(),
+        error: function() {
+            $sectionBody.append('<div class="ajax-error"><span class="glyphicon glyphicon-warning-sign"></span>'
+                                + '<strong style="margin-left: 1em;">'
+                                + 'Failed to load the remaining responses of this section. Please reload the page.'
+                                + '</strong></div>');
+        },
+        success: function(data) {
+            var $page = $(data);
+            var numPanelsLoaded = $sectionBody.find('div.panel').length;
+            var $pageContent = $page.find('#sectionBody-0').children();
+            $sectionBody.append($pageContent);
+
+            $pageContent.find('.profile-pic-icon-hover, .profile-pic-icon-click').children('img').each(function() {
+                bindDefaultImageIfMissing(this);
+            });
+            bindStudentPhotoLink($pageContent.find('.profile-pic-icon-click > .student-profile-pic-view-link'));
+            bindStudentPhotoHoverLink($pageContent.find('.profile-pic-icon-hover'));
+            bindCollapseEvents($pageContent.find('div.panel'), numPanelsLoaded);
+
+            appendRemainingPagesOfSection(formObject, $sectionBody, $page.find('.next-page-cursor'));
+        }
+    });
+}
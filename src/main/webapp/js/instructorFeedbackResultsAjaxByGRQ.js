@@ -68,6 +68,8 @@ $(document).ready(function() {
                 $(panelHeading).click(toggleSingleCollapse);
                 $(panelHeading).trigger('click');
                 showHideStats();
+
+                appendRemainingPagesOfSection(formObject, $sectionBody, $(data).find('.next-page-cursor'));
             }
         });
     };
@@ -45,6 +45,25 @@ public class ActivityLogEntryTest extends BaseTestCase {
         assertEquals("Message", entry.getMessageInfo());
         assertEquals("UserId", entry.getPersonInfo());
         assertEquals("Instructor", entry.getRole());
+        
+        ______TS("Test time taken and request cache counts");
+        
+        assertNull(entry.getTimeTaken());
+        assertNull(entry.getRequestCacheHits());
+        
+        logMessage = "TEAMMATESLOG|||instructorHome|||Pageload|||true|||Instructor|||UserName|||UserId"
+                     + "|||UserEmail|||Message|||URL|||UserId20151019143729608";
+        appLog.setLogMessage(logMessage + "|||250");
+        entry = new ActivityLogEntry(appLog);
+        assertEquals(Long.valueOf(250), entry.getTimeTaken());
+        assertNull(entry.getRequestCacheHits());
+        assertNull(entry.getRequestCacheMisses());
+        
+        appLog.setLogMessage(logMessage + "|||250|||7|||3");
+        entry = new ActivityLogEntry(appLog);
+        assertEquals(Long.valueOf(250), entry.getTimeTaken());
+        assertEquals(Integer.valueOf(7), entry.getRequestCacheHits());
+        assertEquals(Integer.valueOf(3), entry.getRequestCacheMisses());
     }
     
     @Test
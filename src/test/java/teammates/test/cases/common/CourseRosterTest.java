@@ -1,6 +1,8 @@
 package teammates.test.cases.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 import org.testng.annotations.Test;
@@ -8,6 +10,7 @@ import org.testng.annotations.Test;
 import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 
 public class CourseRosterTest extends BaseTestCase {
@@ -73,6 +76,46 @@ public class CourseRosterTest extends BaseTestCase {
         assertEquals(roster.getInstructorForEmail("ins2@email.com").email, "ins2@email.com");
         assertEquals(roster.getInstructorForEmail("ins2@email.com").name, "Jean");
         
+        ______TS("teams and sections");
+        
+        List<StudentAttributes> students = createStudentList("team 1", "s1@gmail.com",
+                                                             "team 1", "s2@gmail.com",
+                                                             "team 2", "s3@gmail.com",
+                                                             "team 3", "s4@gmail.com");
+        students.get(0).section = "section 1";
+        students.get(1).section = "section 1";
+        students.get(2).section = "section 1";
+        students.get(3).section = "section 2";
+        roster = new CourseRoster(students, null);
+        
+        assertEquals(3, roster.getTeamNames().size());
+        assertTrue(roster.getTeamNames().containsAll(Arrays.asList("team 1", "team 2", "team 3")));
+        
+        assertEquals(2, roster.getStudentsForTeam("team 1").size());
+        assertTrue(roster.isStudentsInSameTeam(roster.getStudentsForTeam("team 1").get(0).email,
+                                               roster.getStudentsForTeam("team 1").get(1).email));
+        assertEquals("s3@gmail.com", roster.getStudentsForTeam("team 2").get(0).email);
+        assertTrue(roster.getStudentsForTeam("non-existent team").isEmpty());
+        
+        assertEquals("section 1", roster.getSectionForTeam("team 2"));
+        assertEquals("section 2", roster.getSectionForTeam("team 3"));
+        assertEquals(Const.DEFAULT_SECTION, roster.getSectionForTeam("non-existent team"));
+        
+        assertEquals(new HashSet<String>(Arrays.asList("section 1", "section 2")), roster.getSectionNames());
+        assertEquals(new HashSet<String>(Arrays.asList("team 1", "team 2")),
+                     roster.getTeamNamesForSection("section 1"));
+        assertEquals(new HashSet<String>(Arrays.asList("team 3")), roster.getTeamNamesForSection("section 2"));
+        assertTrue(roster.getTeamNamesForSection("non-existent section").isEmpty());
+        
+        ______TS("indexes are not changed through returned collections");
+        
+        roster.getTeamNames().clear();
+        roster.getStudentsForTeam("team 1").clear();
+        roster.getTeamNamesForSection("section 1").clear();
+        assertEquals(3, roster.getTeamNames().size());
+        assertEquals(2, roster.getStudentsForTeam("team 1").size());
+        assertEquals(2, roster.getTeamNamesForSection("section 1").size());
+        
     }
 
     private List<StudentAttributes> createStudentList(String... studentData) {
@@ -12,6 +12,7 @@ import org.testng.annotations.Test;
 
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackParticipantType;
+import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackTextQuestionDetails;
@@ -199,6 +200,20 @@ public class FeedbackQuestionAttributesTest extends BaseTestCase {
         
         fq = typicalBundle.feedbackQuestions.get("qn2InSession1InCourse1");
         assertEquals(fq.getQuestionDetails().getQuestionText(), "Rate 1 other student's product");
+        
+        ______TS("Question details are parsed once and reused until the metadata changes");
+        
+        FeedbackQuestionDetails firstParse = fq.getQuestionDetails();
+        assertTrue(firstParse == fq.getQuestionDetails());
+        
+        fq.setQuestionDetails(new FeedbackTextQuestionDetails("Updated question"));
+        FeedbackQuestionDetails afterSetter = fq.getQuestionDetails();
+        assertFalse(firstParse == afterSetter);
+        assertEquals("Updated question", afterSetter.getQuestionText());
+        assertTrue(afterSetter == fq.getQuestionDetails());
+        
+        fq.questionMetaData = new Text("Directly assigned question");
+        assertEquals("Directly assigned question", fq.getQuestionDetails().getQuestionText());
     }
 
     @Test
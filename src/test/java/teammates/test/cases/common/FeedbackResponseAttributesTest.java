@@ -4,10 +4,15 @@ import java.util.Date;
 
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.FeedbackContributionResponseDetails;
+import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
+import teammates.common.datatransfer.FeedbackResponseDetails;
 import teammates.common.util.Const;
 import teammates.test.cases.BaseTestCase;
 
+import com.google.appengine.api.datastore.Text;
+
 public class FeedbackResponseAttributesTest extends BaseTestCase {
 
     private static class FeedbackResponseAttributesWithModifiableTimestamp extends FeedbackResponseAttributes {
@@ -41,4 +46,37 @@ public class FeedbackResponseAttributesTest extends BaseTestCase {
         assertEquals(defaultTimeStamp, fra.getUpdatedAt());
     }
     
+    @Test
+    public void testGetResponseDetails() {
+        FeedbackResponseAttributes fra = new FeedbackResponseAttributes();
+        fra.feedbackQuestionType = FeedbackQuestionType.CONTRIB;
+        
+        ______TS("missing response");
+        
+        assertNull(fra.getResponseDetails());
+        
+        ______TS("response details are parsed once and reused");
+        
+        fra.setResponseDetails(new FeedbackContributionResponseDetails(100));
+        FeedbackResponseDetails firstParse = fra.getResponseDetails();
+        assertEquals("100", firstParse.getAnswerString());
+        assertTrue(firstParse == fra.getResponseDetails());
+        
+        ______TS("setting new response details invalidates the parsed details");
+        
+        fra.setResponseDetails(new FeedbackContributionResponseDetails(110));
+        FeedbackResponseDetails afterSetter = fra.getResponseDetails();
+        assertFalse(firstParse == afterSetter);
+        assertEquals("110", afterSetter.getAnswerString());
+        
+        ______TS("assigning new metadata directly invalidates the parsed details");
+        
+        fra.feedbackQuestionType = FeedbackQuestionType.TEXT;
+        fra.responseMetaData = new Text("Text answer");
+        assertEquals("Text answer", fra.getResponseDetails().getAnswerString());
+        
+        fra.responseMetaData = null;
+        assertNull(fra.getResponseDetails());
+    }
+    
 }
@@ -0,0 +1,90 @@
+package teammates.test.cases.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.GroupReceiverListReader;
+import teammates.test.cases.BaseTestCase;
+
+public class GroupReceiverListReaderTest extends BaseTestCase {
+
+    @Test
+    public void testRead() throws IOException {
+
+        ______TS("empty list");
+
+        assertEquals(new ArrayList<String>(), readAll("", 0));
+        assertEquals(new ArrayList<String>(), readAll(" ,\n, ", 0));
+
+        ______TS("addresses are trimmed and blank entries are skipped");
+
+        List<String> expected = Arrays.asList("a@email.tmt", "b@email.tmt", "c@email.tmt");
+        assertEquals(expected, readAll("a@email.tmt,b@email.tmt,c@email.tmt", 0));
+        assertEquals(expected, readAll("a@email.tmt, b@email.tmt,\r\nc@email.tmt,,\n", 0));
+
+        ______TS("no more addresses");
+
+        GroupReceiverListReader reader = createReader("a@email.tmt", 0);
+        assertEquals("a@email.tmt", reader.next());
+        assertFalse(reader.hasNext());
+        try {
+            reader.next();
+            signalFailureToDetectException();
+        } catch (NoSuchElementException e) {
+            ignoreExpectedException();
+        }
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        String list = "a@email.tmt, b@email.tmt,,é@email.tmt,\nd@email.tmt";
+        List<String> expected = Arrays.asList("a@email.tmt", "b@email.tmt", "é@email.tmt", "d@email.tmt");
+
+        ______TS("offset before reading is where the reader started");
+
+        assertEquals(5, createReader(list, 5).getOffset());
+
+        ______TS("reading resumed from the offset after each address carries on with the next address");
+
+        for (int numberOfAddressesRead = 0; numberOfAddressesRead <= expected.size(); numberOfAddressesRead++) {
+            GroupReceiverListReader reader = createReader(list, 0);
+            List<String> addresses = new ArrayList<String>();
+            for (int i = 0; i < numberOfAddressesRead; i++) {
+                addresses.add(reader.next());
+            }
+            // looking ahead does not move the offset past the address not yet returned
+            reader.hasNext();
+            addresses.addAll(readAll(list, reader.getOffset()));
+
+            assertEquals(expected, addresses);
+        }
+    }
+
+    private List<String> readAll(String list, long offset) throws IOException {
+        GroupReceiverListReader reader = createReader(list, offset);
+        List<String> addresses = new ArrayList<String>();
+        while (reader.hasNext()) {
+            addresses.add(reader.next());
+        }
+        reader.close();
+        return addresses;
+    }
+
+    /**
+     * Creates a reader of {@code list} starting from the byte at {@code offset}.
+     */
+    private GroupReceiverListReader createReader(String list, long offset) throws UnsupportedEncodingException {
+        byte[] bytes = list.getBytes(Const.SystemParams.ENCODING);
+        return new GroupReceiverListReader(
+                new ByteArrayInputStream(bytes, (int) offset, bytes.length - (int) offset), offset);
+    }
+
+}
@@ -0,0 +1,53 @@
+package teammates.test.cases.common;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.LatencyHistogram;
+import teammates.test.cases.BaseTestCase;
+
+public class LatencyHistogramTest extends BaseTestCase {
+
+    @Test
+    public void testGetPercentile() {
+
+        ______TS("no latencies recorded");
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMax());
+
+        ______TS("percentiles are the upper bounds of the buckets they fall in");
+
+        // 90 fast requests, 9 slow requests and 1 very slow request
+        for (int i = 0; i < 90; i++) {
+            histogram.record(40);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(1200);
+        }
+        histogram.record(4321);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(50, histogram.getPercentile(90));
+        assertEquals(1500, histogram.getPercentile(95));
+        assertEquals(1500, histogram.getPercentile(99));
+        assertEquals(4321, histogram.getPercentile(100));
+        assertEquals(4321, histogram.getMax());
+
+        ______TS("percentiles are not more than the largest latency recorded");
+
+        histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(12);
+        assertEquals(1, histogram.getPercentile(50));
+        assertEquals(12, histogram.getPercentile(99));
+
+        ______TS("latencies beyond the last bucket");
+
+        histogram.record(90000);
+        assertEquals(90000, histogram.getPercentile(99));
+    }
+
+}
@@ -0,0 +1,97 @@
+package teammates.test.cases.common;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.testng.annotations.Test;
+
+import teammates.common.util.CompiledTemplate;
+import teammates.common.util.Templates;
+import teammates.common.util.Templates.EmailTemplates;
+import teammates.common.util.Templates.FeedbackQuestion.FormTemplates;
+import teammates.test.cases.BaseTestCase;
+
+/**
+ * SUT: {@link Templates}, {@link CompiledTemplate}
+ */
+public class TemplatesTest extends BaseTestCase {
+
+    @Test
+    public void testPopulateTemplate() {
+
+        ______TS("typical case");
+
+        String template = "Hello ${name}, welcome to ${course}. Bye ${name}.";
+        assertEquals("Hello Alice, welcome to CS101. Bye Alice.",
+                     Templates.populateTemplate(template, "${name}", "Alice", "${course}", "CS101"));
+
+        ______TS("placeholders without values are left as they are");
+
+        assertEquals("Hello Alice, welcome to ${course}. Bye Alice.",
+                     Templates.populateTemplate(template, "${name}", "Alice", "${unused}", "value"));
+
+        ______TS("fragments are populated with the pairs after them");
+
+        assertEquals("<div>Join at http://join, or ask ${support}</div>",
+                     Templates.populateTemplate("<div>${fragment}</div>",
+                             "${support}", "support@email.com",
+                             "${fragment}", "Join at ${joinUrl}, or ask ${support}",
+                             "${joinUrl}", "http://join"));
+
+        ______TS("a value is not populated with its own pair");
+
+        assertEquals("${name}", Templates.populateTemplate("${name}", "${name}", "${name}"));
+
+        ______TS("unclosed placeholders are text");
+
+        assertEquals("${name Alice } ${", Templates.populateTemplate("${name ${name} } ${", "${name}", "Alice"));
+
+        ______TS("keys that are not placeholders are replaced as text");
+
+        assertEquals("demo.course@Alice", Templates.populateTemplate("demo.course@demo.name",
+                                                                      "demo.name", "Alice"));
+    }
+
+    @Test
+    public void testPopulateTemplatesInTemplateClasses() throws Exception {
+        List<String> templates = new ArrayList<String>();
+        for (Field field : EmailTemplates.class.getFields()) {
+            templates.add((String) field.get(null));
+        }
+        for (Field field : FormTemplates.class.getFields()) {
+            templates.add((String) field.get(null));
+        }
+
+        Pattern placeholderPattern = Pattern.compile("\\$\\{[^${}]*\\}");
+        for (String template : templates) {
+            Set<String> placeholders = new LinkedHashSet<String>();
+            Matcher matcher = placeholderPattern.matcher(template);
+            while (matcher.find()) {
+                placeholders.add(matcher.group());
+            }
+
+            // the first value contains the second placeholder, to check that fragments are populated
+            List<String> values = new ArrayList<String>();
+            for (String placeholder : placeholders) {
+                values.add(placeholder);
+                values.add(values.size() == 1 && placeholders.size() > 1
+                           ? "<value of " + placeholder + " with " + placeholders.toArray()[1] + ">"
+                           : "<value of " + placeholder + ">");
+            }
+            String[] keyValuePairs = values.toArray(new String[values.size()]);
+
+            String expected = template;
+            for (int i = 0; i < keyValuePairs.length; i += 2) {
+                expected = expected.replace(keyValuePairs[i], keyValuePairs[i + 1]);
+            }
+            assertEquals(expected, Templates.populateTemplate(template, keyValuePairs));
+            assertEquals(expected, CompiledTemplate.compile(template).populate(keyValuePairs));
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.CourseRoster;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.logic.core.CourseRosterCache;
+import teammates.logic.core.InProcessCourseRosterCache;
+import teammates.logic.core.MemcacheCourseRosterCache;
+import teammates.logic.core.NoCourseRosterCache;
+import teammates.storage.api.InstructorsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class CourseRosterCacheTest extends BaseComponentTestCase {
+
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testInProcessCache() throws Exception {
+        verifyCachingAndInvalidation(new InProcessCourseRosterCache());
+
+        ______TS("least recently used roster is evicted when the cache is full");
+
+        CourseRosterCache cache = new InProcessCourseRosterCache();
+        String courseId = dataBundle.courses.get("typicalCourse1").getId();
+        cache.getCourseRoster(courseId);
+        for (int i = 1; i < InProcessCourseRosterCache.MAX_CACHED_ROSTERS; i++) {
+            cache.getCourseRoster("CRCT.tIPC.course" + i);
+        }
+        assertEquals(0, cache.getEvictionCount());
+
+        // looking up the typical course makes it the most recently used
+        cache.getCourseRoster(courseId);
+        cache.getCourseRoster("CRCT.tIPC.overLimit");
+        assertEquals(1, cache.getEvictionCount());
+
+        long missCount = cache.getMissCount();
+        cache.getCourseRoster(courseId);
+        assertEquals(missCount, cache.getMissCount());
+        cache.getCourseRoster("CRCT.tIPC.course1");
+        assertEquals(missCount + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testMemcacheCache() throws Exception {
+        verifyCachingAndInvalidation(new MemcacheCourseRosterCache());
+
+        ______TS("roster larger than the compression threshold is cached gzipped");
+
+        String courseId = "CRCT.tMC.largeCourse";
+        List<StudentAttributes> students = new ArrayList<StudentAttributes>();
+        for (int i = 0; i < 1000; i++) {
+            students.add(new StudentAttributes("Section " + i / 100, "Team " + i / 5, "Student With A Long Name " + i,
+                                               "student" + i + "@gmail.tmt", "", courseId));
+        }
+        StudentsDb studentsDb = new StudentsDb();
+        studentsDb.deleteStudentsForCourse(courseId);
+        studentsDb.createStudentsWithoutSearchability(students);
+
+        CourseRosterCache cache = new MemcacheCourseRosterCache();
+        cache.getCourseRoster(courseId);
+        CourseRoster roster = cache.getCourseRoster(courseId);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(students.size(), roster.getStudents().size());
+        assertEquals("Student With A Long Name 999", roster.getStudentForEmail("student999@gmail.tmt").name);
+
+        studentsDb.deleteStudentsForCourse(courseId);
+    }
+
+    @Test
+    public void testNoCache() throws Exception {
+        CourseRosterCache cache = new NoCourseRosterCache();
+        String courseId = dataBundle.courses.get("typicalCourse1").getId();
+
+        cache.getCourseRoster(courseId);
+        CourseRoster roster = cache.getCourseRoster(courseId);
+
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(new StudentsDb().getStudentsForCourse(courseId).size(), roster.getStudents().size());
+    }
+
+    @Test
+    public void testGetCourseRosters() throws Exception {
+        CourseRosterCache cache = new InProcessCourseRosterCache();
+        List<String> courseIds = new ArrayList<String>();
+        for (CourseAttributes course : dataBundle.courses.values()) {
+            courseIds.add(course.getId());
+        }
+        courseIds.add("CRCT.tGCR.nonExistentCourse");
+
+        ______TS("cached rosters are served from the cache, the others are read from the datastore");
+
+        cache.getCourseRoster(courseIds.get(0));
+        Map<String, CourseRoster> rosters = cache.getCourseRosters(courseIds);
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(courseIds.size(), cache.getMissCount());
+        assertEquals(courseIds.size(), rosters.size());
+        for (String courseId : courseIds) {
+            assertEquals(new StudentsDb().getStudentsForCourse(courseId).size(),
+                         rosters.get(courseId).getStudents().size());
+            assertEquals(new InstructorsDb().getInstructorsForCourse(courseId).size(),
+                         rosters.get(courseId).getInstructors().size());
+        }
+        assertTrue(rosters.get("CRCT.tGCR.nonExistentCourse").getStudents().isEmpty());
+
+        ______TS("rosters read together are cached");
+
+        cache.getCourseRosters(courseIds);
+        assertEquals(1 + courseIds.size(), cache.getHitCount());
+        assertEquals(courseIds.size(), cache.getMissCount());
+
+        ______TS("no courses");
+
+        assertTrue(cache.getCourseRosters(new ArrayList<String>()).isEmpty());
+    }
+
+    private void verifyCachingAndInvalidation(CourseRosterCache cache) throws Exception {
+        StudentAttributes student = dataBundle.students.get("student1InCourse1");
+        String courseId = student.course;
+
+        ______TS("repeated lookup is served from the cache");
+
+        CourseRoster firstRoster = cache.getCourseRoster(courseId);
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        CourseRoster secondRoster = cache.getCourseRoster(courseId);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.001);
+
+        int numberOfStudents = new StudentsDb().getStudentsForCourse(courseId).size();
+        assertEquals(numberOfStudents, secondRoster.getStudents().size());
+        assertEquals(firstRoster.getInstructors().size(), secondRoster.getInstructors().size());
+        assertEquals(student.name, secondRoster.getStudentForEmail(student.email).name);
+        assertEquals(student.team, secondRoster.getStudentForEmail(student.email).team);
+
+        StudentAttributes studentInDb = new StudentsDb().getStudentForEmail(courseId, student.email);
+        assertEquals(studentInDb.getCreatedAt(), secondRoster.getStudentForEmail(student.email).getCreatedAt());
+        assertEquals(studentInDb.getUpdatedAt(), secondRoster.getStudentForEmail(student.email).getUpdatedAt());
+
+        // each lookup still returns its own students
+        secondRoster.getStudentForEmail(student.email).name = "Modified name";
+        assertEquals(student.name, cache.getCourseRoster(courseId).getStudentForEmail(student.email).name);
+        assertEquals(2, cache.getHitCount());
+
+        ______TS("invalidated roster is read from the datastore");
+
+        cache.invalidate(courseId);
+        cache.getCourseRoster(courseId);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        ______TS("roster read just after an invalidation is not cached");
+
+        cache.getCourseRoster(courseId);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+}
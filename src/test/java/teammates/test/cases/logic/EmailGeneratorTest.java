@@ -1,6 +1,7 @@
 package teammates.test.cases.logic;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
@@ -18,8 +19,10 @@ import teammates.common.datatransfer.UserType;
 import teammates.common.util.Config;
 import teammates.common.util.EmailType;
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.Templates;
 import teammates.logic.core.CoursesLogic;
 import teammates.logic.core.EmailGenerator;
+import teammates.logic.core.EmailSender;
 import teammates.logic.core.FeedbackSessionsLogic;
 import teammates.logic.core.InstructorsLogic;
 import teammates.logic.core.StudentsLogic;
@@ -86,6 +89,23 @@ public class EmailGeneratorTest extends BaseComponentTestCase {
         }
         assertTrue(hasStudent1ReceivedEmail && hasInstructor1ReceivedEmail);
         
+        ______TS("feedback session opening emails to students share a template");
+        
+        List<EmailWrapper> studentEmails = new ArrayList<EmailWrapper>();
+        for (EmailWrapper email : emails) {
+            if (!email.getSubstitutions().isEmpty()) {
+                studentEmails.add(email);
+            }
+        }
+        assertEquals(students.size(), studentEmails.size());
+        for (EmailWrapper email : studentEmails) {
+            assertEquals(studentEmails.get(0).getContentTemplate(), email.getContentTemplate());
+            assertEquals(email.getContent(),
+                         Templates.populateTemplate(email.getContentTemplate(), email.getSubstitutions()));
+        }
+        // each instructor email is addressed to the instructor by name, so it is sent in a batch of its own
+        assertEquals(1 + instructors.size(), new EmailSender().getEmailBatches(emails).size());
+        
         ______TS("feedback session reminders");
         
         emails = new EmailGenerator().generateFeedbackSessionReminderEmails(session, students, instructors, instructors);
@@ -1,6 +1,9 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.mail.Message;
 import javax.mail.internet.InternetAddress;
@@ -13,14 +16,17 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import teammates.common.util.EmailWrapper;
+import teammates.common.util.Templates;
 import teammates.logic.core.EmailSender;
 import teammates.logic.core.JavamailService;
 import teammates.logic.core.MailgunService;
 import teammates.logic.core.MailjetService;
 import teammates.logic.core.SendgridService;
 import teammates.test.cases.BaseComponentTestCase;
+import teammates.test.driver.EmailSenderServiceStub;
 
 import com.mailjet.client.MailjetRequest;
+import com.mailjet.client.MailjetResponse;
 import com.mailjet.client.resource.Email;
 import com.sendgrid.SendGrid;
 import com.sun.jersey.multipart.FormDataMultiPart;
@@ -59,11 +65,87 @@ public class EmailSenderTest extends BaseComponentTestCase {
         return wrapper;
     }
     
+    private List<EmailWrapper> getTypicalEmailBatch(int numberOfEmails) {
+        List<EmailWrapper> batch = new ArrayList<EmailWrapper>();
+        for (int i = 0; i < numberOfEmails; i++) {
+            Map<String, String> substitutions = new LinkedHashMap<String, String>();
+            substitutions.put("${userName}", "User " + i);
+            substitutions.put("${url}", "http://url.com/" + i);
+            
+            EmailWrapper wrapper = getTypicalEmailWrapper();
+            wrapper.setBcc(null);
+            wrapper.setRecipient("recipient" + i + "@email.com");
+            wrapper.setContentTemplate("<p>Hello ${userName}, see ${url}</p>");
+            wrapper.setSubstitutions(substitutions);
+            wrapper.setContent(Templates.populateTemplate(wrapper.getContentTemplate(), substitutions));
+            batch.add(wrapper);
+        }
+        return batch;
+    }
+    
     @Test
     public void testNoExceptionThrownWhenNoMessagesToSend() {
         new EmailSender().sendEmails(new ArrayList<EmailWrapper>());
     }
     
+    @Test
+    public void testGetEmailBatches() {
+        EmailSender emailSender = new EmailSender(new EmailSenderServiceStub());
+        
+        ______TS("emails with the same template are batched together");
+        
+        List<EmailWrapper> messages = getTypicalEmailBatch(120);
+        List<List<EmailWrapper>> batches = emailSender.getEmailBatches(messages);
+        assertEquals(3, batches.size());
+        assertEquals(50, batches.get(0).size());
+        assertEquals(50, batches.get(1).size());
+        assertEquals(20, batches.get(2).size());
+        assertEquals(messages.get(50), batches.get(1).get(0));
+        
+        ______TS("emails without a template are batched only with emails of the same content");
+        
+        EmailWrapper otherContent = getTypicalEmailWrapper();
+        otherContent.setContent("<p>Other content</p>");
+        messages.add(getTypicalEmailWrapper());
+        messages.add(otherContent);
+        messages.add(getTypicalEmailWrapper());
+        EmailWrapper otherSubject = getTypicalEmailBatch(1).get(0);
+        otherSubject.setSubject("Other subject");
+        messages.add(otherSubject);
+        
+        batches = emailSender.getEmailBatches(messages);
+        assertEquals(6, batches.size());
+        assertEquals(2, batches.get(3).size());
+        assertEquals(1, batches.get(4).size());
+        assertEquals(otherContent, batches.get(4).get(0));
+        assertEquals(otherSubject, batches.get(5).get(0));
+    }
+    
+    @Test
+    public void testSendEmailBatch() {
+        EmailSenderServiceStub service = new EmailSenderServiceStub();
+        EmailSender emailSender = new EmailSender(service);
+        
+        ______TS("each batch is sent with one call to the service");
+        
+        List<EmailWrapper> messages = getTypicalEmailBatch(120);
+        for (List<EmailWrapper> batch : emailSender.getEmailBatches(messages)) {
+            assertTrue(emailSender.sendEmailBatch(batch).isEmpty());
+        }
+        assertEquals(3, service.getNumberOfCalls());
+        assertEquals(messages, service.getSentEmails());
+        assertEquals("<p>Hello User 119, see http://url.com/119</p>", service.getSentEmails().get(119).getContent());
+        
+        ______TS("emails that fail to send are returned");
+        
+        service.failEmailsTo("recipient2@email.com");
+        List<EmailWrapper> failedMessages = emailSender.sendEmailBatch(getTypicalEmailBatch(5));
+        assertEquals(4, service.getNumberOfCalls());
+        assertEquals(1, failedMessages.size());
+        assertEquals("recipient2@email.com", failedMessages.get(0).getRecipient());
+        assertEquals(124, service.getSentEmails().size());
+    }
+    
     @Test
     public void testConvertToMimeMessage() throws Exception {
         EmailWrapper wrapper = getTypicalEmailWrapper();
@@ -91,6 +173,27 @@ public class EmailSenderTest extends BaseComponentTestCase {
         assertEquals(wrapper.getContent(), email.getHtml());
     }
     
+    @Test
+    public void testConvertBatchToSendgrid() throws Exception {
+        List<EmailWrapper> batch = getTypicalEmailBatch(3);
+        EmailWrapper wrapper = batch.get(0);
+        SendGrid.Email email = new SendgridService().parseToEmail(batch);
+        
+        assertEquals(wrapper.getSenderEmail(), email.getFrom());
+        assertEquals(wrapper.getSenderName(), email.getFromName());
+        assertEquals(wrapper.getReplyTo(), email.getReplyTo());
+        assertEquals(wrapper.getSubject(), email.getSubject());
+        assertEquals(wrapper.getContentTemplate(), email.getHtml());
+        
+        String[] recipients = email.getSMTPAPI().getTos();
+        assertEquals(3, recipients.length);
+        assertEquals(batch.get(2).getRecipient(), recipients[2]);
+        JSONArray userNames = email.getSubstitutions().getJSONArray("${userName}");
+        assertEquals(3, userNames.length());
+        assertEquals("User 2", userNames.getString(2));
+        assertEquals("http://url.com/1", email.getSubstitutions().getJSONArray("${url}").getString(1));
+    }
+    
     @Test
     public void testConvertToMailgun() {
         EmailWrapper wrapper = getTypicalEmailWrapper();
@@ -123,6 +226,81 @@ public class EmailSenderTest extends BaseComponentTestCase {
         assertEquals(wrapper.getContent(), email.get(Email.HTMLPART));
     }
     
+    @Test
+    public void testConvertBatchToMailjet() {
+        List<EmailWrapper> batch = getTypicalEmailBatch(3);
+        MailjetRequest request = new MailjetService().parseToEmail(batch);
+        JSONArray messages = new JSONObject(request.getBody()).getJSONArray(Email.MESSAGES);
+        
+        assertEquals(3, messages.length());
+        for (int i = 0; i < batch.size(); i++) {
+            JSONObject email = messages.getJSONObject(i);
+            assertEquals(batch.get(i).getSenderEmail(), email.get(Email.FROMEMAIL));
+            assertEquals(batch.get(i).getRecipient(),
+                         ((JSONArray) email.get(Email.RECIPIENTS)).getJSONObject(0).get("Email"));
+            assertEquals(batch.get(i).getSubject(), email.get(Email.SUBJECT));
+            assertEquals(batch.get(i).getContent(), email.get(Email.HTMLPART));
+        }
+    }
+    
+    @Test
+    public void testSendBatchWithSendgrid() {
+        List<EmailWrapper> batch = getTypicalEmailBatch(3);
+        
+        ______TS("success: no emails are returned as failed");
+        
+        assertTrue(new SendgridServiceStub(200).sendEmails(batch).isEmpty());
+        
+        ______TS("failure status: every email of the batch is returned as failed");
+        
+        assertEquals(batch, new SendgridServiceStub(500).sendEmails(batch));
+    }
+    
+    @Test
+    public void testSendBatchWithMailjet() {
+        List<EmailWrapper> batch = getTypicalEmailBatch(3);
+        
+        ______TS("success: no emails are returned as failed");
+        
+        assertTrue(new MailjetServiceStub(200).sendEmails(batch).isEmpty());
+        
+        ______TS("failure status: every email of the batch is returned as failed");
+        
+        assertEquals(batch, new MailjetServiceStub(500).sendEmails(batch));
+    }
+    
+    /**
+     * Answers every call to SendGrid with {@code status} instead of making the call.
+     */
+    private static class SendgridServiceStub extends SendgridService {
+        private final int status;
+        
+        SendgridServiceStub(int status) {
+            this.status = status;
+        }
+        
+        @Override
+        protected SendGrid.Response send(SendGrid.Email email) {
+            return new SendGrid.Response(status, "status " + status);
+        }
+    }
+    
+    /**
+     * Answers every call to Mailjet with {@code status} instead of making the call.
+     */
+    private static class MailjetServiceStub extends MailjetService {
+        private final int status;
+        
+        MailjetServiceStub(int status) {
+            this.status = status;
+        }
+        
+        @Override
+        protected MailjetResponse post(MailjetRequest email) {
+            return new MailjetResponse(status, new JSONObject().put("Data", new JSONArray()));
+        }
+    }
+    
     @AfterClass
     public static void classTearDown() {
         printTestClassFooter();
@@ -9,11 +9,13 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.CourseRoster;
 import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackParticipantType;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackQuestionDetails;
 import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
 import teammates.common.util.Const;
@@ -21,6 +23,8 @@ import teammates.common.util.FieldValidator;
 import teammates.logic.core.AccountsLogic;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
+import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.StudentsLogic;
 import teammates.test.cases.BaseComponentTestCase;
 
 import com.google.appengine.api.datastore.Text;
@@ -119,6 +123,29 @@ public class FeedbackQuestionsLogicTest extends BaseComponentTestCase {
         recipients = fqLogic.getRecipientsForQuestion(question, email);
         assertEquals(recipients.get(email), Const.USER_NAME_FOR_SELF);
         assertEquals(recipients.size(), 1);
+        
+        ______TS("recipients from a given roster agree with those read from the datastore");
+        
+        CourseRoster roster = new CourseRoster(
+                StudentsLogic.inst().getStudentsForCourse("idOfTypicalCourse1"),
+                InstructorsLogic.inst().getInstructorsForCourse("idOfTypicalCourse1"));
+        String[] questionsInCourse1 = {"qn2InSession1InCourse1", "team.members.feedback", "team.feedback",
+                                       "graceperiod.session.feedbackFromTeamToSelf", "qn3InSession1InCourse1"};
+        for (String questionKey : questionsInCourse1) {
+            question = getQuestionFromDatastore(questionKey);
+            for (StudentAttributes student : roster.getStudents()) {
+                assertEquals(fqLogic.getRecipientsForQuestion(question, student.email),
+                             fqLogic.getRecipientsForQuestion(question, student.email, roster));
+            }
+        }
+        
+        ______TS("recipients from a given roster do not include those outside it");
+        
+        question = getQuestionFromDatastore("team.feedback");
+        email = typicalBundle.students.get("student1InCourse1").email;
+        roster = new CourseRoster(null, null);
+        recipients = fqLogic.getRecipientsForQuestion(question, email, roster);
+        assertTrue(recipients.isEmpty());
 
     }
     
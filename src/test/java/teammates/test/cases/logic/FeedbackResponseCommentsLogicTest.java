@@ -11,13 +11,18 @@ import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackQuestionAttributes;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.FeedbackResponseCommentSearchResultBundle;
+import teammates.common.datatransfer.InstructorAttributes;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.util.Const.SystemParams;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
 import teammates.test.cases.BaseComponentTestCase;
 import com.google.appengine.api.datastore.Text;
+import com.google.appengine.api.taskqueue.dev.LocalTaskQueue;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
 
 public class FeedbackResponseCommentsLogicTest extends BaseComponentTestCase {
 
@@ -305,6 +310,44 @@ public class FeedbackResponseCommentsLogicTest extends BaseComponentTestCase {
         assertEquals(0, frcList.size());
     }
     
+    @Test
+    public void testSearchFeedbackResponseComments() throws Exception {
+        List<InstructorAttributes> instructors = new ArrayList<InstructorAttributes>();
+        instructors.add(dataBundle.instructors.get("instructor1OfCourse1"));
+        
+        FeedbackResponseCommentAttributes frComment = new FeedbackResponseCommentAttributes();
+        restoreFrCommentFromDataBundle(frComment, "comment1FromT1C1ToR1Q1S1C1");
+        FeedbackResponseCommentAttributes anotherFrComment = new FeedbackResponseCommentAttributes();
+        restoreFrCommentFromDataBundle(anotherFrComment, "comment1FromT1C1ToR1Q2S1C1");
+        frcLogic.putDocument(frcLogic.getFeedbackResponseComment(frComment.getId()));
+        frcLogic.putDocument(frcLogic.getFeedbackResponseComment(anotherFrComment.getId()));
+        
+        ______TS("typical success case");
+        
+        FeedbackResponseCommentSearchResultBundle results =
+                frcLogic.searchFeedbackResponseComments("\"self feedback\"", instructors, "");
+        assertEquals(2, results.getResultSize());
+        assertEquals(0, getNumberOfTasksInSearchDocumentQueue());
+        
+        ______TS("hits of comments that no longer exist are left out and their documents scheduled for removal");
+        
+        frcLogic.deleteFeedbackResponseComment(anotherFrComment);
+        
+        results = frcLogic.searchFeedbackResponseComments("\"self feedback\"", instructors, "");
+        assertEquals(1, results.getResultSize());
+        List<FeedbackResponseCommentAttributes> commentsFound = results.comments.values().iterator().next();
+        assertEquals(frComment.getId(), commentsFound.get(0).getId());
+        assertEquals(1, getNumberOfTasksInSearchDocumentQueue());
+        
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(SystemParams.SEARCH_DOCUMENT_TASK_QUEUE);
+        frcLogic.deleteDocument(frComment);
+    }
+    
+    private int getNumberOfTasksInSearchDocumentQueue() {
+        LocalTaskQueue localTaskQueue = LocalTaskQueueTestConfig.getLocalTaskQueue();
+        return localTaskQueue.getQueueStateInfo().get(SystemParams.SEARCH_DOCUMENT_TASK_QUEUE).getCountTasks();
+    }
+    
     private void verifyExceptionThrownFromCreateFrComment(
             FeedbackResponseCommentAttributes frComment, String expectedMessage)
             throws InvalidParametersException {
@@ -1,6 +1,8 @@
 package teammates.test.cases.logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import org.testng.annotations.AfterClass;
@@ -23,6 +25,7 @@ import teammates.common.datatransfer.UserRole;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
 import teammates.common.exception.InvalidParametersException;
+import teammates.common.exception.TeammatesException;
 import teammates.logic.core.FeedbackQuestionsLogic;
 import teammates.logic.core.FeedbackResponseCommentsLogic;
 import teammates.logic.core.FeedbackResponsesLogic;
@@ -64,6 +67,7 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         testDeleteFeedbackResponsesForStudent();
         testSpecialCharactersInTeamName();
         testDeleteFeedbackResponsesForCourse();
+        testSaveFeedbackResponses();
     }
 
     public void testSpecialCharactersInTeamName() {
@@ -219,6 +223,121 @@ public class FeedbackResponsesLogicTest extends BaseComponentTestCase {
         }
     }
     
+    public void testSaveFeedbackResponses() throws Exception {
+        removeAndRestoreTypicalDataInDatastore();
+        
+        ______TS("success: create, update, recreate and delete together");
+        
+        FeedbackResponseAttributes responseToUpdate = getResponseFromDatastore("response2ForQ2S1C1");
+        responseToUpdate.responseMetaData = new Text("Updated in batch");
+        
+        FeedbackResponseAttributes responseToRecreate = getResponseFromDatastore("response1ForQ2S1C1");
+        List<FeedbackResponseCommentAttributes> commentsOfRecreatedResponse =
+                frcLogic.getFeedbackResponseCommentForResponse(responseToRecreate.getId());
+        assertEquals(1, commentsOfRecreatedResponse.size());
+        responseToRecreate.recipient = "student5InCourse1@gmail.tmt";
+        
+        FeedbackResponseAttributes responseToCreate = new FeedbackResponseAttributes(responseToUpdate);
+        responseToCreate.setId(null);
+        responseToCreate.recipient = "student3InCourse1@gmail.tmt";
+        responseToCreate.responseMetaData = new Text("Created in batch");
+        
+        FeedbackResponseAttributes responseToDelete = getResponseFromDatastore("response1ForQ1S1C1");
+        assertEquals(1, frcLogic.getFeedbackResponseCommentForResponse(responseToDelete.getId()).size());
+        
+        // a response without id for an existing giver and recipient updates the existing response
+        FeedbackResponseAttributes existingResponseWithoutId = getResponseFromDatastore("response2ForQ1S1C1");
+        Date createdAt = existingResponseWithoutId.getCreatedAt();
+        existingResponseWithoutId.setId(null);
+        existingResponseWithoutId.responseMetaData = new Text("Updated without id");
+        
+        frLogic.saveFeedbackResponses(
+                Arrays.asList(responseToUpdate, responseToRecreate, responseToCreate, existingResponseWithoutId),
+                Arrays.asList(responseToDelete));
+        
+        assertEquals("Updated in batch", getResponseFromDatastore("response2ForQ2S1C1").responseMetaData.getValue());
+        assertEquals("Created in batch",
+                     frLogic.getFeedbackResponse(responseToCreate.feedbackQuestionId, responseToCreate.giver,
+                                                 responseToCreate.recipient).responseMetaData.getValue());
+        
+        FeedbackResponseAttributes recreatedResponse =
+                frLogic.getFeedbackResponse(responseToRecreate.feedbackQuestionId, responseToRecreate.giver,
+                                            responseToRecreate.recipient);
+        assertNotNull(recreatedResponse);
+        assertNull(getResponseFromDatastore("response1ForQ2S1C1"));
+        assertTrue(frcLogic.getFeedbackResponseCommentForResponse(responseToRecreate.getId()).isEmpty());
+        assertEquals(commentsOfRecreatedResponse.get(0).getId(),
+                     frcLogic.getFeedbackResponseCommentForResponse(recreatedResponse.getId()).get(0).getId());
+        
+        assertNull(getResponseFromDatastore("response1ForQ1S1C1"));
+        assertTrue(frcLogic.getFeedbackResponseCommentForResponse(responseToDelete.getId()).isEmpty());
+        
+        FeedbackResponseAttributes updatedResponseWithoutId = getResponseFromDatastore("response2ForQ1S1C1");
+        assertEquals("Updated without id", updatedResponseWithoutId.responseMetaData.getValue());
+        assertEquals(createdAt, updatedResponseWithoutId.getCreatedAt());
+        
+        ______TS("comments of more responses than one query can filter on are deleted");
+        
+        List<String> responseIds = new ArrayList<String>();
+        for (int i = 0; i < 40; i++) {
+            responseIds.add("nonExistentResponse" + i);
+        }
+        // the last id is beyond the first 30, which are filtered on in the first query
+        responseIds.add(recreatedResponse.getId());
+        frcLogic.deleteFeedbackResponseCommentsForResponses(responseIds);
+        assertTrue(frcLogic.getFeedbackResponseCommentForResponse(recreatedResponse.getId()).isEmpty());
+        
+        ______TS("failure: a response recreated onto an existing response is reported and not saved");
+        
+        responseToUpdate = getResponseFromDatastore("response3ForQ2S1C1");
+        responseToUpdate.responseMetaData = new Text("Saved with a response that is not");
+        responseToRecreate = getResponseFromDatastore("response2ForQ2S1C1");
+        responseToRecreate.recipient = responseToCreate.recipient;
+        
+        List<TeammatesException> errors =
+                frLogic.saveFeedbackResponses(Arrays.asList(responseToUpdate, responseToRecreate),
+                                              new ArrayList<FeedbackResponseAttributes>());
+        
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof EntityAlreadyExistsException);
+        AssertHelper.assertContains("Trying to update a feedback response to one that already exists",
+                                    errors.get(0).getMessage());
+        assertEquals("Saved with a response that is not",
+                     getResponseFromDatastore("response3ForQ2S1C1").responseMetaData.getValue());
+        assertNotNull(getResponseFromDatastore("response2ForQ2S1C1"));
+        
+        ______TS("failure: an invalid response is reported and not saved");
+        
+        responseToUpdate.responseMetaData = new Text("Saved with an invalid response");
+        FeedbackResponseAttributes invalidResponse = new FeedbackResponseAttributes(responseToCreate);
+        invalidResponse.courseId = "invalid course id";
+        invalidResponse.recipient = "student4InCourse1@gmail.tmt";
+        
+        errors = frLogic.saveFeedbackResponses(Arrays.asList(responseToUpdate, invalidResponse),
+                                               new ArrayList<FeedbackResponseAttributes>());
+        
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0) instanceof InvalidParametersException);
+        AssertHelper.assertContains("invalid course id", errors.get(0).getMessage());
+        assertEquals("Saved with an invalid response",
+                     getResponseFromDatastore("response3ForQ2S1C1").responseMetaData.getValue());
+        assertNull(frLogic.getFeedbackResponse(invalidResponse.feedbackQuestionId, invalidResponse.giver,
+                                               invalidResponse.recipient));
+        
+        ______TS("failure: no such response");
+        
+        responseToUpdate.setId("invalidId");
+        
+        try {
+            frLogic.saveFeedbackResponses(Arrays.asList(responseToUpdate),
+                                          new ArrayList<FeedbackResponseAttributes>());
+            signalFailureToDetectException("Should have detected that this response does not exist");
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains("Trying to update a feedback response that does not exist.",
+                                        e.getMessage());
+        }
+    }
+    
     public void testUpdateFeedbackResponsesForChangingTeam() throws Exception {
         
         ______TS("standard update team case");
@@ -0,0 +1,99 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.logic.core.FeedbackSessionCompletionStatus;
+import teammates.logic.core.FeedbackSessionsLogic;
+import teammates.logic.core.InstructorsLogic;
+import teammates.logic.core.StudentsLogic;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class FeedbackSessionCompletionStatusTest extends BaseComponentTestCase {
+
+    private static final FeedbackSessionsLogic fsLogic = FeedbackSessionsLogic.inst();
+    private static final InstructorsLogic instructorsLogic = InstructorsLogic.inst();
+    private static final StudentsLogic studentsLogic = StudentsLogic.inst();
+
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testCompletionStatusAgreesWithCheckingEachUser() throws Exception {
+        for (FeedbackSessionAttributes sessionInBundle : dataBundle.feedbackSessions.values()) {
+            FeedbackSessionAttributes session = fsLogic.getFeedbackSession(
+                    sessionInBundle.getFeedbackSessionName(), sessionInBundle.getCourseId());
+            FeedbackSessionCompletionStatus status = fsLogic.getFeedbackSessionCompletionStatus(session);
+            String sessionName = session.getFeedbackSessionName();
+            String courseId = session.getCourseId();
+
+            for (StudentAttributes student : studentsLogic.getStudentsForCourse(courseId)) {
+                String message = sessionName + "/" + student.email;
+                assertEquals(message,
+                             fsLogic.isFeedbackSessionFullyCompletedByStudent(sessionName, courseId, student.email),
+                             status.isFullyCompletedByStudent(student.email));
+                assertEquals(message,
+                             fsLogic.isFeedbackSessionCompletedByStudent(session, student.email),
+                             status.isCompletedByStudent(student.email));
+            }
+
+            for (InstructorAttributes instructor : instructorsLogic.getInstructorsForCourse(courseId)) {
+                assertEquals(sessionName + "/" + instructor.email,
+                             fsLogic.isFeedbackSessionCompletedByInstructor(sessionName, courseId, instructor.email),
+                             status.isCompletedByInstructor(instructor.email));
+            }
+        }
+    }
+
+    @Test
+    public void testGetParticipantsYetToComplete() throws Exception {
+        FeedbackSessionAttributes session = dataBundle.feedbackSessions.get("session1InCourse1");
+        session = fsLogic.getFeedbackSession(session.getFeedbackSessionName(), session.getCourseId());
+        FeedbackSessionCompletionStatus status = fsLogic.getFeedbackSessionCompletionStatus(session);
+
+        ______TS("students yet to fully complete");
+
+        // only students who answered all student questions fully are left out
+        List<String> expected = new ArrayList<String>();
+        for (StudentAttributes student : status.getStudents()) {
+            if (!fsLogic.isFeedbackSessionFullyCompletedByStudent(session.getFeedbackSessionName(),
+                                                                  session.getCourseId(), student.email)) {
+                expected.add(student.email);
+            }
+        }
+        assertEquals(expected.toString(), getEmails(status.getStudentsYetToFullyComplete()).toString());
+        assertTrue(status.getStudentsYetToFullyComplete().size() < status.getStudents().size());
+
+        ______TS("students and instructors yet to submit");
+
+        for (StudentAttributes student : status.getStudentsYetToComplete()) {
+            assertFalse(session.getRespondingStudentList().contains(student.email));
+        }
+        for (InstructorAttributes instructor : status.getInstructorsYetToComplete()) {
+            assertFalse(session.getRespondingInstructorList().contains(instructor.email));
+        }
+        assertEquals(status.getStudents().size() - session.getRespondingStudentList().size(),
+                     status.getStudentsYetToComplete().size());
+    }
+
+    private static List<String> getEmails(List<StudentAttributes> students) {
+        List<String> emails = new ArrayList<String>();
+        for (StudentAttributes student : students) {
+            emails.add(student.email);
+        }
+        return emails;
+    }
+
+}
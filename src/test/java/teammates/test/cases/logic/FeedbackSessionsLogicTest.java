@@ -1,5 +1,6 @@
 package teammates.test.cases.logic;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -78,6 +79,7 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         testGetFeedbackSessionQuestionsForInstructor();
         testGetFeedbackSessionResultsForUser();
         testGetFeedbackSessionResultsSummaryAsCsv();
+        testWriteFeedbackSessionResultsSummaryAsCsv();
         testIsFeedbackSessionViewableToStudents();
         
         testCreateAndDeleteFeedbackSession();
@@ -435,7 +437,14 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         assertEquals(1, stats.expectedTotal);
         // For private sessions, we mark as completed only when creator has finished all questions.
         assertEquals(0, stats.submittedTotal);
-        
+
+        ______TS("details of a single session match details of all sessions in the course");
+        for (FeedbackSessionDetailsBundle details : detailsList) {
+            FeedbackSessionStats singleSessionStats = fsLogic.getFeedbackSessionDetails(details.feedbackSession).stats;
+            assertEquals(details.stats.expectedTotal, singleSessionStats.expectedTotal);
+            assertEquals(details.stats.submittedTotal, singleSessionStats.submittedTotal);
+        }
+
         ______TS("change private session to non-private");
         FeedbackSessionAttributes privateSession =
                 newDataBundle.feedbackSessions.get("private.session");
@@ -1784,6 +1793,48 @@ public class FeedbackSessionsLogicTest extends BaseComponentTestCase {
         }
     }
     
+    public void testWriteFeedbackSessionResultsSummaryAsCsv() throws Exception {
+
+        ______TS("typical case: same content as the in-memory export");
+        
+        FeedbackSessionAttributes session = dataBundle.feedbackSessions.get("session1InCourse1");
+        InstructorAttributes instructor = dataBundle.instructors.get("instructor1OfCourse1");
+        
+        StringWriter writer = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                null, null, true, true, writer);
+        
+        assertEquals(fsLogic.getFeedbackSessionResultsSummaryAsCsv(
+                             session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                             null, true, true),
+                     writer.toString());
+        
+        ______TS("within section, with filter text");
+        
+        writer = new StringWriter();
+        fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                "Section 1", "my comments", true, true, writer);
+        
+        assertEquals(fsLogic.getFeedbackSessionResultsSummaryInSectionAsCsv(
+                             session.getFeedbackSessionName(), session.getCourseId(), instructor.email,
+                             "Section 1", "my comments", true, true),
+                     writer.toString());
+        
+        ______TS("Non-existent Course/Session");
+        
+        try {
+            fsLogic.writeFeedbackSessionResultsSummaryInSectionAsCsv(
+                    "non.existent", "no course", instructor.email, null, null, true, true, new StringWriter());
+            signalFailureToDetectException("Failed to detect non-existent feedback session.");
+        } catch (EntityDoesNotExistException e) {
+            assertEquals("Trying to view a non-existent feedback session: "
+                         + "no course" + "/" + "non.existent",
+                         e.getMessage());
+        }
+    }
+    
     private String getStudentAnonEmail(DataBundle dataBundle, String studentKey) {
         return FeedbackSessionResultsBundle.getAnonEmail(FeedbackParticipantType.STUDENTS,
                                                          dataBundle.students.get(studentKey).name);
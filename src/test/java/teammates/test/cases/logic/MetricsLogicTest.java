@@ -0,0 +1,211 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.jdo.Query;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.ActionMetricsBundle;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackResponsesPage;
+import teammates.common.datatransfer.FeedbackSessionAttributes;
+import teammates.common.datatransfer.MetricsSnapshotBundle;
+import teammates.common.util.Const;
+import teammates.common.util.EmailWrapper;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.RequestMetrics;
+import teammates.common.util.TimeHelper;
+import teammates.logic.core.EmailSender;
+import teammates.logic.core.MetricsLogic;
+import teammates.storage.api.AccountsDb;
+import teammates.storage.api.FeedbackResponsesDb;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.MetricsRecordingPersistenceManager;
+import teammates.storage.entity.CourseStudent;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.taskqueue.dev.LocalTaskQueue;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
+
+public class MetricsLogicTest extends BaseComponentTestCase {
+
+    private static final MetricsLogic metricsLogic = MetricsLogic.inst();
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        RequestMetrics.stopRecording();
+    }
+
+    @Test
+    public void testRequestMetrics() {
+        String courseId = dataBundle.courses.get("typicalCourse1").getId();
+        AccountAttributes account = dataBundle.accounts.get("instructor1OfCourse1");
+
+        ______TS("work done while a request is processed is counted");
+
+        RequestMetrics.startRecording();
+        int numberOfStudents = new StudentsDb().getStudentsForCourse(courseId).size();
+        new AccountsDb().getAccount(account.googleId);
+        JsonUtils.fromJson("[]", List.class);
+        new EmailSender().sendEmails(createEmails(3));
+        RequestMetrics metrics = RequestMetrics.stopRecording();
+
+        assertEquals(1, metrics.getQueryCount());
+        assertEquals(numberOfStudents + 1, metrics.getEntitiesReadCount());
+        assertEquals(1, metrics.getJsonParseCount());
+        assertEquals(3, metrics.getEmailsEnqueuedCount());
+
+        ______TS("work done by threads started by the request is counted");
+
+        RequestMetrics.startRecording();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                JsonUtils.fromJson("[]", List.class);
+            }
+        });
+        thread.start();
+        joinQuietly(thread);
+        assertEquals(1, RequestMetrics.stopRecording().getJsonParseCount());
+
+        ______TS("entities of a query result are counted as they are read");
+
+        RequestMetrics.startRecording();
+        Query q = MetricsRecordingPersistenceManager.wrap(Datastore.getPersistenceManager())
+                                                    .newQuery(CourseStudent.class);
+        q.declareParameters("String courseIdParam");
+        q.setFilter("courseId == courseIdParam");
+        List<?> students = (List<?>) q.execute(courseId);
+        students.iterator().next();
+        assertEquals(1, RequestMetrics.getCurrent().getEntitiesReadCount());
+        students.get(1);
+        assertEquals(2, RequestMetrics.getCurrent().getEntitiesReadCount());
+        assertEquals(numberOfStudents, students.size());
+        assertEquals(numberOfStudents, RequestMetrics.stopRecording().getEntitiesReadCount());
+
+        ______TS("a page of query results still has a cursor while the query is counted");
+
+        FeedbackSessionAttributes session = dataBundle.feedbackSessions.get("session1InCourse1");
+        RequestMetrics.startRecording();
+        FeedbackResponsesPage page = new FeedbackResponsesDb().getFeedbackResponsesForSessionPage(
+                session.getFeedbackSessionName(), session.getCourseId(), null, 1);
+        RequestMetrics.stopRecording();
+        assertNotNull(page.nextCursor);
+
+        ______TS("nothing is counted outside of a request");
+
+        new StudentsDb().getStudentsForCourse(courseId);
+        assertNull(RequestMetrics.getCurrent());
+    }
+
+    @Test
+    public void testSnapshots() {
+        Date testStartTime = new Date();
+        // starts with no metrics recorded in this instance
+        metricsLogic.scheduleSnapshot();
+
+        ______TS("requests are recorded for each type of action");
+
+        RequestMetrics.startRecording();
+        RequestMetrics.recordQuery();
+        RequestMetrics.recordEntitiesRead(10);
+        RequestMetrics metrics = RequestMetrics.stopRecording();
+        metricsLogic.recordRequest("MLT.SlowAction", 800, MetricsLogic.OUTCOME_SUCCESS, metrics);
+        metricsLogic.recordRequest("MLT.SlowAction", 1200, "DeadlineExceededException", metrics);
+        metricsLogic.recordRequest("MLT.FastAction", 20, MetricsLogic.OUTCOME_SUCCESS, null);
+
+        MetricsSnapshotBundle currentSnapshot = metricsLogic.getCurrentSnapshot();
+        assertEquals(2, currentSnapshot.actionMetrics.size());
+        ActionMetricsBundle fastAction = currentSnapshot.actionMetrics.get(0);
+        assertEquals("MLT.FastAction", fastAction.actionName);
+        assertEquals(1, fastAction.requestCount);
+        assertEquals(20, fastAction.latencyP99);
+        assertEquals(0, fastAction.queriesTotal);
+        assertEquals(0, fastAction.getFailedRequestCount());
+
+        ActionMetricsBundle slowAction = currentSnapshot.actionMetrics.get(1);
+        assertEquals("MLT.SlowAction", slowAction.actionName);
+        assertEquals(2, slowAction.requestCount);
+        assertEquals(1000, slowAction.latencyP50);
+        assertEquals(1200, slowAction.latencyP95);
+        assertEquals(1200, slowAction.latencyMax);
+        assertEquals(2, slowAction.queriesTotal);
+        assertEquals(20, slowAction.entitiesReadTotal);
+        assertEquals(10.0, slowAction.getEntitiesReadPerRequest(), 0.001);
+        assertEquals(1, slowAction.getFailedRequestCount());
+        assertEquals(Long.valueOf(1), slowAction.failureCounts.get("DeadlineExceededException"));
+
+        ______TS("snapshot is saved by a task and the instance starts collecting metrics afresh");
+
+        int numberOfTasks = getNumberOfTasksInSnapshotQueue();
+        MetricsSnapshotBundle scheduledSnapshot = metricsLogic.scheduleSnapshot();
+        assertEquals(numberOfTasks + 1, getNumberOfTasksInSnapshotQueue());
+        assertTrue(metricsLogic.getCurrentSnapshot().actionMetrics.isEmpty());
+        assertEquals(currentSnapshot.startTime, scheduledSnapshot.startTime);
+
+        // as the task does
+        metricsLogic.saveSnapshot(scheduledSnapshot);
+
+        List<MetricsSnapshotBundle> savedSnapshots = metricsLogic.getSnapshotsEndingFrom(testStartTime);
+        MetricsSnapshotBundle savedSnapshot = savedSnapshots.get(0);
+        assertEquals(currentSnapshot.instanceId, savedSnapshot.instanceId);
+        assertEquals(currentSnapshot.startTime, savedSnapshot.startTime);
+        assertEquals(JsonUtils.toJson(currentSnapshot.actionMetrics), JsonUtils.toJson(savedSnapshot.actionMetrics));
+
+        ______TS("snapshots past their retention period are deleted");
+
+        Date expiredEndTime = TimeHelper.getDateOffsetToCurrentTime(-MetricsLogic.SNAPSHOT_RETENTION_DAYS - 1);
+        metricsLogic.saveSnapshot(new MetricsSnapshotBundle("MLT.expiredInstance", expiredEndTime, expiredEndTime,
+                                                            new ArrayList<ActionMetricsBundle>()));
+        Date retentionStart = TimeHelper.getDateOffsetToCurrentTime(-MetricsLogic.SNAPSHOT_RETENTION_DAYS - 2);
+        int numberOfSnapshots = metricsLogic.getSnapshotsEndingFrom(retentionStart).size();
+
+        metricsLogic.deleteExpiredSnapshots();
+
+        savedSnapshots = metricsLogic.getSnapshotsEndingFrom(retentionStart);
+        assertEquals(numberOfSnapshots - 1, savedSnapshots.size());
+        assertEquals(currentSnapshot.instanceId, savedSnapshots.get(0).instanceId);
+    }
+
+    private int getNumberOfTasksInSnapshotQueue() {
+        LocalTaskQueue localTaskQueue = LocalTaskQueueTestConfig.getLocalTaskQueue();
+        return localTaskQueue.getQueueStateInfo().get(Const.SystemParams.METRICS_SNAPSHOT_TASK_QUEUE).getCountTasks();
+    }
+
+    private List<EmailWrapper> createEmails(int numberOfEmails) {
+        List<EmailWrapper> emails = new ArrayList<EmailWrapper>();
+        for (int i = 0; i < numberOfEmails; i++) {
+            EmailWrapper email = new EmailWrapper();
+            email.setSenderEmail("sender@email.tmt");
+            email.setReplyTo("replyto@email.tmt");
+            email.setSubject("Subject");
+            email.setContent("Content");
+            email.setRecipient("recipient" + i + "@email.tmt");
+            emails.add(email);
+        }
+        return emails;
+    }
+
+    private void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package teammates.test.cases.logic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.common.util.Const.ParamsNames;
+import teammates.common.util.Const.SystemParams;
+import teammates.common.util.TaskWrapper;
+import teammates.logic.core.TaskQueuesLogic;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.taskqueue.dev.LocalTaskQueue;
+import com.google.appengine.tools.development.testing.LocalTaskQueueTestConfig;
+import com.google.apphosting.api.ApiProxy;
+
+/**
+ * SUT: {@link TaskQueuesLogic}
+ */
+public class TaskQueuesLogicTest extends BaseComponentTestCase {
+
+    private static final TaskQueuesLogic taskQueuesLogic = TaskQueuesLogic.inst();
+    private static final String QUEUE_NAME = SystemParams.SEND_EMAIL_TASK_QUEUE;
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        LocalTaskQueueTestConfig.getLocalTaskQueue().flushQueue(QUEUE_NAME);
+    }
+
+    @Test
+    public void testCreateAndAddTasks() {
+
+        ______TS("tasks are added with one call for every batch of the maximum size");
+
+        AddCallCountingDelegate delegate = AddCallCountingDelegate.install();
+        try {
+            taskQueuesLogic.createAndAddTasks(QUEUE_NAME, createTasks(2 * TaskQueuesLogic.MAX_TASKS_PER_ADD + 50));
+        } finally {
+            delegate.uninstall();
+        }
+        assertEquals(3, delegate.addCallCount);
+        assertEquals(2 * TaskQueuesLogic.MAX_TASKS_PER_ADD + 50, getNumberOfTasksInQueue());
+
+        ______TS("tasks added in separate calls do not clash");
+
+        taskQueuesLogic.createAndAddTasks(QUEUE_NAME, createTasks(1));
+        assertEquals(2 * TaskQueuesLogic.MAX_TASKS_PER_ADD + 51, getNumberOfTasksInQueue());
+
+        ______TS("no tasks to add");
+
+        taskQueuesLogic.createAndAddTasks(QUEUE_NAME, new ArrayList<TaskWrapper>());
+        assertEquals(2 * TaskQueuesLogic.MAX_TASKS_PER_ADD + 51, getNumberOfTasksInQueue());
+    }
+
+    private List<TaskWrapper> createTasks(int numberOfTasks) {
+        List<TaskWrapper> tasks = new ArrayList<TaskWrapper>();
+        for (int i = 0; i < numberOfTasks; i++) {
+            Map<String, String> paramMap = new HashMap<String, String>();
+            paramMap.put(ParamsNames.EMAIL_RECEIVERS, "recipient" + i + "@email.tmt");
+            tasks.add(new TaskWrapper(Const.ActionURIs.SEND_EMAIL_WORKER, paramMap, i * 1000L));
+        }
+        return tasks;
+    }
+
+    private int getNumberOfTasksInQueue() {
+        LocalTaskQueue localTaskQueue = LocalTaskQueueTestConfig.getLocalTaskQueue();
+        return localTaskQueue.getQueueStateInfo().get(QUEUE_NAME).getCountTasks();
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+    /**
+     * Counts the calls made to the task queue service to add tasks, and passes all calls on
+     * to the delegate it replaces.
+     */
+    private static final class AddCallCountingDelegate implements ApiProxy.Delegate<ApiProxy.Environment> {
+
+        int addCallCount;
+        private final ApiProxy.Delegate<ApiProxy.Environment> delegate;
+
+        private AddCallCountingDelegate(ApiProxy.Delegate<ApiProxy.Environment> delegate) {
+            this.delegate = delegate;
+        }
+
+        @SuppressWarnings("unchecked")
+        static AddCallCountingDelegate install() {
+            AddCallCountingDelegate countingDelegate =
+                    new AddCallCountingDelegate((ApiProxy.Delegate<ApiProxy.Environment>) ApiProxy.getDelegate());
+            ApiProxy.setDelegate(countingDelegate);
+            return countingDelegate;
+        }
+
+        void uninstall() {
+            ApiProxy.setDelegate(delegate);
+        }
+
+        private void count(String packageName, String methodName) {
+            if ("taskqueue".equals(packageName) && "BulkAdd".equals(methodName)) {
+                addCallCount++;
+            }
+        }
+
+        @Override
+        public byte[] makeSyncCall(ApiProxy.Environment environment, String packageName, String methodName,
+                                   byte[] request) {
+            count(packageName, methodName);
+            return delegate.makeSyncCall(environment, packageName, methodName, request);
+        }
+
+        @Override
+        public Future<byte[]> makeAsyncCall(ApiProxy.Environment environment, String packageName, String methodName,
+                                            byte[] request, ApiProxy.ApiConfig apiConfig) {
+            count(packageName, methodName);
+            return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+        }
+
+        @Override
+        public void log(ApiProxy.Environment environment, ApiProxy.LogRecord record) {
+            delegate.log(environment, record);
+        }
+
+        @Override
+        public void flushLogs(ApiProxy.Environment environment) {
+            delegate.flushLogs(environment);
+        }
+
+        @Override
+        public List<Thread> getRequestThreads(ApiProxy.Environment environment) {
+            return delegate.getRequestThreads(environment);
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+package teammates.test.cases.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.InstructorAttributes;
+import teammates.common.datatransfer.InstructorPrivileges;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.common.util.Const;
+import teammates.common.util.JsonUtils;
+import teammates.common.util.Sanitizer;
+import teammates.storage.search.EmbeddedSearchBackend;
+import teammates.storage.search.SearchDocumentContext;
+import teammates.storage.search.StudentSearchDocument;
+import teammates.storage.search.StudentSearchQuery;
+import teammates.test.cases.BaseTestCase;
+
+import com.google.appengine.api.search.Cursor;
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+import com.google.appengine.api.search.Query;
+import com.google.appengine.api.search.Results;
+import com.google.appengine.api.search.ScoredDocument;
+import com.google.appengine.api.search.SearchQueryException;
+
+/**
+ * SUT: {@link EmbeddedSearchBackend}
+ */
+public class EmbeddedSearchBackendTest extends BaseTestCase {
+
+    private static final String INDEX_NAME = Const.SearchIndex.STUDENT;
+
+    private static final CourseAttributes course1 = new CourseAttributes("ESB.course-1", "Software Engineering", "UTC");
+    private static final CourseAttributes course2 = new CourseAttributes("ESB.course-2", "Data Structures", "UTC");
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testTokenize() {
+
+        ______TS("words are split at spaces, punctuation and the separators of searchable text");
+
+        assertEquals(Arrays.asList("esb", "course-1", "software", "engineering", "alice", "tan@gmail", "tmt"),
+                     EmbeddedSearchBackend.tokenize("ESB.course-1,Software Engineering,alice.TAN@gmail.tmt"));
+        assertEquals(new ArrayList<String>(), EmbeddedSearchBackend.tokenize(" ,.!? "));
+
+        ______TS("text is split the same way whether it is sanitized for search or not");
+
+        String text = "Team <1> & [Team 2]: Tom's `notes`; 50% done? a/b=c";
+        assertEquals(EmbeddedSearchBackend.tokenize(text),
+                     EmbeddedSearchBackend.tokenize(Sanitizer.sanitizeForSearch(text)));
+    }
+
+    @Test
+    public void testSearch() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        backend.putDocuments(INDEX_NAME, Arrays.asList(
+                createStudentDocument(course1, "alice.tan@gmail.tmt", "Alice Tan", "Team A"),
+                createStudentDocument(course1, "bob.lee@gmail.tmt", "Bobby Lee", "Team B"),
+                createStudentDocument(course2, "alice.wong@gmail.tmt", "Alice Wong", "Team A")));
+        String role = Const.InstructorPermissionRoleNames.INSTRUCTOR_PERMISSION_ROLE_COOWNER;
+        List<InstructorAttributes> instructorsOfCourse1 = Arrays.asList(
+                new InstructorAttributes("idOfInstructor", course1.getId(), "Instructor", "instructor@gmail.tmt",
+                                         role, InstructorAttributes.DEFAULT_DISPLAY_NAME, new InstructorPrivileges(role)));
+
+        ______TS("words are matched in any case, in the courses of the instructors only");
+
+        assertEquals(Arrays.asList("alice.tan@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery(instructorsOfCourse1, "ALICE", ""))));
+        assertEquals(Arrays.asList("alice.wong@gmail.tmt", "alice.tan@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery("alice", ""))));
+
+        ______TS("any of the words or quoted phrases is matched");
+
+        assertEquals(Arrays.asList("bob.lee@gmail.tmt", "alice.tan@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery(instructorsOfCourse1, "tan lee", ""))));
+        assertEquals(Arrays.asList("alice.wong@gmail.tmt", "alice.tan@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery("\"team a\"", ""))));
+        assertEquals(new ArrayList<String>(),
+                     getStudentEmails(search(backend, new StudentSearchQuery("\"a team\"", ""))));
+
+        ______TS("emails are matched whole");
+
+        assertEquals(Arrays.asList("bob.lee@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery("bob.lee@gmail.tmt", ""))));
+        assertEquals(new ArrayList<String>(),
+                     getStudentEmails(search(backend, new StudentSearchQuery("lee.bob@gmail.tmt", ""))));
+
+        ______TS("updated documents are matched by their new words only");
+
+        backend.putDocument(INDEX_NAME, createStudentDocument(course1, "bob.lee@gmail.tmt", "Robert Lee", "Team B"));
+        assertEquals(new ArrayList<String>(),
+                     getStudentEmails(search(backend, new StudentSearchQuery("bobby", ""))));
+        assertEquals(Arrays.asList("bob.lee@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery("robert", ""))));
+        assertEquals(3, backend.getIndexSize(INDEX_NAME));
+
+        ______TS("deleted documents are not matched");
+
+        backend.deleteDocument(INDEX_NAME, "key-alice.tan@gmail.tmt");
+        assertNull(backend.getDocument(INDEX_NAME, "key-alice.tan@gmail.tmt"));
+        assertEquals(Arrays.asList("alice.wong@gmail.tmt"),
+                     getStudentEmails(search(backend, new StudentSearchQuery("alice", ""))));
+
+        ______TS("documents are read back with all their fields");
+
+        Document document = backend.getDocument(INDEX_NAME, "key-alice.wong@gmail.tmt");
+        assertEquals(course2.getId(), document.getOnlyField(Const.SearchDocumentField.COURSE_ID).getText());
+        assertEquals("Alice Wong", getStudent(document).name);
+    }
+
+    @Test
+    public void testSearchWithOperators() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        backend.putDocuments(INDEX_NAME, Arrays.asList(
+                createDocument("1", "course-1", "instructor1@gmail.tmt", "false", "great work"),
+                createDocument("2", "course-1", "instructor2@gmail.tmt", "true", "good work"),
+                createDocument("3", "course-1", "instructor2@gmail.tmt", "false", "great effort"),
+                createDocument("4", "course-2", "instructor1@gmail.tmt", "true", "great work")));
+
+        ______TS("restrictions to fields, AND, OR, NOT and parentheses");
+
+        assertEquals(Arrays.asList("2", "1"), getDocumentIds(search(backend,
+                "courseId:(course-1) AND (giverEmail:(instructor1@gmail.tmt) OR isVisibleToInstructor:true)")));
+        assertEquals(Arrays.asList("4", "3", "1"), getDocumentIds(search(backend, "searchableText:great")));
+        assertEquals(Arrays.asList("3"), getDocumentIds(search(backend, "searchableText:great NOT work")));
+        assertEquals(Arrays.asList("4", "2", "1"), getDocumentIds(search(backend, "work")));
+        assertEquals(Arrays.asList("2", "1"), getDocumentIds(search(backend, "work courseId:course-1")));
+        assertEquals(Arrays.asList("4", "3", "2", "1"), getDocumentIds(search(backend, "")));
+
+        ______TS("comparisons are not supported");
+
+        try {
+            search(backend, "createdDate >= 2016-01-01");
+            signalFailureToDetectException();
+        } catch (SearchQueryException e) {
+            ignoreExpectedException();
+        }
+    }
+
+    @Test
+    public void testPaging() {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        List<Document> documents = new ArrayList<Document>();
+        for (int i = 0; i < 25; i++) {
+            documents.add(createStudentDocument(course1, "student" + i + "@gmail.tmt", "Student " + i, "Team 1"));
+        }
+        backend.putDocuments(INDEX_NAME, documents);
+
+        ______TS("a page of 20 documents, latest first, with a cursor to the next page");
+
+        Results<ScoredDocument> results = search(backend, new StudentSearchQuery("team", ""));
+        assertEquals(25, results.getNumberFound());
+        assertEquals(20, results.getNumberReturned());
+        assertEquals("student24@gmail.tmt", getStudentEmails(results).get(0));
+        assertEquals("student5@gmail.tmt", getStudentEmails(results).get(19));
+        Cursor cursor = results.getCursor();
+        assertNotNull(cursor);
+
+        ______TS("the last page has no cursor");
+
+        results = search(backend, new StudentSearchQuery("team", cursor.toWebSafeString()));
+        assertEquals(Arrays.asList("student4@gmail.tmt", "student3@gmail.tmt", "student2@gmail.tmt",
+                                   "student1@gmail.tmt", "student0@gmail.tmt"),
+                     getStudentEmails(results));
+        assertNull(results.getCursor());
+    }
+
+    @Test
+    public void testSnapshot() throws IOException {
+        EmbeddedSearchBackend backend = new EmbeddedSearchBackend();
+        backend.putDocuments(INDEX_NAME, Arrays.asList(
+                createStudentDocument(course1, "alice.tan@gmail.tmt", "Alice Tan", "Team A"),
+                createStudentDocument(course1, "bob.lee@gmail.tmt", "Bobby Lee", "Team B"),
+                createStudentDocument(course2, "alice.wong@gmail.tmt", "Alice Wong", "Team A")));
+        backend.deleteDocument(INDEX_NAME, "key-bob.lee@gmail.tmt");
+        File snapshotFile = File.createTempFile("searchIndexSnapshot", ".bin");
+        assertTrue(snapshotFile.delete());
+
+        try {
+            ______TS("no snapshot to load");
+
+            EmbeddedSearchBackend restoredBackend = new EmbeddedSearchBackend();
+            assertFalse(restoredBackend.loadSnapshot(snapshotFile.getPath()));
+
+            ______TS("the documents in the snapshot are found in the same order");
+
+            backend.saveSnapshot(snapshotFile.getPath());
+            assertTrue(restoredBackend.loadSnapshot(snapshotFile.getPath()));
+            assertEquals(2, restoredBackend.getIndexSize(INDEX_NAME));
+            assertEquals(Arrays.asList("alice.wong@gmail.tmt", "alice.tan@gmail.tmt"),
+                         getStudentEmails(search(restoredBackend, new StudentSearchQuery("alice", ""))));
+
+            ______TS("a snapshot replaces the snapshot saved before");
+
+            backend.deleteDocument(INDEX_NAME, "key-alice.tan@gmail.tmt");
+            backend.saveSnapshot(snapshotFile.getPath());
+            restoredBackend = new EmbeddedSearchBackend();
+            assertTrue(restoredBackend.loadSnapshot(snapshotFile.getPath()));
+            assertEquals(Arrays.asList("alice.wong@gmail.tmt"),
+                         getStudentEmails(search(restoredBackend, new StudentSearchQuery("alice", ""))));
+        } finally {
+            snapshotFile.delete();
+        }
+    }
+
+    private static Document createStudentDocument(CourseAttributes course, String email, String name, String team) {
+        StudentAttributes student = new StudentAttributes("Section 1", team, name, email, "", course.getId());
+        student.key = "key-" + email;
+        SearchDocumentContext context = new SearchDocumentContext();
+        context.addCourse(course);
+        return new StudentSearchDocument(student, context).build();
+    }
+
+    private static Document createDocument(String id, String courseId, String giverEmail, String isVisibleToInstructor,
+                                           String searchableText) {
+        return Document.newBuilder()
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.COURSE_ID).setText(courseId))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.GIVER_EMAIL).setText(giverEmail))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.IS_VISIBLE_TO_INSTRUCTOR)
+                                            .setText(isVisibleToInstructor))
+                .addField(Field.newBuilder().setName(Const.SearchDocumentField.SEARCHABLE_TEXT).setText(searchableText))
+                .setId(id)
+                .build();
+    }
+
+    private static Results<ScoredDocument> search(EmbeddedSearchBackend backend, StudentSearchQuery query) {
+        return backend.searchDocuments(INDEX_NAME, query.toQuery());
+    }
+
+    private static Results<ScoredDocument> search(EmbeddedSearchBackend backend, String queryString) {
+        return backend.searchDocuments(INDEX_NAME, Query.newBuilder().build(queryString));
+    }
+
+    private static List<String> getStudentEmails(Results<ScoredDocument> results) {
+        List<String> emails = new ArrayList<String>();
+        for (ScoredDocument document : results) {
+            emails.add(getStudent(document).email);
+        }
+        return emails;
+    }
+
+    private static StudentAttributes getStudent(Document document) {
+        return JsonUtils.fromJson(document.getOnlyField(Const.SearchDocumentField.STUDENT_ATTRIBUTE).getText(),
+                                  StudentAttributes.class);
+    }
+
+    private static List<String> getDocumentIds(Results<ScoredDocument> results) {
+        List<String> ids = new ArrayList<String>();
+        for (ScoredDocument document : results) {
+            ids.add(document.getId());
+        }
+        return ids;
+    }
+
+    @AfterClass
+    public static void classTearDown() {
+        printTestClassFooter();
+    }
+
+}
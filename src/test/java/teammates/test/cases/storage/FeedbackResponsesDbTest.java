@@ -1,6 +1,7 @@
 package teammates.test.cases.storage;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,6 +14,7 @@ import teammates.common.datatransfer.DataBundle;
 import teammates.common.datatransfer.FeedbackQuestionType;
 import teammates.common.datatransfer.FeedbackResponseAttributes;
 import teammates.common.datatransfer.FeedbackResponseDetails;
+import teammates.common.datatransfer.FeedbackResponsesPage;
 import teammates.common.datatransfer.FeedbackTextResponseDetails;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -582,29 +584,59 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
     }
 
     @Test
-    public void testGetFeedbackResponsesForSessionWithinRange() {
-
-        ______TS("standard success case");
+    public void testGetFeedbackResponsesForSessionPage() {
+        
+        ______TS("responses are read one page at a time");
         
         String courseId = fras.get("response1ForQ1S1C1").courseId;
         String feedbackSessionName = fras.get("response1ForQ1S1C1").feedbackSessionName;
         
-        List<FeedbackResponseAttributes> responses =
-                frDb.getFeedbackResponsesForSessionWithinRange(feedbackSessionName, courseId, 1);
+        FeedbackResponsesPage firstPage =
+                frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, null, 4);
+        assertEquals(4, firstPage.responses.size());
+        assertFalse(firstPage.isLastPage());
+        
+        FeedbackResponsesPage secondPage =
+                frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, firstPage.nextCursor, 4);
+        assertEquals(2, secondPage.responses.size());
+        assertTrue(secondPage.isLastPage());
+        
+        Set<String> responseIds = new HashSet<String>();
+        for (FeedbackResponseAttributes response : firstPage.responses) {
+            responseIds.add(response.getId());
+        }
+        for (FeedbackResponseAttributes response : secondPage.responses) {
+            responseIds.add(response.getId());
+        }
+        assertEquals(6, responseIds.size());
+        
+        ______TS("page that holds all remaining responses is the last page");
         
-        assertEquals(responses.size(), 2);
+        assertTrue(frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, courseId, null, 6).isLastPage());
+        
+        ______TS("responses from a section are ordered by giver across pages");
+        
+        firstPage = frDb.getFeedbackResponsesForSessionFromSectionPage(
+                feedbackSessionName, courseId, "Section 1", null, 2);
+        secondPage = frDb.getFeedbackResponsesForSessionFromSectionPage(
+                feedbackSessionName, courseId, "Section 1", firstPage.nextCursor, 10);
+        assertEquals(frDb.getFeedbackResponsesForSessionFromSection(feedbackSessionName, courseId, "Section 1").size(),
+                     firstPage.responses.size() + secondPage.responses.size());
+        String lastGiverOfFirstPage = firstPage.responses.get(firstPage.responses.size() - 1).giver;
+        assertTrue(lastGiverOfFirstPage.compareTo(secondPage.responses.get(0).giver) <= 0);
+        assertTrue(secondPage.isLastPage());
         
         ______TS("null params");
         
         try {
-            frDb.getFeedbackResponsesForSessionWithinRange(null, courseId, 5);
+            frDb.getFeedbackResponsesForSessionPage(null, courseId, null, 5);
             signalFailureToDetectException();
         } catch (AssertionError e) {
             AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
         }
         
         try {
-            frDb.getFeedbackResponsesForSessionWithinRange(feedbackSessionName, null, 4);
+            frDb.getFeedbackResponsesForSessionPage(feedbackSessionName, null, null, 4);
             signalFailureToDetectException();
         } catch (AssertionError e) {
             AssertHelper.assertContains(Const.StatusCodes.DBLEVEL_NULL_INPUT, e.getLocalizedMessage());
@@ -612,13 +644,13 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
         
         ______TS("non-existent feedback session");
         
-        assertTrue(frDb.getFeedbackResponsesForSessionWithinRange(
-                "non-existent feedback session", courseId, 1).isEmpty());
+        assertTrue(frDb.getFeedbackResponsesForSessionPage(
+                "non-existent feedback session", courseId, null, 1).responses.isEmpty());
         
         ______TS("non-existent course");
         
-        assertTrue(frDb.getFeedbackResponsesForSessionWithinRange(
-                feedbackSessionName, "non-existent courseId", 1).isEmpty());
+        assertTrue(frDb.getFeedbackResponsesForSessionPage(
+                feedbackSessionName, "non-existent courseId", null, 1).responses.isEmpty());
     }
 
     @Test
@@ -635,9 +667,20 @@ public class FeedbackResponsesDbTest extends BaseComponentTestCase {
                 frDb.getFeedbackResponsesForSessionInSection(feedbackSessionName, courseId, "Section 1");
         
         assertEquals(5, responses.size());
-        
+
+        ______TS("responses given or received in the section are each returned once");
+
+        int numberOfResponsesInSection = 0;
+        for (FeedbackResponseAttributes response
+                : frDb.getFeedbackResponsesForSession(feedbackSessionName, courseId)) {
+            if ("Section 1".equals(response.giverSection) || "Section 1".equals(response.recipientSection)) {
+                numberOfResponsesInSection++;
+            }
+        }
+        assertEquals(numberOfResponsesInSection, responses.size());
+
         ______TS("null params");
-        
+
         try {
             frDb.getFeedbackResponsesForSessionInSection(null, courseId, "Section 1");
             signalFailureToDetectException();
@@ -4,10 +4,19 @@ import static teammates.common.util.FieldValidator.SESSION_END_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.SESSION_START_TIME_FIELD_NAME;
 import static teammates.common.util.FieldValidator.TIME_FRAME_ERROR_MESSAGE;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -26,6 +35,7 @@ import teammates.test.cases.BaseComponentTestCase;
 import teammates.test.driver.AssertHelper;
 
 import com.google.appengine.api.datastore.Text;
+import com.google.apphosting.api.ApiProxy;
 
 public class FeedbackSessionsDbTest extends BaseComponentTestCase {
     
@@ -233,6 +243,86 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
         
     }
     
+    @Test
+    public void testGetAllOpenFeedbackSessions() throws Exception {
+        Date windowStart = getUtcDate(2030, Calendar.JANUARY, 10, 0);
+        Date windowEnd = getUtcDate(2030, Calendar.JANUARY, 11, 0);
+
+        FeedbackSessionAttributes startingInWindow = createOpenSessionsTestSession("starting in window",
+                getUtcDate(2030, Calendar.JANUARY, 10, 10), getUtcDate(2030, Calendar.JANUARY, 10, 20), 0);
+        FeedbackSessionAttributes endingInWindow = createOpenSessionsTestSession("ending in window",
+                getUtcDate(2030, Calendar.JANUARY, 1, 0), getUtcDate(2030, Calendar.JANUARY, 11, 0), 0);
+        FeedbackSessionAttributes spanningWindow = createOpenSessionsTestSession("spanning window",
+                getUtcDate(2030, Calendar.JANUARY, 1, 0), getUtcDate(2030, Calendar.JANUARY, 30, 0), 0);
+        FeedbackSessionAttributes startingLater = createOpenSessionsTestSession("starting later",
+                getUtcDate(2030, Calendar.JANUARY, 11, 1), getUtcDate(2030, Calendar.JANUARY, 20, 0), 0);
+        FeedbackSessionAttributes startingInWindowInOtherZone = createOpenSessionsTestSession("other zone",
+                getUtcDate(2030, Calendar.JANUARY, 11, 6), getUtcDate(2030, Calendar.JANUARY, 20, 0), 8);
+
+        ______TS("sessions starting or ending in the window are found once");
+
+        assertEquals(getSessionNames(startingInWindow, endingInWindow, startingInWindowInOtherZone),
+                     getSessionNames(fsDb.getAllOpenFeedbackSessions(windowStart, windowEnd, 0)));
+
+        ______TS("window in another time zone");
+
+        assertEquals(getSessionNames(startingInWindow),
+                     getSessionNames(fsDb.getAllOpenFeedbackSessions(windowStart, windowEnd, 8)));
+
+        ______TS("sessions moved into the window are found");
+
+        startingLater.setSessionVisibleFromTime(getUtcDate(2030, Calendar.JANUARY, 10, 23));
+        startingLater.setStartTime(getUtcDate(2030, Calendar.JANUARY, 10, 23));
+        fsDb.updateFeedbackSession(startingLater);
+        assertEquals(getSessionNames(startingInWindow, endingInWindow, startingLater, startingInWindowInOtherZone),
+                     getSessionNames(fsDb.getAllOpenFeedbackSessions(windowStart, windowEnd, 0)));
+
+        ______TS("no sessions in the window");
+
+        assertTrue(fsDb.getAllOpenFeedbackSessions(getUtcDate(2031, Calendar.JANUARY, 1, 0),
+                                                   getUtcDate(2031, Calendar.JANUARY, 2, 0), 0).isEmpty());
+
+        for (FeedbackSessionAttributes session : new FeedbackSessionAttributes[] {
+                startingInWindow, endingInWindow, spanningWindow, startingLater, startingInWindowInOtherZone }) {
+            fsDb.deleteEntity(session);
+        }
+    }
+
+    private FeedbackSessionAttributes createOpenSessionsTestSession(String name, Date startTime, Date endTime,
+                                                                    double timeZone) throws Exception {
+        FeedbackSessionAttributes session = getNewFeedbackSession();
+        session.setFeedbackSessionName("fsTest open " + name);
+        session.setCreatedTime(startTime);
+        session.setSessionVisibleFromTime(startTime);
+        session.setResultsVisibleFromTime(endTime);
+        session.setStartTime(startTime);
+        session.setEndTime(endTime);
+        session.setTimeZone(timeZone);
+        fsDb.deleteEntity(session);
+        fsDb.createEntity(session);
+        return session;
+    }
+
+    private Date getUtcDate(int year, int month, int day, int hour) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month, day, hour, 0);
+        return calendar.getTime();
+    }
+
+    private Set<String> getSessionNames(FeedbackSessionAttributes... sessions) {
+        return getSessionNames(Arrays.asList(sessions));
+    }
+
+    private Set<String> getSessionNames(List<FeedbackSessionAttributes> sessions) {
+        Set<String> sessionNames = new HashSet<String>();
+        for (FeedbackSessionAttributes session : sessions) {
+            // sessions are returned only once
+            assertTrue(sessionNames.add(session.getFeedbackSessionName()));
+        }
+        return sessionNames;
+    }
+
     @Test
     public void testUpdateFeedbackSession() throws Exception {
         
@@ -282,6 +372,163 @@ public class FeedbackSessionsDbTest extends BaseComponentTestCase {
         verifyPresentInDatastore(modifiedSession);
     }
     
+    @Test
+    public void testRespondents() throws Exception {
+        FeedbackSessionAttributes session = getNewFeedbackSession();
+        session.setFeedbackSessionName("fsTest respondents");
+        fsDb.deleteEntity(session);
+        fsDb.createEntity(session);
+        
+        ______TS("add, update and delete respondents");
+        
+        fsDb.addStudentRespondent("student1@email.com", session);
+        fsDb.addStudentRespondent("student2@email.com", session);
+        fsDb.addInstructorRespondent("instructor1@email.com", session);
+        fsDb.updateStudentRespondent("student2@email.com", "student3@email.com", session);
+        fsDb.updateStudentRespondent("notRespondent@email.com", "student4@email.com", session);
+        
+        FeedbackSessionAttributes actual = getRespondentsOf(session);
+        assertEquals("[student1@email.com, student3@email.com]", getSorted(actual.getRespondingStudentList()));
+        assertEquals("[instructor1@email.com]", getSorted(actual.getRespondingInstructorList()));
+        
+        fsDb.deleteStudentRespondent("student1@email.com", session);
+        fsDb.deleteInstructorRespondent("instructor1@email.com", session);
+        actual = getRespondentsOf(session);
+        assertEquals("[student3@email.com]", getSorted(actual.getRespondingStudentList()));
+        assertTrue(actual.getRespondingInstructorList().isEmpty());
+        
+        ______TS("respondents are also returned with the sessions of the course");
+        
+        for (FeedbackSessionAttributes sessionInCourse : fsDb.getFeedbackSessionsForCourse(session.getCourseId())) {
+            if (sessionInCourse.getFeedbackSessionName().equals(session.getFeedbackSessionName())) {
+                assertEquals("[student3@email.com]", getSorted(sessionInCourse.getRespondingStudentList()));
+            }
+        }
+        
+        ______TS("respondents are also returned with the open sessions");
+        
+        Date dayBeforeStart = new Date(session.getStartTime().getTime() - 24 * 60 * 60 * 1000L);
+        Date dayAfterStart = new Date(session.getStartTime().getTime() + 24 * 60 * 60 * 1000L);
+        boolean isOpenSessionFound = false;
+        for (FeedbackSessionAttributes openSession
+                : fsDb.getAllOpenFeedbackSessions(dayBeforeStart, dayAfterStart, session.getTimeZone())) {
+            if (openSession.getIdentificationString().equals(session.getIdentificationString())) {
+                assertEquals("[student3@email.com]", getSorted(openSession.getRespondingStudentList()));
+                isOpenSessionFound = true;
+            }
+        }
+        assertTrue(isOpenSessionFound);
+        
+        ______TS("clear respondents");
+        
+        fsDb.addInstructorRespondent("instructor1@email.com", session);
+        fsDb.clearStudentRespondents(session);
+        actual = getRespondentsOf(session);
+        assertTrue(actual.getRespondingStudentList().isEmpty());
+        assertEquals("[instructor1@email.com]", getSorted(actual.getRespondingInstructorList()));
+        
+        ______TS("session does not exist");
+        
+        FeedbackSessionAttributes nonExistentSession = getNewFeedbackSession();
+        nonExistentSession.setFeedbackSessionName("non existent fs");
+        try {
+            fsDb.addStudentRespondent("student1@email.com", nonExistentSession);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            AssertHelper.assertContains(FeedbackSessionsDb.ERROR_UPDATE_NON_EXISTENT, e.getLocalizedMessage());
+        }
+        
+        ______TS("respondents are deleted with the session");
+        
+        fsDb.addStudentRespondent("student1@email.com", session);
+        fsDb.deleteEntity(session);
+        fsDb.createEntity(session);
+        actual = getRespondentsOf(session);
+        assertTrue(actual.getRespondingStudentList().isEmpty());
+        assertTrue(actual.getRespondingInstructorList().isEmpty());
+        
+        fsDb.deleteEntity(session);
+    }
+    
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testMoveLegacyRespondentsToShards() throws Exception {
+        FeedbackSessionAttributes session = getNewFeedbackSession();
+        session.setFeedbackSessionName("fsTest legacy respondents");
+        session.setRespondingStudentList(new HashSet<String>(Arrays.asList("student1@email.com")));
+        session.setRespondingInstructorList(new HashSet<String>(Arrays.asList("instructor1@email.com")));
+        fsDb.deleteEntity(session);
+        fsDb.createEntity(session);
+        
+        ______TS("respondents are moved from the session entity to the shards");
+        
+        fsDb.moveLegacyRespondentsToShards(session);
+        
+        FeedbackSessionAttributes actual = getRespondentsOf(session);
+        assertEquals("[student1@email.com]", getSorted(actual.getRespondingStudentList()));
+        assertEquals("[instructor1@email.com]", getSorted(actual.getRespondingInstructorList()));
+        
+        // only the shards are left with respondents
+        for (FeedbackSessionAttributes sessionEntity : fsDb.getAllFeedbackSessions()) {
+            if (sessionEntity.getIdentificationString().equals(session.getIdentificationString())) {
+                assertTrue(sessionEntity.getRespondingStudentList().isEmpty());
+                assertTrue(sessionEntity.getRespondingInstructorList().isEmpty());
+            }
+        }
+        
+        fsDb.deleteEntity(session);
+    }
+    
+    @Test
+    public void testRespondents_concurrentSubmitters() throws Exception {
+        final FeedbackSessionAttributes session = getNewFeedbackSession();
+        session.setFeedbackSessionName("fsTest concurrent respondents");
+        fsDb.deleteEntity(session);
+        fsDb.createEntity(session);
+        
+        ______TS("500 students submitting at the same time are all recorded");
+        
+        int numberOfSubmitters = 500;
+        // the datastore stubs can only be reached from threads running in the test environment
+        final ApiProxy.Environment testEnvironment = ApiProxy.getCurrentEnvironment();
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        List<Future<Void>> submissions = new ArrayList<Future<Void>>();
+        for (int i = 0; i < numberOfSubmitters; i++) {
+            final String email = "student" + i + "@concurrent.tmt";
+            submissions.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ApiProxy.setEnvironmentForCurrentThread(testEnvironment);
+                    fsDb.addStudentRespondent(email, getRespondentsOf(session));
+                    return null;
+                }
+            }));
+        }
+        executor.shutdown();
+        for (Future<Void> submission : submissions) {
+            // rethrows any failure to record a respondent
+            submission.get();
+        }
+        
+        FeedbackSessionAttributes actual = getRespondentsOf(session);
+        assertEquals(numberOfSubmitters, actual.getRespondingStudentList().size());
+        for (int i = 0; i < numberOfSubmitters; i++) {
+            assertTrue(actual.getRespondingStudentList().contains("student" + i + "@concurrent.tmt"));
+        }
+        
+        fsDb.deleteEntity(session);
+    }
+    
+    private static FeedbackSessionAttributes getRespondentsOf(FeedbackSessionAttributes session) {
+        return fsDb.getFeedbackSession(session.getCourseId(), session.getFeedbackSessionName());
+    }
+    
+    private static String getSorted(Set<String> emails) {
+        List<String> sortedEmails = new ArrayList<String>(emails);
+        Collections.sort(sortedEmails);
+        return sortedEmails.toString();
+    }
+    
     private FeedbackSessionAttributes getNewFeedbackSession() {
         FeedbackSessionAttributes fsa = new FeedbackSessionAttributes();
         fsa.setFeedbackSessionType(FeedbackSessionType.STANDARD);
@@ -0,0 +1,103 @@
+package teammates.test.cases.storage;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.datatransfer.EntityAttributes;
+import teammates.common.util.ThreadHelper;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.api.EntitiesDb;
+import teammates.storage.api.NoPersistenceCheck;
+import teammates.storage.api.PersistenceCheck;
+import teammates.storage.api.PollingPersistenceCheck;
+import teammates.storage.api.ReadBackPersistenceCheck;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class PersistenceCheckTest extends BaseComponentTestCase {
+
+    private static final int CHECK_DURATION_IN_MILLIS = 20;
+
+    private CoursesDb coursesDb = new CoursesDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @Test
+    public void testIsCreatedAndIsDeleted() throws Exception {
+        CourseAttributes course = new CourseAttributes("PCT.tICAID.course", "Persistence Check Course", "UTC");
+        coursesDb.deleteEntity(course);
+        Object entity = coursesDb.createEntity(course);
+
+        ______TS("polling: created entity is found through queries");
+
+        PersistenceCheck pollingCheck = new PollingPersistenceCheck();
+        assertTrue(pollingCheck.isCreated(coursesDb, course, entity));
+
+        ______TS("read back: created entity is found by its key");
+
+        PersistenceCheck readBackCheck = new ReadBackPersistenceCheck();
+        assertTrue(readBackCheck.isCreated(coursesDb, course, entity));
+
+        ______TS("read back: entity that was never persisted is not found");
+
+        CourseAttributes transientCourse = new CourseAttributes("PCT.tICAID.transient", "Transient", "UTC");
+        assertFalse(readBackCheck.isCreated(coursesDb, transientCourse, transientCourse.toEntity()));
+
+        ______TS("no check: writes are assumed to have persisted");
+
+        PersistenceCheck noCheck = new NoPersistenceCheck();
+        assertTrue(noCheck.isCreated(coursesDb, transientCourse, transientCourse.toEntity()));
+        assertTrue(noCheck.isDeleted(coursesDb, course));
+
+        ______TS("polling: deleted entity is no longer found");
+
+        coursesDb.deleteEntity(course);
+        assertTrue(pollingCheck.isDeleted(coursesDb, course));
+    }
+
+    @Test
+    public void testLatencyMetrics() throws Exception {
+        CourseAttributes course = new CourseAttributes("PCT.tLM.course", "Persistence Check Course", "UTC");
+        coursesDb.deleteEntity(course);
+        Object entity = coursesDb.createEntity(course);
+
+        ______TS("every check is counted");
+
+        PersistenceCheck readBackCheck = new ReadBackPersistenceCheck();
+        assertEquals(0, readBackCheck.getNumberOfChecks());
+
+        readBackCheck.confirmCreated(coursesDb, course, entity);
+        readBackCheck.confirmDeleted(coursesDb, course);
+
+        assertEquals(2, readBackCheck.getNumberOfChecks());
+
+        ______TS("the time taken by every check is added up");
+
+        PersistenceCheck slowCheck = new PersistenceCheck() {
+            @Override
+            public boolean isCreated(EntitiesDb db, EntityAttributes attributes, Object entity) {
+                ThreadHelper.waitFor(CHECK_DURATION_IN_MILLIS);
+                return true;
+            }
+
+            @Override
+            public boolean isDeleted(EntitiesDb db, EntityAttributes attributes) {
+                ThreadHelper.waitFor(CHECK_DURATION_IN_MILLIS);
+                return true;
+            }
+        };
+        slowCheck.confirmCreated(coursesDb, course, entity);
+        slowCheck.confirmDeleted(coursesDb, course);
+        slowCheck.confirmDeleted(coursesDb, course);
+
+        assertEquals(3, slowCheck.getNumberOfChecks());
+        assertTrue(slowCheck.getTotalCheckDurationInMillis() >= 3 * CHECK_DURATION_IN_MILLIS);
+        assertEquals(3, slowCheck.getMetrics().numberOfChecks);
+
+        coursesDb.deleteEntity(course);
+    }
+
+}
@@ -0,0 +1,142 @@
+package teammates.test.cases.storage;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.AccountAttributes;
+import teammates.common.datatransfer.CourseAttributes;
+import teammates.common.util.Const;
+import teammates.storage.api.AccountsDb;
+import teammates.storage.api.CoursesDb;
+import teammates.storage.datastore.Datastore;
+import teammates.storage.datastore.RequestCache;
+import teammates.test.cases.BaseComponentTestCase;
+
+public class RequestCacheTest extends BaseComponentTestCase {
+
+    private AccountsDb accountsDb = new AccountsDb();
+    private CoursesDb coursesDb = new CoursesDb();
+
+    @BeforeClass
+    public static void setupClass() {
+        printTestClassHeader();
+    }
+
+    @AfterMethod
+    public void endRequestScope() {
+        Datastore.endRequestScope();
+    }
+
+    @Test
+    public void testLookupsOutsideRequest() throws Exception {
+        CourseAttributes course = new CourseAttributes("RCT.tLOR.course", "Request Cache Course", "UTC");
+        coursesDb.deleteEntity(course);
+        coursesDb.createEntity(course);
+
+        assertNull(Datastore.getRequestCache());
+        assertEquals(course.getName(), coursesDb.getCourse(course.getId()).getName());
+
+        coursesDb.deleteEntity(course);
+    }
+
+    @Test
+    public void testLookupsWithinRequest() throws Exception {
+        CourseAttributes course = new CourseAttributes("RCT.tLWR.course", "Request Cache Course", "UTC");
+        coursesDb.deleteEntity(course);
+        coursesDb.createEntity(course);
+
+        Datastore.startRequestScope();
+        RequestCache cache = Datastore.getRequestCache();
+
+        ______TS("repeated lookup is served from the cache");
+
+        CourseAttributes firstLookup = coursesDb.getCourse(course.getId());
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        CourseAttributes secondLookup = coursesDb.getCourse(course.getId());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // each lookup still returns its own attributes object
+        assertFalse(firstLookup == secondLookup);
+        assertEquals(firstLookup.toString(), secondLookup.toString());
+
+        ______TS("write clears the cache");
+
+        CourseAttributes updatedCourse = new CourseAttributes(course.getId(), "Updated Course Name", "UTC");
+        coursesDb.updateCourse(updatedCourse);
+
+        assertEquals("Updated Course Name", coursesDb.getCourse(course.getId()).getName());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        ______TS("non-existent entity is not cached");
+
+        assertNull(coursesDb.getCourse("RCT.tLWR.nonExistentCourse"));
+        assertNull(coursesDb.getCourse("RCT.tLWR.nonExistentCourse"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+
+        coursesDb.deleteEntity(course);
+        assertNull(coursesDb.getCourse(course.getId()));
+    }
+
+    @Test
+    public void testAccountLookupsWithinRequest() throws Exception {
+        AccountAttributes account = new AccountAttributes("RCT.tALWR.account", "Request Cache Account", false,
+                                                          "RCT.tALWR.account@gmail.tmt", "NUS");
+        accountsDb.deleteAccount(account.googleId);
+        accountsDb.createAccount(account);
+
+        Datastore.startRequestScope();
+        RequestCache cache = Datastore.getRequestCache();
+
+        ______TS("repeated account lookup is served from the cache");
+
+        assertEquals(account.name, accountsDb.getAccount(account.googleId).name);
+        assertEquals(account.name, accountsDb.getAccount(account.googleId).name);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        // the lookup with the profile is cached separately
+        assertNotNull(accountsDb.getAccount(account.googleId, true).studentProfile);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        ______TS("account update clears the cache");
+
+        account.name = "Updated Account Name";
+        accountsDb.updateAccount(account);
+        assertEquals("Updated Account Name", accountsDb.getAccount(account.googleId).name);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+
+        ______TS("account deletion clears the cache");
+
+        accountsDb.deleteAccount(account.googleId);
+        assertNull(accountsDb.getAccount(account.googleId));
+    }
+
+    @Test
+    public void testAccountLookupsOfActionInit() throws Exception {
+        AccountAttributes account = new AccountAttributes("RCT.tALOAI.instr", "Request Cache Instructor", true,
+                                                          "RCT.tALOAI.instr@gmail.tmt", "NUS");
+        accountsDb.deleteAccount(account.googleId);
+        accountsDb.createAccount(account);
+        gaeSimulation.loginAsInstructor(account.googleId);
+
+        Datastore.startRequestScope();
+        RequestCache cache = Datastore.getRequestCache();
+
+        // the account is looked up to tell whether the user is an instructor, and again as the logged in user
+        gaeSimulation.getActionObject(Const.ActionURIs.INSTRUCTOR_HOME_PAGE);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        gaeSimulation.logoutUser();
+        accountsDb.deleteAccount(account.googleId);
+    }
+
+}
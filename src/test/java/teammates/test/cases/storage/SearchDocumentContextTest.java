@@ -0,0 +1,106 @@
+package teammates.test.cases.storage;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.datatransfer.CommentAttributes;
+import teammates.common.datatransfer.DataBundle;
+import teammates.common.datatransfer.FeedbackResponseCommentAttributes;
+import teammates.common.datatransfer.StudentAttributes;
+import teammates.storage.api.CommentsDb;
+import teammates.storage.api.FeedbackResponseCommentsDb;
+import teammates.storage.api.StudentsDb;
+import teammates.storage.search.CommentSearchDocument;
+import teammates.storage.search.FeedbackResponseCommentSearchDocument;
+import teammates.storage.search.SearchDocumentContext;
+import teammates.storage.search.StudentSearchDocument;
+import teammates.test.cases.BaseComponentTestCase;
+
+import com.google.appengine.api.search.Document;
+import com.google.appengine.api.search.Field;
+
+public class SearchDocumentContextTest extends BaseComponentTestCase {
+
+    private static final CommentsDb commentsDb = new CommentsDb();
+    private static final FeedbackResponseCommentsDb frcDb = new FeedbackResponseCommentsDb();
+    private static final StudentsDb studentsDb = new StudentsDb();
+
+    private static DataBundle dataBundle = getTypicalDataBundle();
+
+    @BeforeClass
+    public void classSetUp() throws Exception {
+        printTestClassHeader();
+        removeAndRestoreTypicalDataInDatastore();
+    }
+
+    @Test
+    public void testBuildingDocumentsWithPrefetchedContext() {
+
+        ______TS("response comments: same documents as when each looks up its own data");
+
+        List<FeedbackResponseCommentAttributes> responseComments = new ArrayList<FeedbackResponseCommentAttributes>();
+        Set<String> courseIds = new HashSet<String>();
+        Set<String> feedbackResponseIds = new HashSet<String>();
+        for (FeedbackResponseCommentAttributes comment : dataBundle.feedbackResponseComments.values()) {
+            FeedbackResponseCommentAttributes commentInDb =
+                    frcDb.getFeedbackResponseComment(comment.courseId, comment.createdAt, comment.giverEmail);
+            responseComments.add(commentInDb);
+            courseIds.add(commentInDb.courseId);
+            feedbackResponseIds.add(commentInDb.feedbackResponseId);
+        }
+
+        SearchDocumentContext context = new SearchDocumentContext();
+        context.prefetchRosters(courseIds);
+        context.prefetchFeedbackResponses(feedbackResponseIds);
+        for (FeedbackResponseCommentAttributes comment : responseComments) {
+            if (context.getFeedbackResponse(comment.feedbackResponseId) == null) {
+                // the typical data has a comment on a response that does not exist, which cannot be indexed
+                continue;
+            }
+            verifySameDocument(new FeedbackResponseCommentSearchDocument(comment).build(),
+                               new FeedbackResponseCommentSearchDocument(comment, context).build());
+        }
+
+        ______TS("comments: same documents for person, team, section and course recipients");
+
+        List<CommentAttributes> comments = new ArrayList<CommentAttributes>();
+        courseIds.clear();
+        for (CommentAttributes comment : dataBundle.comments.values()) {
+            CommentAttributes commentInDb = commentsDb.getComment(comment);
+            comments.add(commentInDb);
+            courseIds.add(commentInDb.courseId);
+        }
+
+        context = new SearchDocumentContext();
+        context.prefetchRosters(courseIds);
+        for (CommentAttributes comment : comments) {
+            verifySameDocument(new CommentSearchDocument(comment).build(),
+                               new CommentSearchDocument(comment, context).build());
+        }
+
+        ______TS("students of different courses: same documents without prefetched rosters");
+
+        context = new SearchDocumentContext();
+        for (StudentAttributes student : dataBundle.students.values()) {
+            StudentAttributes studentInDb = studentsDb.getStudentForEmail(student.course, student.email);
+            verifySameDocument(new StudentSearchDocument(studentInDb).build(),
+                               new StudentSearchDocument(studentInDb, context).build());
+        }
+    }
+
+    private void verifySameDocument(Document expected, Document actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getFieldNames(), actual.getFieldNames());
+        for (String fieldName : expected.getFieldNames()) {
+            Field expectedField = expected.getOnlyField(fieldName);
+            Field actualField = actual.getOnlyField(fieldName);
+            assertEquals(expectedField.getText(), actualField.getText());
+            assertEquals(expectedField.getDate(), actualField.getDate());
+        }
+    }
+}
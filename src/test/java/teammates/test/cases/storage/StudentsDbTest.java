@@ -3,9 +3,13 @@ package teammates.test.cases.storage;
 import static teammates.common.util.FieldValidator.COURSE_ID_ERROR_MESSAGE;
 import static teammates.common.util.FieldValidator.REASON_INCORRECT_FORMAT;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import teammates.common.datatransfer.CourseAttributes;
 import teammates.common.datatransfer.StudentAttributes;
 import teammates.common.exception.EntityAlreadyExistsException;
 import teammates.common.exception.EntityDoesNotExistException;
@@ -247,6 +251,56 @@ public class StudentsDbTest extends BaseComponentTestCase {
         
     }
 
+    @Test
+    public void testEnrollStudents() throws Exception {
+        CourseAttributes course = new CourseAttributes("valid-enroll-course", "Enroll course", "UTC");
+        StudentAttributes existingStudent = new StudentAttributes("section 1", "team 1", "existing student",
+                                                                  "existing@email.com", "", course.getId());
+        studentsDb.createEntity(existingStudent);
+        String registrationKey = studentsDb.getStudentForEmail(course.getId(), existingStudent.email).key;
+        
+        ______TS("typical case: create and update in one batch");
+        
+        StudentAttributes newStudent = new StudentAttributes("section 1", "team 1", "new student",
+                                                             "new@email.com", "", course.getId());
+        StudentAttributes modifiedStudent = new StudentAttributes("section 2", "team 2", "existing student",
+                                                                  "existing@email.com", "new comments",
+                                                                  course.getId());
+        modifiedStudent.updateWithExistingRecord(existingStudent);
+        
+        studentsDb.enrollStudents(course, Arrays.asList(newStudent), Arrays.asList(modifiedStudent), false);
+        
+        assertEquals(2, studentsDb.getStudentsForCourse(course.getId()).size());
+        assertTrue(studentsDb.getStudentForEmail(course.getId(), newStudent.email).isEnrollInfoSameAs(newStudent));
+        StudentAttributes updatedStudent = studentsDb.getStudentForEmail(course.getId(), modifiedStudent.email);
+        assertTrue(updatedStudent.isEnrollInfoSameAs(modifiedStudent));
+        assertEquals(registrationKey, updatedStudent.key);
+        
+        ______TS("failure: student to create already exists");
+        
+        try {
+            studentsDb.enrollStudents(course, Arrays.asList(newStudent), new ArrayList<StudentAttributes>(), false);
+            signalFailureToDetectException();
+        } catch (EntityAlreadyExistsException e) {
+            AssertHelper.assertContains(newStudent.getIdentificationString(), e.getMessage());
+        }
+        
+        ______TS("failure: student to update does not exist");
+        
+        StudentAttributes nonExistentStudent = new StudentAttributes("section 1", "team 1", "non existent",
+                                                                     "non-existent@email.com", "", course.getId());
+        try {
+            studentsDb.enrollStudents(course, new ArrayList<StudentAttributes>(),
+                                      Arrays.asList(nonExistentStudent), false);
+            signalFailureToDetectException();
+        } catch (EntityDoesNotExistException e) {
+            assertEquals(StudentsDb.ERROR_UPDATE_NON_EXISTENT_STUDENT + course.getId() + "/"
+                         + nonExistentStudent.email, e.getMessage());
+        }
+        
+        studentsDb.deleteStudentsForCourseWithoutDocument(course.getId());
+    }
+
     @SuppressWarnings("deprecation")
     @Test
     public void testDeleteStudent() throws InvalidParametersException, EntityDoesNotExistException {
@@ -0,0 +1,48 @@
+package teammates.test.cases.ui;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import teammates.common.util.Const;
+import teammates.logic.core.MetricsLogic;
+import teammates.storage.api.PersistenceCheck;
+import teammates.ui.controller.AdminMetricsPageAction;
+import teammates.ui.controller.AdminMetricsPageData;
+import teammates.ui.controller.AjaxResult;
+
+public class AdminMetricsPageActionTest extends BaseActionTest {
+
+    @BeforeClass
+    public static void classSetUp() {
+        printTestClassHeader();
+        uri = Const.ActionURIs.ADMIN_METRICS_PAGE;
+    }
+    
+    @Test
+    public void testExecuteAndPostProcess() {
+        
+        ______TS("Normal case: current metrics and saved snapshots are shown");
+        
+        MetricsLogic.inst().recordRequest("AMPAT.SomeAction", 120, MetricsLogic.OUTCOME_SUCCESS, null);
+        MetricsLogic.inst().saveSnapshot(MetricsLogic.inst().scheduleSnapshot());
+        MetricsLogic.inst().recordRequest("AMPAT.SomeAction", 30, MetricsLogic.OUTCOME_SUCCESS, null);
+        
+        gaeSimulation.loginAsAdmin("admin.user");
+        AdminMetricsPageAction a = getAction();
+        AjaxResult result = (AjaxResult) a.executeAndPostProcess();
+        
+        assertFalse(result.isError);
+        AdminMetricsPageData data = (AdminMetricsPageData) result.data;
+        assertEquals("AMPAT.SomeAction", data.currentSnapshot.actionMetrics.get(0).actionName);
+        assertEquals(30, data.currentSnapshot.actionMetrics.get(0).latencyMax);
+        assertEquals(data.currentSnapshot.instanceId, data.savedSnapshots.get(0).instanceId);
+        assertEquals(120, data.savedSnapshots.get(0).actionMetrics.get(0).latencyMax);
+        assertEquals(PersistenceCheck.inst().getClass().getSimpleName(), data.persistenceCheckMetrics.checkName);
+        assertEquals(PersistenceCheck.inst().getNumberOfChecks(), data.persistenceCheckMetrics.numberOfChecks);
+    }
+    
+    private AdminMetricsPageAction getAction(String... parameters) {
+        return (AdminMetricsPageAction) gaeSimulation.getActionObject(uri, parameters);
+    }
+
+}
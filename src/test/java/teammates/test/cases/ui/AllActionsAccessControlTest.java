@@ -135,6 +135,12 @@ public class AllActionsAccessControlTest extends BaseActionTest {
         verifyOnlyAdminsCanAccess(submissionParams);
     }
     
+    @Test
+    public void testAdminMetricsPage() {
+        uri = Const.ActionURIs.ADMIN_METRICS_PAGE;
+        verifyOnlyAdminsCanAccess(submissionParams);
+    }
+    
     @Test
     public void testAdminSearchPage() {
         uri = Const.ActionURIs.ADMIN_SEARCH_PAGE;
@@ -110,6 +110,21 @@ public class InstructorFeedbackResultsPageActionTest extends BaseActionTest {
                 Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYSECTION, "Section+1"
         };
         
+        String[] paramsWithSortTypeRgqAndStats = {
+                Const.ParamsNames.COURSE_ID, session.getCourseId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName(),
+                Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE, "recipient-giver-question",
+                Const.ParamsNames.FEEDBACK_RESULTS_SHOWSTATS, "on",
+                Const.ParamsNames.FEEDBACK_RESULTS_INDICATE_MISSING_RESPONSES, "true"
+        };
+        String[] paramsWithInvalidCursor = {
+                Const.ParamsNames.COURSE_ID, session.getCourseId(),
+                Const.ParamsNames.FEEDBACK_SESSION_NAME, session.getFeedbackSessionName(),
+                Const.ParamsNames.FEEDBACK_RESULTS_SORTTYPE, "recipient-giver-question",
+                Const.ParamsNames.FEEDBACK_RESULTS_GROUPBYSECTION, "Section 1",
+                Const.ParamsNames.FEEDBACK_RESULTS_CURSOR, "tamperedCursor"
+        };
+        
         ______TS("Failure case: no params");
 
         this.verifyAssumptionFailure();
@@ -128,6 +143,31 @@ public class InstructorFeedbackResultsPageActionTest extends BaseActionTest {
         assertEquals("", result.getStatusMessage());
         assertFalse(result.isError);
 
+        InstructorFeedbackResultsPageData pageData =
+                (InstructorFeedbackResultsPageData) ((ShowPageResult) result).data;
+        assertTrue(pageData.isStatsShown());
+        assertTrue(pageData.isMissingResponsesShown());
+
+        ______TS("Typical case: participant view of all sections keeps statistics and missing responses");
+
+        action = getAction(paramsWithSortTypeRgqAndStats);
+        result = action.executeAndPostProcess();
+
+        pageData = (InstructorFeedbackResultsPageData) ((ShowPageResult) result).data;
+        assertTrue(pageData.isStatsShown());
+        assertTrue(pageData.isMissingResponsesShown());
+
+        ______TS("Failure case: invalid cursor");
+
+        action = getAction(paramsWithInvalidCursor);
+        result = action.executeAndPostProcess();
+
+        assertTrue(result.isError);
+        assertEquals(Const.StatusMessages.FEEDBACK_RESULTS_INVALID_CURSOR, result.getStatusMessage());
+        assertEquals(Const.ActionURIs.INSTRUCTOR_FEEDBACK_RESULTS_PAGE + "?courseid=" + session.getCourseId()
+                     + "&fsname=Second+feedback+session&user=idOfInstructor1OfCourse1&error=true",
+                     result.getDestinationWithParams());
+
         ______TS("Typical case: sortType question");
 
         action = getAction(paramsWithSortTypeQuestion);
@@ -277,7 +317,7 @@ public class InstructorFeedbackResultsPageActionTest extends BaseActionTest {
         action = getAction(paramsWithSortTypeQuestion);
         result = action.executeAndPostProcess();
         ShowPageResult pageResult = (ShowPageResult) result;
-        InstructorFeedbackResultsPageData pageData = (InstructorFeedbackResultsPageData) pageResult.data;
+        pageData = (InstructorFeedbackResultsPageData) pageResult.data;
         assertTrue(pageData.getBundle().responses.isEmpty());
         
     }
@@ -0,0 +1,58 @@
+package teammates.test.driver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import teammates.common.util.EmailWrapper;
+import teammates.logic.core.EmailSenderService;
+
+/**
+ * An email sender service that does not send anything. It keeps the emails it is given and counts
+ * the calls made to send them, so that tests can check how emails are batched.
+ */
+public class EmailSenderServiceStub extends EmailSenderService {
+    
+    private int numberOfCalls;
+    private final List<EmailWrapper> sentEmails = new ArrayList<EmailWrapper>();
+    private final Set<String> recipientsToFail = new HashSet<String>();
+    
+    /**
+     * Makes the emails to {@code recipient} fail to send.
+     */
+    public void failEmailsTo(String recipient) {
+        recipientsToFail.add(recipient);
+    }
+    
+    /**
+     * @return the number of calls made to send emails, counting a batch of emails as one call
+     */
+    public int getNumberOfCalls() {
+        return numberOfCalls;
+    }
+    
+    public List<EmailWrapper> getSentEmails() {
+        return sentEmails;
+    }
+    
+    @Override
+    public EmailWrapper parseToEmail(EmailWrapper wrapper) {
+        return wrapper;
+    }
+    
+    @Override
+    public List<EmailWrapper> sendEmails(List<EmailWrapper> wrappers) {
+        numberOfCalls++;
+        return super.sendEmails(wrappers);
+    }
+    
+    @Override
+    protected void sendEmailWithService(EmailWrapper wrapper) {
+        if (recipientsToFail.contains(wrapper.getRecipient())) {
+            throw new IllegalStateException("Failed to send email to " + wrapper.getRecipient());
+        }
+        sentEmails.add(wrapper);
+    }
+    
+}